@@ -6,17 +6,32 @@
 package dev.metaschema.oscal.lib;
 
 import java.io.File;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Set;
 
 import dev.metaschema.core.metapath.StaticContext;
+import dev.metaschema.core.model.IBoundObject;
 import dev.metaschema.core.model.MetaschemaException;
 import dev.metaschema.core.util.ObjectUtils;
 import dev.metaschema.databind.DefaultBindingContext;
 import dev.metaschema.databind.IBindingContext;
 import dev.metaschema.databind.SimpleModuleLoaderStrategy;
+import dev.metaschema.databind.io.Format;
+import dev.metaschema.databind.io.ISerializer;
+import dev.metaschema.oscal.lib.io.Compression;
+import dev.metaschema.oscal.lib.io.MappedInputStream;
+import dev.metaschema.oscal.lib.io.OscalBinaryFormat;
+import dev.metaschema.oscal.lib.io.OscalStreamReader;
+import dev.metaschema.oscal.lib.io.OscalStreamWriter;
+import dev.metaschema.oscal.lib.io.StreamedItemType;
 import dev.metaschema.oscal.lib.model.AssessmentPlan;
 import dev.metaschema.oscal.lib.model.AssessmentResults;
 import dev.metaschema.oscal.lib.model.Catalog;
@@ -37,6 +52,8 @@ public class OscalBindingContext
       .build();
   private static final Lazy<OscalBindingContext> SINGLETON = Lazy.of(OscalBindingContext::new);
 
+  private volatile boolean memoryMappedInput;
+
   @NonNull
   public static OscalBindingContext instance() {
     return ObjectUtils.notNull(SINGLETON.get());
@@ -103,109 +120,326 @@ public class OscalBindingContext
     }
   }
 
+  /**
+   * Determine if the {@code load*(Path)} methods read files through a memory
+   * mapping.
+   *
+   * @return {@code true} if files are memory mapped, or {@code false} otherwise
+   */
+  public boolean isMemoryMappedInput() {
+    return memoryMappedInput;
+  }
+
+  /**
+   * Configure if the {@code load*(Path)} methods read files through a memory
+   * mapping, which avoids copying the file into heap buffers when loading large
+   * documents.
+   * <p>
+   * This is disabled by default.
+   *
+   * @param memoryMappedInput
+   *          {@code true} if files are to be memory mapped, or {@code false}
+   *          otherwise
+   */
+  public void setMemoryMappedInput(boolean memoryMappedInput) {
+    this.memoryMappedInput = memoryMappedInput;
+  }
+
+  @NonNull
+  private <CLASS extends IBoundObject> CLASS load(@NonNull Class<CLASS> clazz, @NonNull Path path)
+      throws IOException {
+    InputStream is = memoryMappedInput ? MappedInputStream.open(path) : Files.newInputStream(path);
+    return load(clazz, ObjectUtils.notNull(is), ObjectUtils.notNull(path.toUri()));
+  }
+
+  @NonNull
+  private <CLASS extends IBoundObject> CLASS load(@NonNull Class<CLASS> clazz, @NonNull URL url)
+      throws IOException, URISyntaxException {
+    URI documentUri = ObjectUtils.notNull(url.toURI());
+    return load(clazz, ObjectUtils.notNull(url.openStream()), documentUri);
+  }
+
+  @NonNull
+  private <CLASS extends IBoundObject> CLASS load(
+      @NonNull Class<CLASS> clazz,
+      @NonNull InputStream is,
+      @NonNull URI documentUri) throws IOException {
+    // gzip or deflate compressed content is decompressed transparently
+    try (InputStream decompressed = Compression.decompressing(is)) {
+      return newBoundLoader().load(clazz, decompressed, documentUri);
+    }
+  }
+
+  /**
+   * Serialize the provided document to the file at the provided path,
+   * compressing the content if the file name ends with the extension of a
+   * supported {@link Compression}.
+   *
+   * @param <CLASS>
+   *          the Java type of the document
+   * @param data
+   *          the document to serialize
+   * @param format
+   *          the format to write
+   * @param path
+   *          the file to write
+   * @throws IOException
+   *           if an error occurred while writing
+   */
+  public <CLASS extends IBoundObject> void serialize(
+      @NonNull CLASS data,
+      @NonNull Format format,
+      @NonNull Path path) throws IOException {
+    try (OutputStream os = Files.newOutputStream(path)) {
+      serialize(data, format, Compression.forPath(path), ObjectUtils.notNull(os));
+    }
+  }
+
+  /**
+   * Serialize the provided document to the provided stream, compressing the
+   * content using the provided codec.
+   *
+   * @param <CLASS>
+   *          the Java type of the document
+   * @param data
+   *          the document to serialize
+   * @param format
+   *          the format to write
+   * @param compression
+   *          the codec used to compress the content
+   * @param os
+   *          the stream to write to, which is not closed
+   * @throws IOException
+   *           if an error occurred while writing
+   */
+  public <CLASS extends IBoundObject> void serialize(
+      @NonNull CLASS data,
+      @NonNull Format format,
+      @NonNull Compression compression,
+      @NonNull OutputStream os) throws IOException {
+    @SuppressWarnings("unchecked")
+    Class<CLASS> clazz = (Class<CLASS>) data.getClass();
+    ISerializer<CLASS> serializer = newSerializer(format, clazz);
+
+    OutputStream compressed = compression.compress(new NonClosingOutputStream(os));
+    try {
+      serializer.serialize(data, compressed);
+    } finally {
+      // completes the compressed content without closing the caller's stream
+      compressed.close();
+    }
+  }
+
+  /**
+   * Serialize the provided document to the file at the provided path using the
+   * {@link OscalBinaryFormat}, compressing the content if the file name ends
+   * with the extension of a supported {@link Compression}.
+   * <p>
+   * This encoding is intended for caching documents that are loaded repeatedly,
+   * and is only read by {@link #loadBinary(Class, Path)}.
+   *
+   * @param data
+   *          the document to serialize
+   * @param path
+   *          the file to write
+   * @throws IOException
+   *           if an error occurred while writing
+   */
+  public void serializeBinary(@NonNull IBoundObject data, @NonNull Path path) throws IOException {
+    try (OutputStream os = Files.newOutputStream(path);
+        OutputStream compressed = Compression.forPath(path).compress(ObjectUtils.notNull(os))) {
+      OscalBinaryFormat.write(this, data, ObjectUtils.notNull(compressed));
+    }
+  }
+
+  /**
+   * Load a document from the file at the provided path that was written using
+   * {@link #serializeBinary(IBoundObject, Path)}, decompressing the content if
+   * it is compressed.
+   * <p>
+   * The other {@code load*} methods do not read this encoding.
+   *
+   * @param <CLASS>
+   *          the Java type of the document
+   * @param clazz
+   *          the expected class of the document
+   * @param path
+   *          the file to read
+   * @return the document
+   * @throws IOException
+   *           if an error occurred while reading, or the file does not contain
+   *           a document of the expected class using a supported version of the
+   *           {@link OscalBinaryFormat}
+   */
+  @NonNull
+  public <CLASS extends IBoundObject> CLASS loadBinary(@NonNull Class<CLASS> clazz, @NonNull Path path)
+      throws IOException {
+    try (InputStream is = Files.newInputStream(path);
+        InputStream decompressed = Compression.decompressing(ObjectUtils.notNull(is))) {
+      return OscalBinaryFormat.read(this, clazz, ObjectUtils.notNull(decompressed));
+    }
+  }
+
   @NonNull
   public Catalog loadCatalog(@NonNull URL url) throws IOException, URISyntaxException {
-    return newBoundLoader().load(Catalog.class, url);
+    return load(Catalog.class, url);
   }
 
   @NonNull
   public Catalog loadCatalog(@NonNull Path path) throws IOException {
-    return newBoundLoader().load(Catalog.class, path);
+    return load(Catalog.class, path);
   }
 
   @NonNull
   public Catalog loadCatalog(@NonNull File file) throws IOException {
-    return newBoundLoader().load(Catalog.class, file);
+    return load(Catalog.class, ObjectUtils.notNull(file.toPath()));
   }
 
   @NonNull
   public Profile loadProfile(@NonNull URL url) throws IOException, URISyntaxException {
-    return newBoundLoader().load(Profile.class, url);
+    return load(Profile.class, url);
   }
 
   @NonNull
   public Profile loadProfile(@NonNull Path path) throws IOException {
-    return newBoundLoader().load(Profile.class, path);
+    return load(Profile.class, path);
   }
 
   @NonNull
   public Profile loadProfile(@NonNull File file) throws IOException {
-    return newBoundLoader().load(Profile.class, file);
+    return load(Profile.class, ObjectUtils.notNull(file.toPath()));
   }
 
   @NonNull
   public SystemSecurityPlan loadSystemSecurityPlan(@NonNull URL url) throws IOException, URISyntaxException {
-    return newBoundLoader().load(SystemSecurityPlan.class, url);
+    return load(SystemSecurityPlan.class, url);
   }
 
   @NonNull
   public SystemSecurityPlan loadSystemSecurityPlan(@NonNull Path path) throws IOException {
-    return newBoundLoader().load(SystemSecurityPlan.class, path);
+    return load(SystemSecurityPlan.class, path);
   }
 
   @NonNull
   public SystemSecurityPlan loadSystemSecurityPlan(@NonNull File file) throws IOException {
-    return newBoundLoader().load(SystemSecurityPlan.class, file);
+    return load(SystemSecurityPlan.class, ObjectUtils.notNull(file.toPath()));
   }
 
   @NonNull
   public ComponentDefinition loadComponentDefinition(@NonNull URL url) throws IOException, URISyntaxException {
-    return newBoundLoader().load(ComponentDefinition.class, url);
+    return load(ComponentDefinition.class, url);
   }
 
   @NonNull
   public ComponentDefinition loadComponentDefinition(@NonNull Path path) throws IOException {
-    return newBoundLoader().load(ComponentDefinition.class, path);
+    return load(ComponentDefinition.class, path);
   }
 
   @NonNull
   public ComponentDefinition loadComponentDefinition(@NonNull File file) throws IOException {
-    return newBoundLoader().load(ComponentDefinition.class, file);
+    return load(ComponentDefinition.class, ObjectUtils.notNull(file.toPath()));
   }
 
   @NonNull
   public AssessmentPlan loadAssessmentPlan(@NonNull URL url) throws IOException, URISyntaxException {
-    return newBoundLoader().load(AssessmentPlan.class, url);
+    return load(AssessmentPlan.class, url);
   }
 
   @NonNull
   public AssessmentPlan loadAssessmentPlan(@NonNull Path path) throws IOException {
-    return newBoundLoader().load(AssessmentPlan.class, path);
+    return load(AssessmentPlan.class, path);
   }
 
   @NonNull
   public AssessmentPlan loadAssessmentPlan(@NonNull File file) throws IOException {
-    return newBoundLoader().load(AssessmentPlan.class, file);
+    return load(AssessmentPlan.class, ObjectUtils.notNull(file.toPath()));
   }
 
   @NonNull
   public AssessmentResults loadAssessmentResults(@NonNull URL url) throws IOException, URISyntaxException {
-    return newBoundLoader().load(AssessmentResults.class, url);
+    return load(AssessmentResults.class, url);
   }
 
   @NonNull
   public AssessmentResults loadAssessmentResults(@NonNull Path path) throws IOException {
-    return newBoundLoader().load(AssessmentResults.class, path);
+    return load(AssessmentResults.class, path);
   }
 
   @NonNull
   public AssessmentResults loadAssessmentResults(@NonNull File file) throws IOException {
-    return newBoundLoader().load(AssessmentResults.class, file);
+    return load(AssessmentResults.class, ObjectUtils.notNull(file.toPath()));
   }
 
   @NonNull
   public PlanOfActionAndMilestones loadPlanOfActionAndMilestones(@NonNull URL url)
       throws IOException, URISyntaxException {
-    return newBoundLoader().load(PlanOfActionAndMilestones.class, url);
+    return load(PlanOfActionAndMilestones.class, url);
   }
 
   @NonNull
   public PlanOfActionAndMilestones loadPlanOfActionAndMilestones(@NonNull Path path) throws IOException {
-    return newBoundLoader().load(PlanOfActionAndMilestones.class, path);
+    return load(PlanOfActionAndMilestones.class, path);
   }
 
   @NonNull
   public PlanOfActionAndMilestones loadPlanOfActionAndMilestones(@NonNull File file) throws IOException {
-    return newBoundLoader().load(PlanOfActionAndMilestones.class, file);
+    return load(PlanOfActionAndMilestones.class, ObjectUtils.notNull(file.toPath()));
+  }
+
+  /**
+   * Open a reader that binds the metadata of the provided document, and then
+   * binds items of the requested types one at a time, without loading the
+   * whole document.
+   *
+   * @param path
+   *          the document to read
+   * @param itemTypes
+   *          the types of items to read
+   * @return the reader, which must be closed
+   * @throws IOException
+   *           if an error occurred while opening the document or reading its
+   *           metadata
+   */
+  @NonNull
+  public OscalStreamReader newStreamReader(@NonNull Path path, @NonNull Set<StreamedItemType> itemTypes)
+      throws IOException {
+    return OscalStreamReader.open(this, path, itemTypes);
+  }
+
+  /**
+   * Get a builder for a writer that writes the provided shell document
+   * incrementally, serializing streamed items one at a time in place of the
+   * registered slots.
+   *
+   * @param format
+   *          the format to write
+   * @param shell
+   *          the root object describing all content other than the streamed
+   *          items
+   * @return the builder
+   */
+  @NonNull
+  public OscalStreamWriter.Builder newStreamWriter(@NonNull Format format, @NonNull IBoundObject shell) {
+    return OscalStreamWriter.builder(this, format, shell);
+  }
+
+  /**
+   * Passes writes through to a stream, without closing it when closed.
+   */
+  private static final class NonClosingOutputStream
+      extends FilterOutputStream {
+    private NonClosingOutputStream(@NonNull OutputStream os) {
+      super(os);
+    }
+
+    @Override
+    public void write(byte[] bytes, int off, int len) throws IOException {
+      out.write(bytes, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+      flush();
+    }
   }
 }
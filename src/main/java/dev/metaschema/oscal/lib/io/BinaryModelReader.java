@@ -0,0 +1,277 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.io;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import dev.metaschema.core.datatype.IDataTypeAdapter;
+import dev.metaschema.core.datatype.markup.MarkupLine;
+import dev.metaschema.core.datatype.markup.MarkupMultiline;
+import dev.metaschema.core.model.IBoundObject;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.model.IBoundDefinitionModelComplex;
+import dev.metaschema.oscal.lib.model.util.BoundProperty;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Reads bound objects using the {@link OscalBinaryFormat} encoding.
+ * <p>
+ * The definition of each object read is determined by the property containing
+ * it, starting from the expected root definition, and scalar values are only
+ * created using a fixed set of value types or the data type adapter of the
+ * property being read.
+ */
+final class BinaryModelReader {
+  @NonNull
+  private final DataInputStream in;
+  /**
+   * The names read so far, in the order they were written.
+   */
+  @NonNull
+  private final List<String> names = new ArrayList<>();
+  /**
+   * The properties of each definition read so far, keyed by name.
+   */
+  @NonNull
+  private final Map<IBoundDefinitionModelComplex, Map<String, BoundProperty>> properties
+      = new IdentityHashMap<>();
+
+  BinaryModelReader(@NonNull InputStream is) {
+    this.in = new DataInputStream(is instanceof BufferedInputStream ? is : new BufferedInputStream(is));
+  }
+
+  @NonNull
+  IBoundObject read(@NonNull IBoundDefinitionModelComplex definition) throws IOException {
+    byte[] header = in.readNBytes(OscalBinaryFormat.MAGIC.length);
+    if (!Arrays.equals(OscalBinaryFormat.MAGIC, header)) {
+      throw new IOException("The content does not use the OSCAL binary encoding.");
+    }
+    int version = readVarInt();
+    if (version != OscalBinaryFormat.VERSION) {
+      throw new IOException(String.format(
+          "The content uses version '%d' of the OSCAL binary encoding, but only version '%d' is supported.",
+          version,
+          OscalBinaryFormat.VERSION));
+    }
+    String rootName = readString();
+    if (!rootName.equals(definition.getName())) {
+      throw new IOException(String.format("The content is a '%s', not a '%s'.", rootName, definition.getName()));
+    }
+    return readObject(definition);
+  }
+
+  @NonNull
+  private IBoundObject readObject(@NonNull IBoundDefinitionModelComplex definition) throws IOException {
+    IBoundObject retval = newInstance(definition);
+    Map<String, BoundProperty> definitionProperties = getProperties(definition);
+    int count = readVarInt();
+    for (int i = 0; i < count; i++) {
+      String name = readName();
+      BoundProperty property = definitionProperties.get(name);
+      if (property == null) {
+        throw new IOException(String.format("The definition '%s' has no property '%s'.", definition.getName(), name));
+      }
+      Object value = readPropertyValue(property);
+      try {
+        property.setValue(retval, value);
+      } catch (IllegalArgumentException ex) {
+        throw new IOException(
+            String.format("Unable to set the property '%s' of '%s'.", name, definition.getName()), ex);
+      }
+    }
+    return retval;
+  }
+
+  @NonNull
+  private Map<String, BoundProperty> getProperties(@NonNull IBoundDefinitionModelComplex definition) {
+    return ObjectUtils.notNull(properties.computeIfAbsent(definition, key -> {
+      Map<String, BoundProperty> retval = new LinkedHashMap<>();
+      for (BoundProperty property : BoundProperty.getProperties(key)) {
+        retval.put(property.getName(), property);
+      }
+      return retval;
+    }));
+  }
+
+  @NonNull
+  private static IBoundObject newInstance(@NonNull IBoundDefinitionModelComplex definition) throws IOException {
+    Class<? extends IBoundObject> clazz = definition.getBoundClass();
+    try {
+      Constructor<? extends IBoundObject> constructor = clazz.getDeclaredConstructor();
+      constructor.setAccessible(true);
+      return ObjectUtils.notNull(constructor.newInstance());
+    } catch (ReflectiveOperationException ex) {
+      throw new IOException(String.format("Unable to instantiate '%s'.", clazz.getName()), ex);
+    }
+  }
+
+  private Object readPropertyValue(@NonNull BoundProperty property) throws IOException {
+    int tag = in.readUnsignedByte();
+    Object retval;
+    if (tag == OscalBinaryFormat.TAG_LIST) {
+      int size = readVarInt();
+      List<Object> list = new ArrayList<>(Math.min(size, 1024));
+      for (int i = 0; i < size; i++) {
+        list.add(readItem(property, in.readUnsignedByte()));
+      }
+      retval = list;
+    } else if (tag == OscalBinaryFormat.TAG_MAP) {
+      int size = readVarInt();
+      Map<String, Object> map = new LinkedHashMap<>();
+      for (int i = 0; i < size; i++) {
+        String key = readString();
+        map.put(key, readItem(property, in.readUnsignedByte()));
+      }
+      retval = map;
+    } else {
+      retval = readItem(property, tag);
+    }
+    return retval;
+  }
+
+  private Object readItem(@NonNull BoundProperty property, int tag) throws IOException {
+    IBoundDefinitionModelComplex definition = property.getDefinition();
+    Object retval;
+    if (tag == OscalBinaryFormat.TAG_NULL) {
+      retval = null;
+    } else if (definition != null) {
+      if (tag != OscalBinaryFormat.TAG_OBJECT) {
+        throw new IOException(String.format("Expected an object for the property '%s', but found tag '%d'.",
+            property.getName(),
+            tag));
+      }
+      retval = readObject(definition);
+    } else {
+      IDataTypeAdapter<?> adapter = ObjectUtils.requireNonNull(property.getAdapter());
+      retval = readScalar(adapter, tag);
+      if (!adapter.getJavaClass().isInstance(retval)) {
+        throw new IOException(String.format("The property '%s' does not accept a '%s'.",
+            property.getName(),
+            retval.getClass().getName()));
+      }
+    }
+    return retval;
+  }
+
+  @NonNull
+  private Object readScalar(@NonNull IDataTypeAdapter<?> adapter, int tag) throws IOException {
+    Object retval;
+    switch (tag) {
+    case OscalBinaryFormat.TAG_STRING:
+      retval = readString();
+      break;
+    case OscalBinaryFormat.TAG_TRUE:
+      retval = Boolean.TRUE;
+      break;
+    case OscalBinaryFormat.TAG_FALSE:
+      retval = Boolean.FALSE;
+      break;
+    case OscalBinaryFormat.TAG_INTEGER:
+      retval = new BigInteger(readBytes());
+      break;
+    case OscalBinaryFormat.TAG_URI:
+      retval = parseUri(readString());
+      break;
+    case OscalBinaryFormat.TAG_UUID:
+      retval = new UUID(in.readLong(), in.readLong());
+      break;
+    case OscalBinaryFormat.TAG_MARKUP_LINE:
+      retval = MarkupLine.fromMarkdown(readString());
+      break;
+    case OscalBinaryFormat.TAG_MARKUP_MULTILINE:
+      retval = MarkupMultiline.fromMarkdown(readString());
+      break;
+    case OscalBinaryFormat.TAG_BYTES:
+      retval = ByteBuffer.wrap(readBytes());
+      break;
+    case OscalBinaryFormat.TAG_TEXT:
+      retval = parseText(adapter, readString());
+      break;
+    default:
+      throw new IOException(String.format("Unrecognized value tag '%d'.", tag));
+    }
+    return ObjectUtils.notNull(retval);
+  }
+
+  @NonNull
+  private static URI parseUri(@NonNull String text) throws IOException {
+    try {
+      return ObjectUtils.notNull(URI.create(text));
+    } catch (IllegalArgumentException ex) {
+      throw new IOException(String.format("Invalid URI '%s'.", text), ex);
+    }
+  }
+
+  @NonNull
+  private static Object parseText(@NonNull IDataTypeAdapter<?> adapter, @NonNull String text) throws IOException {
+    try {
+      return ObjectUtils.requireNonNull(adapter.parse(text));
+    } catch (IllegalArgumentException ex) {
+      throw new IOException(String.format("Unable to parse '%s' as a '%s'.", text, adapter.getPreferredName()), ex);
+    }
+  }
+
+  @NonNull
+  private String readName() throws IOException {
+    int index = readVarInt();
+    String retval;
+    if (index == 0) {
+      retval = readString();
+      names.add(retval);
+    } else if (index <= names.size()) {
+      retval = names.get(index - 1);
+    } else {
+      throw new IOException(String.format("Invalid name reference '%d'.", index));
+    }
+    return ObjectUtils.notNull(retval);
+  }
+
+  @NonNull
+  private String readString() throws IOException {
+    return new String(readBytes(), StandardCharsets.UTF_8);
+  }
+
+  @NonNull
+  private byte[] readBytes() throws IOException {
+    int length = readVarInt();
+    byte[] retval = in.readNBytes(length);
+    if (retval.length != length) {
+      throw new EOFException();
+    }
+    return retval;
+  }
+
+  private int readVarInt() throws IOException {
+    int retval = 0;
+    for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+      int next = in.readUnsignedByte();
+      retval |= (next & 0x7F) << shift;
+      if ((next & 0x80) == 0) {
+        if (retval < 0) {
+          throw new IOException("Invalid negative length.");
+        }
+        return retval;
+      }
+    }
+    throw new IOException("Malformed variable-length integer.");
+  }
+}
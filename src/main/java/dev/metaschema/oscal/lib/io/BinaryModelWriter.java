@@ -0,0 +1,186 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import dev.metaschema.core.datatype.IDataTypeAdapter;
+import dev.metaschema.core.datatype.markup.MarkupLine;
+import dev.metaschema.core.datatype.markup.MarkupMultiline;
+import dev.metaschema.core.model.IBoundObject;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.model.IBoundDefinitionModelComplex;
+import dev.metaschema.oscal.lib.model.util.BoundProperty;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Writes bound objects using the {@link OscalBinaryFormat} encoding.
+ */
+final class BinaryModelWriter {
+  @NonNull
+  private final DataOutputStream out;
+  /**
+   * The index of each name already written.
+   */
+  @NonNull
+  private final Map<String, Integer> names = new HashMap<>();
+
+  BinaryModelWriter(@NonNull OutputStream os) {
+    this.out = new DataOutputStream(new BufferedOutputStream(os));
+  }
+
+  void write(@NonNull IBoundDefinitionModelComplex definition, @NonNull IBoundObject data) throws IOException {
+    out.write(OscalBinaryFormat.MAGIC);
+    writeVarInt(OscalBinaryFormat.VERSION);
+    writeString(ObjectUtils.notNull(definition.getName()));
+    writeObject(definition, data);
+    out.flush();
+  }
+
+  private void writeObject(@NonNull IBoundDefinitionModelComplex definition, @NonNull IBoundObject object)
+      throws IOException {
+    if (!BoundProperty.isSupported(definition)) {
+      throw new IOException(String.format("Unable to encode '%s', which has a choice group.", definition.getName()));
+    }
+
+    List<BoundProperty> properties = BoundProperty.getProperties(definition);
+    List<BoundProperty> present = new ArrayList<>(properties.size());
+    List<Object> values = new ArrayList<>(properties.size());
+    for (BoundProperty property : properties) {
+      Object value = property.getValue(object);
+      if (value != null) {
+        present.add(property);
+        values.add(value);
+      }
+    }
+
+    writeVarInt(present.size());
+    for (int i = 0; i < present.size(); i++) {
+      BoundProperty property = ObjectUtils.notNull(present.get(i));
+      writeName(property.getName());
+      writePropertyValue(property, ObjectUtils.notNull(values.get(i)));
+    }
+  }
+
+  private void writePropertyValue(@NonNull BoundProperty property, @NonNull Object value) throws IOException {
+    if (value instanceof List) {
+      List<?> list = (List<?>) value;
+      out.writeByte(OscalBinaryFormat.TAG_LIST);
+      writeVarInt(list.size());
+      for (Object item : list) {
+        writeItem(property, item);
+      }
+    } else if (value instanceof Map) {
+      Map<?, ?> map = (Map<?, ?>) value;
+      out.writeByte(OscalBinaryFormat.TAG_MAP);
+      writeVarInt(map.size());
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        writeString(ObjectUtils.notNull(String.valueOf(entry.getKey())));
+        writeItem(property, entry.getValue());
+      }
+    } else {
+      writeItem(property, value);
+    }
+  }
+
+  private void writeItem(@NonNull BoundProperty property, Object item) throws IOException {
+    IBoundDefinitionModelComplex definition = property.getDefinition();
+    if (item == null) {
+      out.writeByte(OscalBinaryFormat.TAG_NULL);
+    } else if (definition != null) {
+      if (!(item instanceof IBoundObject)) {
+        throw new IOException(String.format("The property '%s' contains a '%s', not a bound object.",
+            property.getName(),
+            item.getClass().getName()));
+      }
+      out.writeByte(OscalBinaryFormat.TAG_OBJECT);
+      writeObject(definition, (IBoundObject) item);
+    } else {
+      writeScalar(ObjectUtils.requireNonNull(property.getAdapter()), item);
+    }
+  }
+
+  private void writeScalar(@NonNull IDataTypeAdapter<?> adapter, @NonNull Object value) throws IOException {
+    if (value instanceof String) {
+      out.writeByte(OscalBinaryFormat.TAG_STRING);
+      writeString((String) value);
+    } else if (value instanceof Boolean) {
+      out.writeByte((Boolean) value ? OscalBinaryFormat.TAG_TRUE : OscalBinaryFormat.TAG_FALSE);
+    } else if (value instanceof BigInteger) {
+      out.writeByte(OscalBinaryFormat.TAG_INTEGER);
+      writeBytes(ObjectUtils.notNull(((BigInteger) value).toByteArray()));
+    } else if (value instanceof URI) {
+      out.writeByte(OscalBinaryFormat.TAG_URI);
+      writeString(ObjectUtils.notNull(value.toString()));
+    } else if (value instanceof UUID) {
+      UUID uuid = (UUID) value;
+      out.writeByte(OscalBinaryFormat.TAG_UUID);
+      out.writeLong(uuid.getMostSignificantBits());
+      out.writeLong(uuid.getLeastSignificantBits());
+    } else if (value instanceof MarkupLine) {
+      out.writeByte(OscalBinaryFormat.TAG_MARKUP_LINE);
+      writeString(ObjectUtils.notNull(((MarkupLine) value).toMarkdown()));
+    } else if (value instanceof MarkupMultiline) {
+      out.writeByte(OscalBinaryFormat.TAG_MARKUP_MULTILINE);
+      writeString(ObjectUtils.notNull(((MarkupMultiline) value).toMarkdown()));
+    } else if (value instanceof ByteBuffer) {
+      ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      out.writeByte(OscalBinaryFormat.TAG_BYTES);
+      writeBytes(bytes);
+    } else {
+      // other data types, such as dates, are written using their adapter
+      out.writeByte(OscalBinaryFormat.TAG_TEXT);
+      writeString(ObjectUtils.notNull(adapter.asString(value)));
+    }
+  }
+
+  /**
+   * Write a name as a reference to a previously written name, or as a new name
+   * preceded by a zero.
+   */
+  private void writeName(@NonNull String name) throws IOException {
+    Integer index = names.get(name);
+    if (index == null) {
+      names.put(name, names.size());
+      writeVarInt(0);
+      writeString(name);
+    } else {
+      writeVarInt(index + 1);
+    }
+  }
+
+  private void writeString(@NonNull String value) throws IOException {
+    writeBytes(ObjectUtils.notNull(value.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private void writeBytes(@NonNull byte[] bytes) throws IOException {
+    writeVarInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private void writeVarInt(int value) throws IOException {
+    int remaining = value;
+    while ((remaining & ~0x7F) != 0) {
+      out.writeByte(remaining & 0x7F | 0x80);
+      remaining >>>= 7;
+    }
+    out.writeByte(remaining);
+  }
+}
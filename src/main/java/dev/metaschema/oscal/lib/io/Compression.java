@@ -0,0 +1,223 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.io;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import dev.metaschema.core.util.ObjectUtils;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * The compression codecs supported for OSCAL documents, using the JDK's
+ * built-in implementations.
+ * <p>
+ * Compressed input is detected by its leading magic bytes: {@code 1f 8b} for
+ * gzip, and a valid zlib header using the deflate method for deflate.
+ */
+public enum Compression {
+  /**
+   * Uncompressed content.
+   */
+  NONE(""),
+  /**
+   * Gzip compressed content.
+   */
+  GZIP(".gz"),
+  /**
+   * Zlib-wrapped deflate compressed content.
+   */
+  DEFLATE(".deflate");
+
+  private static final int GZIP_MAGIC_1 = 0x1f;
+  private static final int GZIP_MAGIC_2 = 0x8b;
+  private static final int ZLIB_METHOD_MASK = 0x0f;
+  private static final int ZLIB_METHOD_DEFLATE = 8;
+  private static final int ZLIB_MAX_WINDOW = 7;
+  private static final int ZLIB_PRESET_DICTIONARY = 0x20;
+  private static final int ZLIB_CHECK_DIVISOR = 31;
+
+  @NonNull
+  private final String extension;
+
+  Compression(@NonNull String extension) {
+    this.extension = extension;
+  }
+
+  /**
+   * Get the file extension conventionally used for this compression.
+   *
+   * @return the extension, including the leading period, or an empty string
+   *         for uncompressed content
+   */
+  @NonNull
+  public String getExtension() {
+    return extension;
+  }
+
+  /**
+   * Detect the compression of the content in the provided stream from its
+   * leading bytes.
+   *
+   * @param is
+   *          the stream, which must support {@link InputStream#mark(int)} and is
+   *          reset to its current position
+   * @return the compression
+   * @throws IOException
+   *           if an error occurred while reading the stream
+   * @throws IllegalArgumentException
+   *           if the stream does not support mark and reset
+   */
+  @NonNull
+  public static Compression detect(@NonNull InputStream is) throws IOException {
+    if (!is.markSupported()) {
+      throw new IllegalArgumentException("The stream must support mark and reset.");
+    }
+    is.mark(2);
+    Compression retval = NONE;
+    try {
+      int first = is.read();
+      int second = is.read();
+      if (first == GZIP_MAGIC_1 && second == GZIP_MAGIC_2) {
+        retval = GZIP;
+      } else if (first != -1 && second != -1
+          && (first & ZLIB_METHOD_MASK) == ZLIB_METHOD_DEFLATE
+          && first >> 4 <= ZLIB_MAX_WINDOW
+          && (second & ZLIB_PRESET_DICTIONARY) == 0
+          && (first << 8 | second) % ZLIB_CHECK_DIVISOR == 0) {
+        retval = DEFLATE;
+      }
+    } finally {
+      is.reset();
+    }
+    return retval;
+  }
+
+  /**
+   * Determine the compression to use for the file at the provided path from its
+   * extension.
+   *
+   * @param path
+   *          the file
+   * @return the compression, which is {@link #NONE} if the extension does not
+   *         match a codec
+   */
+  @NonNull
+  public static Compression forPath(@NonNull Path path) {
+    Path fileName = path.getFileName();
+    return fileName == null ? NONE : forName(ObjectUtils.notNull(fileName.toString()));
+  }
+
+  /**
+   * Determine the compression to use for the provided file name or URI path
+   * from its extension.
+   *
+   * @param name
+   *          the file name or path
+   * @return the compression, which is {@link #NONE} if the extension does not
+   *         match a codec
+   */
+  @NonNull
+  public static Compression forName(@NonNull String name) {
+    String lowerName = name.toLowerCase(Locale.ROOT);
+
+    Compression retval = NONE;
+    for (Compression compression : values()) {
+      if (compression != NONE && lowerName.endsWith(compression.getExtension())) {
+        retval = compression;
+        break;
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Wrap the provided stream so that compressed content is transparently
+   * decompressed.
+   * <p>
+   * A stream that supports {@link InputStream#mark(int)}, such as a
+   * {@link MappedInputStream}, is examined directly, and uncompressed content is
+   * read from it without an intermediate buffer. Other streams are buffered.
+   *
+   * @param is
+   *          the stream to read
+   * @return a stream providing the uncompressed content, which supports mark
+   *         and reset, and closes the provided stream when closed
+   * @throws IOException
+   *           if an error occurred while reading the stream
+   */
+  @NonNull
+  public static InputStream decompressing(@NonNull InputStream is) throws IOException {
+    InputStream markable = is.markSupported() ? is : new BufferedInputStream(is);
+    Compression compression = detect(markable);
+    return compression == NONE ? markable : new BufferedInputStream(compression.decompress(markable));
+  }
+
+  /**
+   * Wrap the provided stream to decompress its content using this codec.
+   *
+   * @param is
+   *          the compressed stream
+   * @return the uncompressed stream
+   * @throws IOException
+   *           if an error occurred while reading the stream header
+   */
+  @NonNull
+  public InputStream decompress(@NonNull InputStream is) throws IOException {
+    InputStream retval;
+    switch (this) {
+    case GZIP:
+      retval = new GZIPInputStream(is);
+      break;
+    case DEFLATE:
+      retval = new InflaterInputStream(is);
+      break;
+    case NONE:
+    default:
+      retval = is;
+      break;
+    }
+    return ObjectUtils.notNull(retval);
+  }
+
+  /**
+   * Wrap the provided stream to compress content written to it using this
+   * codec.
+   * <p>
+   * The returned stream must be closed to complete the compressed content.
+   *
+   * @param os
+   *          the stream to write the compressed content to
+   * @return the stream to write uncompressed content to
+   * @throws IOException
+   *           if an error occurred while writing the stream header
+   */
+  @NonNull
+  public OutputStream compress(@NonNull OutputStream os) throws IOException {
+    OutputStream retval;
+    switch (this) {
+    case GZIP:
+      retval = new GZIPOutputStream(os);
+      break;
+    case DEFLATE:
+      retval = new DeflaterOutputStream(os);
+      break;
+    case NONE:
+    default:
+      retval = os;
+      break;
+    }
+    return ObjectUtils.notNull(retval);
+  }
+}
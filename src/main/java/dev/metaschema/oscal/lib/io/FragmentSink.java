@@ -0,0 +1,96 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Set;
+
+import dev.metaschema.databind.io.Format;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Writes an OSCAL document by copying a serialized shell document, in which
+ * each collection of streamed items is represented by a single empty marker
+ * item, and replacing each marker with items copied from fragment documents.
+ * The back-matter is also represented by an empty marker, which is replaced by
+ * the back-matter copied from a fragment document once all items are written.
+ * <p>
+ * This is the counterpart of {@link FragmentSource}.
+ */
+abstract class FragmentSink implements Closeable {
+  @NonNull
+  private final Set<StreamedItemType> slotTypes;
+
+  protected FragmentSink(@NonNull Set<StreamedItemType> slotTypes) {
+    this.slotTypes = slotTypes;
+  }
+
+  /**
+   * Determine if the provided item type has a marker in the shell.
+   *
+   * @param type
+   *          the item type, or {@code null} if the content is not an item
+   * @return {@code true} if the type has a marker, or {@code false} otherwise
+   */
+  protected boolean isSlot(@Nullable StreamedItemType type) {
+    return type != null && slotTypes.contains(type);
+  }
+
+  /**
+   * Get the format the shell and fragments must be serialized in.
+   *
+   * @return the format
+   */
+  @NonNull
+  public abstract Format getFragmentFormat();
+
+  /**
+   * Copy the shell to the output up to and including the next marker, which is
+   * not written.
+   *
+   * @return the type of the marker, or {@code null} if the back-matter marker
+   *         was reached or the rest of the shell was written
+   * @throws IOException
+   *           if an error occurred while writing
+   */
+  @Nullable
+  public abstract StreamedItemType copyToNextMarker() throws IOException;
+
+  /**
+   * Write the back-matter contained in the fragment, in place of the
+   * back-matter marker.
+   *
+   * @param fragment
+   *          a serialized document containing the back-matter
+   * @throws IOException
+   *           if an error occurred while writing
+   */
+  public abstract void copyBackMatter(@NonNull String fragment) throws IOException;
+
+  /**
+   * Copy the rest of the shell, following the back-matter marker, to the
+   * output.
+   *
+   * @throws IOException
+   *           if an error occurred while writing
+   */
+  public abstract void copyToEnd() throws IOException;
+
+  /**
+   * Write the single item of the provided type contained in the fragment, in
+   * place of the last marker.
+   *
+   * @param fragment
+   *          a serialized document containing the item
+   * @param type
+   *          the item's type
+   * @throws IOException
+   *           if an error occurred while writing
+   */
+  public abstract void copyItem(@NonNull String fragment, @NonNull StreamedItemType type) throws IOException;
+}
@@ -0,0 +1,111 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Set;
+
+import dev.metaschema.databind.io.Format;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Reads an OSCAL document as a sequence of fragments, each of which is a
+ * minimal document containing the root's metadata or a single streamed item
+ * nested within its ancestors.
+ * <p>
+ * The ancestors are written without their flags or other content. Since
+ * constraint validation is disabled when a fragment is bound, this is enough
+ * to bind the fragment to the root's class and then extract the single item.
+ */
+abstract class FragmentSource implements Closeable {
+  @NonNull
+  private final Set<StreamedItemType> itemTypes;
+
+  protected FragmentSource(@NonNull Set<StreamedItemType> itemTypes) {
+    this.itemTypes = itemTypes;
+  }
+
+  /**
+   * Determine if items of the provided type are to be streamed.
+   *
+   * @param type
+   *          the item type, or {@code null} if the content is not an item
+   * @return {@code true} if the item is to be streamed, or {@code false}
+   *         otherwise
+   */
+  protected boolean isStreamed(@Nullable StreamedItemType type) {
+    return type != null && itemTypes.contains(type);
+  }
+
+  /**
+   * Get the format the fragments are written in.
+   *
+   * @return the format
+   */
+  @NonNull
+  public abstract Format getFragmentFormat();
+
+  /**
+   * Read the next fragment.
+   *
+   * @return the fragment or {@code null} if the end of the document was reached
+   * @throws IOException
+   *           if an error occurred while reading the document
+   */
+  @Nullable
+  public abstract Fragment next() throws IOException;
+
+  /**
+   * A minimal document containing the metadata or a single item.
+   */
+  static final class Fragment {
+    @NonNull
+    private final String rootName;
+    @Nullable
+    private final StreamedItemType itemType;
+    @NonNull
+    private final String content;
+
+    Fragment(@NonNull String rootName, @Nullable StreamedItemType itemType, @NonNull String content) {
+      this.rootName = rootName;
+      this.itemType = itemType;
+      this.content = content;
+    }
+
+    /**
+     * Get the name of the document's root.
+     *
+     * @return the root name
+     */
+    @NonNull
+    String getRootName() {
+      return rootName;
+    }
+
+    /**
+     * Get the type of the item in the fragment.
+     *
+     * @return the item type or {@code null} if the fragment contains the
+     *         metadata
+     */
+    @Nullable
+    StreamedItemType getItemType() {
+      return itemType;
+    }
+
+    /**
+     * Get the fragment's content.
+     *
+     * @return the fragment, in the source's fragment format
+     */
+    @NonNull
+    String getContent() {
+      return content;
+    }
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.io;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Set;
+
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.io.Format;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Writes a JSON or YAML OSCAL document using a Jackson generator.
+ * <p>
+ * The shell and fragments are always serialized as JSON, and their tokens are
+ * copied to the generator, which determines the output format. The property
+ * for a collection of items is only written once an item has been written, so
+ * that an empty collection is omitted.
+ */
+final class JsonFragmentSink
+    extends FragmentSink {
+  @NonNull
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+  @NonNull
+  private static final String BACK_MATTER_NAME = "back-matter";
+
+  @NonNull
+  private final JsonParser shell;
+  @NonNull
+  private final JsonGenerator generator;
+  /**
+   * The name of the collection property for the last marker, which has not been
+   * written yet.
+   */
+  @Nullable
+  private String pendingCollection;
+  /**
+   * Whether a collection array has been started and must be ended.
+   */
+  private boolean collectionOpen;
+
+  /**
+   * Construct a new sink.
+   *
+   * @param shell
+   *          the shell document serialized as JSON
+   * @param slotTypes
+   *          the item types that have markers in the shell
+   * @param generator
+   *          the generator to write to
+   * @throws IOException
+   *           if an error occurred while setting up the parser
+   */
+  JsonFragmentSink(
+      @NonNull String shell,
+      @NonNull Set<StreamedItemType> slotTypes,
+      @NonNull JsonGenerator generator) throws IOException {
+    super(slotTypes);
+    this.shell = ObjectUtils.notNull(JSON_FACTORY.createParser(shell));
+    this.generator = generator;
+  }
+
+  @Override
+  public Format getFragmentFormat() {
+    return Format.JSON;
+  }
+
+  @Override
+  public StreamedItemType copyToNextMarker() throws IOException {
+    if (collectionOpen) {
+      generator.writeEndArray();
+      collectionOpen = false;
+    }
+    pendingCollection = null;
+
+    StreamedItemType retval = null;
+    boolean backMatter = false;
+    JsonToken token;
+    while (retval == null && !backMatter && (token = shell.nextToken()) != null) {
+      String name = token == JsonToken.FIELD_NAME ? shell.getCurrentName() : null;
+      StreamedItemType itemType = name == null ? null : StreamedItemType.forJsonName(name);
+      if (isSlot(itemType)) {
+        pendingCollection = name;
+        // skip the marker, which is either an array or a singleton object
+        shell.nextToken();
+        shell.skipChildren();
+        retval = itemType;
+      } else if (BACK_MATTER_NAME.equals(name)) {
+        shell.nextToken();
+        shell.skipChildren();
+        backMatter = true;
+      } else {
+        generator.copyCurrentEvent(shell);
+      }
+    }
+    generator.flush();
+    return retval;
+  }
+
+  @Override
+  public void copyItem(@NonNull String fragment, @NonNull StreamedItemType type) throws IOException {
+    if (pendingCollection != null) {
+      generator.writeFieldName(pendingCollection);
+      generator.writeStartArray();
+      pendingCollection = null;
+      collectionOpen = true;
+    }
+
+    try (JsonParser parser = JSON_FACTORY.createParser(fragment)) {
+      if (findField(parser, type.getJsonName()) == JsonToken.START_ARRAY) {
+        parser.nextToken();
+      }
+      generator.copyCurrentStructure(parser);
+    }
+  }
+
+  @Override
+  public void copyBackMatter(@NonNull String fragment) throws IOException {
+    try (JsonParser parser = JSON_FACTORY.createParser(fragment)) {
+      findField(parser, BACK_MATTER_NAME);
+      generator.writeFieldName(BACK_MATTER_NAME);
+      generator.copyCurrentStructure(parser);
+    }
+  }
+
+  @Override
+  public void copyToEnd() throws IOException {
+    while (shell.nextToken() != null) {
+      generator.copyCurrentEvent(shell);
+    }
+    generator.flush();
+  }
+
+  /**
+   * Advance the parser to the value of the first property with the provided
+   * name.
+   *
+   * @return the first token of the value
+   */
+  @NonNull
+  private static JsonToken findField(@NonNull JsonParser parser, @NonNull String name) throws IOException {
+    JsonToken retval = null;
+    JsonToken token;
+    while (retval == null && (token = parser.nextToken()) != null) {
+      if (token == JsonToken.FIELD_NAME && name.equals(parser.getCurrentName())) {
+        retval = parser.nextToken();
+      }
+    }
+    if (retval == null) {
+      throw new IOException(String.format("The serialized fragment does not contain '%s'.", name));
+    }
+    return retval;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      generator.close();
+    } finally {
+      shell.close();
+    }
+  }
+}
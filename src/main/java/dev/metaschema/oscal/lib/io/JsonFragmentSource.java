@@ -0,0 +1,197 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.io;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Set;
+
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.io.Format;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Reads the fragments of a JSON or YAML OSCAL document using a streaming
+ * Jackson parser.
+ * <p>
+ * Fragments are always written as JSON, which can be bound regardless of the
+ * source format.
+ */
+final class JsonFragmentSource
+    extends FragmentSource {
+  @NonNull
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  @NonNull
+  private final JsonParser parser;
+  /**
+   * The containers enclosing the current position, with the root's object
+   * last.
+   */
+  @NonNull
+  private final Deque<Container> containers = new ArrayDeque<>();
+  private String rootName;
+
+  /**
+   * Construct a new fragment source.
+   *
+   * @param parser
+   *          a JSON or YAML parser positioned at the start of the document
+   * @param itemTypes
+   *          the item types to stream
+   */
+  JsonFragmentSource(@NonNull JsonParser parser, @NonNull Set<StreamedItemType> itemTypes) {
+    super(itemTypes);
+    this.parser = parser;
+  }
+
+  @Override
+  public Format getFragmentFormat() {
+    return Format.JSON;
+  }
+
+  @Override
+  public Fragment next() throws IOException {
+    Fragment retval = null;
+    boolean done = false;
+    while (retval == null && !done) {
+      JsonToken token = parser.nextToken();
+      if (token == null) {
+        done = true;
+      } else if (token == JsonToken.FIELD_NAME) {
+        retval = handleField(ObjectUtils.notNull(parser.getCurrentName()), parser.nextToken());
+      } else if (token == JsonToken.START_OBJECT) {
+        Container parent = containers.peek();
+        if (parent != null && parent.itemType != null) {
+          retval = capture(parent.itemType, null);
+        } else {
+          // the document object or an object in an array
+          containers.push(new Container(null, false, null));
+        }
+      } else if (token == JsonToken.START_ARRAY) {
+        // an array in an array
+        parser.skipChildren();
+      } else if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+        containers.pop();
+      }
+    }
+    return retval;
+  }
+
+  @Nullable
+  private Fragment handleField(@NonNull String name, @NonNull JsonToken value) throws IOException {
+    Fragment retval = null;
+    if (containers.size() == 1) {
+      // a property of the document object
+      if (value == JsonToken.START_OBJECT && !name.startsWith("$")) {
+        rootName = name;
+        containers.push(new Container(name, false, null));
+      } else {
+        parser.skipChildren();
+      }
+    } else {
+      StreamedItemType itemType = StreamedItemType.forJsonName(name);
+      if (containers.size() == 2 && "metadata".equals(name) && value == JsonToken.START_OBJECT) {
+        retval = capture(null, name);
+      } else if (isStreamed(itemType) && value == JsonToken.START_OBJECT) {
+        // a singleton item
+        retval = capture(itemType, name);
+      } else if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+        containers.push(new Container(
+            name,
+            value == JsonToken.START_ARRAY,
+            isStreamed(itemType) ? itemType : null));
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Capture the object at the current position.
+   *
+   * @param itemType
+   *          the type of the item or {@code null} for the metadata
+   * @param name
+   *          the name of the property containing the object, or {@code null} if
+   *          the object is in an array
+   * @return the fragment
+   * @throws IOException
+   *           if an error occurred while reading the object
+   */
+  @NonNull
+  private Fragment capture(@Nullable StreamedItemType itemType, @Nullable String name) throws IOException {
+    StringWriter buffer = new StringWriter();
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(buffer)) {
+      // write the containers, starting with the document object
+      Iterator<Container> rootFirst = containers.descendingIterator();
+      while (rootFirst.hasNext()) {
+        Container container = rootFirst.next();
+        if (container.name != null) {
+          generator.writeFieldName(container.name);
+        }
+        if (container.array) {
+          generator.writeStartArray();
+        } else {
+          generator.writeStartObject();
+        }
+      }
+
+      if (name != null) {
+        generator.writeFieldName(name);
+      }
+      boolean wrap = name != null && itemType != null;
+      if (wrap) {
+        // write a singleton item as an array
+        generator.writeStartArray();
+      }
+      generator.copyCurrentStructure(parser);
+      if (wrap) {
+        generator.writeEndArray();
+      }
+
+      for (Container container : containers) {
+        if (container.array) {
+          generator.writeEndArray();
+        } else {
+          generator.writeEndObject();
+        }
+      }
+    }
+
+    return new Fragment(ObjectUtils.requireNonNull(rootName), itemType, ObjectUtils.notNull(buffer.toString()));
+  }
+
+  @Override
+  public void close() throws IOException {
+    parser.close();
+  }
+
+  private static final class Container {
+    @Nullable
+    private final String name;
+    private final boolean array;
+    /**
+     * The type of the items in an array of streamed items.
+     */
+    @Nullable
+    private final StreamedItemType itemType;
+
+    private Container(@Nullable String name, boolean array, @Nullable StreamedItemType itemType) {
+      this.name = name;
+      this.array = array;
+      this.itemType = itemType;
+    }
+  }
+}
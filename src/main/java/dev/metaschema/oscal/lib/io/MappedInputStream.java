@@ -0,0 +1,199 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import dev.metaschema.core.util.ObjectUtils;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * An input stream that reads a file through a read-only memory mapping, so
+ * that parsers read the file's pages directly instead of through a heap buffer
+ * filled by system calls.
+ * <p>
+ * Files larger than a single mapping are mapped as consecutive regions, each
+ * mapped when it is first read. The stream supports {@link #mark(int)} and
+ * {@link #reset()} without a read limit.
+ * <p>
+ * Mapped regions are released by the garbage collector once unreachable, not
+ * when the stream is closed.
+ */
+public final class MappedInputStream
+    extends InputStream {
+  /**
+   * The largest region a single {@link MappedByteBuffer} can map.
+   */
+  private static final long MAX_REGION_SIZE = Integer.MAX_VALUE;
+
+  @NonNull
+  private final FileChannel channel;
+  private final long size;
+  private final long regionSize;
+  @Nullable
+  private MappedByteBuffer region;
+  /**
+   * The file position of the start of the current region.
+   */
+  private long regionStart;
+  private long mark;
+  private boolean closed;
+
+  /**
+   * Open a stream over the file at the provided path.
+   *
+   * @param path
+   *          the file to read
+   * @return the stream, which must be closed
+   * @throws IOException
+   *           if an error occurred while opening the file
+   */
+  @NonNull
+  public static MappedInputStream open(@NonNull Path path) throws IOException {
+    return open(path, MAX_REGION_SIZE);
+  }
+
+  @NonNull
+  static MappedInputStream open(@NonNull Path path, long regionSize) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      return new MappedInputStream(ObjectUtils.notNull(channel), regionSize);
+    } catch (IOException | RuntimeException ex) {
+      channel.close();
+      throw ex;
+    }
+  }
+
+  private MappedInputStream(@NonNull FileChannel channel, long regionSize) throws IOException {
+    this.channel = channel;
+    this.size = channel.size();
+    this.regionSize = regionSize;
+    map(0);
+  }
+
+  private void map(long start) throws IOException {
+    regionStart = start;
+    region = start < size
+        ? channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(regionSize, size - start))
+        : null;
+  }
+
+  private long position() {
+    MappedByteBuffer current = region;
+    return current == null ? size : regionStart + current.position();
+  }
+
+  /**
+   * Get the current region with bytes remaining, mapping the next region if
+   * needed.
+   *
+   * @return the region or {@code null} at the end of the file
+   */
+  @Nullable
+  private MappedByteBuffer remaining() throws IOException {
+    if (closed) {
+      throw new IOException("The stream is closed.");
+    }
+    MappedByteBuffer current = region;
+    if (current != null && !current.hasRemaining()) {
+      map(regionStart + current.limit());
+      current = region;
+    }
+    return current;
+  }
+
+  @Override
+  public int read() throws IOException {
+    MappedByteBuffer current = remaining();
+    return current == null ? -1 : current.get() & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] bytes, int off, int len) throws IOException {
+    if (off < 0 || len < 0 || len > bytes.length - off) {
+      throw new IndexOutOfBoundsException();
+    }
+
+    int retval;
+    if (len == 0) {
+      retval = 0;
+    } else {
+      MappedByteBuffer current = remaining();
+      if (current == null) {
+        retval = -1;
+      } else {
+        retval = Math.min(len, current.remaining());
+        current.get(bytes, off, retval);
+      }
+    }
+    return retval;
+  }
+
+  @Override
+  public long skip(long count) throws IOException {
+    long retval = 0;
+    if (count > 0) {
+      remaining();
+      long position = position();
+      retval = Math.min(count, size - position);
+      seek(position + retval);
+    }
+    return retval;
+  }
+
+  private void seek(long position) throws IOException {
+    MappedByteBuffer current = region;
+    if (current != null && position >= regionStart && position <= regionStart + current.limit()) {
+      current.position((int) (position - regionStart));
+    } else {
+      long start = position - position % regionSize;
+      map(start);
+      current = region;
+      if (current != null) {
+        current.position((int) (position - start));
+      }
+    }
+  }
+
+  @Override
+  public int available() throws IOException {
+    MappedByteBuffer current = remaining();
+    return current == null ? 0 : current.remaining();
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  @Override
+  public synchronized void mark(int readLimit) {
+    mark = position();
+  }
+
+  @Override
+  public synchronized void reset() throws IOException {
+    if (closed) {
+      throw new IOException("The stream is closed.");
+    }
+    seek(mark);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      region = null;
+      channel.close();
+    }
+  }
+}
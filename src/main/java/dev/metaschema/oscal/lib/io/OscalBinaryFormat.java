@@ -0,0 +1,151 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.io;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import dev.metaschema.core.model.IBoundObject;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.IBindingContext;
+import dev.metaschema.databind.model.IBoundDefinitionModelComplex;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A compact, tagged binary encoding of bound OSCAL objects, intended as a fast
+ * cache format for documents that are loaded repeatedly, such as resolved
+ * catalogs.
+ * <p>
+ * The encoding walks the flags and model instances of each object's bound
+ * definition, so no text is tokenized or parsed when loading. Properties are
+ * identified by their metaschema names, which are written once and then
+ * referenced by index. Scalar values use a fixed set of value tags, and values
+ * of other data types are written as text and parsed by the data type adapter
+ * of the property being read. The types of the objects created when reading
+ * are determined only by the expected root definition, never by the content.
+ * Markup is stored as Markdown, the same representation used by the JSON and
+ * YAML formats, so the encoding has the same fidelity as those formats.
+ * <p>
+ * Content starts with a magic number, which {@link #isBinary(BufferedInputStream)}
+ * detects, followed by the {@link #VERSION} of the encoding and the name of the
+ * root definition. Content using another version must be re-encoded. Since the
+ * encoding depends on the OSCAL model, content should also be re-encoded when
+ * the model changes.
+ * <p>
+ * This encoding is not detected by the {@code load*} methods of
+ * {@link dev.metaschema.oscal.lib.OscalBindingContext}, and must be read
+ * explicitly.
+ */
+public final class OscalBinaryFormat {
+  /**
+   * The leading bytes of binary content.
+   */
+  @NonNull
+  static final byte[] MAGIC = { 'O', 'S', 'C', 'B' };
+  /**
+   * The version of the encoding, which is written after the magic number.
+   */
+  public static final int VERSION = 2;
+
+  static final int TAG_NULL = 0;
+  static final int TAG_OBJECT = 1;
+  static final int TAG_LIST = 2;
+  static final int TAG_MAP = 3;
+  static final int TAG_STRING = 4;
+  static final int TAG_TRUE = 5;
+  static final int TAG_FALSE = 6;
+  static final int TAG_INTEGER = 7;
+  static final int TAG_URI = 8;
+  static final int TAG_UUID = 9;
+  static final int TAG_MARKUP_LINE = 10;
+  static final int TAG_MARKUP_MULTILINE = 11;
+  static final int TAG_BYTES = 12;
+  static final int TAG_TEXT = 13;
+
+  private OscalBinaryFormat() {
+    // disable construction
+  }
+
+  /**
+   * Determine if the content in the provided stream uses this encoding, by
+   * examining its leading bytes.
+   *
+   * @param is
+   *          the stream, which is reset to its current position
+   * @return {@code true} if the content uses this encoding, or {@code false}
+   *         otherwise
+   * @throws IOException
+   *           if an error occurred while reading the stream
+   */
+  public static boolean isBinary(@NonNull BufferedInputStream is) throws IOException {
+    is.mark(MAGIC.length);
+    try {
+      byte[] header = is.readNBytes(MAGIC.length);
+      return Arrays.equals(MAGIC, header);
+    } finally {
+      is.reset();
+    }
+  }
+
+  /**
+   * Write the provided object using this encoding.
+   *
+   * @param bindingContext
+   *          the binding context the object's class is bound in
+   * @param data
+   *          the object to write
+   * @param os
+   *          the stream to write to, which is not closed
+   * @throws IOException
+   *           if an error occurred while writing, or the object's class is not
+   *           bound or contains content that cannot be encoded
+   */
+  public static void write(
+      @NonNull IBindingContext bindingContext,
+      @NonNull IBoundObject data,
+      @NonNull OutputStream os) throws IOException {
+    new BinaryModelWriter(os).write(getDefinition(bindingContext, data.getClass()), data);
+  }
+
+  /**
+   * Read an object using this encoding.
+   *
+   * @param <CLASS>
+   *          the Java type of the object
+   * @param bindingContext
+   *          the binding context the object's class is bound in
+   * @param clazz
+   *          the expected class of the object
+   * @param is
+   *          the stream to read, which is not closed
+   * @return the object
+   * @throws IOException
+   *           if an error occurred while reading, or the content is not valid,
+   *           uses another version of the encoding, or does not contain an object
+   *           of the expected class
+   */
+  @NonNull
+  public static <CLASS extends IBoundObject> CLASS read(
+      @NonNull IBindingContext bindingContext,
+      @NonNull Class<CLASS> clazz,
+      @NonNull InputStream is) throws IOException {
+    return ObjectUtils.notNull(clazz.cast(new BinaryModelReader(is).read(getDefinition(bindingContext, clazz))));
+  }
+
+  @NonNull
+  static IBoundDefinitionModelComplex getDefinition(
+      @NonNull IBindingContext bindingContext,
+      @NonNull Class<? extends IBoundObject> clazz) throws IOException {
+    IBoundDefinitionModelComplex retval = bindingContext.getBoundDefinitionForClass(clazz);
+    if (retval == null) {
+      throw new IOException(String.format("The class '%s' is not bound.", clazz.getName()));
+    }
+    return retval;
+  }
+}
@@ -0,0 +1,362 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.io;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import dev.metaschema.core.metapath.IMetapathExpression;
+import dev.metaschema.core.metapath.IMetapathExpression.ResultType;
+import dev.metaschema.core.metapath.item.node.IDocumentNodeItem;
+import dev.metaschema.core.metapath.item.node.INodeItem;
+import dev.metaschema.core.metapath.item.node.INodeItemFactory;
+import dev.metaschema.core.model.IBoundObject;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.IBindingContext;
+import dev.metaschema.databind.io.DeserializationFeature;
+import dev.metaschema.databind.io.Format;
+import dev.metaschema.databind.io.IDeserializer;
+import dev.metaschema.databind.model.IBoundDefinitionModelAssembly;
+import dev.metaschema.oscal.lib.OscalBindingContext;
+import dev.metaschema.oscal.lib.model.AssessmentPlan;
+import dev.metaschema.oscal.lib.model.AssessmentResults;
+import dev.metaschema.oscal.lib.model.Catalog;
+import dev.metaschema.oscal.lib.model.ComponentDefinition;
+import dev.metaschema.oscal.lib.model.Metadata;
+import dev.metaschema.oscal.lib.model.PlanOfActionAndMilestones;
+import dev.metaschema.oscal.lib.model.Profile;
+import dev.metaschema.oscal.lib.model.SystemSecurityPlan;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Reads the repeated items of a large OSCAL document, such as the observations
+ * and findings of an assessment result, one bound item at a time, so that the
+ * whole document is never held in memory.
+ * <p>
+ * The document's metadata is bound when the reader is opened. Each item of a
+ * requested {@link StreamedItemType} found anywhere in the document is then
+ * returned in document order. All other content, including the flags and
+ * fields of the items' ancestors and the back-matter, is skipped.
+ * <p>
+ * XML, JSON, and YAML documents are supported, and the format is detected from
+ * the content. Gzip and deflate compressed documents are decompressed
+ * transparently. Items are bound without constraint validation.
+ */
+public final class OscalStreamReader implements Closeable, Iterator<StreamedItem> {
+  @NonNull
+  private static final Map<String, Class<? extends IBoundObject>> ROOT_CLASSES = ObjectUtils.notNull(Map.of(
+      "catalog", Catalog.class,
+      "profile", Profile.class,
+      "component-definition", ComponentDefinition.class,
+      "system-security-plan", SystemSecurityPlan.class,
+      "assessment-plan", AssessmentPlan.class,
+      "assessment-results", AssessmentResults.class,
+      "plan-of-action-and-milestones", PlanOfActionAndMilestones.class));
+  @NonNull
+  private static final IMetapathExpression METADATA_METAPATH
+      = IMetapathExpression.compile("/*/metadata", OscalBindingContext.OSCAL_STATIC_METAPATH_CONTEXT);
+  @NonNull
+  private static final Map<StreamedItemType, IMetapathExpression> ITEM_METAPATHS;
+  /**
+   * The number of leading bytes examined to detect the format.
+   */
+  private static final int FORMAT_DETECTION_LIMIT = 1024;
+
+  static {
+    ITEM_METAPATHS = new EnumMap<>(StreamedItemType.class);
+    for (StreamedItemType type : StreamedItemType.values()) {
+      ITEM_METAPATHS.put(type, IMetapathExpression.compile(
+          "//" + type.getXmlName(),
+          OscalBindingContext.OSCAL_STATIC_METAPATH_CONTEXT));
+    }
+  }
+
+  @NonNull
+  private final IBindingContext bindingContext;
+  @NonNull
+  private final URI source;
+  @NonNull
+  private final InputStream inputStream;
+  @NonNull
+  private final Format format;
+  @NonNull
+  private final FragmentSource fragments;
+  private Class<? extends IBoundObject> rootClass;
+  private IBoundDefinitionModelAssembly rootDefinition;
+  private IDeserializer<? extends IBoundObject> deserializer;
+  @Nullable
+  private Metadata metadata;
+  @Nullable
+  private StreamedItem next;
+
+  /**
+   * Open a reader over the document at the provided path.
+   *
+   * @param bindingContext
+   *          the binding context used to bind the metadata and items
+   * @param path
+   *          the document to read
+   * @param itemTypes
+   *          the types of items to return
+   * @return the reader, which must be closed
+   * @throws IOException
+   *           if an error occurred while opening the document or reading its
+   *           metadata
+   */
+  @NonNull
+  public static OscalStreamReader open(
+      @NonNull IBindingContext bindingContext,
+      @NonNull Path path,
+      @NonNull Set<StreamedItemType> itemTypes) throws IOException {
+    return open(
+        bindingContext,
+        ObjectUtils.notNull(Files.newInputStream(path)),
+        ObjectUtils.notNull(path.toUri()),
+        itemTypes);
+  }
+
+  /**
+   * Open a reader over the document in the provided stream.
+   *
+   * @param bindingContext
+   *          the binding context used to bind the metadata and items
+   * @param is
+   *          the stream to read, which is closed when the reader is closed
+   * @param source
+   *          the location of the document
+   * @param itemTypes
+   *          the types of items to return
+   * @return the reader, which must be closed
+   * @throws IOException
+   *           if an error occurred while opening the document or reading its
+   *           metadata
+   */
+  @NonNull
+  public static OscalStreamReader open(
+      @NonNull IBindingContext bindingContext,
+      @NonNull InputStream is,
+      @NonNull URI source,
+      @NonNull Set<StreamedItemType> itemTypes) throws IOException {
+    InputStream bis = Compression.decompressing(is);
+    Format format = detectFormat(bis);
+
+    FragmentSource fragments;
+    switch (format) {
+    case XML:
+      fragments = new XmlFragmentSource(bis, itemTypes);
+      break;
+    case JSON:
+      fragments = new JsonFragmentSource(ObjectUtils.notNull(new JsonFactory().createParser(bis)), itemTypes);
+      break;
+    case YAML:
+      fragments = new JsonFragmentSource(ObjectUtils.notNull(new YAMLFactory().createParser(bis)), itemTypes);
+      break;
+    default:
+      throw new UnsupportedOperationException(String.format("Unsupported format '%s'.", format));
+    }
+
+    OscalStreamReader retval = new OscalStreamReader(bindingContext, bis, source, format, fragments);
+    try {
+      retval.readMetadata();
+    } catch (IOException | RuntimeException ex) {
+      retval.close();
+      throw ex;
+    }
+    return retval;
+  }
+
+  /**
+   * Detect the format of the document in the provided stream, by examining its
+   * first significant character.
+   *
+   * @param is
+   *          the stream, which must support {@link InputStream#mark(int)} and is
+   *          reset to its current position
+   * @return the format
+   * @throws IOException
+   *           if an error occurred while reading the stream
+   */
+  @NonNull
+  public static Format detectFormat(@NonNull InputStream is) throws IOException {
+    is.mark(FORMAT_DETECTION_LIMIT);
+    Format retval = Format.YAML;
+    try {
+      int count = 0;
+      int ch;
+      while ((ch = is.read()) != -1 && count++ < FORMAT_DETECTION_LIMIT) {
+        if (ch == '<') {
+          retval = Format.XML;
+          break;
+        } else if (ch == '{') {
+          retval = Format.JSON;
+          break;
+        } else if (!Character.isWhitespace(ch) && ch < 0x80) {
+          // any other ASCII character starts a YAML document
+          break;
+        }
+        // skip whitespace and a byte order mark
+      }
+    } finally {
+      is.reset();
+    }
+    return retval;
+  }
+
+  private OscalStreamReader(
+      @NonNull IBindingContext bindingContext,
+      @NonNull InputStream inputStream,
+      @NonNull URI source,
+      @NonNull Format format,
+      @NonNull FragmentSource fragments) {
+    this.bindingContext = bindingContext;
+    this.inputStream = inputStream;
+    this.source = source;
+    this.format = format;
+    this.fragments = fragments;
+  }
+
+  private void readMetadata() throws IOException {
+    FragmentSource.Fragment fragment = fragments.next();
+    if (fragment != null) {
+      if (fragment.getItemType() == null) {
+        metadata = (Metadata) bind(fragment, METADATA_METAPATH);
+      } else {
+        // a document without metadata
+        next = toItem(fragment);
+      }
+    }
+  }
+
+  /**
+   * Get the format of the document.
+   *
+   * @return the format
+   */
+  @NonNull
+  public Format getFormat() {
+    return format;
+  }
+
+  /**
+   * Get the class bound to the document's root.
+   *
+   * @return the class or {@code null} if the document contained neither
+   *         metadata nor any items
+   */
+  @Nullable
+  public Class<? extends IBoundObject> getRootClass() {
+    return rootClass;
+  }
+
+  /**
+   * Get the document's metadata.
+   *
+   * @return the metadata or {@code null} if the document had none
+   */
+  @Nullable
+  public Metadata getMetadata() {
+    return metadata;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next == null) {
+      try {
+        FragmentSource.Fragment fragment = fragments.next();
+        // skip any metadata that is not a child of the root
+        while (fragment != null && fragment.getItemType() == null) {
+          fragment = fragments.next();
+        }
+        if (fragment != null) {
+          next = toItem(fragment);
+        }
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    }
+    return next != null;
+  }
+
+  /**
+   * Get the next item.
+   *
+   * @return the item
+   * @throws NoSuchElementException
+   *           if there are no more items
+   * @throws UncheckedIOException
+   *           if an error occurred while reading the item
+   */
+  @Override
+  public StreamedItem next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    StreamedItem retval = ObjectUtils.notNull(next);
+    next = null;
+    return retval;
+  }
+
+  @NonNull
+  private StreamedItem toItem(@NonNull FragmentSource.Fragment fragment) throws IOException {
+    StreamedItemType type = ObjectUtils.requireNonNull(fragment.getItemType());
+    return new StreamedItem(type, bind(fragment, ObjectUtils.notNull(ITEM_METAPATHS.get(type))));
+  }
+
+  @NonNull
+  private IBoundObject bind(
+      @NonNull FragmentSource.Fragment fragment,
+      @NonNull IMetapathExpression extractor) throws IOException {
+    if (deserializer == null) {
+      initRoot(fragment.getRootName());
+    }
+
+    IBoundObject root = deserializer.deserialize(new StringReader(fragment.getContent()), source);
+    IDocumentNodeItem document = INodeItemFactory.instance().newDocumentNodeItem(rootDefinition, source, root);
+    INodeItem item = extractor.evaluateAs(document, ResultType.ITEM);
+    if (item == null) {
+      throw new IOException(String.format("Unable to bind the content '%s' in '%s'.", fragment.getContent(), source));
+    }
+    return ObjectUtils.requireNonNull((IBoundObject) item.getValue());
+  }
+
+  private void initRoot(@NonNull String rootName) throws IOException {
+    Class<? extends IBoundObject> clazz = ROOT_CLASSES.get(rootName);
+    if (clazz == null) {
+      throw new IOException(String.format("The root '%s' in '%s' is not an OSCAL document.", rootName, source));
+    }
+    rootClass = clazz;
+    rootDefinition = ObjectUtils.requireNonNull(
+        (IBoundDefinitionModelAssembly) bindingContext.getBoundDefinitionForClass(clazz));
+    IDeserializer<? extends IBoundObject> newDeserializer
+        = bindingContext.newDeserializer(fragments.getFragmentFormat(), clazz);
+    newDeserializer.disableFeature(DeserializationFeature.DESERIALIZE_VALIDATE_CONSTRAINTS);
+    deserializer = newDeserializer;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      fragments.close();
+    } finally {
+      inputStream.close();
+    }
+  }
+}
@@ -0,0 +1,559 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.io;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import dev.metaschema.core.model.IBoundObject;
+import dev.metaschema.core.util.CollectionUtil;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.IBindingContext;
+import dev.metaschema.databind.io.Format;
+import dev.metaschema.databind.io.ISerializer;
+import dev.metaschema.databind.model.IBoundDefinitionModelAssembly;
+import dev.metaschema.databind.model.IBoundDefinitionModelComplex;
+import dev.metaschema.oscal.lib.model.util.BoundProperty;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Writes a large OSCAL document incrementally, so that the repeated items of
+ * the document, such as the observations and findings of an assessment result,
+ * never need to be held in memory together.
+ * <p>
+ * The document is described by a <em>shell</em>: a bound root object holding
+ * the metadata, the back-matter, and every ancestor of the streamed items, but
+ * none of the items themselves. Each streamed collection is registered as a
+ * slot using the setter of the list that holds the items.
+ * <p>
+ * When the writer is opened, the shell is serialized once, with a marker in
+ * place of each slot and of the back-matter, and the serialized shell is
+ * written up to the first slot, which writes the metadata. Items written to the
+ * writer are then each serialized on their own, with the shell reduced to the
+ * item's ancestors, and written in place of their slot. Closing the writer
+ * serializes the back-matter as it is at that point and writes it, followed by
+ * the rest of the shell. The back-matter can therefore be added to, such as
+ * with resources for evidence, while items are written.
+ * <p>
+ * Items must be written grouped by type, in the order their collections appear
+ * in the document. Memory use is bounded by the size of the shell and of a
+ * single item.
+ * <p>
+ * XML, JSON, and YAML output is supported. Items are serialized using the
+ * regular bindings, so the output is the same as if the complete document had
+ * been serialized.
+ */
+public final class OscalStreamWriter implements Closeable {
+  @NonNull
+  private static final String BACK_MATTER_NAME = "back-matter";
+
+  @NonNull
+  private final IBoundObject shell;
+  @NonNull
+  private final ISerializer<IBoundObject> serializer;
+  @NonNull
+  private final Map<StreamedItemType, Slot<?>> slots;
+  @NonNull
+  private final Set<StreamedItemType> passed = EnumSet.noneOf(StreamedItemType.class);
+  /**
+   * For each slot type, the shell properties that are not ancestors of the
+   * slot, which are removed while an item of that type is serialized.
+   */
+  @NonNull
+  private final Map<StreamedItemType, List<ShellProperty>> itemPruned = new EnumMap<>(StreamedItemType.class);
+  /**
+   * The root properties other than the back-matter, which are removed while the
+   * back-matter is serialized.
+   */
+  @NonNull
+  private final List<ShellProperty> backMatterPruned = new ArrayList<>();
+  /**
+   * The root's back-matter property, or {@code null} if the root has no
+   * back-matter.
+   */
+  @Nullable
+  private final BoundProperty backMatter;
+  @NonNull
+  private final FragmentSink sink;
+  /**
+   * The type of the slot the writer is positioned at, or {@code null} if the
+   * back-matter marker or the end of the shell has been reached.
+   */
+  @Nullable
+  private StreamedItemType current;
+  private long itemCount;
+  private boolean closed;
+
+  /**
+   * Get a new builder for a writer over the provided shell.
+   *
+   * @param bindingContext
+   *          the binding context used to serialize the shell and items
+   * @param format
+   *          the format to write
+   * @param shell
+   *          the root object describing all content other than the streamed
+   *          items
+   * @return the builder
+   */
+  @NonNull
+  public static Builder builder(
+      @NonNull IBindingContext bindingContext,
+      @NonNull Format format,
+      @NonNull IBoundObject shell) {
+    return new Builder(bindingContext, format, shell);
+  }
+
+  private OscalStreamWriter(
+      @NonNull IBindingContext bindingContext,
+      @NonNull Format format,
+      @NonNull IBoundObject shell,
+      @NonNull Map<StreamedItemType, Slot<?>> slots,
+      @NonNull OutputStream os) throws IOException {
+    this.shell = shell;
+    this.slots = slots;
+
+    Format fragmentFormat = format == Format.XML ? Format.XML : Format.JSON;
+    this.serializer = newSerializer(bindingContext, fragmentFormat, shell);
+
+    IBoundDefinitionModelAssembly definition = ObjectUtils.requireNonNull(
+        (IBoundDefinitionModelAssembly) bindingContext.getBoundDefinitionForClass(shell.getClass()));
+    BoundProperty backMatterProperty = null;
+    for (BoundProperty property : BoundProperty.getProperties(definition)) {
+      if (BACK_MATTER_NAME.equals(property.getName())) {
+        backMatterProperty = property;
+      } else {
+        backMatterPruned.add(new ShellProperty(shell, definition, property));
+      }
+    }
+    this.backMatter = backMatterProperty;
+
+    String shellContent;
+    Object backMatterValue = backMatter == null ? null : backMatter.getValue(shell);
+    try {
+      for (Map.Entry<StreamedItemType, Slot<?>> entry : slots.entrySet()) {
+        Object marker = entry.getValue().mark();
+        List<ShellProperty> path = findPath(shell, definition, marker);
+        if (path == null) {
+          throw new IllegalArgumentException(String.format(
+              "The slot for '%s' does not set a collection in the shell.",
+              entry.getKey().getXmlName()));
+        }
+        itemPruned.put(entry.getKey(), prunedFromPath(path));
+      }
+      if (backMatter != null) {
+        backMatter.setValue(shell, newInstance(ObjectUtils.requireNonNull(backMatter.getDefinition())));
+      }
+      shellContent = serialize();
+    } finally {
+      if (backMatter != null) {
+        backMatter.setValue(shell, backMatterValue);
+      }
+      for (Slot<?> slot : slots.values()) {
+        slot.clear();
+      }
+    }
+
+    Set<StreamedItemType> slotTypes = ObjectUtils.notNull(Collections.unmodifiableSet(slots.keySet()));
+    switch (format) {
+    case XML:
+      this.sink = new XmlFragmentSink(shellContent, slotTypes, os);
+      break;
+    case JSON:
+      this.sink = new JsonFragmentSink(
+          shellContent,
+          slotTypes,
+          newGenerator(new JsonFactory(), os).useDefaultPrettyPrinter());
+      break;
+    case YAML:
+      this.sink = new JsonFragmentSink(shellContent, slotTypes, newGenerator(new YAMLFactory(), os));
+      break;
+    default:
+      throw new UnsupportedOperationException(String.format("Unsupported format '%s'.", format));
+    }
+
+    current = sink.copyToNextMarker();
+  }
+
+  /**
+   * Find the properties leading from the provided object to the collection
+   * containing the provided marker.
+   *
+   * @return the properties, starting with the object's property, or
+   *         {@code null} if the marker was not found
+   */
+  @Nullable
+  private static List<ShellProperty> findPath(
+      @NonNull IBoundObject parent,
+      @NonNull IBoundDefinitionModelComplex definition,
+      @NonNull Object marker) {
+    List<ShellProperty> retval = null;
+    for (BoundProperty property : BoundProperty.getProperties(definition)) {
+      IBoundDefinitionModelComplex itemDefinition = property.getDefinition();
+      if (itemDefinition != null) {
+        for (Object item : toItems(property.getValue(parent))) {
+          if (item == marker) {
+            retval = new LinkedList<>();
+          } else if (item instanceof IBoundObject) {
+            retval = findPath((IBoundObject) item, itemDefinition, marker);
+          }
+          if (retval != null) {
+            retval.add(0, new ShellProperty(parent, definition, property));
+            break;
+          }
+        }
+        if (retval != null) {
+          break;
+        }
+      }
+    }
+    return retval;
+  }
+
+  @NonNull
+  private static Collection<?> toItems(@Nullable Object value) {
+    Collection<?> retval;
+    if (value == null) {
+      retval = CollectionUtil.emptyList();
+    } else if (value instanceof List) {
+      retval = (List<?>) value;
+    } else if (value instanceof Map) {
+      retval = ((Map<?, ?>) value).values();
+    } else {
+      retval = CollectionUtil.singletonList(value);
+    }
+    return retval;
+  }
+
+  /**
+   * Get the properties of each object on the path that are not part of the
+   * path.
+   */
+  @NonNull
+  private static List<ShellProperty> prunedFromPath(@NonNull List<ShellProperty> path) {
+    List<ShellProperty> retval = new ArrayList<>();
+    for (ShellProperty step : path) {
+      IBoundDefinitionModelComplex definition = step.getParentDefinition();
+      for (BoundProperty property : BoundProperty.getProperties(definition)) {
+        if (property != step.getProperty()) {
+          retval.add(new ShellProperty(step.getParent(), definition, property));
+        }
+      }
+    }
+    return retval;
+  }
+
+  @NonNull
+  private static Object newInstance(@NonNull IBoundDefinitionModelComplex definition) throws IOException {
+    Class<? extends IBoundObject> clazz = definition.getBoundClass();
+    try {
+      Constructor<? extends IBoundObject> constructor = clazz.getDeclaredConstructor();
+      constructor.setAccessible(true);
+      return ObjectUtils.notNull(constructor.newInstance());
+    } catch (ReflectiveOperationException ex) {
+      throw new IOException(String.format("Unable to instantiate '%s'.", clazz.getName()), ex);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @NonNull
+  private static ISerializer<IBoundObject> newSerializer(
+      @NonNull IBindingContext bindingContext,
+      @NonNull Format format,
+      @NonNull IBoundObject shell) {
+    return (ISerializer<IBoundObject>) bindingContext.newSerializer(format, shell.getClass());
+  }
+
+  @NonNull
+  private static JsonGenerator newGenerator(@NonNull JsonFactory factory, @NonNull OutputStream os)
+      throws IOException {
+    JsonGenerator retval = factory.createGenerator(os);
+    retval.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    return ObjectUtils.notNull(retval);
+  }
+
+  @NonNull
+  private String serialize() throws IOException {
+    StringWriter writer = new StringWriter();
+    serializer.serialize(shell, writer);
+    return ObjectUtils.notNull(writer.toString());
+  }
+
+  /**
+   * Serialize the shell with the provided properties removed, which are then
+   * restored.
+   */
+  @NonNull
+  private String serialize(@NonNull List<ShellProperty> pruned) throws IOException {
+    List<Object> values = new ArrayList<>(pruned.size());
+    for (ShellProperty property : pruned) {
+      values.add(property.getValue());
+      property.setValue(null);
+    }
+    try {
+      return serialize();
+    } finally {
+      for (int i = 0; i < pruned.size(); i++) {
+        pruned.get(i).setValue(values.get(i));
+      }
+    }
+  }
+
+  /**
+   * Get the number of items written.
+   *
+   * @return the number of items
+   */
+  public long getItemCount() {
+    return itemCount;
+  }
+
+  /**
+   * Write the provided item in place of the slot for its type.
+   * <p>
+   * Any slots before the item's slot that have not been reached are left empty.
+   *
+   * @param type
+   *          the item's type
+   * @param item
+   *          the item to write
+   * @throws IOException
+   *           if an error occurred while writing the item
+   * @throws IllegalArgumentException
+   *           if no slot was registered for the type, or the item does not match
+   *           the slot's class
+   * @throws IllegalStateException
+   *           if the writer is closed, or items of a type that appears later in
+   *           the document have already been written
+   */
+  public void write(@NonNull StreamedItemType type, @NonNull IBoundObject item) throws IOException {
+    if (closed) {
+      throw new IllegalStateException("The writer is closed.");
+    }
+    Slot<?> slot = slots.get(type);
+    if (slot == null) {
+      throw new IllegalArgumentException(String.format("No slot was registered for '%s'.", type.getXmlName()));
+    }
+    if (passed.contains(type)) {
+      throw new IllegalStateException(String.format(
+          "Items of type '%s' must be written before items of type '%s'.",
+          type.getXmlName(),
+          ObjectUtils.requireNonNull(current).getXmlName()));
+    }
+
+    while (current != type) {
+      passed.add(ObjectUtils.requireNonNull(current));
+      current = sink.copyToNextMarker();
+    }
+
+    slot.set(item);
+    String fragment;
+    try {
+      fragment = serialize(ObjectUtils.notNull(itemPruned.get(type)));
+    } finally {
+      slot.clear();
+    }
+    sink.copyItem(fragment, type);
+    itemCount++;
+  }
+
+  /**
+   * Write the rest of the document, including the back-matter as it is when the
+   * writer is closed. The output stream is not closed.
+   */
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      try {
+        while (current != null) {
+          current = sink.copyToNextMarker();
+        }
+        if (backMatter != null && backMatter.getValue(shell) != null) {
+          sink.copyBackMatter(serialize(backMatterPruned));
+        }
+        sink.copyToEnd();
+      } finally {
+        sink.close();
+      }
+    }
+  }
+
+  /**
+   * Builds an {@link OscalStreamWriter}.
+   */
+  public static final class Builder {
+    @NonNull
+    private final IBindingContext bindingContext;
+    @NonNull
+    private final Format format;
+    @NonNull
+    private final IBoundObject shell;
+    @NonNull
+    private final Map<StreamedItemType, Slot<?>> slots = new EnumMap<>(StreamedItemType.class);
+
+    private Builder(
+        @NonNull IBindingContext bindingContext,
+        @NonNull Format format,
+        @NonNull IBoundObject shell) {
+      this.bindingContext = bindingContext;
+      this.format = format;
+      this.shell = shell;
+    }
+
+    /**
+     * Register the collection that holds items of the provided type.
+     * <p>
+     * The collection is replaced while the writer is in use and is cleared
+     * afterwards.
+     *
+     * @param <T>
+     *          the item's Java type
+     * @param type
+     *          the item type
+     * @param itemClass
+     *          the bound class of the items
+     * @param setter
+     *          the setter for the list in the shell that holds the items
+     * @param markerFactory
+     *          a factory for an empty item, used to locate the collection in the
+     *          serialized shell
+     * @return this builder
+     */
+    @NonNull
+    public <T extends IBoundObject> Builder slot(
+        @NonNull StreamedItemType type,
+        @NonNull Class<T> itemClass,
+        @NonNull Consumer<List<T>> setter,
+        @NonNull Supplier<T> markerFactory) {
+      slots.put(type, new Slot<>(itemClass, setter, markerFactory));
+      return this;
+    }
+
+    /**
+     * Open a writer that writes to the provided stream, writing the document up
+     * to the first slot.
+     *
+     * @param os
+     *          the stream to write to, which is not closed by the writer
+     * @return the writer, which must be closed to complete the document
+     * @throws IOException
+     *           if an error occurred while writing
+     * @throws IllegalStateException
+     *           if no slots were registered
+     */
+    @NonNull
+    public OscalStreamWriter open(@NonNull OutputStream os) throws IOException {
+      if (slots.isEmpty()) {
+        throw new IllegalStateException("At least one slot must be registered.");
+      }
+      return new OscalStreamWriter(bindingContext, format, shell, new EnumMap<>(slots), os);
+    }
+  }
+
+  private static final class Slot<T extends IBoundObject> {
+    @NonNull
+    private final Class<T> itemClass;
+    @NonNull
+    private final Consumer<List<T>> setter;
+    @NonNull
+    private final Supplier<T> markerFactory;
+
+    private Slot(
+        @NonNull Class<T> itemClass,
+        @NonNull Consumer<List<T>> setter,
+        @NonNull Supplier<T> markerFactory) {
+      this.itemClass = itemClass;
+      this.setter = setter;
+      this.markerFactory = markerFactory;
+    }
+
+    @NonNull
+    private T mark() {
+      T retval = ObjectUtils.notNull(markerFactory.get());
+      setter.accept(CollectionUtil.singletonList(retval));
+      return retval;
+    }
+
+    private void set(@NonNull IBoundObject item) {
+      if (!itemClass.isInstance(item)) {
+        throw new IllegalArgumentException(String.format(
+            "The item '%s' is not a '%s'.",
+            item.getClass().getName(),
+            itemClass.getName()));
+      }
+      setter.accept(CollectionUtil.singletonList(ObjectUtils.notNull(itemClass.cast(item))));
+    }
+
+    private void clear() {
+      setter.accept(null);
+    }
+  }
+
+  /**
+   * A property of an object in the shell.
+   */
+  private static final class ShellProperty {
+    @NonNull
+    private final IBoundObject parent;
+    @NonNull
+    private final IBoundDefinitionModelComplex parentDefinition;
+    @NonNull
+    private final BoundProperty property;
+
+    private ShellProperty(
+        @NonNull IBoundObject parent,
+        @NonNull IBoundDefinitionModelComplex parentDefinition,
+        @NonNull BoundProperty property) {
+      this.parent = parent;
+      this.parentDefinition = parentDefinition;
+      this.property = property;
+    }
+
+    @NonNull
+    private IBoundObject getParent() {
+      return parent;
+    }
+
+    @NonNull
+    private IBoundDefinitionModelComplex getParentDefinition() {
+      return parentDefinition;
+    }
+
+    @NonNull
+    private BoundProperty getProperty() {
+      return property;
+    }
+
+    @Nullable
+    private Object getValue() {
+      return property.getValue(parent);
+    }
+
+    private void setValue(@Nullable Object value) {
+      property.setValue(parent, value);
+    }
+  }
+}
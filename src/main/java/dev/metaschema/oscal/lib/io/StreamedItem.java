@@ -0,0 +1,61 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.io;
+
+import dev.metaschema.core.model.IBoundObject;
+import dev.metaschema.core.util.ObjectUtils;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * An item read from a document by an {@link OscalStreamReader}.
+ */
+public final class StreamedItem {
+  @NonNull
+  private final StreamedItemType type;
+  @NonNull
+  private final IBoundObject value;
+
+  StreamedItem(@NonNull StreamedItemType type, @NonNull IBoundObject value) {
+    this.type = type;
+    this.value = value;
+  }
+
+  /**
+   * Get the type of the item.
+   *
+   * @return the type
+   */
+  @NonNull
+  public StreamedItemType getType() {
+    return type;
+  }
+
+  /**
+   * Get the bound item.
+   *
+   * @return the item
+   */
+  @NonNull
+  public IBoundObject getValue() {
+    return value;
+  }
+
+  /**
+   * Get the bound item as the provided class.
+   *
+   * @param <T>
+   *          the expected item type
+   * @param clazz
+   *          the expected class of the item
+   * @return the item
+   * @throws ClassCastException
+   *           if the item is not an instance of the class
+   */
+  @NonNull
+  public <T extends IBoundObject> T getValue(@NonNull Class<T> clazz) {
+    return ObjectUtils.notNull(clazz.cast(value));
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.io;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * The repeated items of an OSCAL document that can be read or written one at a
+ * time.
+ */
+public enum StreamedItemType {
+  /**
+   * An {@code observation} in an assessment result or POA&amp;M.
+   */
+  OBSERVATION("observation", "observations"),
+  /**
+   * A {@code finding} in an assessment result or POA&amp;M.
+   */
+  FINDING("finding", "findings"),
+  /**
+   * A {@code risk} in an assessment result or POA&amp;M.
+   */
+  RISK("risk", "risks"),
+  /**
+   * A {@code poam-item} in a POA&amp;M.
+   */
+  POAM_ITEM("poam-item", "poam-items"),
+  /**
+   * An {@code implemented-requirement} in a system security plan's control
+   * implementation.
+   */
+  IMPLEMENTED_REQUIREMENT("implemented-requirement", "implemented-requirements"),
+  /**
+   * An {@code inventory-item} in a system implementation or local definitions.
+   */
+  INVENTORY_ITEM("inventory-item", "inventory-items");
+
+  @NonNull
+  private final String xmlName;
+  @NonNull
+  private final String jsonName;
+
+  StreamedItemType(@NonNull String xmlName, @NonNull String jsonName) {
+    this.xmlName = xmlName;
+    this.jsonName = jsonName;
+  }
+
+  /**
+   * Get the XML element name of an item.
+   *
+   * @return the element name
+   */
+  @NonNull
+  public String getXmlName() {
+    return xmlName;
+  }
+
+  /**
+   * Get the JSON and YAML property name of a collection of items.
+   *
+   * @return the property name
+   */
+  @NonNull
+  public String getJsonName() {
+    return jsonName;
+  }
+
+  /**
+   * Get the item type with the provided XML element name.
+   *
+   * @param name
+   *          the element name
+   * @return the item type or {@code null} if no item type has the name
+   */
+  @Nullable
+  public static StreamedItemType forXmlName(@NonNull String name) {
+    StreamedItemType retval = null;
+    for (StreamedItemType type : values()) {
+      if (type.xmlName.equals(name)) {
+        retval = type;
+        break;
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Get the item type with the provided JSON collection property name.
+   *
+   * @param name
+   *          the property name
+   * @return the item type or {@code null} if no item type has the name
+   */
+  @Nullable
+  public static StreamedItemType forJsonName(@NonNull String name) {
+    StreamedItemType retval = null;
+    for (StreamedItemType type : values()) {
+      if (type.jsonName.equals(name)) {
+        retval = type;
+        break;
+      }
+    }
+    return retval;
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.XMLEvent;
+
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.io.Format;
+import dev.metaschema.oscal.lib.OscalModelConstants;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Writes an XML OSCAL document using StAX event readers and an event writer.
+ */
+final class XmlFragmentSink
+    extends FragmentSink {
+  @NonNull
+  private static final QName BACK_MATTER_QNAME = new QName(OscalModelConstants.NS_OSCAL, "back-matter");
+  @NonNull
+  private static final XMLInputFactory INPUT_FACTORY;
+  @NonNull
+  private static final XMLOutputFactory OUTPUT_FACTORY;
+
+  static {
+    INPUT_FACTORY = ObjectUtils.notNull(XMLInputFactory.newInstance());
+    INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    OUTPUT_FACTORY = ObjectUtils.notNull(XMLOutputFactory.newInstance());
+    OUTPUT_FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, true);
+  }
+
+  @NonNull
+  private final XMLEventReader shell;
+  @NonNull
+  private final XMLEventWriter writer;
+
+  /**
+   * Construct a new sink.
+   *
+   * @param shell
+   *          the serialized shell document
+   * @param slotTypes
+   *          the item types that have markers in the shell
+   * @param os
+   *          the stream to write to, which is not closed by this sink
+   * @throws IOException
+   *           if an error occurred while setting up the reader or writer
+   */
+  XmlFragmentSink(
+      @NonNull String shell,
+      @NonNull Set<StreamedItemType> slotTypes,
+      @NonNull OutputStream os) throws IOException {
+    super(slotTypes);
+    try {
+      this.shell = newReader(shell);
+      this.writer = ObjectUtils.notNull(OUTPUT_FACTORY.createXMLEventWriter(os, StandardCharsets.UTF_8.name()));
+    } catch (XMLStreamException ex) {
+      throw new IOException(ex);
+    }
+  }
+
+  @NonNull
+  private static XMLEventReader newReader(@NonNull String content) throws XMLStreamException {
+    return ObjectUtils.notNull(INPUT_FACTORY.createXMLEventReader(new StringReader(content)));
+  }
+
+  private static boolean isBackMatter(@NonNull XMLEvent event) {
+    return event.isStartElement() && BACK_MATTER_QNAME.equals(event.asStartElement().getName());
+  }
+
+  @Nullable
+  private static StreamedItemType toItemType(@NonNull XMLEvent event) {
+    StreamedItemType retval = null;
+    if (event.isStartElement()) {
+      QName name = event.asStartElement().getName();
+      if (OscalModelConstants.NS_OSCAL.equals(name.getNamespaceURI())) {
+        retval = StreamedItemType.forXmlName(ObjectUtils.notNull(name.getLocalPart()));
+      }
+    }
+    return retval;
+  }
+
+  @Override
+  public Format getFragmentFormat() {
+    return Format.XML;
+  }
+
+  @Override
+  public StreamedItemType copyToNextMarker() throws IOException {
+    StreamedItemType retval = null;
+    try {
+      boolean backMatter = false;
+      while (retval == null && !backMatter && shell.hasNext()) {
+        XMLEvent event = shell.nextEvent();
+        StreamedItemType itemType = toItemType(event);
+        if (isSlot(itemType)) {
+          skipElement(shell);
+          retval = itemType;
+        } else if (isBackMatter(event)) {
+          skipElement(shell);
+          backMatter = true;
+        } else {
+          writer.add(event);
+        }
+      }
+      writer.flush();
+    } catch (XMLStreamException ex) {
+      throw new IOException(ex);
+    }
+    return retval;
+  }
+
+  @Override
+  public void copyItem(@NonNull String fragment, @NonNull StreamedItemType type) throws IOException {
+    copyFragment(fragment, new QName(OscalModelConstants.NS_OSCAL, type.getXmlName()));
+  }
+
+  @Override
+  public void copyBackMatter(@NonNull String fragment) throws IOException {
+    copyFragment(fragment, BACK_MATTER_QNAME);
+  }
+
+  @Override
+  public void copyToEnd() throws IOException {
+    try {
+      while (shell.hasNext()) {
+        writer.add(shell.nextEvent());
+      }
+      writer.flush();
+    } catch (XMLStreamException ex) {
+      throw new IOException(ex);
+    }
+  }
+
+  /**
+   * Copy the first element with the provided name in the fragment.
+   */
+  private void copyFragment(@NonNull String fragment, @NonNull QName name) throws IOException {
+    try {
+      XMLEventReader reader = newReader(fragment);
+      try {
+        boolean found = false;
+        while (!found && reader.hasNext()) {
+          XMLEvent event = reader.nextEvent();
+          if (event.isStartElement() && name.equals(event.asStartElement().getName())) {
+            writer.add(event);
+            copyElement(reader);
+            found = true;
+          }
+        }
+        if (!found) {
+          throw new IOException(
+              String.format("The serialized fragment does not contain a '%s'.", name.getLocalPart()));
+        }
+      } finally {
+        reader.close();
+      }
+    } catch (XMLStreamException ex) {
+      throw new IOException(ex);
+    }
+  }
+
+  /**
+   * Skip the rest of the element whose start has been read.
+   */
+  private static void skipElement(@NonNull XMLEventReader reader) throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0) {
+      XMLEvent event = reader.nextEvent();
+      if (event.isStartElement()) {
+        depth++;
+      } else if (event.isEndElement()) {
+        depth--;
+      }
+    }
+  }
+
+  /**
+   * Copy the rest of the element whose start has been read.
+   */
+  private void copyElement(@NonNull XMLEventReader reader) throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0) {
+      XMLEvent event = reader.nextEvent();
+      if (event.isStartElement()) {
+        depth++;
+      } else if (event.isEndElement()) {
+        depth--;
+      }
+      writer.add(event);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      writer.close();
+      shell.close();
+    } catch (XMLStreamException ex) {
+      throw new IOException(ex);
+    }
+  }
+}
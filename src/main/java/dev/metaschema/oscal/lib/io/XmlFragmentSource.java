@@ -0,0 +1,158 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Set;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.io.Format;
+import dev.metaschema.oscal.lib.OscalModelConstants;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Reads the fragments of an XML OSCAL document using a StAX event reader.
+ */
+final class XmlFragmentSource
+    extends FragmentSource {
+  @NonNull
+  private static final XMLInputFactory INPUT_FACTORY;
+  @NonNull
+  private static final XMLOutputFactory OUTPUT_FACTORY;
+  @NonNull
+  private static final XMLEventFactory EVENT_FACTORY = ObjectUtils.notNull(XMLEventFactory.newInstance());
+
+  static {
+    INPUT_FACTORY = ObjectUtils.notNull(XMLInputFactory.newInstance());
+    INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    INPUT_FACTORY.setProperty(XMLInputFactory.IS_COALESCING, true);
+    OUTPUT_FACTORY = ObjectUtils.notNull(XMLOutputFactory.newInstance());
+    // declare the namespaces of copied elements whose prefix was declared on an
+    // ancestor that is not copied
+    OUTPUT_FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, true);
+  }
+
+  @NonNull
+  private final XMLEventReader reader;
+  /**
+   * The start elements of the ancestors of the current position, with the root
+   * last.
+   */
+  @NonNull
+  private final Deque<StartElement> ancestors = new ArrayDeque<>();
+
+  XmlFragmentSource(@NonNull InputStream is, @NonNull Set<StreamedItemType> itemTypes) throws IOException {
+    super(itemTypes);
+    try {
+      this.reader = ObjectUtils.notNull(INPUT_FACTORY.createXMLEventReader(is));
+    } catch (XMLStreamException ex) {
+      throw new IOException(ex);
+    }
+  }
+
+  @Override
+  public Format getFragmentFormat() {
+    return Format.XML;
+  }
+
+  @Override
+  public Fragment next() throws IOException {
+    Fragment retval = null;
+    try {
+      while (retval == null && reader.hasNext()) {
+        XMLEvent event = reader.nextEvent();
+        if (event.isStartElement()) {
+          StartElement start = event.asStartElement();
+          QName name = start.getName();
+          StreamedItemType itemType = OscalModelConstants.NS_OSCAL.equals(name.getNamespaceURI())
+              ? StreamedItemType.forXmlName(ObjectUtils.notNull(name.getLocalPart()))
+              : null;
+          if (ancestors.size() == 1 && "metadata".equals(name.getLocalPart())) {
+            retval = capture(start, null);
+          } else if (!ancestors.isEmpty() && isStreamed(itemType)) {
+            retval = capture(start, itemType);
+          } else {
+            ancestors.push(start);
+          }
+        } else if (event.isEndElement()) {
+          ancestors.pop();
+        }
+      }
+    } catch (XMLStreamException ex) {
+      throw new IOException(ex);
+    }
+    return retval;
+  }
+
+  @NonNull
+  private Fragment capture(@NonNull StartElement start, @Nullable StreamedItemType itemType)
+      throws XMLStreamException {
+    StringWriter buffer = new StringWriter();
+    XMLEventWriter writer = OUTPUT_FACTORY.createXMLEventWriter(buffer);
+
+    // write the ancestors, starting with the root
+    Iterator<StartElement> rootFirst = ancestors.descendingIterator();
+    while (rootFirst.hasNext()) {
+      QName name = rootFirst.next().getName();
+      writer.add(EVENT_FACTORY.createStartElement(
+          XMLConstants.DEFAULT_NS_PREFIX,
+          name.getNamespaceURI(),
+          name.getLocalPart()));
+    }
+
+    // copy the element
+    writer.add(start);
+    int depth = 1;
+    while (depth > 0) {
+      XMLEvent event = reader.nextEvent();
+      if (event.isStartElement()) {
+        depth++;
+      } else if (event.isEndElement()) {
+        depth--;
+      }
+      writer.add(event);
+    }
+
+    for (StartElement ancestor : ancestors) {
+      writer.add(EVENT_FACTORY.createEndElement(XMLConstants.DEFAULT_NS_PREFIX,
+          ancestor.getName().getNamespaceURI(),
+          ancestor.getName().getLocalPart()));
+    }
+    writer.close();
+
+    return new Fragment(
+        ObjectUtils.notNull(ancestors.getLast().getName().getLocalPart()),
+        itemType,
+        ObjectUtils.notNull(buffer.toString()));
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      reader.close();
+    } catch (XMLStreamException ex) {
+      throw new IOException(ex);
+    }
+  }
+}
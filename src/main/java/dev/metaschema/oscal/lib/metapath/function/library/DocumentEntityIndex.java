@@ -0,0 +1,166 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.metapath.function.library;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import dev.metaschema.core.metapath.DynamicContext;
+import dev.metaschema.core.metapath.item.node.IDocumentNodeItem;
+import dev.metaschema.core.metapath.item.node.IModelNodeItem;
+import dev.metaschema.core.metapath.item.node.INodeItem;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.oscal.lib.model.Catalog;
+import dev.metaschema.oscal.lib.profile.resolver.support.BasicIndexer;
+import dev.metaschema.oscal.lib.profile.resolver.support.ControlIndexingVisitor;
+import dev.metaschema.oscal.lib.profile.resolver.support.IEntityItem;
+import dev.metaschema.oscal.lib.profile.resolver.support.IIndexer;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Provides lookup of the identified entities in an OSCAL document, using an
+ * index that is built the first time the document is queried.
+ * <p>
+ * For a catalog, the groups, controls, parameters, and parts are indexed along
+ * with the metadata and back-matter entities. For other OSCAL documents, only
+ * the metadata and back-matter entities are indexed.
+ * <p>
+ * An index refers to the document's nodes, so it is only weakly associated with
+ * the document. This allows the document and its index to be collected once
+ * the document is no longer used. To avoid rebuilding the index during an
+ * evaluation, the index is also retained by the {@link DynamicContext} used to
+ * query it, which is itself weakly referenced. A query without a context
+ * retains nothing, so the index may be collected between such queries and
+ * rebuilt by the next one. This trades repeated indexing for not holding large
+ * documents in memory, so callers that query a document repeatedly should
+ * provide a context.
+ * <p>
+ * Building an index only locks the document being indexed, so documents can be
+ * indexed concurrently, and concurrent queries of the same document wait for a
+ * single build.
+ * <p>
+ * An index reflects the document at the time it was built. Since Metapath
+ * evaluation does not modify documents, this is sufficient for evaluating
+ * constraints. If a document is modified, {@link #invalidate(IDocumentNodeItem)}
+ * must be called to discard its index.
+ */
+final class DocumentEntityIndex {
+  @NonNull
+  private static final Map<IDocumentNodeItem, IndexHolder> INDEXES
+      = Collections.synchronizedMap(new WeakHashMap<>());
+  @NonNull
+  private static final Map<DynamicContext, Set<IIndexer>> CONTEXT_INDEXES
+      = Collections.synchronizedMap(new WeakHashMap<>());
+
+  private DocumentEntityIndex() {
+    // disable construction
+  }
+
+  /**
+   * Get the node for the entity with the provided type and identifier.
+   *
+   * @param document
+   *          the document to search
+   * @param itemType
+   *          the type of entity
+   * @param identifier
+   *          the entity's identifier
+   * @param dynamicContext
+   *          the context of the current evaluation, which retains the index
+   *          while it is used, or {@code null} if there is no such context
+   * @return the entity's node, or {@code null} if no such entity exists
+   */
+  @Nullable
+  static IModelNodeItem<?, ?> getEntityNode(
+      @NonNull IDocumentNodeItem document,
+      @NonNull IEntityItem.ItemType itemType,
+      @NonNull String identifier,
+      @Nullable DynamicContext dynamicContext) {
+    IIndexer index = getIndex(document);
+    if (dynamicContext != null) {
+      CONTEXT_INDEXES.computeIfAbsent(dynamicContext, key -> Collections.synchronizedSet(
+          Collections.newSetFromMap(new IdentityHashMap<>()))).add(index);
+    }
+    IEntityItem entity = index.getEntity(itemType, identifier);
+    return entity == null ? null : entity.getInstance();
+  }
+
+  /**
+   * Discard the index for the provided document, if one exists.
+   *
+   * @param document
+   *          the document whose index is discarded
+   */
+  static void invalidate(@NonNull IDocumentNodeItem document) {
+    INDEXES.remove(document);
+  }
+
+  /**
+   * Determine if an index is currently held for the provided document.
+   *
+   * @param document
+   *          the document
+   * @return {@code true} if the document has an index, or {@code false}
+   *         otherwise
+   */
+  static boolean isIndexed(@NonNull IDocumentNodeItem document) {
+    IndexHolder holder = INDEXES.get(document);
+    return holder != null && holder.peek() != null;
+  }
+
+  @NonNull
+  private static IIndexer getIndex(@NonNull IDocumentNodeItem document) {
+    // only the lookup of the holder is done under the shared lock
+    IndexHolder holder = ObjectUtils.notNull(INDEXES.computeIfAbsent(document, key -> new IndexHolder()));
+    return holder.get(document);
+  }
+
+  @NonNull
+  private static IIndexer newIndex(@NonNull IDocumentNodeItem document) {
+    IIndexer retval = new BasicIndexer();
+    ControlIndexingVisitor visitor
+        = new ControlIndexingVisitor(ObjectUtils.notNull(EnumSet.allOf(IEntityItem.ItemType.class)));
+    if (INodeItem.toValue(document) instanceof Catalog) {
+      visitor.visitCatalog(document, retval);
+    } else {
+      visitor.visitProfile(document.getRootAssemblyNodeItem(), retval);
+    }
+    return retval;
+  }
+
+  /**
+   * Holds the index of a single document, and serializes building it.
+   * <p>
+   * The holder is the value of a weak-keyed map, so it must not strongly refer
+   * to the document. The index refers to the document's nodes, so it is only
+   * weakly referenced.
+   */
+  private static final class IndexHolder {
+    @Nullable
+    private WeakReference<IIndexer> reference;
+
+    @Nullable
+    private synchronized IIndexer peek() {
+      return reference == null ? null : reference.get();
+    }
+
+    @NonNull
+    private synchronized IIndexer get(@NonNull IDocumentNodeItem document) {
+      IIndexer retval = peek();
+      if (retval == null) {
+        retval = newIndex(document);
+        reference = new WeakReference<>(retval);
+      }
+      return retval;
+    }
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.metapath.function.library;
+
+import java.util.List;
+
+import dev.metaschema.core.metapath.DynamicContext;
+import dev.metaschema.core.metapath.function.FunctionUtils;
+import dev.metaschema.core.metapath.function.IArgument;
+import dev.metaschema.core.metapath.function.IFunction;
+import dev.metaschema.core.metapath.function.library.FnRoot;
+import dev.metaschema.core.metapath.item.IItem;
+import dev.metaschema.core.metapath.item.ISequence;
+import dev.metaschema.core.metapath.item.atomic.IStringItem;
+import dev.metaschema.core.metapath.item.node.IAssemblyNodeItem;
+import dev.metaschema.core.metapath.item.node.IDocumentNodeItem;
+import dev.metaschema.core.metapath.item.node.IModelNodeItem;
+import dev.metaschema.core.metapath.item.node.INodeItem;
+import dev.metaschema.oscal.lib.OscalModelConstants;
+import dev.metaschema.oscal.lib.profile.resolver.support.IEntityItem;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Supports looking up identified entities in the document containing the
+ * focus, using an index of the document's entities instead of searching the
+ * document.
+ * <p>
+ * The following functions are provided:
+ * <ul>
+ * <li>{@code oscal:control-by-id($id)}</li>
+ * <li>{@code oscal:param-by-id($id)}</li>
+ * <li>{@code oscal:part-by-id($id)}</li>
+ * <li>{@code oscal:resource-by-uuid($uuid)}</li>
+ * </ul>
+ */
+public final class EntityById {
+  @NonNull
+  static final IFunction SIGNATURE_CONTROL_BY_ID = newSignature("control-by-id", "id", IEntityItem.ItemType.CONTROL);
+  @NonNull
+  static final IFunction SIGNATURE_PARAM_BY_ID = newSignature("param-by-id", "id", IEntityItem.ItemType.PARAMETER);
+  @NonNull
+  static final IFunction SIGNATURE_PART_BY_ID = newSignature("part-by-id", "id", IEntityItem.ItemType.PART);
+  @NonNull
+  static final IFunction SIGNATURE_RESOURCE_BY_UUID
+      = newSignature("resource-by-uuid", "uuid", IEntityItem.ItemType.RESOURCE);
+
+  private EntityById() {
+    // disable construction
+  }
+
+  @NonNull
+  private static IFunction newSignature(
+      @NonNull String name,
+      @NonNull String argumentName,
+      @NonNull IEntityItem.ItemType itemType) {
+    return IFunction.builder()
+        .name(name)
+        .namespace(OscalModelConstants.NS_OSCAL)
+        .argument(IArgument.builder()
+            .name(argumentName)
+            .type(IStringItem.type())
+            .zeroOrOne()
+            .build())
+        .focusDependent()
+        .contextIndependent()
+        .deterministic()
+        .returnType(IAssemblyNodeItem.type())
+        .returnZeroOrOne()
+        .functionHandler((function, arguments, dynamicContext, focus) -> execute(
+            itemType,
+            arguments,
+            dynamicContext,
+            focus))
+        .build();
+  }
+
+  @SuppressWarnings({ "unused",
+      "PMD.OnlyOneReturn" // readability
+  })
+  @NonNull
+  private static ISequence<?> execute(
+      @NonNull IEntityItem.ItemType itemType,
+      @NonNull List<ISequence<?>> arguments,
+      @NonNull DynamicContext dynamicContext,
+      IItem focus) {
+    IStringItem identifier = FunctionUtils.asTypeOrNull(arguments.get(0).getFirstItem(true));
+    if (identifier == null || !(focus instanceof INodeItem)) {
+      return ISequence.empty();
+    }
+
+    return ISequence.of(lookup((INodeItem) focus, itemType, identifier.asString(), dynamicContext));
+  }
+
+  /**
+   * Lookup the entity with the provided type and identifier in the document
+   * containing the provided node.
+   *
+   * @param node
+   *          a node in the document to search
+   * @param itemType
+   *          the type of entity
+   * @param identifier
+   *          the entity's identifier
+   * @return the entity's node, or {@code null} if no such entity exists
+   */
+  @Nullable
+  public static IModelNodeItem<?, ?> lookup(
+      @NonNull INodeItem node,
+      @NonNull IEntityItem.ItemType itemType,
+      @NonNull String identifier) {
+    return lookup(node, itemType, identifier, null);
+  }
+
+  /**
+   * Lookup the entity with the provided type and identifier in the document
+   * containing the provided node.
+   * <p>
+   * The document's index is retained by the provided context, so it is not
+   * rebuilt during the evaluation using the context.
+   *
+   * @param node
+   *          a node in the document to search
+   * @param itemType
+   *          the type of entity
+   * @param identifier
+   *          the entity's identifier
+   * @param dynamicContext
+   *          the evaluation context, or {@code null} if there is no such
+   *          context
+   * @return the entity's node, or {@code null} if no such entity exists
+   */
+  @Nullable
+  public static IModelNodeItem<?, ?> lookup(
+      @NonNull INodeItem node,
+      @NonNull IEntityItem.ItemType itemType,
+      @NonNull String identifier,
+      @Nullable DynamicContext dynamicContext) {
+    INodeItem root = FnRoot.fnRoot(node);
+
+    IModelNodeItem<?, ?> retval = null;
+    if (root instanceof IDocumentNodeItem) {
+      retval = DocumentEntityIndex.getEntityNode((IDocumentNodeItem) root, itemType, identifier, dynamicContext);
+    }
+    return retval;
+  }
+
+  /**
+   * Discard the index of the document containing the provided node.
+   * <p>
+   * This must be called after the document is modified, so that later lookups
+   * reflect the changes.
+   *
+   * @param node
+   *          a node in the document
+   */
+  public static void invalidateIndex(@NonNull INodeItem node) {
+    INodeItem root = FnRoot.fnRoot(node);
+    if (root instanceof IDocumentNodeItem) {
+      DocumentEntityIndex.invalidate((IDocumentNodeItem) root);
+    }
+  }
+}
@@ -7,6 +7,10 @@ package dev.metaschema.oscal.lib.metapath.function.library;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import dev.metaschema.core.metapath.DynamicContext;
 import dev.metaschema.core.metapath.MetapathConstants;
@@ -31,11 +35,20 @@ import dev.metaschema.core.util.ObjectUtils;
 import dev.metaschema.oscal.lib.OscalModelConstants;
 import dev.metaschema.oscal.lib.model.metadata.IProperty;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 
 public final class HasOscalNamespace {
   @NonNull
   private static final IEnhancedQName NS_FLAG_QNAME = IEnhancedQName.of("ns");
   @NonNull
+  private static final String OSCAL_NAMESPACE = ObjectUtils.notNull(IProperty.OSCAL_NAMESPACE.toString());
+  /**
+   * The normalized default namespace for each definition with a "ns" flag, or
+   * an empty value if the definition has no "ns" flag.
+   */
+  @NonNull
+  private static final Map<IModelDefinition, Optional<String>> DEFAULT_NAMESPACES = new ConcurrentHashMap<>();
+  @NonNull
   static final IFunction SIGNATURE_ONE_ARG = IFunction.builder()
       .name("has-oscal-namespace")
       .namespace(OscalModelConstants.NS_OSCAL)
@@ -178,39 +191,103 @@ public final class HasOscalNamespace {
     return ISequence.of(hasNamespace(node, namespaceArgs));
   }
 
+  /**
+   * Determine if the provided prop or part has one of the provided namespaces.
+   *
+   * @param propOrPart
+   *          the prop or part node to check
+   * @param namespaces
+   *          the namespaces to match
+   * @return {@link IBooleanItem#TRUE} if the node's namespace matches one of the
+   *         provided namespaces, or {@link IBooleanItem#FALSE} otherwise
+   */
   @SuppressWarnings("PMD.LinguisticNaming") // false positive
   @NonNull
   public static IBooleanItem hasNamespace(
       @NonNull IModelNodeItem<?, ?> propOrPart,
       @NonNull ISequence<? extends IStringItem> namespaces) {
+    String nodeNamespace = getNormalizedNamespace(propOrPart);
+
+    boolean retval = false;
+    if (nodeNamespace != null) {
+      for (IStringItem namespace : namespaces.getValue()) {
+        if (nodeNamespace.equals(namespace.asString())) {
+          retval = true;
+          break;
+        }
+      }
+    }
+    return IBooleanItem.valueOf(retval);
+  }
+
+  /**
+   * Determine if the provided prop or part has one of the provided namespaces.
+   * <p>
+   * This is intended for callers that check the same namespaces repeatedly,
+   * allowing the set of namespaces to be built once.
+   *
+   * @param propOrPart
+   *          the prop or part node to check
+   * @param namespaces
+   *          the namespaces to match
+   * @return {@code true} if the node's namespace matches one of the provided
+   *         namespaces, or {@code false} otherwise
+   */
+  @SuppressWarnings("PMD.LinguisticNaming") // false positive
+  public static boolean hasNamespace(
+      @NonNull IModelNodeItem<?, ?> propOrPart,
+      @NonNull Set<String> namespaces) {
+    String nodeNamespace = getNormalizedNamespace(propOrPart);
+    return nodeNamespace != null && namespaces.contains(nodeNamespace);
+  }
+
+  /**
+   * Get the namespace of the provided prop or part, using the OSCAL namespace if
+   * no namespace is provided.
+   *
+   * @param propOrPart
+   *          the prop or part node
+   * @return the namespace, or {@code null} if the node does not support a
+   *         namespace
+   */
+  @Nullable
+  private static String getNormalizedNamespace(@NonNull IModelNodeItem<?, ?> propOrPart) {
     Object propOrPartObject = propOrPart.getValue();
     if (propOrPartObject == null) {
       throw new InvalidTypeFunctionException(InvalidTypeFunctionException.NODE_HAS_NO_TYPED_VALUE, propOrPart);
     }
 
-    URI nodeNamespace = null;
+    String retval;
     // get the "ns" flag value
     IFlagNodeItem ns = propOrPart.getFlagByName(NS_FLAG_QNAME);
     if (ns == null) {
-      // check if the node actually has a "ns" flag
-      IModelDefinition definition = propOrPart.getDefinition();
-      IFlagInstance flag = definition.getFlagInstanceByName(NS_FLAG_QNAME.getIndexPosition());
-      if (flag == null) {
-        // Node doesn't support namespaces, so it can't match any namespace
-        return IBooleanItem.FALSE;
-      }
-
-      Object defaultValue = flag.getDefinition().getDefaultValue();
-      if (defaultValue != null) {
-        nodeNamespace = IAnyUriItem.valueOf(ObjectUtils.notNull(defaultValue.toString())).asUri();
-      }
+      // use the cached default, which is empty if the node doesn't support namespaces
+      retval = DEFAULT_NAMESPACES.computeIfAbsent(
+          propOrPart.getDefinition(),
+          HasOscalNamespace::getDefaultNamespace).orElse(null);
     } else {
-      nodeNamespace = IAnyUriItem.cast(ObjectUtils.notNull(ns.toAtomicItem())).asUri();
+      // the bound value is a URI, whose string form is retained by the URI
+      Object value = ns.getValue();
+      retval = value == null ? OSCAL_NAMESPACE : value.toString();
     }
+    return retval;
+  }
 
-    String nodeNamespaceString = IProperty.normalizeNamespace(nodeNamespace).toString();
-    return IBooleanItem.valueOf(namespaces.stream()
-        .map(node -> nodeNamespaceString.equals(node.asString()))
-        .anyMatch(bool -> bool));
+  @NonNull
+  private static Optional<String> getDefaultNamespace(@NonNull IModelDefinition definition) {
+    // check if the node actually has a "ns" flag
+    IFlagInstance flag = definition.getFlagInstanceByName(NS_FLAG_QNAME.getIndexPosition());
+
+    Optional<String> retval;
+    if (flag == null) {
+      retval = Optional.empty();
+    } else {
+      Object defaultValue = flag.getDefinition().getDefaultValue();
+      URI namespace = defaultValue == null
+          ? null
+          : IAnyUriItem.valueOf(ObjectUtils.notNull(defaultValue.toString())).asUri();
+      retval = Optional.of(ObjectUtils.notNull(IProperty.normalizeNamespace(namespace).toString()));
+    }
+    return retval;
   }
 }
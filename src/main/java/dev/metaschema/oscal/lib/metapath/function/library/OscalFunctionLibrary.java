@@ -17,6 +17,11 @@ public class OscalFunctionLibrary
     registerFunction(HasOscalNamespace.SIGNATURE_TWO_ARGS);
     registerFunction(ResolveReference.SIGNATURE_ONE_ARG);
     registerFunction(ResolveReference.SIGNATURE_TWO_ARGS);
+    registerFunction(EntityById.SIGNATURE_CONTROL_BY_ID);
+    registerFunction(EntityById.SIGNATURE_PARAM_BY_ID);
+    registerFunction(EntityById.SIGNATURE_PART_BY_ID);
+    registerFunction(EntityById.SIGNATURE_RESOURCE_BY_UUID);
+    registerFunction(ParamValue.SIGNATURE_ONE_ARG);
 
     // for backwards compatibility with no function namespace
     registerFunction(ResolveProfile.SIGNATURE_NO_ARG_METAPATH);
@@ -0,0 +1,90 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.metapath.function.library;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import dev.metaschema.core.metapath.DynamicContext;
+import dev.metaschema.core.metapath.function.FunctionUtils;
+import dev.metaschema.core.metapath.function.IArgument;
+import dev.metaschema.core.metapath.function.IFunction;
+import dev.metaschema.core.metapath.function.library.FnRoot;
+import dev.metaschema.core.metapath.item.IItem;
+import dev.metaschema.core.metapath.item.ISequence;
+import dev.metaschema.core.metapath.item.atomic.IStringItem;
+import dev.metaschema.core.metapath.item.node.INodeItem;
+import dev.metaschema.core.util.CollectionUtil;
+import dev.metaschema.oscal.lib.OscalModelConstants;
+import dev.metaschema.oscal.lib.model.control.catalog.AbstractCatalog;
+import dev.metaschema.oscal.lib.model.control.catalog.ParameterDependencyGraph;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Supports getting the effective values of a catalog parameter, using the
+ * catalog's {@link ParameterDependencyGraph}.
+ */
+public final class ParamValue {
+  @NonNull
+  static final IFunction SIGNATURE_ONE_ARG = IFunction.builder()
+      .name("param-value")
+      .namespace(OscalModelConstants.NS_OSCAL)
+      .argument(IArgument.builder()
+          .name("id")
+          .type(IStringItem.type())
+          .zeroOrOne()
+          .build())
+      .focusDependent()
+      .contextIndependent()
+      .deterministic()
+      .returnType(IStringItem.type())
+      .returnZeroOrMore()
+      .functionHandler(ParamValue::executeOneArg)
+      .build();
+
+  private ParamValue() {
+    // disable construction
+  }
+
+  @SuppressWarnings({ "unused",
+      "PMD.OnlyOneReturn" // readability
+  })
+  @NonNull
+  private static ISequence<?> executeOneArg(
+      @NonNull IFunction function,
+      @NonNull List<ISequence<?>> arguments,
+      @NonNull DynamicContext dynamicContext,
+      IItem focus) {
+    IStringItem id = FunctionUtils.asTypeOrNull(arguments.get(0).getFirstItem(true));
+    if (id == null || !(focus instanceof INodeItem)) {
+      return ISequence.empty();
+    }
+
+    return ISequence.of(paramValue((INodeItem) focus, id.asString()).stream()
+        .map(IStringItem::valueOf)
+        .collect(Collectors.toList()));
+  }
+
+  /**
+   * Get the effective values of a parameter in the catalog containing the
+   * provided node.
+   *
+   * @param node
+   *          a node in the catalog
+   * @param id
+   *          the parameter identifier
+   * @return the effective values, which is empty if the node is not in a catalog
+   *         or the parameter is unknown
+   * @see ParameterDependencyGraph#getEffectiveValues(String)
+   */
+  @NonNull
+  public static List<String> paramValue(@NonNull INodeItem node, @NonNull String id) {
+    Object root = INodeItem.toValue(FnRoot.fnRoot(node));
+    return root instanceof AbstractCatalog
+        ? ((AbstractCatalog) root).getEffectiveParameterValues(id)
+        : CollectionUtil.emptyList();
+  }
+}
@@ -129,6 +129,20 @@ public final class ResolveProfile {
     return ISequence.of(resolveProfile(FunctionUtils.asType(item), dynamicContext));
   }
 
+  /**
+   * Resolve the provided profile document.
+   * <p>
+   * Resolved profiles are cached by the {@link ResolvedProfileCache}, so
+   * repeated calls for the same profile in the same dynamic context only resolve
+   * the profile once.
+   *
+   * @param document
+   *          the profile or catalog document, whose base URI may refer to a
+   *          fragment
+   * @param dynamicContext
+   *          the dynamic context to use for resolution
+   * @return the resolved catalog, or the document itself if it is a catalog
+   */
   @NonNull
   public static IDocumentNodeItem resolveProfile(
       @NonNull IDocumentNodeItem document,
@@ -154,18 +168,30 @@ public final class ResolveProfile {
       retval = profile;
     } else {
       // this is a profile
-      ProfileResolver resolver
-          = new ProfileResolver(dynamicContext, (uri, source) -> profile.getDocumentUri().resolve(uri));
-      try {
-        retval = resolver.resolve(profile);
-      } catch (IOException | ProfileResolutionException ex) {
-        throw new DocumentFunctionException(
-            DocumentFunctionException.ERROR_RETRIEVING_RESOURCE,
-            String.format("Unable to resolve profile '%s'. %s",
-                profile.getBaseUri(),
-                ex.getLocalizedMessage()),
-            ex);
-      }
+      retval = ResolvedProfileCache.instance().resolve(
+          profile,
+          dynamicContext,
+          item -> resolveUncached(item, dynamicContext));
+    }
+    return retval;
+  }
+
+  @NonNull
+  private static IDocumentNodeItem resolveUncached(
+      @NonNull IDocumentNodeItem profile,
+      @NonNull DynamicContext dynamicContext) {
+    ProfileResolver resolver
+        = new ProfileResolver(dynamicContext, (uri, source) -> profile.getDocumentUri().resolve(uri));
+    IDocumentNodeItem retval;
+    try {
+      retval = resolver.resolve(profile);
+    } catch (IOException | ProfileResolutionException ex) {
+      throw new DocumentFunctionException(
+          DocumentFunctionException.ERROR_RETRIEVING_RESOURCE,
+          String.format("Unable to resolve profile '%s'. %s",
+              profile.getBaseUri(),
+              ex.getLocalizedMessage()),
+          ex);
     }
     return retval;
   }
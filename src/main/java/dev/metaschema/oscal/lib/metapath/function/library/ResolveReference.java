@@ -14,7 +14,6 @@ import dev.metaschema.core.metapath.function.IArgument;
 import dev.metaschema.core.metapath.function.IFunction;
 import dev.metaschema.core.metapath.function.InvalidArgumentFunctionException;
 import dev.metaschema.core.metapath.function.UnidentifiedFunctionError;
-import dev.metaschema.core.metapath.function.library.FnRoot;
 import dev.metaschema.core.metapath.item.IItem;
 import dev.metaschema.core.metapath.item.ISequence;
 import dev.metaschema.core.metapath.item.atomic.IAnyUriItem;
@@ -142,24 +141,57 @@ public final class ResolveReference {
     return (INodeItem) item;
   }
 
+  /**
+   * Resolve a reference to a back-matter resource in the document containing
+   * the focused item.
+   * <p>
+   * Resolved references are cached per document, so repeated references to the
+   * same resource are resolved once. Use {@link #invalidateCache(INodeItem)}
+   * after changing the rlinks of a resource in the document.
+   *
+   * @param reference
+   *          the reference to resolve, which is returned as-is if it is not a
+   *          same-document fragment reference
+   * @param mediaType
+   *          the media type of the rlink to resolve, or {@code null} to resolve
+   *          the first rlink
+   * @param focusedItem
+   *          an item in the document containing the resource
+   * @return the resolved reference
+   */
   @NonNull
   public static IAnyUriItem resolveReference(
       @NonNull IAnyUriItem reference,
       @Nullable IStringItem mediaType,
       @NonNull INodeItem focusedItem) {
-    INodeItem root = FnRoot.fnRoot(focusedItem);
-    IOscalInstance oscalInstance = (IOscalInstance) INodeItem.toValue(root);
-
     URI referenceUri = reference.asUri();
     String fragment = referenceUri.getFragment();
 
-    return fragment != null
-        && (referenceUri.getPath() == null || referenceUri.getPath().isEmpty())
-            ? IAnyUriItem.valueOf(resolveReference(
-                fragment,
-                mediaType == null ? null : mediaType.asString(),
-                oscalInstance))
-            : reference;
+    IAnyUriItem retval;
+    if (fragment != null
+        && (referenceUri.getPath() == null || referenceUri.getPath().isEmpty())) {
+      retval = IAnyUriItem.valueOf(ResourceReferenceCache.forItem(focusedItem).resolve(
+          fragment,
+          mediaType == null ? null : mediaType.asString()));
+    } else {
+      retval = reference;
+    }
+    return retval;
+  }
+
+  /**
+   * Discard the cached reference resolutions for the document containing the
+   * provided item.
+   * <p>
+   * Adding, removing, or replacing a back-matter resource is detected
+   * automatically. This must be called after the rlinks of an existing resource
+   * are changed.
+   *
+   * @param item
+   *          an item in the document
+   */
+  public static void invalidateCache(@NonNull INodeItem item) {
+    ResourceReferenceCache.forItem(item).invalidate();
   }
 
   @NonNull
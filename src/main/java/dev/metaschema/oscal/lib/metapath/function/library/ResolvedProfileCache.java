@@ -0,0 +1,213 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.metapath.function.library;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import dev.metaschema.core.metapath.DynamicContext;
+import dev.metaschema.core.metapath.item.node.IDocumentNodeItem;
+import dev.metaschema.core.metapath.item.node.INodeItem;
+import dev.metaschema.core.model.IBoundObject;
+import dev.metaschema.oscal.lib.model.util.ContentDigester;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Caches the results of the {@code resolve-profile} Metapath function.
+ * <p>
+ * Resolved profiles are cached per {@link DynamicContext}, keyed by the
+ * profile's document URI. This avoids resolving the same profile repeatedly
+ * when it is used by multiple constraints evaluated using the same context.
+ * <p>
+ * A process-wide cache can also be enabled using
+ * {@link #setSharedCacheSize(int)}, or by setting the
+ * {@value #PROPERTY_SHARED_CACHE_SIZE} system property. This cache is keyed by
+ * the profile's document URI and a {@link ContentDigester content digest} of
+ * the loaded profile, so the profile is not read again to compute the key. It
+ * retains up to the configured number of the most recently used profiles.
+ * Since a change to an imported document is not reflected in this digest, this
+ * cache is disabled by default.
+ * <p>
+ * Both caches can be turned off using {@link #setEnabled(boolean)}.
+ */
+public final class ResolvedProfileCache {
+  /**
+   * The system property used to set the initial size of the process-wide cache.
+   */
+  public static final String PROPERTY_SHARED_CACHE_SIZE = "dev.metaschema.oscal.resolve-profile.shared-cache-size";
+
+  @NonNull
+  private static final ResolvedProfileCache SINGLETON = new ResolvedProfileCache();
+
+  @NonNull
+  private final Map<DynamicContext, Map<URI, IDocumentNodeItem>> contextCache
+      = Collections.synchronizedMap(new WeakHashMap<>());
+  @NonNull
+  private final Map<String, IDocumentNodeItem> sharedCache = new LinkedHashMap<>(16, 0.75f, true) {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, IDocumentNodeItem> eldest) {
+      return size() > sharedCacheSize;
+    }
+  };
+  private volatile boolean enabled = true;
+  private volatile int sharedCacheSize = Integer.getInteger(PROPERTY_SHARED_CACHE_SIZE, 0);
+
+  /**
+   * Get the singleton instance of the cache.
+   *
+   * @return the instance
+   */
+  @SuppressFBWarnings(value = "SING_SINGLETON_GETTER_NOT_SYNCHRONIZED", justification = "class initialization")
+  @NonNull
+  public static ResolvedProfileCache instance() {
+    return SINGLETON;
+  }
+
+  private ResolvedProfileCache() {
+    // disable construction
+  }
+
+  /**
+   * Determine if resolved profiles are cached.
+   *
+   * @return {@code true} if caching is enabled, or {@code false} otherwise
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enable or disable the caching of resolved profiles. Disabling caching also
+   * discards any cached profiles.
+   *
+   * @param enabled
+   *          {@code true} to enable caching, or {@code false} to disable it
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    if (!enabled) {
+      clear();
+    }
+  }
+
+  /**
+   * Get the maximum number of resolved profiles retained by the process-wide
+   * cache.
+   *
+   * @return the maximum size, or {@code 0} if the process-wide cache is disabled
+   */
+  public int getSharedCacheSize() {
+    return sharedCacheSize;
+  }
+
+  /**
+   * Set the maximum number of resolved profiles retained by the process-wide
+   * cache.
+   *
+   * @param size
+   *          the maximum size, or {@code 0} to disable the process-wide cache
+   */
+  public void setSharedCacheSize(int size) {
+    if (size < 0) {
+      throw new IllegalArgumentException("The cache size must not be negative.");
+    }
+    synchronized (sharedCache) {
+      this.sharedCacheSize = size;
+      if (size == 0) {
+        sharedCache.clear();
+      } else {
+        // evict any entries over the new size, starting with the least recently used
+        sharedCache.keySet().removeIf(key -> sharedCache.size() > size);
+      }
+    }
+  }
+
+  /**
+   * Discard all cached profiles.
+   */
+  public void clear() {
+    contextCache.clear();
+    synchronized (sharedCache) {
+      sharedCache.clear();
+    }
+  }
+
+  /**
+   * Get the resolved profile for the provided profile document, resolving it
+   * using the provided function if it is not cached.
+   *
+   * @param profile
+   *          the profile document to resolve
+   * @param dynamicContext
+   *          the dynamic context the profile is resolved in
+   * @param resolver
+   *          the function used to resolve the profile
+   * @return the resolved profile
+   */
+  @NonNull
+  public IDocumentNodeItem resolve(
+      @NonNull IDocumentNodeItem profile,
+      @NonNull DynamicContext dynamicContext,
+      @NonNull Function<IDocumentNodeItem, IDocumentNodeItem> resolver) {
+    IDocumentNodeItem retval;
+    if (enabled) {
+      Map<URI, IDocumentNodeItem> resolvedProfiles
+          = contextCache.computeIfAbsent(dynamicContext, key -> new ConcurrentHashMap<>());
+      // not using computeIfAbsent, since resolution may recursively resolve other
+      // profiles using the same context
+      URI documentUri = profile.getDocumentUri();
+      retval = resolvedProfiles.get(documentUri);
+      if (retval == null) {
+        retval = resolveShared(profile, resolver);
+        resolvedProfiles.put(documentUri, retval);
+      }
+    } else {
+      retval = resolver.apply(profile);
+    }
+    return retval;
+  }
+
+  @NonNull
+  private IDocumentNodeItem resolveShared(
+      @NonNull IDocumentNodeItem profile,
+      @NonNull Function<IDocumentNodeItem, IDocumentNodeItem> resolver) {
+    String key = sharedCacheSize > 0 ? sharedCacheKey(profile) : null;
+
+    IDocumentNodeItem retval = null;
+    if (key != null) {
+      synchronized (sharedCache) {
+        retval = sharedCache.get(key);
+      }
+    }
+
+    if (retval == null) {
+      retval = resolver.apply(profile);
+      if (key != null) {
+        synchronized (sharedCache) {
+          if (sharedCacheSize > 0) {
+            sharedCache.put(key, retval);
+          }
+        }
+      }
+    }
+    return retval;
+  }
+
+  @NonNull
+  private static String sharedCacheKey(@NonNull IDocumentNodeItem profile) {
+    // a new digester is used, since it retains the digested objects
+    IBoundObject profileObject = INodeItem.toValue(profile);
+    return profile.getDocumentUri() + " " + new ContentDigester().digest(profileObject);
+  }
+}
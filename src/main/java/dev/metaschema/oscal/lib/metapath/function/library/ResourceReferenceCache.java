@@ -0,0 +1,187 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.metapath.function.library;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import dev.metaschema.core.metapath.item.atomic.IUuidItem;
+import dev.metaschema.core.metapath.item.node.INodeItem;
+import dev.metaschema.oscal.lib.model.BackMatter.Resource;
+import dev.metaschema.oscal.lib.model.IOscalInstance;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Caches the resolution of back-matter resource references for a single OSCAL
+ * document.
+ * <p>
+ * A cache is created for each document's root node item, and maps a reference
+ * fragment and media type to the resolved URI. The cache is also associated
+ * with each node item it is looked up from, and their ancestors, so that later
+ * lookups only walk up to the nearest node that already has an association,
+ * instead of to the document's root. All associations are weak, and are held
+ * in a concurrent map, so lookups from different threads do not contend on a
+ * shared lock.
+ * <p>
+ * A cached result is only used if the same resource instance is still found for
+ * the referenced UUID, which detects resources being added, removed, or
+ * replaced. Changes made to the rlinks of an existing resource are not
+ * detected; {@link ResolveReference#invalidateCache(INodeItem)} must be called
+ * in this case.
+ */
+final class ResourceReferenceCache {
+  @NonNull
+  private static final ConcurrentMap<NodeKey, ResourceReferenceCache> CACHES = new ConcurrentHashMap<>();
+  @NonNull
+  private static final ReferenceQueue<INodeItem> COLLECTED = new ReferenceQueue<>();
+
+  @NonNull
+  private final IOscalInstance oscalInstance;
+  @NonNull
+  private final Map<Pair<String, String>, Entry> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Get the cache for the document containing the provided node, creating it if
+   * needed.
+   *
+   * @param item
+   *          a node in the document
+   * @return the cache
+   */
+  @NonNull
+  static ResourceReferenceCache forItem(@NonNull INodeItem item) {
+    expungeCollected();
+
+    List<INodeItem> visited = new ArrayList<>();
+    INodeItem current = item;
+    ResourceReferenceCache retval = CACHES.get(new NodeKey(current, null));
+    while (retval == null) {
+      visited.add(current);
+      INodeItem parent = current.getParentNodeItem();
+      if (parent == null) {
+        // this is the root, whose cache may have been created concurrently
+        ResourceReferenceCache cache = new ResourceReferenceCache((IOscalInstance) INodeItem.toValue(current));
+        ResourceReferenceCache existing = CACHES.putIfAbsent(new NodeKey(current, COLLECTED), cache);
+        retval = existing == null ? cache : existing;
+      } else {
+        current = parent;
+        retval = CACHES.get(new NodeKey(current, null));
+      }
+    }
+
+    for (INodeItem node : visited) {
+      CACHES.putIfAbsent(new NodeKey(node, COLLECTED), retval);
+    }
+    return retval;
+  }
+
+  /**
+   * Remove the associations of nodes that have been garbage collected.
+   */
+  private static void expungeCollected() {
+    for (Reference<? extends INodeItem> key = COLLECTED.poll(); key != null; key = COLLECTED.poll()) {
+      CACHES.remove(key);
+    }
+  }
+
+  private ResourceReferenceCache(@NonNull IOscalInstance oscalInstance) {
+    this.oscalInstance = oscalInstance;
+  }
+
+  /**
+   * Resolve the reference to a back-matter resource.
+   *
+   * @param reference
+   *          the UUID of the referenced resource
+   * @param mediaType
+   *          the media type of the rlink to resolve, or {@code null} to resolve
+   *          the first rlink
+   * @return the resolved URI
+   * @see ResolveReference#resolveReference(String, String, IOscalInstance)
+   */
+  @NonNull
+  URI resolve(@NonNull String reference, @Nullable String mediaType) {
+    Pair<String, String> key = Pair.of(reference, mediaType);
+
+    Entry entry = entries.get(key);
+    if (entry == null || oscalInstance.getResourceByUuid(entry.uuid) != entry.resource) {
+      UUID uuid = IUuidItem.valueOf(reference).asUuid();
+      URI uri = ResolveReference.resolveReference(reference, mediaType, oscalInstance);
+      // failed resolutions are not cached, since they raise an error
+      entry = new Entry(uuid, oscalInstance.getResourceByUuid(uuid), uri);
+      entries.put(key, entry);
+    }
+    return entry.uri;
+  }
+
+  /**
+   * Discard all cached references.
+   */
+  void invalidate() {
+    entries.clear();
+  }
+
+  /**
+   * A weak reference to a node, which is equal to another key referring to the
+   * same node instance.
+   * <p>
+   * The identity hash code of the node is kept, so that a key can still be
+   * found and removed once its node has been collected.
+   */
+  private static final class NodeKey extends WeakReference<INodeItem> {
+    private final int hash;
+
+    private NodeKey(@NonNull INodeItem node, @Nullable ReferenceQueue<INodeItem> queue) {
+      super(node, queue);
+      this.hash = System.identityHashCode(node);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      boolean retval;
+      if (this == obj) {
+        retval = true;
+      } else if (obj instanceof NodeKey) {
+        INodeItem node = get();
+        retval = node != null && node == ((NodeKey) obj).get();
+      } else {
+        retval = false;
+      }
+      return retval;
+    }
+  }
+
+  private static final class Entry {
+    @NonNull
+    private final UUID uuid;
+    @Nullable
+    private final Resource resource;
+    @NonNull
+    private final URI uri;
+
+    private Entry(@NonNull UUID uuid, @Nullable Resource resource, @NonNull URI uri) {
+      this.uuid = uuid;
+      this.resource = resource;
+      this.uri = uri;
+    }
+  }
+}
@@ -24,6 +24,7 @@ import dev.metaschema.oscal.lib.model.ParameterGuideline;
 import dev.metaschema.oscal.lib.model.ParameterSelection;
 import dev.metaschema.oscal.lib.model.Property;
 import dev.metaschema.oscal.lib.model.metadata.IProperty;
+import dev.metaschema.oscal.lib.model.util.MarkupReferenceSummary;
 import edu.umd.cs.findbugs.annotations.NonNull;
 
 public abstract class AbstractParameter implements IParameter {
@@ -46,8 +47,7 @@ public abstract class AbstractParameter implements IParameter {
     } else {
       selectInsertIds = CollectionUtil.listOrEmpty(selection.getChoice()).stream()
           .filter(Objects::nonNull)
-          .flatMap(choice -> choice.getInserts(insert -> "param".equals(insert.getType().toString())).stream()
-              .map(insert -> insert.getIdReference().toString()));
+          .flatMap(choice -> MarkupReferenceSummary.of(choice).getInsertIdReferences("param"));
     }
     Stream<String> retval = Stream.concat(aggregatesIds, selectInsertIds)
         .filter(Objects::nonNull)
@@ -21,7 +21,10 @@ import dev.metaschema.core.util.ObjectUtils;
 import dev.metaschema.oscal.lib.model.ControlPart;
 import dev.metaschema.oscal.lib.model.Link;
 import dev.metaschema.oscal.lib.model.Property;
+import dev.metaschema.oscal.lib.model.util.MarkupReferenceSummary;
+import dev.metaschema.oscal.lib.model.util.ProseTemplate;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 
 public abstract class AbstractPart implements IPart {
 
@@ -35,12 +38,26 @@ public abstract class AbstractPart implements IPart {
     if (prose == null) {
       retval = ObjectUtils.notNull(Stream.empty());
     } else {
-      List<InsertAnchorExtension.InsertAnchorNode> result = prose.getInserts(filter);
-      retval = ObjectUtils.notNull(result.stream());
+      retval = MarkupReferenceSummary.of(prose).getInserts(filter);
     }
     return retval;
   }
 
+  /**
+   * Get the part's prose compiled as a template for the provided format, which
+   * can be used to efficiently render the prose with parameter values inserted.
+   *
+   * @param format
+   *          the output format
+   * @return the template, or {@code null} if the part has no prose
+   * @see ProseTemplate
+   */
+  @Nullable
+  public ProseTemplate getProseTemplate(@NonNull ProseTemplate.Format format) {
+    MarkupMultiline prose = getProse();
+    return prose == null ? null : ProseTemplate.of(prose, format);
+  }
+
   public Stream<IPart> getPartsRecursively() {
     return Stream.concat(
         Stream.of(this),
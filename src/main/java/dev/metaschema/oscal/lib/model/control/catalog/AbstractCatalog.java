@@ -5,17 +5,27 @@
 
 package dev.metaschema.oscal.lib.model.control.catalog;
 
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import dev.metaschema.core.util.CollectionUtil;
 import dev.metaschema.core.util.ObjectUtils;
 import dev.metaschema.oscal.lib.model.AbstractOscalInstance;
+import dev.metaschema.oscal.lib.model.Catalog;
+import dev.metaschema.oscal.lib.model.CatalogGroup;
+import dev.metaschema.oscal.lib.model.Control;
+import dev.metaschema.oscal.lib.model.Parameter;
 import dev.metaschema.oscal.lib.model.control.AbstractParameter;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 
 public abstract class AbstractCatalog
     extends AbstractOscalInstance
     implements ICatalog {
+  @Nullable
+  private volatile CatalogIndex index;
 
   @NonNull
   @Override
@@ -27,4 +37,109 @@ public abstract class AbstractCatalog
             .flatMap(AbstractParameter::getParameterReferences)
             .distinct());
   }
+
+  /**
+   * Get the parameter dependency graph for this catalog, building it on first
+   * use.
+   * <p>
+   * The graph belongs to the catalog's lookup index. It is discarded along with
+   * the index, either when a lookup detects a change to the catalog's structure,
+   * or when {@link #invalidateIndexes()} is called.
+   *
+   * @return the graph
+   */
+  @NonNull
+  public ParameterDependencyGraph getParameterDependencyGraph() {
+    return getIndex().getParameterDependencyGraph((Catalog) this);
+  }
+
+  /**
+   * Get the effective values of a parameter in this catalog.
+   * <p>
+   * The parameter is first looked up, which detects changes to the catalog's
+   * structure affecting the parameter, so that a stale dependency graph is not
+   * used.
+   *
+   * @param id
+   *          the parameter identifier
+   * @return the effective values, which is empty if the parameter is unknown or
+   *         has no values
+   * @see ParameterDependencyGraph#getEffectiveValues(String)
+   */
+  @NonNull
+  public List<String> getEffectiveParameterValues(@NonNull String id) {
+    getParameterById(id);
+    return getParameterDependencyGraph().getEffectiveValues(id);
+  }
+
+  @Override
+  public Control getControlById(@NonNull String id) {
+    return lookup(CatalogIndex.Kind.CONTROL, id, CatalogIndex::getControl, Control::getId);
+  }
+
+  @Override
+  public CatalogGroup getGroupById(@NonNull String id) {
+    return lookup(CatalogIndex.Kind.GROUP, id, CatalogIndex::getGroup, CatalogGroup::getId);
+  }
+
+  @Override
+  public Parameter getParameterById(@NonNull String id) {
+    return lookup(CatalogIndex.Kind.PARAMETER, id, CatalogIndex::getParameter, Parameter::getId);
+  }
+
+  @Override
+  public Stream<Control> controlsRecursively() {
+    return ObjectUtils.notNull(getIndex().getControls().stream());
+  }
+
+  @Override
+  public void invalidateIndexes() {
+    index = null;
+  }
+
+  @Nullable
+  private <T> T lookup(
+      @NonNull CatalogIndex.Kind kind,
+      @NonNull String id,
+      @NonNull BiFunction<CatalogIndex, String, T> getter,
+      @NonNull Function<T, String> idFunction) {
+    CatalogIndex current = getIndex();
+    T retval = getter.apply(current, id);
+    boolean rebuild;
+    if (retval == null) {
+      // a missing identifier is only checked once for each index
+      rebuild = !current.isMissing(kind, id) && !current.isCurrent((Catalog) this);
+    } else {
+      // the item's identifier has changed, or the item was removed, since it was
+      // indexed
+      rebuild = !id.equals(idFunction.apply(retval)) || !current.isMember(retval);
+    }
+
+    if (rebuild) {
+      current = rebuildIndex();
+      retval = getter.apply(current, id);
+    }
+
+    if (retval == null) {
+      current.addMissing(kind, id);
+    }
+    return retval;
+  }
+
+  @NonNull
+  private CatalogIndex getIndex() {
+    CatalogIndex retval = index;
+    if (retval == null) {
+      // concurrent callers may build an equivalent index, which is harmless
+      retval = rebuildIndex();
+    }
+    return retval;
+  }
+
+  @NonNull
+  private CatalogIndex rebuildIndex() {
+    CatalogIndex retval = CatalogIndex.build((Catalog) this);
+    index = retval;
+    return retval;
+  }
 }
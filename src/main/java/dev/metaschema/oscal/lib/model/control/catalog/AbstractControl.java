@@ -20,6 +20,8 @@ import dev.metaschema.oscal.lib.model.Link;
 import dev.metaschema.oscal.lib.model.Parameter;
 import dev.metaschema.oscal.lib.model.Property;
 import dev.metaschema.oscal.lib.model.control.AbstractParameter;
+import dev.metaschema.oscal.lib.model.control.IPart;
+import dev.metaschema.oscal.lib.model.util.MarkupReferenceSummary;
 import edu.umd.cs.findbugs.annotations.NonNull;
 
 public abstract class AbstractControl
@@ -56,11 +58,11 @@ public abstract class AbstractControl
     Stream<String> insertIds = CollectionUtil.listOrEmpty(getParts()).stream()
         // Get the full part hierarchy
         .flatMap(part -> Stream.concat(Stream.of(part), part.getPartsRecursively()))
-        // Get the inserts for each part
-        .flatMap(part -> part.getInserts(insert -> "param".equals(insert.getType().toString())))
+        // Get the prose for each part
+        .map(IPart::getProse)
+        .flatMap(ObjectUtils::filterNull)
         // Get the param ids for each insert
-        .map(insert -> insert.getIdReference().toString())
-        .flatMap(ObjectUtils::filterNull);
+        .flatMap(prose -> MarkupReferenceSummary.of(prose).getInsertIdReferences("param"));
 
     // get parameters referenced by the control's parameters
     Stream<String> parameterIds = CollectionUtil.listOrEmpty(getParams()).stream()
@@ -0,0 +1,245 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.control.catalog;
+
+import java.util.List;
+import java.util.Set;
+
+import dev.metaschema.core.util.CollectionUtil;
+import dev.metaschema.oscal.lib.profile.resolver.support.IEntityItem;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A change to a group, control, parameter or part between two catalogs,
+ * reported by a {@link CatalogDiff}.
+ */
+public final class CatalogChange {
+  /**
+   * A kind of change to an item.
+   */
+  public enum ChangeType {
+    /**
+     * The item only exists in the new catalog.
+     */
+    ADDED,
+    /**
+     * The item only exists in the old catalog.
+     */
+    REMOVED,
+    /**
+     * The item has a different parent in the new catalog.
+     */
+    MOVED,
+    /**
+     * The item's own content is different in the new catalog, not counting
+     * changes to its identified child groups, controls, parameters and parts,
+     * which are reported separately.
+     */
+    MODIFIED;
+  }
+
+  @NonNull
+  private final IEntityItem.ItemType itemType;
+  @NonNull
+  private final String identifier;
+  @NonNull
+  private final Set<ChangeType> changeTypes;
+  @Nullable
+  private final Object oldItem;
+  @Nullable
+  private final Object newItem;
+  @Nullable
+  private final String oldParentId;
+  @Nullable
+  private final String newParentId;
+  @NonNull
+  private final List<FieldChange> fieldChanges;
+
+  @SuppressWarnings("PMD.ExcessiveParameterList")
+  CatalogChange(
+      @NonNull IEntityItem.ItemType itemType,
+      @NonNull String identifier,
+      @NonNull Set<ChangeType> changeTypes,
+      @Nullable Object oldItem,
+      @Nullable Object newItem,
+      @Nullable String oldParentId,
+      @Nullable String newParentId,
+      @NonNull List<FieldChange> fieldChanges) {
+    this.itemType = itemType;
+    this.identifier = identifier;
+    this.changeTypes = CollectionUtil.unmodifiableSet(changeTypes);
+    this.oldItem = oldItem;
+    this.newItem = newItem;
+    this.oldParentId = oldParentId;
+    this.newParentId = newParentId;
+    this.fieldChanges = CollectionUtil.unmodifiableList(fieldChanges);
+  }
+
+  /**
+   * Get the type of the changed item.
+   *
+   * @return the item type
+   */
+  @NonNull
+  public IEntityItem.ItemType getItemType() {
+    return itemType;
+  }
+
+  /**
+   * Get the identifier of the changed item.
+   *
+   * @return the identifier
+   */
+  @NonNull
+  public String getIdentifier() {
+    return identifier;
+  }
+
+  /**
+   * Get the kinds of change made to the item. An item that was both moved and
+   * modified has both change types.
+   *
+   * @return the change types
+   */
+  @NonNull
+  public Set<ChangeType> getChangeTypes() {
+    return changeTypes;
+  }
+
+  /**
+   * Determine if the item has the provided kind of change.
+   *
+   * @param changeType
+   *          the kind of change
+   * @return {@code true} if the item has this kind of change, or {@code false}
+   *         otherwise
+   */
+  public boolean is(@NonNull ChangeType changeType) {
+    return changeTypes.contains(changeType);
+  }
+
+  /**
+   * Get the item in the old catalog.
+   *
+   * @param <T>
+   *          the Java type of the item
+   * @return the item, or {@code null} if the item was added
+   */
+  @SuppressWarnings("unchecked")
+  @Nullable
+  public <T> T getOldItem() {
+    return (T) oldItem;
+  }
+
+  /**
+   * Get the item in the new catalog.
+   *
+   * @param <T>
+   *          the Java type of the item
+   * @return the item, or {@code null} if the item was removed
+   */
+  @SuppressWarnings("unchecked")
+  @Nullable
+  public <T> T getNewItem() {
+    return (T) newItem;
+  }
+
+  /**
+   * Get the identifier of the item's nearest identified ancestor in the old
+   * catalog.
+   *
+   * @return the identifier, or {@code null} if the item was added or is a
+   *         direct child of the catalog
+   */
+  @Nullable
+  public String getOldParentId() {
+    return oldParentId;
+  }
+
+  /**
+   * Get the identifier of the item's nearest identified ancestor in the new
+   * catalog.
+   *
+   * @return the identifier, or {@code null} if the item was removed or is a
+   *         direct child of the catalog
+   */
+  @Nullable
+  public String getNewParentId() {
+    return newParentId;
+  }
+
+  /**
+   * Get the changes to the item's own fields, if it was modified.
+   *
+   * @return the field changes
+   */
+  @NonNull
+  public List<FieldChange> getFieldChanges() {
+    return fieldChanges;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s '%s' %s%s", itemType, identifier, changeTypes, fieldChanges);
+  }
+
+  /**
+   * A change to the value of a single field of a modified item.
+   */
+  public static final class FieldChange {
+    @NonNull
+    private final String name;
+    @Nullable
+    private final Object oldValue;
+    @Nullable
+    private final Object newValue;
+
+    FieldChange(@NonNull String name, @Nullable Object oldValue, @Nullable Object newValue) {
+      this.name = name;
+      this.oldValue = oldValue;
+      this.newValue = newValue;
+    }
+
+    /**
+     * Get the name of the changed field, which is the metaschema effective name
+     * of the flag or model instance, such as {@code class} or {@code prop}.
+     *
+     * @return the name
+     */
+    @NonNull
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Get the field's value in the old catalog, excluding any child items that
+     * are reported separately.
+     *
+     * @return the value, or {@code null} if the value was absent
+     */
+    @Nullable
+    public Object getOldValue() {
+      return oldValue;
+    }
+
+    /**
+     * Get the field's value in the new catalog, excluding any child items that
+     * are reported separately.
+     *
+     * @return the value, or {@code null} if the value was absent
+     */
+    @Nullable
+    public Object getNewValue() {
+      return newValue;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+}
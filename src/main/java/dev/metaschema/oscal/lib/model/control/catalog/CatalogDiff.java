@@ -0,0 +1,385 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.control.catalog;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import dev.metaschema.core.datatype.markup.IMarkupString;
+import dev.metaschema.core.metapath.item.node.IAssemblyNodeItem;
+import dev.metaschema.core.metapath.item.node.IDocumentNodeItem;
+import dev.metaschema.core.metapath.item.node.IModelNodeItem;
+import dev.metaschema.core.metapath.item.node.INodeItem;
+import dev.metaschema.core.metapath.item.node.INodeItemFactory;
+import dev.metaschema.core.model.IBoundObject;
+import dev.metaschema.core.util.CollectionUtil;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.model.IBoundDefinitionModelAssembly;
+import dev.metaschema.databind.model.IBoundDefinitionModelComplex;
+import dev.metaschema.oscal.lib.OscalBindingContext;
+import dev.metaschema.oscal.lib.model.Catalog;
+import dev.metaschema.oscal.lib.model.CatalogGroup;
+import dev.metaschema.oscal.lib.model.Control;
+import dev.metaschema.oscal.lib.model.ControlPart;
+import dev.metaschema.oscal.lib.model.Parameter;
+import dev.metaschema.oscal.lib.model.util.BoundProperty;
+import dev.metaschema.oscal.lib.model.util.ContentDigester;
+import dev.metaschema.oscal.lib.profile.resolver.support.BasicIndexer;
+import dev.metaschema.oscal.lib.profile.resolver.support.ControlIndexingVisitor;
+import dev.metaschema.oscal.lib.profile.resolver.support.IEntityItem;
+import dev.metaschema.oscal.lib.profile.resolver.support.IEntityItem.ItemType;
+import dev.metaschema.oscal.lib.profile.resolver.support.IIndexer;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * The structural differences between two catalogs, such as two revisions of a
+ * published catalog or two resolved profiles.
+ * <p>
+ * Identified groups, controls, parameters and identified parts are indexed in
+ * each catalog using a {@link ControlIndexingVisitor}, and matched by
+ * identifier. Each matched pair is first compared using {@link ContentDigester}
+ * digests, which cover the item and all of its descendants, so unchanged
+ * subtrees are skipped without comparing their content. Only items whose
+ * digests differ are compared field by field, using the flags and model
+ * instances of the item's bound definition. The diff takes time linear in the
+ * size of the catalogs.
+ * <p>
+ * Groups and parts without an identifier cannot be matched, so they are
+ * compared as part of the fields of the item containing them. The fields of the
+ * catalog itself, such as its metadata and back-matter, are compared in the
+ * same way and reported by {@link #getCatalogChanges()}.
+ */
+public final class CatalogDiff {
+  @NonNull
+  private static final Set<ItemType> ITEM_TYPES
+      = ObjectUtils.notNull(EnumSet.of(ItemType.GROUP, ItemType.CONTROL, ItemType.PARAMETER, ItemType.PART));
+
+  @NonNull
+  private final List<CatalogChange> changes;
+  @NonNull
+  private final List<CatalogChange.FieldChange> catalogChanges;
+
+  /**
+   * Compare two catalogs.
+   *
+   * @param oldCatalog
+   *          the original catalog
+   * @param newCatalog
+   *          the changed catalog
+   * @return the differences
+   */
+  @NonNull
+  public static CatalogDiff compare(@NonNull Catalog oldCatalog, @NonNull Catalog newCatalog) {
+    return compare(toDocument(oldCatalog, "old"), toDocument(newCatalog, "new"));
+  }
+
+  /**
+   * Compare two catalog documents, such as two resolved profiles.
+   *
+   * @param oldCatalog
+   *          the original catalog
+   * @param newCatalog
+   *          the changed catalog
+   * @return the differences
+   */
+  @NonNull
+  public static CatalogDiff compare(@NonNull IDocumentNodeItem oldCatalog, @NonNull IDocumentNodeItem newCatalog) {
+    ContentDigester digester = new ContentDigester();
+
+    Catalog oldRoot = toCatalog(oldCatalog);
+    Catalog newRoot = toCatalog(newCatalog);
+    CatalogDiff retval;
+    if (digester.contentEquals(oldRoot, newRoot)) {
+      retval = new CatalogDiff(CollectionUtil.emptyList(), CollectionUtil.emptyList());
+    } else {
+      Comparison comparison = new Comparison(digester, index(oldCatalog), index(newCatalog));
+      retval = new CatalogDiff(comparison.compare(), comparison.compareFields(oldRoot, newRoot));
+    }
+    return retval;
+  }
+
+  @NonNull
+  private static IDocumentNodeItem toDocument(@NonNull Catalog catalog, @NonNull String name) {
+    return INodeItemFactory.instance().newDocumentNodeItem(
+        ObjectUtils.requireNonNull(
+            (IBoundDefinitionModelAssembly) OscalBindingContext.instance().getBoundDefinitionForClass(Catalog.class)),
+        ObjectUtils.notNull(URI.create("urn:oscal:catalog-diff:" + name)),
+        catalog);
+  }
+
+  @NonNull
+  private static Catalog toCatalog(@NonNull IDocumentNodeItem document) {
+    return ObjectUtils.requireNonNull((Catalog) INodeItem.toValue(document));
+  }
+
+  @NonNull
+  private static IIndexer index(@NonNull IDocumentNodeItem document) {
+    IIndexer retval = new BasicIndexer();
+    new ControlIndexingVisitor(ITEM_TYPES).visitCatalog(document, retval);
+    return retval;
+  }
+
+  private CatalogDiff(
+      @NonNull List<CatalogChange> changes,
+      @NonNull List<CatalogChange.FieldChange> catalogChanges) {
+    this.changes = CollectionUtil.unmodifiableList(changes);
+    this.catalogChanges = CollectionUtil.unmodifiableList(catalogChanges);
+  }
+
+  /**
+   * Determine if the catalogs have no differences.
+   *
+   * @return {@code true} if there are no differences, or {@code false} otherwise
+   */
+  public boolean isEmpty() {
+    return changes.isEmpty() && catalogChanges.isEmpty();
+  }
+
+  /**
+   * Get the changes to the fields of the catalog itself, such as its metadata,
+   * back-matter and any groups without an identifier. Changes to identified
+   * groups, controls and parameters are reported by {@link #getChanges()}.
+   *
+   * @return the field changes
+   */
+  @NonNull
+  public List<CatalogChange.FieldChange> getCatalogChanges() {
+    return catalogChanges;
+  }
+
+  /**
+   * Get all changes, ordered by item type, with removed, moved and modified
+   * items in the order they appear in the old catalog, followed by added items
+   * in the order they appear in the new catalog.
+   *
+   * @return the changes
+   */
+  @NonNull
+  public List<CatalogChange> getChanges() {
+    return changes;
+  }
+
+  /**
+   * Get the changes of the provided kind to items of the provided type.
+   *
+   * @param itemType
+   *          the type of the changed items
+   * @param changeType
+   *          the kind of change
+   * @return the changes
+   */
+  @NonNull
+  public List<CatalogChange> getChanges(@NonNull ItemType itemType, @NonNull CatalogChange.ChangeType changeType) {
+    return CollectionUtil.unmodifiableList(ObjectUtils.notNull(changes.stream()
+        .filter(change -> change.getItemType() == itemType && change.is(changeType))
+        .collect(Collectors.toList())));
+  }
+
+  /**
+   * Get the identifiers of the controls that were added, removed, moved or
+   * modified.
+   *
+   * @return the control identifiers
+   */
+  @NonNull
+  public Set<String> getChangedControlIds() {
+    return CollectionUtil.unmodifiableSet(ObjectUtils.notNull(changes.stream()
+        .filter(change -> change.getItemType() == ItemType.CONTROL)
+        .map(CatalogChange::getIdentifier)
+        .collect(Collectors.toCollection(LinkedHashSet::new))));
+  }
+
+  @Override
+  public String toString() {
+    return catalogChanges.isEmpty() ? changes.toString() : "catalog " + catalogChanges + " " + changes;
+  }
+
+  private static final class Comparison {
+    @NonNull
+    private final ContentDigester digester;
+    @NonNull
+    private final IIndexer oldIndex;
+    @NonNull
+    private final IIndexer newIndex;
+    @NonNull
+    private final List<CatalogChange> changes = new ArrayList<>();
+
+    private Comparison(
+        @NonNull ContentDigester digester,
+        @NonNull IIndexer oldIndex,
+        @NonNull IIndexer newIndex) {
+      this.digester = digester;
+      this.oldIndex = oldIndex;
+      this.newIndex = newIndex;
+    }
+
+    @NonNull
+    private List<CatalogChange> compare() {
+      for (ItemType itemType : ITEM_TYPES) {
+        assert itemType != null;
+        for (IEntityItem oldEntity : oldIndex.getEntitiesByItemType(itemType)) {
+          IEntityItem newEntity = newIndex.getEntity(itemType, oldEntity.getIdentifier(), false);
+          if (newEntity == null) {
+            changes.add(newChange(oldEntity, null, EnumSet.of(CatalogChange.ChangeType.REMOVED),
+                CollectionUtil.emptyList()));
+          } else {
+            compare(oldEntity, newEntity);
+          }
+        }
+
+        for (IEntityItem newEntity : newIndex.getEntitiesByItemType(itemType)) {
+          if (oldIndex.getEntity(itemType, newEntity.getIdentifier(), false) == null) {
+            changes.add(newChange(null, newEntity, EnumSet.of(CatalogChange.ChangeType.ADDED),
+                CollectionUtil.emptyList()));
+          }
+        }
+      }
+      return changes;
+    }
+
+    private void compare(@NonNull IEntityItem oldEntity, @NonNull IEntityItem newEntity) {
+      IBoundObject oldItem = oldEntity.getInstanceValue();
+      IBoundObject newItem = newEntity.getInstanceValue();
+
+      Set<CatalogChange.ChangeType> changeTypes = EnumSet.noneOf(CatalogChange.ChangeType.class);
+      if (!Objects.equals(getParentId(oldEntity.getInstance()), getParentId(newEntity.getInstance()))) {
+        changeTypes.add(CatalogChange.ChangeType.MOVED);
+      }
+
+      List<CatalogChange.FieldChange> fieldChanges = CollectionUtil.emptyList();
+      // an unchanged digest covers the item and all of its descendants
+      if (!digester.contentEquals(oldItem, newItem)) {
+        fieldChanges = compareFields(oldItem, newItem);
+        if (!fieldChanges.isEmpty()) {
+          changeTypes.add(CatalogChange.ChangeType.MODIFIED);
+        }
+      }
+
+      if (!changeTypes.isEmpty()) {
+        changes.add(newChange(oldEntity, newEntity, changeTypes, fieldChanges));
+      }
+    }
+
+    /**
+     * Compare the fields of two items, ignoring the matched items they contain.
+     */
+    @NonNull
+    private List<CatalogChange.FieldChange> compareFields(@NonNull IBoundObject oldItem,
+        @NonNull IBoundObject newItem) {
+      List<CatalogChange.FieldChange> retval = new ArrayList<>();
+      if (oldItem.getClass().equals(newItem.getClass())) {
+        IBoundDefinitionModelComplex definition = ObjectUtils.requireNonNull(
+            OscalBindingContext.instance().getBoundDefinitionForClass(oldItem.getClass()));
+        for (BoundProperty property : BoundProperty.getProperties(definition)) {
+          Object oldValue = withoutEntities(property.getValue(oldItem));
+          Object newValue = withoutEntities(property.getValue(newItem));
+          if (!valuesEqual(oldValue, newValue)) {
+            retval.add(new CatalogChange.FieldChange(property.getName(), oldValue, newValue));
+          }
+        }
+      }
+      return retval;
+    }
+
+    private boolean valuesEqual(@Nullable Object first, @Nullable Object second) {
+      boolean retval;
+      if (first == null || second == null) {
+        retval = first == second;
+      } else if (first instanceof IBoundObject && second instanceof IBoundObject) {
+        // an unidentified group or part is compared without its matched descendants
+        retval = digester.contentEquals((IBoundObject) first, (IBoundObject) second)
+            || first.getClass().equals(second.getClass())
+                && compareFields((IBoundObject) first, (IBoundObject) second).isEmpty();
+      } else if (first instanceof List && second instanceof List) {
+        List<?> firstList = (List<?>) first;
+        List<?> secondList = (List<?>) second;
+        retval = firstList.size() == secondList.size();
+        for (int i = 0; retval && i < firstList.size(); i++) {
+          retval = valuesEqual(firstList.get(i), secondList.get(i));
+        }
+      } else if (first instanceof IMarkupString && second instanceof IMarkupString) {
+        retval = ((IMarkupString<?>) first).toMarkdown().equals(((IMarkupString<?>) second).toMarkdown());
+      } else {
+        retval = first.equals(second);
+      }
+      return retval;
+    }
+
+    /**
+     * Remove the items that are compared separately from a field value. Empty
+     * lists are treated as absent.
+     */
+    @Nullable
+    private static Object withoutEntities(@Nullable Object value) {
+      Object retval = value;
+      if (value instanceof List) {
+        List<?> filtered = ((List<?>) value).stream()
+            .filter(item -> !isEntity(item))
+            .collect(Collectors.toList());
+        retval = filtered.isEmpty() ? null : filtered;
+      } else if (isEntity(value)) {
+        retval = null;
+      }
+      return retval;
+    }
+
+    private static boolean isEntity(@Nullable Object value) {
+      return value instanceof Control
+          || value instanceof CatalogGroup && ((CatalogGroup) value).getId() != null
+          || value instanceof Parameter
+          || value instanceof ControlPart && ((ControlPart) value).getId() != null;
+    }
+
+    @NonNull
+    private CatalogChange newChange(
+        @Nullable IEntityItem oldEntity,
+        @Nullable IEntityItem newEntity,
+        @NonNull Set<CatalogChange.ChangeType> changeTypes,
+        @NonNull List<CatalogChange.FieldChange> fieldChanges) {
+      IEntityItem entity = ObjectUtils.requireNonNull(oldEntity == null ? newEntity : oldEntity);
+      return new CatalogChange(
+          entity.getItemType(),
+          entity.getIdentifier(),
+          changeTypes,
+          oldEntity == null ? null : oldEntity.getInstanceValue(),
+          newEntity == null ? null : newEntity.getInstanceValue(),
+          oldEntity == null ? null : getParentId(oldEntity.getInstance()),
+          newEntity == null ? null : getParentId(newEntity.getInstance()),
+          fieldChanges);
+    }
+
+    /**
+     * Get the identifier of the nearest identified group, control or part
+     * containing the provided item.
+     */
+    @Nullable
+    private static String getParentId(@NonNull IModelNodeItem<?, ?> item) {
+      String retval = null;
+      IAssemblyNodeItem parent = item.getParentContentNodeItem();
+      while (retval == null && parent != null) {
+        Object value = parent.getValue();
+        if (value instanceof Catalog) {
+          break;
+        } else if (value instanceof Control) {
+          retval = ((Control) value).getId();
+        } else if (value instanceof CatalogGroup) {
+          retval = ((CatalogGroup) value).getId();
+        } else if (value instanceof ControlPart) {
+          retval = ((ControlPart) value).getId();
+        }
+        parent = parent.getParentContentNodeItem();
+      }
+      return retval;
+    }
+  }
+}
@@ -0,0 +1,352 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.control.catalog;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import dev.metaschema.core.util.CollectionUtil;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.oscal.lib.model.Catalog;
+import dev.metaschema.oscal.lib.model.CatalogGroup;
+import dev.metaschema.oscal.lib.model.Control;
+import dev.metaschema.oscal.lib.model.Parameter;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * An index of the groups, controls, and parameters of a catalog by identifier,
+ * along with the catalog's controls in document order.
+ * <p>
+ * The index records the identity and size of each group, control, and
+ * parameter list it traversed. This allows {@link #isCurrent(Catalog)} to
+ * detect added or removed items by walking the containers, which is much
+ * cheaper than rebuilding the index.
+ * <p>
+ * The index also records the container, list, and position of each indexed
+ * item, which allows {@link #isMember(Object)} to check that a found item is
+ * still in the catalog by only checking the position of the item and each of
+ * its ancestors. Identifiers found to be missing are
+ * recorded, so that repeated lookups of a missing identifier do not each walk
+ * the catalog.
+ * <p>
+ * If there are multiple items with the same identifier, the first in document
+ * order is indexed.
+ * <p>
+ * The catalog's {@link ParameterDependencyGraph} is built on first use and
+ * retained by the index, so it is discarded whenever the index is.
+ */
+final class CatalogIndex {
+  @NonNull
+  private final Map<String, CatalogGroup> groups = new HashMap<>();
+  @NonNull
+  private final Map<String, Control> controls = new HashMap<>();
+  @NonNull
+  private final Map<String, Parameter> params = new HashMap<>();
+  @NonNull
+  private final List<Control> controlsInOrder = new ArrayList<>();
+  /**
+   * The traversed lists, in traversal order, with their sizes in
+   * {@link #listSizes}.
+   */
+  @NonNull
+  private final List<List<?>> lists = new ArrayList<>();
+  @NonNull
+  private final List<Integer> listSizes = new ArrayList<>();
+  @NonNull
+  private final Catalog catalog;
+  /**
+   * Maps each indexed item to its location.
+   */
+  @NonNull
+  private final Map<Object, Location> locations = new IdentityHashMap<>();
+  @NonNull
+  private final Map<Kind, Set<String>> missing = new EnumMap<>(Kind.class);
+  @Nullable
+  private volatile ParameterDependencyGraph parameterDependencyGraph;
+
+  /**
+   * Build an index of the provided catalog.
+   *
+   * @param catalog
+   *          the catalog to index
+   * @return the index
+   */
+  @NonNull
+  static CatalogIndex build(@NonNull Catalog catalog) {
+    CatalogIndex retval = new CatalogIndex(catalog);
+    retval.indexGroupContainer(catalog);
+    return retval;
+  }
+
+  private CatalogIndex(@NonNull Catalog catalog) {
+    // use build()
+    this.catalog = catalog;
+    for (Kind kind : Kind.values()) {
+      missing.put(kind, ConcurrentHashMap.newKeySet());
+    }
+  }
+
+  private void indexGroupContainer(@NonNull IGroupContainer container) {
+    List<CatalogGroup> childGroups = container.getGroups();
+    track(childGroups);
+    List<CatalogGroup> groupList = CollectionUtil.listOrEmpty(childGroups);
+    for (int i = 0; i < groupList.size(); i++) {
+      CatalogGroup group = groupList.get(i);
+      if (group != null) {
+        put(groups, group.getId(), group);
+        locations.put(group, new Location(container, groupList, i));
+        indexGroupContainer(group);
+      }
+    }
+    indexControlContainer(container);
+  }
+
+  private void indexControlContainer(@NonNull IControlContainer container) {
+    List<Control> childControls = container.getControls();
+    track(childControls);
+    List<Control> controlList = CollectionUtil.listOrEmpty(childControls);
+    for (int i = 0; i < controlList.size(); i++) {
+      Control control = controlList.get(i);
+      if (control != null) {
+        put(controls, control.getId(), control);
+        locations.put(control, new Location(container, controlList, i));
+        controlsInOrder.add(control);
+        indexControlContainer(control);
+      }
+    }
+
+    List<Parameter> childParams = container.getParams();
+    track(childParams);
+    List<Parameter> paramList = CollectionUtil.listOrEmpty(childParams);
+    for (int i = 0; i < paramList.size(); i++) {
+      Parameter param = paramList.get(i);
+      if (param != null) {
+        put(params, param.getId(), param);
+        locations.put(param, new Location(container, paramList, i));
+      }
+    }
+  }
+
+  private void track(@Nullable List<?> list) {
+    if (list != null) {
+      lists.add(list);
+      listSizes.add(list.size());
+    }
+  }
+
+  private static <T> void put(@NonNull Map<String, T> map, @Nullable String id, @NonNull T item) {
+    if (id != null) {
+      map.putIfAbsent(id, item);
+    }
+  }
+
+  /**
+   * Determine if the catalog's structure is unchanged since it was indexed.
+   * <p>
+   * Changes that leave each list the same size, such as replacing an item
+   * in-place or removing one item and adding another, are not detected.
+   *
+   * @param catalog
+   *          the indexed catalog
+   * @return {@code true} if no lists have been added, replaced, or resized, or
+   *         {@code false} otherwise
+   */
+  boolean isCurrent(@NonNull Catalog catalog) {
+    StructureCheck check = new StructureCheck();
+    return check.checkGroupContainer(catalog) && check.position == lists.size();
+  }
+
+  /**
+   * Get the parameter dependency graph of the indexed catalog, building it on
+   * first use.
+   *
+   * @param catalog
+   *          the indexed catalog
+   * @return the graph
+   */
+  @NonNull
+  ParameterDependencyGraph getParameterDependencyGraph(@NonNull Catalog catalog) {
+    ParameterDependencyGraph retval = parameterDependencyGraph;
+    if (retval == null) {
+      // concurrent callers may build an equivalent graph, which is harmless
+      retval = ParameterDependencyGraph.build(catalog);
+      parameterDependencyGraph = retval;
+    }
+    return retval;
+  }
+
+  /**
+   * Determine if an indexed item is still in the indexed catalog.
+   * <p>
+   * The item, and each container above it, must still be at the position it was
+   * indexed at, in the same list of the container that held it. This takes time
+   * proportional to the nesting depth of the item, rather than the size of the
+   * catalog. Moving an item within its list, or removing an item before it, is
+   * conservatively treated as a removal.
+   *
+   * @param item
+   *          the indexed item
+   * @return {@code true} if the item is still in the catalog, or {@code false}
+   *         otherwise
+   */
+  boolean isMember(@NonNull Object item) {
+    boolean retval = true;
+    Object current = item;
+    while (retval && current != catalog) {
+      Location location = locations.get(current);
+      retval = location != null && location.contains(current);
+      current = location == null ? null : location.container;
+    }
+    return retval;
+  }
+
+  /**
+   * Determine if the identifier was previously found to be missing.
+   *
+   * @param kind
+   *          the kind of item
+   * @param id
+   *          the identifier
+   * @return {@code true} if the identifier is known to be missing, or
+   *         {@code false} otherwise
+   */
+  boolean isMissing(@NonNull Kind kind, @NonNull String id) {
+    return ObjectUtils.notNull(missing.get(kind)).contains(id);
+  }
+
+  /**
+   * Record that the identifier is missing from the catalog.
+   *
+   * @param kind
+   *          the kind of item
+   * @param id
+   *          the identifier
+   */
+  void addMissing(@NonNull Kind kind, @NonNull String id) {
+    ObjectUtils.notNull(missing.get(kind)).add(id);
+  }
+
+  @Nullable
+  CatalogGroup getGroup(@NonNull String id) {
+    return groups.get(id);
+  }
+
+  @Nullable
+  Control getControl(@NonNull String id) {
+    return controls.get(id);
+  }
+
+  @Nullable
+  Parameter getParameter(@NonNull String id) {
+    return params.get(id);
+  }
+
+  /**
+   * Get all controls in the catalog, in document order.
+   *
+   * @return the controls
+   */
+  @NonNull
+  List<Control> getControls() {
+    return CollectionUtil.unmodifiableList(controlsInOrder);
+  }
+
+  /**
+   * The position of an indexed item in the list of the container holding it.
+   */
+  private static final class Location {
+    @NonNull
+    private final IControlContainer container;
+    @NonNull
+    private final List<?> list;
+    private final int position;
+
+    private Location(@NonNull IControlContainer container, @NonNull List<?> list, int position) {
+      this.container = container;
+      this.list = list;
+      this.position = position;
+    }
+
+    private boolean contains(@NonNull Object item) {
+      List<?> current;
+      if (item instanceof CatalogGroup) {
+        current = ((IGroupContainer) container).getGroups();
+      } else if (item instanceof Control) {
+        current = container.getControls();
+      } else {
+        current = container.getParams();
+      }
+      return current == list && position < list.size() && list.get(position) == item;
+    }
+  }
+
+  /**
+   * The kinds of indexed items.
+   */
+  enum Kind {
+    GROUP,
+    CONTROL,
+    PARAMETER;
+  }
+
+  /**
+   * Walks the catalog in the same order as the index was built, comparing each
+   * list to the one recorded at the same position.
+   */
+  private final class StructureCheck {
+    private int position;
+
+    private boolean checkGroupContainer(@NonNull IGroupContainer container) {
+      List<CatalogGroup> childGroups = container.getGroups();
+      boolean retval = check(childGroups);
+      if (retval && childGroups != null) {
+        for (CatalogGroup group : childGroups) {
+          if (group != null && !checkGroupContainer(group)) {
+            retval = false;
+            break;
+          }
+        }
+      }
+      return retval && checkControlContainer(container);
+    }
+
+    private boolean checkControlContainer(@NonNull IControlContainer container) {
+      List<Control> childControls = container.getControls();
+      boolean retval = check(childControls);
+      if (retval && childControls != null) {
+        for (Control control : childControls) {
+          if (control != null && !checkControlContainer(control)) {
+            retval = false;
+            break;
+          }
+        }
+      }
+      return retval && check(container.getParams());
+    }
+
+    private boolean check(@Nullable List<?> list) {
+      boolean retval;
+      if (list == null) {
+        retval = true;
+      } else if (position < lists.size()
+          && lists.get(position) == list
+          && listSizes.get(position) == list.size()) {
+        position++;
+        retval = true;
+      } else {
+        retval = false;
+      }
+      return retval;
+    }
+  }
+}
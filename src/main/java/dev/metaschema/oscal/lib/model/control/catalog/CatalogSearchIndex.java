@@ -0,0 +1,370 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.control.catalog;
+
+import com.vladsch.flexmark.ast.Text;
+import com.vladsch.flexmark.util.ast.Node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import dev.metaschema.core.datatype.markup.IMarkupString;
+import dev.metaschema.core.util.CollectionUtil;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.oscal.lib.model.Catalog;
+import dev.metaschema.oscal.lib.model.Control;
+import dev.metaschema.oscal.lib.model.ControlPart;
+import dev.metaschema.oscal.lib.model.Parameter;
+import dev.metaschema.oscal.lib.model.Property;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * An in-memory inverted index supporting full-text search over the controls of
+ * one or more catalogs.
+ * <p>
+ * Control titles, part titles and prose, parameter labels, and property values
+ * are tokenized and mapped to the control containing them, along with the part
+ * the text came from, if any. Only the text content of markup is indexed, so
+ * markup syntax, link URLs, and inserts are not searchable. Text in a
+ * control's title is weighted more heavily than text in the control's parts,
+ * parameters, and properties.
+ * <p>
+ * A query is split into terms, each of which must match for a control to be
+ * returned. A term ending in {@code *} matches any indexed term starting with
+ * the preceding text. Results are ranked by the weighted frequency of the
+ * matched terms, adjusted by how rare each term is across the indexed
+ * controls.
+ * <p>
+ * The index reflects the catalogs at the time it was built. Control identifiers
+ * are assumed to be unique across the indexed catalogs.
+ */
+public final class CatalogSearchIndex {
+  private static final float TITLE_WEIGHT = 3.0f;
+  private static final float PART_TITLE_WEIGHT = 2.0f;
+  private static final float TEXT_WEIGHT = 1.0f;
+  @NonNull
+  private static final Pattern TOKEN_SEPARATOR_PATTERN = ObjectUtils.notNull(Pattern.compile("[^\\p{L}\\p{N}]+"));
+
+  /**
+   * Maps each term to the postings for the controls containing it.
+   */
+  @NonNull
+  private final NavigableMap<String, Map<String, Posting>> termToPostingsMap;
+  private final int controlCount;
+
+  /**
+   * Create a new index builder.
+   *
+   * @return the builder
+   */
+  @NonNull
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  private CatalogSearchIndex(@NonNull NavigableMap<String, Map<String, Posting>> termToPostingsMap, int controlCount) {
+    this.termToPostingsMap = termToPostingsMap;
+    this.controlCount = controlCount;
+  }
+
+  /**
+   * Get the number of distinct terms in the index.
+   *
+   * @return the term count
+   */
+  public int getTermCount() {
+    return termToPostingsMap.size();
+  }
+
+  /**
+   * Search the index.
+   *
+   * @param query
+   *          the query text
+   * @return the matching controls, with the best matches first
+   */
+  @NonNull
+  public List<Result> search(@NonNull String query) {
+    return search(query, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Search the index, returning at most the provided number of results.
+   *
+   * @param query
+   *          the query text
+   * @param limit
+   *          the maximum number of results
+   * @return the matching controls, with the best matches first
+   * @throws IllegalArgumentException
+   *           if the limit is negative
+   */
+  @NonNull
+  public List<Result> search(@NonNull String query, int limit) {
+    if (limit < 0) {
+      throw new IllegalArgumentException(String.format("The result limit '%d' must not be negative.", limit));
+    }
+
+    Map<String, Result> results = null;
+    for (String term : query.trim().split("\\s+")) {
+      boolean prefix = term.endsWith("*");
+      List<String> tokens = tokenize(prefix ? term.substring(0, term.length() - 1) : term);
+      for (int i = 0; i < tokens.size(); i++) {
+        // only the last token of a prefix term is matched as a prefix
+        Map<String, Result> termResults = match(
+            ObjectUtils.notNull(tokens.get(i)),
+            prefix && i == tokens.size() - 1);
+        results = results == null ? termResults : intersect(results, termResults);
+        if (results.isEmpty()) {
+          return CollectionUtil.emptyList();
+        }
+      }
+    }
+
+    List<Result> retval = results == null ? new ArrayList<>() : new ArrayList<>(results.values());
+    retval.sort(Comparator.comparingDouble(Result::getScore).reversed()
+        .thenComparing(Result::getControlId));
+    return CollectionUtil.unmodifiableList(retval.size() > limit
+        ? ObjectUtils.notNull(retval.subList(0, limit))
+        : retval);
+  }
+
+  @NonNull
+  private Map<String, Result> match(@NonNull String token, boolean prefix) {
+    Map<String, Map<String, Posting>> matchingTerms = prefix
+        ? termToPostingsMap.subMap(token, true, token + Character.MAX_VALUE, false)
+        : termToPostingsMap.containsKey(token)
+            ? Collections.singletonMap(token, termToPostingsMap.get(token))
+            : CollectionUtil.emptyMap();
+
+    Map<String, Result> retval = new HashMap<>();
+    for (Map<String, Posting> postings : matchingTerms.values()) {
+      double idf = Math.log(1.0 + (double) controlCount / postings.size());
+      for (Map.Entry<String, Posting> entry : postings.entrySet()) {
+        String controlId = ObjectUtils.notNull(entry.getKey());
+        Posting posting = entry.getValue();
+        Result result = retval.computeIfAbsent(controlId, Result::new);
+        // use the best matching term for a prefix
+        result.score = Math.max(result.score, posting.weight * idf);
+        result.partIds.addAll(posting.partIds);
+      }
+    }
+    return retval;
+  }
+
+  @NonNull
+  private static Map<String, Result> intersect(
+      @NonNull Map<String, Result> first,
+      @NonNull Map<String, Result> second) {
+    Map<String, Result> retval = new HashMap<>();
+    for (Map.Entry<String, Result> entry : first.entrySet()) {
+      Result other = second.get(entry.getKey());
+      if (other != null) {
+        Result result = entry.getValue();
+        result.score += other.score;
+        result.partIds.addAll(other.partIds);
+        retval.put(entry.getKey(), result);
+      }
+    }
+    return retval;
+  }
+
+  @NonNull
+  private static List<String> tokenize(@Nullable String text) {
+    List<String> retval = new ArrayList<>();
+    if (text != null) {
+      for (String token : TOKEN_SEPARATOR_PATTERN.split(text.toLowerCase(Locale.ROOT))) {
+        if (!token.isEmpty()) {
+          retval.add(token);
+        }
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * A control matching a query.
+   */
+  public static final class Result {
+    @NonNull
+    private final String controlId;
+    private double score;
+    @NonNull
+    private final Set<String> partIds = new LinkedHashSet<>();
+
+    private Result(@NonNull String controlId) {
+      this.controlId = controlId;
+    }
+
+    /**
+     * Get the identifier of the matching control.
+     *
+     * @return the control identifier
+     */
+    @NonNull
+    public String getControlId() {
+      return controlId;
+    }
+
+    /**
+     * Get the relevance of the match, where higher is better.
+     *
+     * @return the score
+     */
+    public double getScore() {
+      return score;
+    }
+
+    /**
+     * Get the identifiers of the control's parts containing matched text.
+     *
+     * @return the part identifiers
+     */
+    @NonNull
+    public Set<String> getPartIds() {
+      return CollectionUtil.unmodifiableSet(partIds);
+    }
+  }
+
+  private static final class Posting {
+    private float weight;
+    @NonNull
+    private final Set<String> partIds = new LinkedHashSet<>();
+  }
+
+  /**
+   * Builds a search index from one or more catalogs.
+   */
+  public static final class Builder
+      extends AbstractCatalogVisitor<Void, Void> {
+    @NonNull
+    private final Map<String, Map<String, Posting>> termToPostingsMap = new HashMap<>();
+    @NonNull
+    private final Set<String> controlIds = new LinkedHashSet<>();
+
+    private Builder() {
+      // use builder()
+    }
+
+    /**
+     * Index the controls of the provided catalog.
+     *
+     * @param catalog
+     *          the catalog to index
+     * @return this builder
+     */
+    @NonNull
+    public Builder add(@NonNull Catalog catalog) {
+      visitCatalog(catalog, null);
+      return this;
+    }
+
+    /**
+     * Build the index.
+     *
+     * @return the index
+     */
+    @NonNull
+    public CatalogSearchIndex build() {
+      return new CatalogSearchIndex(new TreeMap<>(termToPostingsMap), controlIds.size());
+    }
+
+    @Override
+    protected Void defaultResult() {
+      return null;
+    }
+
+    @Override
+    public Void visitControl(Control control, Void context) {
+      String controlId = control.getId();
+      if (controlId != null) {
+        controlIds.add(controlId);
+        addText(controlId, null, control.getTitle(), TITLE_WEIGHT);
+        addProps(controlId, null, control.getProps());
+        for (Parameter parameter : CollectionUtil.listOrEmpty(control.getParams())) {
+          if (parameter != null) {
+            addText(controlId, null, parameter.getLabel(), TEXT_WEIGHT);
+            addProps(controlId, null, parameter.getProps());
+          }
+        }
+        for (ControlPart part : CollectionUtil.listOrEmpty(control.getParts())) {
+          if (part != null) {
+            addPart(controlId, part);
+          }
+        }
+      }
+      // visit the child controls
+      return super.visitControl(control, context);
+    }
+
+    private void addPart(@NonNull String controlId, @NonNull ControlPart part) {
+      String partId = part.getId();
+      addText(controlId, partId, part.getTitle(), PART_TITLE_WEIGHT);
+      addText(controlId, partId, part.getProse(), TEXT_WEIGHT);
+      addProps(controlId, partId, part.getProps());
+      for (ControlPart child : CollectionUtil.listOrEmpty(part.getParts())) {
+        if (child != null) {
+          addPart(controlId, child);
+        }
+      }
+    }
+
+    private void addProps(@NonNull String controlId, @Nullable String partId, @Nullable List<Property> props) {
+      CollectionUtil.listOrEmpty(props).stream()
+          .filter(Objects::nonNull)
+          .forEach(prop -> addText(controlId, partId, prop.getValue(), TEXT_WEIGHT));
+    }
+
+    private void addText(
+        @NonNull String controlId,
+        @Nullable String partId,
+        @Nullable IMarkupString<?> markup,
+        float weight) {
+      if (markup != null) {
+        addText(controlId, partId, textContent(markup), weight);
+      }
+    }
+
+    @NonNull
+    private static String textContent(@NonNull IMarkupString<?> markup) {
+      StringBuilder builder = new StringBuilder();
+      for (Node node : CollectionUtil.toIterable(ObjectUtils.notNull(markup.getNodesAsStream().iterator()))) {
+        if (node instanceof Text) {
+          builder.append(node.getChars().unescape()).append(' ');
+        }
+      }
+      return ObjectUtils.notNull(builder.toString());
+    }
+
+    private void addText(
+        @NonNull String controlId,
+        @Nullable String partId,
+        @Nullable String text,
+        float weight) {
+      for (String token : tokenize(text)) {
+        Posting posting = termToPostingsMap
+            .computeIfAbsent(token, key -> new HashMap<>())
+            .computeIfAbsent(controlId, key -> new Posting());
+        posting.weight += weight;
+        if (partId != null) {
+          posting.partIds.add(partId);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.control.catalog;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import dev.metaschema.core.util.CollectionUtil;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.oscal.lib.model.CatalogGroup;
+import dev.metaschema.oscal.lib.model.Control;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A control along with its ancestors within a catalog.
+ */
+public final class ControlPath {
+  @NonNull
+  private final Control control;
+  @NonNull
+  private final List<CatalogGroup> groups;
+  @Nullable
+  private final ControlPath parent;
+
+  ControlPath(@NonNull Control control, @NonNull List<CatalogGroup> groups, @Nullable ControlPath parent) {
+    this.control = control;
+    this.groups = groups;
+    this.parent = parent;
+  }
+
+  /**
+   * Get the control.
+   *
+   * @return the control
+   */
+  @NonNull
+  public Control getControl() {
+    return control;
+  }
+
+  /**
+   * Get the groups containing the control, starting with the outermost group.
+   *
+   * @return the groups, which will be empty if the control is not in a group
+   */
+  @NonNull
+  public List<CatalogGroup> getGroups() {
+    return groups;
+  }
+
+  /**
+   * Get the identifiers of the groups containing the control, starting with the
+   * outermost group.
+   *
+   * @return the group identifiers, which will be {@code null} for a group
+   *         without an identifier
+   */
+  @NonNull
+  public List<String> getGroupIds() {
+    return CollectionUtil.unmodifiableList(ObjectUtils.notNull(groups.stream()
+        .map(CatalogGroup::getId)
+        .collect(Collectors.toList())));
+  }
+
+  /**
+   * Get the path of the control's parent control.
+   *
+   * @return the parent's path or {@code null} if the control is not a child of
+   *         another control
+   */
+  @Nullable
+  public ControlPath getParent() {
+    return parent;
+  }
+
+  /**
+   * Get the control's parent control.
+   *
+   * @return the parent control or {@code null} if the control is not a child of
+   *         another control
+   */
+  @Nullable
+  public Control getParentControl() {
+    return parent == null ? null : parent.getControl();
+  }
+}
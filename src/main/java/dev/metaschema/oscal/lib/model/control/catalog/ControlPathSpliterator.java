@@ -0,0 +1,202 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.control.catalog;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import dev.metaschema.core.util.CollectionUtil;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.oscal.lib.model.CatalogGroup;
+import dev.metaschema.oscal.lib.model.Control;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A spliterator over the controls of a catalog, or of a group, in document
+ * order, which walks the group and control tree directly.
+ * <p>
+ * The traversal state is a stack of frames, one per container being walked.
+ * Each frame has a range over the container's child groups followed by its
+ * child controls. A split takes the first half of the remaining range of the
+ * outermost frame with at least two remaining children, along with any frames
+ * nested within it, so that the returned spliterator covers a prefix of the
+ * remaining controls. Each frame carries the ancestor path of its container,
+ * so no shared state is needed between the split spliterators.
+ * <p>
+ * The number of controls is unknown until the tree is walked, since a split
+ * divides the children of a container rather than the controls beneath them.
+ * The spliterator therefore reports an unknown size and is not
+ * {@link #SIZED}.
+ */
+final class ControlPathSpliterator implements Spliterator<ControlPath> {
+  @NonNull
+  private final Deque<Frame> stack;
+
+  /**
+   * Construct a spliterator over the controls of the provided container.
+   *
+   * @param container
+   *          the catalog or group to walk
+   * @param groups
+   *          the groups containing the container, including the container
+   *          itself if it is a group
+   */
+  ControlPathSpliterator(@NonNull IGroupContainer container, @NonNull List<CatalogGroup> groups) {
+    this.stack = new ArrayDeque<>();
+    this.stack.push(new Frame(container, groups, null));
+  }
+
+  private ControlPathSpliterator(@NonNull Deque<Frame> stack) {
+    this.stack = stack;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super ControlPath> action) {
+    ControlPath next = null;
+    while (next == null && !stack.isEmpty()) {
+      Frame frame = ObjectUtils.notNull(stack.peek());
+      if (frame.index >= frame.end) {
+        stack.pop();
+      } else {
+        int childIndex = frame.index++;
+        if (childIndex < frame.groups.size()) {
+          CatalogGroup group = frame.groups.get(childIndex);
+          if (group != null) {
+            List<CatalogGroup> path = new ArrayList<>(frame.groupPath.size() + 1);
+            path.addAll(frame.groupPath);
+            path.add(group);
+            stack.push(new Frame(group, CollectionUtil.unmodifiableList(path), null));
+          }
+        } else {
+          Control control = frame.controls.get(childIndex - frame.groups.size());
+          if (control != null) {
+            next = new ControlPath(control, frame.groupPath, frame.parent);
+            stack.push(new Frame(control, frame.groupPath, next));
+          }
+        }
+      }
+    }
+
+    boolean retval;
+    if (next == null) {
+      retval = false;
+    } else {
+      action.accept(next);
+      retval = true;
+    }
+    return retval;
+  }
+
+  @Override
+  public Spliterator<ControlPath> trySplit() {
+    Spliterator<ControlPath> retval = null;
+
+    // find the outermost frame that has at least two remaining children
+    Iterator<Frame> outermostFirst = stack.descendingIterator();
+    Deque<Frame> prefix = null;
+    while (outermostFirst.hasNext()) {
+      Frame frame = outermostFirst.next();
+      if (prefix != null) {
+        // move the frames nested in the split frame to the prefix
+        prefix.push(frame);
+        outermostFirst.remove();
+      } else if (frame.end - frame.index >= 2) {
+        int mid = frame.index + (frame.end - frame.index) / 2;
+        prefix = new ArrayDeque<>();
+        prefix.push(frame.copy(frame.index, mid));
+        frame.index = mid;
+      }
+    }
+
+    if (prefix != null) {
+      retval = new ControlPathSpliterator(prefix);
+    }
+    return retval;
+  }
+
+  @Override
+  public long estimateSize() {
+    return stack.isEmpty() ? 0 : Long.MAX_VALUE;
+  }
+
+  @Override
+  public int characteristics() {
+    return ORDERED | NONNULL;
+  }
+
+  private static final class Frame {
+    @NonNull
+    private final List<CatalogGroup> groups;
+    @NonNull
+    private final List<Control> controls;
+    /**
+     * The groups containing the frame's children.
+     */
+    @NonNull
+    private final List<CatalogGroup> groupPath;
+    /**
+     * The path of the control containing the frame's children, if any.
+     */
+    @Nullable
+    private final ControlPath parent;
+    private int index;
+    private int end;
+
+    private Frame(
+        @NonNull IControlContainer container,
+        @NonNull List<CatalogGroup> groupPath,
+        @Nullable ControlPath parent) {
+      this(
+          container instanceof IGroupContainer
+              ? randomAccess(((IGroupContainer) container).getGroups())
+              : CollectionUtil.emptyList(),
+          randomAccess(container.getControls()),
+          groupPath,
+          parent);
+    }
+
+    @NonNull
+    private static <T> List<T> randomAccess(@Nullable List<T> list) {
+      List<T> retval;
+      if (list == null) {
+        retval = CollectionUtil.emptyList();
+      } else if (list instanceof RandomAccess) {
+        retval = list;
+      } else {
+        // avoid indexed access to a linked list
+        retval = new ArrayList<>(list);
+      }
+      return retval;
+    }
+
+    private Frame(
+        @NonNull List<CatalogGroup> groups,
+        @NonNull List<Control> controls,
+        @NonNull List<CatalogGroup> groupPath,
+        @Nullable ControlPath parent) {
+      this.groups = groups;
+      this.controls = controls;
+      this.groupPath = groupPath;
+      this.parent = parent;
+      this.end = groups.size() + controls.size();
+    }
+
+    @NonNull
+    private Frame copy(int index, int end) {
+      Frame retval = new Frame(groups, controls, groupPath, parent);
+      retval.index = index;
+      retval.end = end;
+      return retval;
+    }
+  }
+}
@@ -5,6 +5,157 @@
 
 package dev.metaschema.oscal.lib.model.control.catalog;
 
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import dev.metaschema.core.util.CollectionUtil;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.oscal.lib.model.CatalogGroup;
+import dev.metaschema.oscal.lib.model.Control;
+import dev.metaschema.oscal.lib.model.Parameter;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
 public interface ICatalog extends IGroupContainer {
-  // no additional methods
+  /**
+   * Get the control with the provided identifier, at any level of the catalog.
+   * <p>
+   * The default implementation searches the catalog's controls in document
+   * order.
+   *
+   * @param id
+   *          the control's identifier
+   * @return the control or {@code null} if no control has the identifier
+   */
+  @Nullable
+  default Control getControlById(@NonNull String id) {
+    return controlsRecursively()
+        .filter(control -> id.equals(control.getId()))
+        .findFirst()
+        .orElse(null);
+  }
+
+  /**
+   * Get the group with the provided identifier, at any level of the catalog.
+   * <p>
+   * The default implementation searches the catalog's groups in document order.
+   *
+   * @param id
+   *          the group's identifier
+   * @return the group or {@code null} if no group has the identifier
+   */
+  @Nullable
+  default CatalogGroup getGroupById(@NonNull String id) {
+    return findGroup(this, id);
+  }
+
+  /**
+   * Get the parameter with the provided identifier, whether it is defined on
+   * the catalog, a group, or a control.
+   * <p>
+   * The default implementation searches the parameters of the catalog and
+   * each of its groups and controls.
+   *
+   * @param id
+   *          the parameter's identifier
+   * @return the parameter or {@code null} if no parameter has the identifier
+   */
+  @Nullable
+  default Parameter getParameterById(@NonNull String id) {
+    return findParameter(this, id);
+  }
+
+  /**
+   * Get all controls in the catalog, including child controls, in document
+   * order.
+   * <p>
+   * The default implementation walks the group and control tree. Catalogs
+   * extending {@link AbstractCatalog} return a stream backed by an array of the
+   * controls, which splits evenly when processed in parallel.
+   *
+   * @return the controls
+   */
+  @NonNull
+  default Stream<Control> controlsRecursively() {
+    return ObjectUtils.notNull(controlPathsRecursively().map(ControlPath::getControl));
+  }
+
+  /**
+   * Get the paths of all controls in the catalog, including child controls, in
+   * document order.
+   * <p>
+   * Each path provides the groups and parent control containing the control.
+   * The stream walks the group and control tree directly, and splits it into
+   * subtrees when processed in parallel.
+   *
+   * @return the control paths
+   */
+  @NonNull
+  default Stream<ControlPath> controlPathsRecursively() {
+    return ObjectUtils.notNull(StreamSupport.stream(
+        new ControlPathSpliterator(this, CollectionUtil.emptyList()),
+        false));
+  }
+
+  /**
+   * Discard the lookup index, causing it to be rebuilt on next use.
+   * <p>
+   * A found item is checked to still be in the catalog with the looked up
+   * identifier, so removing, replacing, or changing the identifier of an item is
+   * detected automatically. Replacing a list of groups, controls, or
+   * parameters, or adding an item, is detected when a lookup first fails to find
+   * an identifier. The failed lookup is remembered until the index is rebuilt,
+   * so this must be called if an item is added with an identifier that was
+   * already looked up and not found. Streaming the controls does not check for
+   * changes, so this must also be called before streaming if the catalog's
+   * structure changed since its last lookup.
+   * <p>
+   * The default implementation does nothing, since the default lookups are not
+   * indexed.
+   */
+  default void invalidateIndexes() {
+    // no index
+  }
+
+  @Nullable
+  private static CatalogGroup findGroup(@NonNull IGroupContainer container, @NonNull String id) {
+    CatalogGroup retval = null;
+    for (CatalogGroup group : CollectionUtil.listOrEmpty(container.getGroups())) {
+      if (group != null) {
+        retval = id.equals(group.getId()) ? group : findGroup(group, id);
+        if (retval != null) {
+          break;
+        }
+      }
+    }
+    return retval;
+  }
+
+  @Nullable
+  private static Parameter findParameter(@NonNull IControlContainer container, @NonNull String id) {
+    Parameter retval = null;
+    for (Parameter param : CollectionUtil.listOrEmpty(container.getParams())) {
+      if (param != null && id.equals(param.getId())) {
+        retval = param;
+        break;
+      }
+    }
+    if (retval == null && container instanceof IGroupContainer) {
+      for (CatalogGroup group : CollectionUtil.listOrEmpty(((IGroupContainer) container).getGroups())) {
+        retval = group == null ? null : findParameter(group, id);
+        if (retval != null) {
+          break;
+        }
+      }
+    }
+    if (retval == null) {
+      for (Control control : CollectionUtil.listOrEmpty(container.getControls())) {
+        retval = control == null ? null : findParameter(control, id);
+        if (retval != null) {
+          break;
+        }
+      }
+    }
+    return retval;
+  }
 }
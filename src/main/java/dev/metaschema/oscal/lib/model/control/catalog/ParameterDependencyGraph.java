@@ -0,0 +1,565 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.control.catalog;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import dev.metaschema.core.datatype.markup.MarkupLine;
+import dev.metaschema.core.util.CollectionUtil;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.oscal.lib.model.Catalog;
+import dev.metaschema.oscal.lib.model.Control;
+import dev.metaschema.oscal.lib.model.Parameter;
+import dev.metaschema.oscal.lib.model.ParameterSelection;
+import dev.metaschema.oscal.lib.model.Property;
+import dev.metaschema.oscal.lib.model.metadata.IProperty;
+import dev.metaschema.oscal.lib.model.util.ProseTemplate;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * The parameter dependencies of a catalog, consisting of the parameters
+ * referenced by each parameter and by each control.
+ * <p>
+ * A parameter references another parameter using an {@code aggregates}
+ * property or an insert in a selection choice. A control references the
+ * parameters inserted into its parts, along with those referenced by its own
+ * parameters.
+ * <p>
+ * The graph is computed once, at which point parameters involved in reference
+ * cycles are identified. Transitive dependencies and effective values are
+ * computed on demand, without recursion, and retained. A reference between two
+ * parameters in the same cycle is not followed when computing effective
+ * values, which ensures that the result does not depend on the order in which
+ * parameters are queried.
+ * <p>
+ * The graph reflects the catalog at the time it was built. The graph provided
+ * by {@link AbstractCatalog#getParameterDependencyGraph()} belongs to the
+ * catalog's lookup index, so it is rebuilt whenever a change to the catalog's
+ * structure is detected or {@link ICatalog#invalidateIndexes()} is called.
+ */
+public final class ParameterDependencyGraph {
+  @NonNull
+  private final Map<String, Parameter> parameters;
+  @NonNull
+  private final Map<String, List<String>> parameterReferences;
+  @NonNull
+  private final Map<String, List<String>> controlReferences;
+  /**
+   * Maps each parameter to the index of its strongly connected component.
+   */
+  @NonNull
+  private final Map<String, Integer> componentIndex;
+  /**
+   * The parameters in each strongly connected component, with the cyclic
+   * components first.
+   */
+  @NonNull
+  private final List<List<String>> componentMembers;
+  @NonNull
+  private final List<List<String>> cycles;
+  @NonNull
+  private final Map<Integer, Set<String>> componentDependencies = new ConcurrentHashMap<>();
+  @NonNull
+  private final Map<String, List<String>> effectiveValues = new ConcurrentHashMap<>();
+
+  /**
+   * Build the parameter dependency graph for the provided catalog.
+   *
+   * @param catalog
+   *          the catalog to build the graph for
+   * @return the graph
+   */
+  @NonNull
+  public static ParameterDependencyGraph build(@NonNull Catalog catalog) {
+    Collector collector = new Collector();
+    collector.visitCatalog(catalog, null);
+    return new ParameterDependencyGraph(collector.parameters, collector.parameterReferences,
+        collector.controlReferences);
+  }
+
+  private ParameterDependencyGraph(
+      @NonNull Map<String, Parameter> parameters,
+      @NonNull Map<String, List<String>> parameterReferences,
+      @NonNull Map<String, List<String>> controlReferences) {
+    this.parameters = CollectionUtil.unmodifiableMap(parameters);
+    this.parameterReferences = CollectionUtil.unmodifiableMap(parameterReferences);
+    this.controlReferences = CollectionUtil.unmodifiableMap(controlReferences);
+
+    ComponentFinder finder = new ComponentFinder();
+    for (String id : parameters.keySet()) {
+      if (!finder.index.containsKey(id)) {
+        finder.find(ObjectUtils.notNull(id));
+      }
+    }
+    finder.numberComponents();
+    this.componentIndex = finder.componentIndex;
+    this.componentMembers = finder.componentMembers;
+    this.cycles = CollectionUtil.unmodifiableList(
+        ObjectUtils.notNull(finder.componentMembers.subList(0, finder.cycleCount)));
+  }
+
+  /**
+   * Get the parameter with the provided identifier.
+   *
+   * @param id
+   *          the parameter identifier
+   * @return the parameter, or {@code null} if the catalog has no such parameter
+   */
+  @Nullable
+  public Parameter getParameter(@NonNull String id) {
+    return parameters.get(id);
+  }
+
+  /**
+   * Get the identifiers of the parameters directly referenced by a parameter.
+   *
+   * @param id
+   *          the parameter identifier
+   * @return the referenced parameter identifiers
+   */
+  @NonNull
+  public List<String> getParameterReferences(@NonNull String id) {
+    return ObjectUtils.notNull(parameterReferences.getOrDefault(id, CollectionUtil.emptyList()));
+  }
+
+  /**
+   * Get the identifiers of the parameters directly referenced by a control.
+   *
+   * @param id
+   *          the control identifier
+   * @return the referenced parameter identifiers
+   */
+  @NonNull
+  public List<String> getControlReferences(@NonNull String id) {
+    return ObjectUtils.notNull(controlReferences.getOrDefault(id, CollectionUtil.emptyList()));
+  }
+
+  /**
+   * Get the reference cycles in the graph. Each cycle is a set of parameters that
+   * reference each other, directly or indirectly.
+   *
+   * @return the parameter identifiers of each cycle
+   */
+  @NonNull
+  public List<List<String>> getCycles() {
+    return cycles;
+  }
+
+  /**
+   * Determine if a parameter is part of a reference cycle.
+   *
+   * @param id
+   *          the parameter identifier
+   * @return {@code true} if the parameter is part of a cycle, or {@code false}
+   *         otherwise
+   */
+  public boolean isCyclic(@NonNull String id) {
+    Integer component = componentIndex.get(id);
+    return component != null && isCyclicComponent(component);
+  }
+
+  private boolean isCyclicComponent(int component) {
+    return component < cycles.size();
+  }
+
+  /**
+   * Get all parameters a parameter depends on, directly or indirectly.
+   * <p>
+   * The parameter itself is included only if it is part of a reference cycle.
+   *
+   * @param id
+   *          the parameter identifier
+   * @return the identifiers of the parameters depended on
+   */
+  @NonNull
+  public Set<String> getTransitiveParameterReferences(@NonNull String id) {
+    Integer component = componentIndex.get(id);
+    return component == null ? CollectionUtil.emptySet() : getComponentDependencies(component);
+  }
+
+  /**
+   * Get all parameters a control depends on, directly or indirectly.
+   *
+   * @param id
+   *          the control identifier
+   * @return the identifiers of the parameters depended on
+   */
+  @NonNull
+  public Set<String> getTransitiveControlReferences(@NonNull String id) {
+    Set<String> retval = new LinkedHashSet<>();
+    for (String referencedId : getControlReferences(id)) {
+      retval.add(referencedId);
+      retval.addAll(getTransitiveParameterReferences(ObjectUtils.notNull(referencedId)));
+    }
+    return CollectionUtil.unmodifiableSet(retval);
+  }
+
+  @NonNull
+  private Set<String> getComponentDependencies(int component) {
+    Set<String> retval = componentDependencies.get(component);
+    if (retval == null) {
+      // Compute the dependencies of each referenced component before those of
+      // the component referencing it. The components form a directed acyclic
+      // graph, so this terminates.
+      Deque<Integer> pending = new ArrayDeque<>();
+      pending.push(component);
+      while (!pending.isEmpty()) {
+        int current = pending.peek();
+        if (componentDependencies.containsKey(current)) {
+          pending.pop();
+          continue;
+        }
+
+        boolean ready = true;
+        for (int referencedComponent : getReferencedComponents(current)) {
+          if (!componentDependencies.containsKey(referencedComponent)) {
+            pending.push(referencedComponent);
+            ready = false;
+          }
+        }
+
+        if (ready) {
+          pending.pop();
+          componentDependencies.put(current, computeComponentDependencies(current));
+        }
+      }
+      retval = ObjectUtils.notNull(componentDependencies.get(component));
+    }
+    return retval;
+  }
+
+  @NonNull
+  private Set<Integer> getReferencedComponents(int component) {
+    Set<Integer> retval = new LinkedHashSet<>();
+    for (String memberId : componentMembers.get(component)) {
+      for (String referencedId : getParameterReferences(ObjectUtils.notNull(memberId))) {
+        Integer referencedComponent = componentIndex.get(referencedId);
+        if (referencedComponent != null && referencedComponent != component) {
+          retval.add(referencedComponent);
+        }
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Compute the dependencies of a component, whose referenced components must
+   * already have their dependencies computed.
+   *
+   * @param component
+   *          the component
+   * @return the dependencies
+   */
+  @NonNull
+  private Set<String> computeComponentDependencies(int component) {
+    Set<String> dependencies = new LinkedHashSet<>();
+    for (String memberId : componentMembers.get(component)) {
+      for (String referencedId : getParameterReferences(ObjectUtils.notNull(memberId))) {
+        Integer referencedComponent = componentIndex.get(referencedId);
+        if (referencedComponent == null) {
+          // an unknown parameter
+          continue;
+        }
+        dependencies.add(referencedId);
+        if (referencedComponent != component) {
+          dependencies.addAll(ObjectUtils.notNull(componentDependencies.get(referencedComponent)));
+        }
+      }
+    }
+    return CollectionUtil.unmodifiableSet(dependencies);
+  }
+
+  /**
+   * Get the effective values of a parameter.
+   * <p>
+   * These are determined using the first of the following that applies:
+   * <ol>
+   * <li>the parameter's values, if it has any;</li>
+   * <li>the parameter's selection choices, as Markdown with each parameter
+   * insert replaced by the inserted parameter's effective values;</li>
+   * <li>the effective values of the parameters it aggregates.</li>
+   * </ol>
+   * An insert of an unknown parameter, or of a parameter in the same reference
+   * cycle, is left as-is.
+   *
+   * @param id
+   *          the parameter identifier
+   * @return the effective values, which is empty if the parameter is unknown or
+   *         has no values
+   */
+  @NonNull
+  public List<String> getEffectiveValues(@NonNull String id) {
+    List<String> retval = effectiveValues.get(id);
+    if (retval == null) {
+      // Compute the values of each followed reference before those of the
+      // parameter referencing it. Followed references never form a cycle, so this
+      // terminates.
+      Deque<String> pending = new ArrayDeque<>();
+      pending.push(id);
+      while (!pending.isEmpty()) {
+        String current = ObjectUtils.notNull(pending.peek());
+        if (effectiveValues.containsKey(current)) {
+          pending.pop();
+          continue;
+        }
+
+        boolean ready = true;
+        for (String referencedId : getParameterReferences(current)) {
+          if (isFollowed(current, ObjectUtils.notNull(referencedId)) && !effectiveValues.containsKey(referencedId)) {
+            pending.push(referencedId);
+            ready = false;
+          }
+        }
+
+        if (ready) {
+          pending.pop();
+          Parameter parameter = parameters.get(current);
+          effectiveValues.put(current, parameter == null
+              ? CollectionUtil.emptyList()
+              : CollectionUtil.unmodifiableList(computeEffectiveValues(current, parameter)));
+        }
+      }
+      retval = ObjectUtils.notNull(effectiveValues.get(id));
+    }
+    return retval;
+  }
+
+  /**
+   * Compute the effective values of a parameter, whose followed references must
+   * already have their effective values computed.
+   *
+   * @param id
+   *          the parameter identifier
+   * @param parameter
+   *          the parameter
+   * @return the effective values
+   */
+  @NonNull
+  private List<String> computeEffectiveValues(@NonNull String id, @NonNull Parameter parameter) {
+    List<String> values = CollectionUtil.listOrEmpty(parameter.getValues());
+    ParameterSelection selection = parameter.getSelect();
+
+    List<String> retval;
+    if (!values.isEmpty()) {
+      retval = new ArrayList<>(values);
+    } else if (selection != null && !CollectionUtil.listOrEmpty(selection.getChoice()).isEmpty()) {
+      retval = CollectionUtil.listOrEmpty(selection.getChoice()).stream()
+          .filter(Objects::nonNull)
+          .map(choice -> renderChoice(id, ObjectUtils.notNull(choice)))
+          .collect(Collectors.toList());
+    } else {
+      retval = new ArrayList<>();
+      for (String aggregatedId : getAggregatedIds(parameter)) {
+        if (isFollowed(id, aggregatedId)) {
+          retval.addAll(getComputedValues(aggregatedId));
+        }
+      }
+    }
+    return ObjectUtils.notNull(retval);
+  }
+
+  @NonNull
+  private List<String> getComputedValues(@NonNull String id) {
+    return ObjectUtils.notNull(effectiveValues.get(id));
+  }
+
+  @NonNull
+  private String renderChoice(@NonNull String id, @NonNull MarkupLine choice) {
+    // the template's slots are the choice's insert nodes
+    return ProseTemplate.of(choice, ProseTemplate.Format.MARKDOWN).render(referencedId -> isFollowed(id, referencedId)
+        ? String.join(", ", getComputedValues(referencedId))
+        : null);
+  }
+
+  /**
+   * Determine if a reference from one parameter to another is followed when
+   * computing effective values.
+   *
+   * @param fromId
+   *          the referencing parameter
+   * @param toId
+   *          the referenced parameter
+   * @return {@code true} if the referenced parameter is known and not part of
+   *         the same reference cycle, or {@code false} otherwise
+   */
+  private boolean isFollowed(@NonNull String fromId, @NonNull String toId) {
+    Integer toComponent = componentIndex.get(toId);
+    return toComponent != null && !toComponent.equals(componentIndex.get(fromId));
+  }
+
+  @NonNull
+  private static List<String> getAggregatedIds(@NonNull Parameter parameter) {
+    return ObjectUtils.notNull(CollectionUtil.listOrEmpty(parameter.getProps()).stream()
+        .filter(Objects::nonNull)
+        .filter(prop -> prop.isNamespaceEqual(IProperty.OSCAL_NAMESPACE) && "aggregates".equals(prop.getName()))
+        .map(Property::getValue)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList()));
+  }
+
+  /**
+   * Finds the strongly connected components of the graph using Tarjan's
+   * algorithm. Cyclic components are numbered first, followed by the acyclic
+   * components.
+   */
+  private final class ComponentFinder {
+    @NonNull
+    private final Map<String, Integer> index = new HashMap<>();
+    @NonNull
+    private final Map<String, Integer> lowLink = new HashMap<>();
+    @NonNull
+    private final Deque<String> stack = new ArrayDeque<>();
+    @NonNull
+    private final Set<String> onStack = new LinkedHashSet<>();
+    @NonNull
+    private final List<List<String>> components = new ArrayList<>();
+    @NonNull
+    private final List<List<String>> componentMembers = new ArrayList<>();
+    private int cycleCount;
+    @NonNull
+    private final Map<String, Integer> componentIndex = new HashMap<>();
+
+    /**
+     * Visit the parameter and its dependencies, without using recursion, to
+     * support long reference chains.
+     *
+     * @param startId
+     *          the parameter to start from
+     */
+    private void find(@NonNull String startId) {
+      Deque<Frame> frames = new ArrayDeque<>();
+      frames.push(enter(startId));
+      while (!frames.isEmpty()) {
+        Frame frame = frames.peek();
+        if (frame.next < frame.references.size()) {
+          String referencedId = ObjectUtils.notNull(frame.references.get(frame.next++));
+          if (!parameters.containsKey(referencedId)) {
+            // an unknown parameter
+            continue;
+          }
+          if (!index.containsKey(referencedId)) {
+            frames.push(enter(referencedId));
+          } else if (onStack.contains(referencedId)) {
+            lowLink.put(frame.id, Math.min(lowLink.get(frame.id), index.get(referencedId)));
+          }
+        } else {
+          frames.pop();
+          if (lowLink.get(frame.id).equals(index.get(frame.id))) {
+            addComponent(frame.id);
+          }
+          Frame parent = frames.peek();
+          if (parent != null) {
+            lowLink.put(parent.id, Math.min(lowLink.get(parent.id), lowLink.get(frame.id)));
+          }
+        }
+      }
+    }
+
+    @NonNull
+    private Frame enter(@NonNull String id) {
+      int position = index.size();
+      index.put(id, position);
+      lowLink.put(id, position);
+      stack.push(id);
+      onStack.add(id);
+      return new Frame(id, getParameterReferences(id));
+    }
+
+    private void addComponent(@NonNull String rootId) {
+      List<String> component = new ArrayList<>();
+      String id;
+      do {
+        id = stack.pop();
+        onStack.remove(id);
+        component.add(id);
+      } while (!rootId.equals(id));
+      Collections.reverse(component);
+      components.add(component);
+    }
+
+    private void numberComponents() {
+      List<List<String>> acyclic = new ArrayList<>();
+      for (List<String> component : components) {
+        String first = component.get(0);
+        if (component.size() > 1 || getParameterReferences(ObjectUtils.notNull(first)).contains(first)) {
+          componentMembers.add(CollectionUtil.unmodifiableList(component));
+        } else {
+          acyclic.add(CollectionUtil.unmodifiableList(component));
+        }
+      }
+      cycleCount = componentMembers.size();
+      componentMembers.addAll(acyclic);
+
+      for (int i = 0; i < componentMembers.size(); i++) {
+        for (String id : componentMembers.get(i)) {
+          componentIndex.put(id, i);
+        }
+      }
+    }
+  }
+
+  private static final class Frame {
+    @NonNull
+    private final String id;
+    @NonNull
+    private final List<String> references;
+    private int next;
+
+    private Frame(@NonNull String id, @NonNull List<String> references) {
+      this.id = id;
+      this.references = references;
+    }
+  }
+
+  private static final class Collector
+      extends AbstractCatalogVisitor<Void, Void> {
+    @NonNull
+    private final Map<String, Parameter> parameters = new LinkedHashMap<>();
+    @NonNull
+    private final Map<String, List<String>> parameterReferences = new HashMap<>();
+    @NonNull
+    private final Map<String, List<String>> controlReferences = new HashMap<>();
+
+    @Override
+    protected Void defaultResult() {
+      return null;
+    }
+
+    @Override
+    public Void visitControl(Control control, Void context) {
+      String id = control.getId();
+      if (id != null) {
+        controlReferences.put(id, ObjectUtils.notNull(
+            control.getReferencedParameterIds().collect(Collectors.toUnmodifiableList())));
+      }
+      return super.visitControl(control, context);
+    }
+
+    @Override
+    public Void visitParameter(Parameter parameter, Void context) {
+      String id = parameter.getId();
+      if (id != null && !parameters.containsKey(id)) {
+        parameters.put(id, parameter);
+        parameterReferences.put(id, ObjectUtils.notNull(
+            parameter.getParameterReferences().collect(Collectors.toUnmodifiableList())));
+      }
+      return defaultResult();
+    }
+  }
+}
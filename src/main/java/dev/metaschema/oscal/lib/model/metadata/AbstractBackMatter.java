@@ -5,27 +5,23 @@
 
 package dev.metaschema.oscal.lib.model.metadata;
 
-import java.util.List;
 import java.util.UUID;
 
 import dev.metaschema.oscal.lib.model.BackMatter.Resource;
+import dev.metaschema.oscal.lib.model.util.ListItemIndex;
 import edu.umd.cs.findbugs.annotations.NonNull;
 
 public abstract class AbstractBackMatter implements IBackMatter {
+  @NonNull
+  private final ListItemIndex<UUID, Resource> resourceIndex = new ListItemIndex<>(Resource::getUuid);
 
   @Override
   public Resource getResourceByUuid(@NonNull UUID uuid) {
-    List<Resource> resources = getResources();
-
-    Resource retval = null;
-    if (resources != null) {
-      retval = resources.stream()
-          .filter(resource -> {
-            return uuid.equals(resource.getUuid());
-          }).findFirst()
-          .orElse(null);
-    }
-    return retval;
+    return resourceIndex.get(getResources(), uuid);
   }
 
+  @Override
+  public void invalidateIndexes() {
+    resourceIndex.invalidate();
+  }
 }
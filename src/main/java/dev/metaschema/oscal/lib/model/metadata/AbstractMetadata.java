@@ -5,26 +5,41 @@
 
 package dev.metaschema.oscal.lib.model.metadata;
 
-import java.util.List;
 import java.util.UUID;
 
+import dev.metaschema.oscal.lib.model.Metadata.Location;
 import dev.metaschema.oscal.lib.model.Metadata.Party;
+import dev.metaschema.oscal.lib.model.Metadata.Role;
+import dev.metaschema.oscal.lib.model.util.ListItemIndex;
 import edu.umd.cs.findbugs.annotations.NonNull;
 
 public abstract class AbstractMetadata implements IMetadata {
+  @NonNull
+  private final ListItemIndex<UUID, Party> partyIndex = new ListItemIndex<>(Party::getUuid);
+  @NonNull
+  private final ListItemIndex<UUID, Location> locationIndex = new ListItemIndex<>(Location::getUuid);
+  @NonNull
+  private final ListItemIndex<String, Role> roleIndex = new ListItemIndex<>(Role::getId);
 
   @Override
   public Party getPartyByUuid(@NonNull UUID uuid) {
-    List<Party> parties = getParties();
-
-    Party retval = null;
-    if (parties != null) {
-      retval = parties.stream()
-          .filter(party -> {
-            return uuid.equals(party.getUuid());
-          }).findFirst()
-          .orElse(null);
-    }
-    return retval;
+    return partyIndex.get(getParties(), uuid);
+  }
+
+  @Override
+  public Location getLocationByUuid(@NonNull UUID uuid) {
+    return locationIndex.get(getLocations(), uuid);
+  }
+
+  @Override
+  public Role getRoleById(@NonNull String id) {
+    return roleIndex.get(getRoles(), id);
+  }
+
+  @Override
+  public void invalidateIndexes() {
+    partyIndex.invalidate();
+    locationIndex.invalidate();
+    roleIndex.invalidate();
   }
 }
@@ -15,6 +15,26 @@ import edu.umd.cs.findbugs.annotations.Nullable;
 public interface IBackMatter {
   List<Resource> getResources();
 
+  /**
+   * Lookup a resource by its UUID value.
+   * <p>
+   * Lookups are backed by an index that is built on first use.
+   *
+   * @param uuid
+   *          the uuid value
+   * @return the resource or {@code null} if no resource matched the UUID
+   */
   @Nullable
   Resource getResourceByUuid(@NonNull UUID uuid);
+
+  /**
+   * Discard the lookup indexes, causing them to be rebuilt on next use.
+   * <p>
+   * Replacing the list of resources, or a change to the number of resources, is
+   * detected automatically, and a removed resource is never returned. This must
+   * be called after a change that keeps the number of resources, such as
+   * replacing a resource in-place or removing one resource and adding another,
+   * or after a resource's UUID is changed.
+   */
+  void invalidateIndexes();
 }
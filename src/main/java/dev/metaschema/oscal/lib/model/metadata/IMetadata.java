@@ -15,9 +15,53 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 
 public interface IMetadata {
+  /**
+   * Lookup a party by its UUID value.
+   * <p>
+   * Lookups are backed by an index that is built on first use.
+   *
+   * @param uuid
+   *          the uuid value
+   * @return the party or {@code null} if no party matched the UUID
+   */
   @Nullable
   Party getPartyByUuid(@NonNull UUID uuid);
 
+  /**
+   * Lookup a location by its UUID value.
+   * <p>
+   * Lookups are backed by an index that is built on first use.
+   *
+   * @param uuid
+   *          the uuid value
+   * @return the location or {@code null} if no location matched the UUID
+   */
+  @Nullable
+  Location getLocationByUuid(@NonNull UUID uuid);
+
+  /**
+   * Lookup a role by its identifier.
+   * <p>
+   * Lookups are backed by an index that is built on first use.
+   *
+   * @param id
+   *          the role identifier
+   * @return the role or {@code null} if no role matched the identifier
+   */
+  @Nullable
+  Role getRoleById(@NonNull String id);
+
+  /**
+   * Discard the lookup indexes, causing them to be rebuilt on next use.
+   * <p>
+   * Replacing a list of parties, locations, or roles, or a change to the number
+   * of items in one of these lists, is detected automatically, and a removed
+   * item is never returned. This must be called after a change that keeps the
+   * number of items in a list, such as replacing an item in-place or removing
+   * one item and adding another, or after an item's identifier is changed.
+   */
+  void invalidateIndexes();
+
   List<Role> getRoles();
 
   List<Location> getLocations();
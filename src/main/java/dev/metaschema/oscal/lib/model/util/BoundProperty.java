@@ -0,0 +1,210 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import dev.metaschema.core.datatype.IDataTypeAdapter;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.model.IBoundDefinitionModelAssembly;
+import dev.metaschema.databind.model.IBoundDefinitionModelComplex;
+import dev.metaschema.databind.model.IBoundDefinitionModelFieldComplex;
+import dev.metaschema.databind.model.IBoundFieldValue;
+import dev.metaschema.databind.model.IBoundInstanceFlag;
+import dev.metaschema.databind.model.IBoundInstanceModelAssembly;
+import dev.metaschema.databind.model.IBoundInstanceModelFieldComplex;
+import dev.metaschema.databind.model.IBoundInstanceModelFieldScalar;
+import dev.metaschema.databind.model.IBoundInstanceModelNamed;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A property of a bound definition, which is one of the definition's flags, its
+ * field value, or one of its named model instances.
+ * <p>
+ * This provides access to the content of bound objects using the model, for
+ * utilities that walk that content without serializing it. A property is
+ * identified by its metaschema effective name. Its items are either bound
+ * objects of a known definition, or scalar values handled by the property's
+ * data type adapter.
+ */
+public final class BoundProperty {
+  /**
+   * The name used for the value of a field, which cannot collide with a
+   * metaschema name.
+   */
+  @NonNull
+  public static final String FIELD_VALUE_NAME = "";
+
+  @NonNull
+  private static final Map<IBoundDefinitionModelComplex, List<BoundProperty>> PROPERTIES
+      = new ConcurrentHashMap<>();
+
+  @NonNull
+  private final String name;
+  @NonNull
+  private final Function<Object, Object> getter;
+  @NonNull
+  private final BiConsumer<Object, Object> setter;
+  @Nullable
+  private final IBoundDefinitionModelComplex definition;
+  @Nullable
+  private final IDataTypeAdapter<?> adapter;
+
+  private BoundProperty(
+      @NonNull String name,
+      @NonNull Function<Object, Object> getter,
+      @NonNull BiConsumer<Object, Object> setter,
+      @Nullable IBoundDefinitionModelComplex definition,
+      @Nullable IDataTypeAdapter<?> adapter) {
+    this.name = name;
+    this.getter = getter;
+    this.setter = setter;
+    this.definition = definition;
+    this.adapter = adapter;
+  }
+
+  /**
+   * Get the properties of the provided definition, in the order they are
+   * defined.
+   *
+   * @param definition
+   *          the definition
+   * @return the properties
+   */
+  @NonNull
+  public static List<BoundProperty> getProperties(@NonNull IBoundDefinitionModelComplex definition) {
+    return ObjectUtils.notNull(PROPERTIES.computeIfAbsent(definition, BoundProperty::newProperties));
+  }
+
+  /**
+   * Determine if all of the provided definition's content is covered by its
+   * properties. Choice groups are not supported, since their items are not
+   * identified by the model alone.
+   *
+   * @param definition
+   *          the definition
+   * @return {@code true} if the definition is supported, or {@code false}
+   *         otherwise
+   */
+  public static boolean isSupported(@NonNull IBoundDefinitionModelComplex definition) {
+    return !(definition instanceof IBoundDefinitionModelAssembly)
+        || ((IBoundDefinitionModelAssembly) definition).getChoiceGroupInstances().isEmpty();
+  }
+
+  @NonNull
+  private static List<BoundProperty> newProperties(@NonNull IBoundDefinitionModelComplex definition) {
+    List<BoundProperty> retval = new ArrayList<>();
+    for (IBoundInstanceFlag flag : definition.getFlagInstances()) {
+      retval.add(new BoundProperty(
+          ObjectUtils.notNull(flag.getEffectiveName()),
+          flag::getValue,
+          flag::setValue,
+          null,
+          flag.getJavaTypeAdapter()));
+    }
+    if (definition instanceof IBoundDefinitionModelFieldComplex) {
+      IBoundFieldValue fieldValue = ((IBoundDefinitionModelFieldComplex) definition).getFieldValue();
+      retval.add(new BoundProperty(
+          FIELD_VALUE_NAME,
+          fieldValue::getValue,
+          fieldValue::setValue,
+          null,
+          fieldValue.getJavaTypeAdapter()));
+    } else if (definition instanceof IBoundDefinitionModelAssembly) {
+      for (IBoundInstanceModelNamed<?> instance : ((IBoundDefinitionModelAssembly) definition)
+          .getNamedModelInstances()) {
+        retval.add(newModelProperty(instance));
+      }
+    }
+    return ObjectUtils.notNull(Collections.unmodifiableList(retval));
+  }
+
+  @NonNull
+  private static BoundProperty newModelProperty(@NonNull IBoundInstanceModelNamed<?> instance) {
+    IBoundDefinitionModelComplex itemDefinition = null;
+    IDataTypeAdapter<?> itemAdapter = null;
+    if (instance instanceof IBoundInstanceModelAssembly) {
+      itemDefinition = ((IBoundInstanceModelAssembly) instance).getDefinition();
+    } else if (instance instanceof IBoundInstanceModelFieldComplex) {
+      itemDefinition = ((IBoundInstanceModelFieldComplex) instance).getDefinition();
+    } else if (instance instanceof IBoundInstanceModelFieldScalar) {
+      itemAdapter = ((IBoundInstanceModelFieldScalar) instance).getJavaTypeAdapter();
+    } else {
+      throw new IllegalArgumentException(String.format("Unsupported model instance '%s'.",
+          instance.getEffectiveName()));
+    }
+    return new BoundProperty(
+        ObjectUtils.notNull(instance.getEffectiveName()),
+        instance::getValue,
+        instance::setValue,
+        itemDefinition,
+        itemAdapter);
+  }
+
+  /**
+   * Get the property's name.
+   *
+   * @return the effective name, or {@link #FIELD_VALUE_NAME} for a field's value
+   */
+  @NonNull
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Get the definition of the property's items, if the items are bound objects.
+   *
+   * @return the definition, or {@code null} if the items are scalar values
+   */
+  @Nullable
+  public IBoundDefinitionModelComplex getDefinition() {
+    return definition;
+  }
+
+  /**
+   * Get the adapter used to parse and format the property's items, if the items
+   * are scalar values.
+   *
+   * @return the adapter, or {@code null} if the items are bound objects
+   */
+  @Nullable
+  public IDataTypeAdapter<?> getAdapter() {
+    return adapter;
+  }
+
+  /**
+   * Get the property's value in the provided object.
+   *
+   * @param parent
+   *          the object containing the property
+   * @return the value, which is a list or map for a property with multiple
+   *         items, or {@code null} if the value is absent
+   */
+  @Nullable
+  public Object getValue(@NonNull Object parent) {
+    return getter.apply(parent);
+  }
+
+  /**
+   * Set the property's value in the provided object.
+   *
+   * @param parent
+   *          the object containing the property
+   * @param value
+   *          the value, which is a list or map for a property with multiple
+   *          items
+   */
+  public void setValue(@NonNull Object parent, @Nullable Object value) {
+    setter.accept(parent, value);
+  }
+}
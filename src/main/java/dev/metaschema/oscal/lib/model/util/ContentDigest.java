@@ -0,0 +1,68 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.util;
+
+import java.util.Arrays;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A digest of the content of a model object, produced by a
+ * {@link ContentDigester}.
+ * <p>
+ * Two digests are equal if they were computed from equivalent content.
+ */
+public final class ContentDigest {
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  @NonNull
+  private final byte[] value;
+  private final int hashCode;
+
+  ContentDigest(@NonNull byte[] value) {
+    this.value = value;
+    this.hashCode = Arrays.hashCode(value);
+  }
+
+  /**
+   * Get the bytes of the digest.
+   *
+   * @return a copy of the bytes
+   */
+  @NonNull
+  public byte[] toByteArray() {
+    return value.clone();
+  }
+
+  @NonNull
+  byte[] getValue() {
+    return value;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return this == obj || obj instanceof ContentDigest && Arrays.equals(value, ((ContentDigest) obj).value);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  /**
+   * Get the digest as lowercase hexadecimal.
+   *
+   * @return the hexadecimal string
+   */
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder(value.length * 2);
+    for (byte b : value) {
+      builder.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+    }
+    return builder.toString();
+  }
+}
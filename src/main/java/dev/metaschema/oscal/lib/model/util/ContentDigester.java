@@ -0,0 +1,307 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import dev.metaschema.core.datatype.IDataTypeAdapter;
+import dev.metaschema.core.datatype.markup.IMarkupString;
+import dev.metaschema.core.model.IBoundObject;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.IBindingContext;
+import dev.metaschema.databind.model.IBoundDefinitionModelComplex;
+import dev.metaschema.oscal.lib.OscalBindingContext;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Computes canonical content digests of OSCAL model objects, such as controls,
+ * groups, parameters and whole catalogs.
+ * <p>
+ * Digests are computed as a Merkle tree over the flags and model instances of
+ * each object's bound definition. The digest of an object combines the digest
+ * of each of its non-empty properties, such as the params, props, links, parts
+ * and child controls of a control, identified by their metaschema effective
+ * names in the order they are defined. Markup is digested using its Markdown
+ * form, other scalar values are digested using their data type adapter, and
+ * an empty list is equivalent to an absent one, so content loaded from any of
+ * the supported formats produces the same digest.
+ * <p>
+ * Definitions with choice groups are not supported, since their content is not
+ * covered by the definition's named properties.
+ * <p>
+ * The digest of each object is retained, so the digests of unchanged subtrees
+ * are reused when a containing object is digested again. After an object is
+ * changed, for example when an alter is applied to a control, call
+ * {@link #invalidate(IBoundObject)} with the changed object. This discards the
+ * retained digests of that object and the objects containing it, while the
+ * digests of its unchanged siblings and children are kept. Objects that were
+ * added to the tree have not been digested, so they need no invalidation.
+ * <p>
+ * This class is safe for concurrent use.
+ */
+public class ContentDigester {
+  private static final String ALGORITHM = "SHA-256";
+  private static final byte OBJECT = 'O';
+  private static final byte LIST = 'L';
+  private static final byte MAP = 'M';
+  private static final byte NULL = 'N';
+  private static final byte STRING = 'S';
+  private static final byte MARKUP = 'K';
+  private static final byte BYTES = 'B';
+  private static final byte VALUE = 'V';
+
+  @NonNull
+  private final IBindingContext bindingContext;
+  /**
+   * The retained digest of each digested object.
+   */
+  @NonNull
+  private final Map<Object, ContentDigest> digests = new IdentityHashMap<>();
+  /**
+   * The object containing each digested object, as of when it was last digested.
+   */
+  @NonNull
+  private final Map<Object, Object> parents = new IdentityHashMap<>();
+
+  /**
+   * Construct a new digester for the OSCAL models.
+   */
+  public ContentDigester() {
+    this(OscalBindingContext.instance());
+  }
+
+  /**
+   * Construct a new digester for the models bound in the provided binding
+   * context.
+   *
+   * @param bindingContext
+   *          the binding context
+   */
+  public ContentDigester(@NonNull IBindingContext bindingContext) {
+    this.bindingContext = bindingContext;
+  }
+
+  /**
+   * Get the digest of the provided object's content, reusing any retained
+   * digests of the object and its descendants.
+   *
+   * @param object
+   *          the object to digest
+   * @return the digest
+   * @throws IllegalArgumentException
+   *           if the object is not bound in this digester's binding context, or
+   *           has a definition with a choice group
+   */
+  @NonNull
+  public synchronized ContentDigest digest(@NonNull IBoundObject object) {
+    return digestObject(object, getDefinition(object));
+  }
+
+  /**
+   * Get the retained digest of the provided object, without computing it.
+   *
+   * @param object
+   *          the object
+   * @return the digest, or {@code null} if the object has not been digested
+   *         since it was last invalidated
+   */
+  @Nullable
+  public synchronized ContentDigest getRetainedDigest(@NonNull IBoundObject object) {
+    return digests.get(object);
+  }
+
+  /**
+   * Determine if the two objects have equivalent content.
+   *
+   * @param first
+   *          the first object
+   * @param second
+   *          the second object
+   * @return {@code true} if the content is equivalent, or {@code false}
+   *         otherwise
+   * @throws IllegalArgumentException
+   *           if an object is not bound in this digester's binding context, or
+   *           has a definition with a choice group
+   */
+  public boolean contentEquals(@NonNull IBoundObject first, @NonNull IBoundObject second) {
+    return first == second || digest(first).equals(digest(second));
+  }
+
+  /**
+   * Discard the retained digests of the provided changed object and every
+   * object containing it.
+   *
+   * @param object
+   *          the object that was changed
+   */
+  public synchronized void invalidate(@NonNull IBoundObject object) {
+    Object current = object;
+    while (current != null) {
+      digests.remove(current);
+      current = parents.get(current);
+    }
+  }
+
+  /**
+   * Discard all retained digests.
+   */
+  public synchronized void clear() {
+    digests.clear();
+    parents.clear();
+  }
+
+  @NonNull
+  private IBoundDefinitionModelComplex getDefinition(@NonNull IBoundObject object) {
+    IBoundDefinitionModelComplex retval = bindingContext.getBoundDefinitionForClass(object.getClass());
+    if (retval == null) {
+      throw new IllegalArgumentException(
+          String.format("The class '%s' is not bound in the binding context.", object.getClass().getName()));
+    }
+    return retval;
+  }
+
+  @NonNull
+  private ContentDigest digestObject(@NonNull IBoundObject object, @NonNull IBoundDefinitionModelComplex definition) {
+    ContentDigest retval = digests.get(object);
+    if (retval == null) {
+      if (!BoundProperty.isSupported(definition)) {
+        throw new IllegalArgumentException(
+            String.format("Unable to digest '%s', which has a choice group.", definition.getName()));
+      }
+
+      MessageDigest digest = newMessageDigest();
+      digest.update(OBJECT);
+      update(digest, ObjectUtils.notNull(definition.getName()));
+      for (BoundProperty property : BoundProperty.getProperties(definition)) {
+        byte[] value = digestValue(property.getValue(object), property, object);
+        if (value != null) {
+          update(digest, property.getName());
+          digest.update(value);
+        }
+      }
+      retval = new ContentDigest(ObjectUtils.notNull(digest.digest()));
+      digests.put(object, retval);
+    }
+    return retval;
+  }
+
+  /**
+   * Digest a value of the provided owner's property.
+   *
+   * @return the digest, or {@code null} if the value is absent or empty
+   */
+  @Nullable
+  private byte[] digestValue(@Nullable Object value, @NonNull BoundProperty property, @NonNull IBoundObject owner) {
+    byte[] retval;
+    if (value == null) {
+      retval = null;
+    } else if (value instanceof List) {
+      retval = digestList((List<?>) value, property, owner);
+    } else if (value instanceof Map) {
+      retval = digestMap((Map<?, ?>) value, property, owner);
+    } else {
+      retval = digestItem(value, property, owner);
+    }
+    return retval;
+  }
+
+  @NonNull
+  private byte[] digestItem(@NonNull Object item, @NonNull BoundProperty property, @NonNull IBoundObject owner) {
+    IBoundDefinitionModelComplex definition = property.getDefinition();
+    byte[] retval;
+    if (definition != null) {
+      parents.put(item, owner);
+      retval = digestObject((IBoundObject) item, definition).getValue();
+    } else {
+      MessageDigest digest = newMessageDigest();
+      if (item instanceof String) {
+        digest.update(STRING);
+        update(digest, (String) item);
+      } else if (item instanceof IMarkupString) {
+        digest.update(MARKUP);
+        update(digest, ObjectUtils.notNull(((IMarkupString<?>) item).toMarkdown()));
+      } else if (item instanceof ByteBuffer) {
+        digest.update(BYTES);
+        digest.update(((ByteBuffer) item).duplicate());
+      } else {
+        IDataTypeAdapter<?> adapter = ObjectUtils.requireNonNull(property.getAdapter());
+        digest.update(VALUE);
+        update(digest, ObjectUtils.notNull(adapter.getPreferredName()));
+        update(digest, ObjectUtils.notNull(adapter.asString(item)));
+      }
+      retval = ObjectUtils.notNull(digest.digest());
+    }
+    return retval;
+  }
+
+  @Nullable
+  private byte[] digestList(@NonNull List<?> list, @NonNull BoundProperty property, @NonNull IBoundObject owner) {
+    byte[] retval = null;
+    if (!list.isEmpty()) {
+      MessageDigest digest = newMessageDigest();
+      digest.update(LIST);
+      for (Object item : list) {
+        byte[] value = item == null ? null : digestItem(item, property, owner);
+        if (value == null) {
+          digest.update(NULL);
+        } else {
+          digest.update(value);
+        }
+      }
+      retval = digest.digest();
+    }
+    return retval;
+  }
+
+  @Nullable
+  private byte[] digestMap(@NonNull Map<?, ?> map, @NonNull BoundProperty property, @NonNull IBoundObject owner) {
+    byte[] retval = null;
+    if (!map.isEmpty()) {
+      List<Map.Entry<?, ?>> entries = new ArrayList<>(map.entrySet());
+      entries.sort(Comparator.comparing(entry -> String.valueOf(entry.getKey())));
+
+      MessageDigest digest = newMessageDigest();
+      digest.update(MAP);
+      for (Map.Entry<?, ?> entry : entries) {
+        update(digest, ObjectUtils.notNull(String.valueOf(entry.getKey())));
+        Object item = entry.getValue();
+        byte[] value = item == null ? null : digestItem(item, property, owner);
+        if (value == null) {
+          digest.update(NULL);
+        } else {
+          digest.update(value);
+        }
+      }
+      retval = digest.digest();
+    }
+    return retval;
+  }
+
+  private static void update(@NonNull MessageDigest digest, @NonNull String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    // prefix the length, so adjacent values cannot be confused
+    digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+    digest.update(bytes);
+  }
+
+  @NonNull
+  private static MessageDigest newMessageDigest() {
+    try {
+      return ObjectUtils.notNull(MessageDigest.getInstance(ALGORITHM));
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+}
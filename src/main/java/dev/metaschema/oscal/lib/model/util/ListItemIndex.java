@@ -0,0 +1,164 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.util;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A lazily built hash index over the items of a bound model list, such as the
+ * back-matter resources or metadata parties of an OSCAL document.
+ * <p>
+ * Since the generated model classes allow the underlying list to be replaced or
+ * modified at any time, the index is rebuilt whenever the list instance or its
+ * size differs from the list that was indexed. The index records the position
+ * of each item, and an item found in the index is only returned if it is still
+ * at that position and still has the requested key. Otherwise the index is
+ * rebuilt. As a result, a removed item is never returned.
+ * <p>
+ * Other changes that keep the list's size, such as replacing an item in-place,
+ * removing one item and adding another, or changing an item's key, may cause an
+ * item to be missed until {@link #invalidate()} is called.
+ * <p>
+ * Lists that do not support fast random access are scanned instead of indexed.
+ * <p>
+ * If there are multiple items with the same key, the first is returned, which
+ * is consistent with a linear search of the list.
+ *
+ * @param <K>
+ *          the key type
+ * @param <T>
+ *          the item type
+ */
+public final class ListItemIndex<K, T> {
+  @NonNull
+  private final Function<T, K> keyFunction;
+  @Nullable
+  private volatile Snapshot<K, T> snapshot;
+
+  /**
+   * Construct a new index.
+   *
+   * @param keyFunction
+   *          the function used to get the key of an item, which may return
+   *          {@code null} if the item has no key
+   */
+  public ListItemIndex(@NonNull Function<T, K> keyFunction) {
+    this.keyFunction = keyFunction;
+  }
+
+  /**
+   * Get the first item in the provided list with the provided key.
+   *
+   * @param items
+   *          the list of items to search, which should be the same list on each
+   *          call unless it has been replaced
+   * @param key
+   *          the key to look for
+   * @return the matching item or {@code null} if no item matched the key
+   */
+  @Nullable
+  public T get(@Nullable List<T> items, @NonNull K key) {
+    T retval = null;
+    if (items != null && !items.isEmpty()) {
+      if (items instanceof RandomAccess) {
+        Snapshot<K, T> current = snapshot;
+        if (current == null || !current.isCurrent(items)) {
+          current = new Snapshot<>(items, keyFunction);
+          snapshot = current;
+        }
+
+        Integer position = current.getPosition(key);
+        if (position != null) {
+          retval = getAt(items, position, key);
+          if (retval == null) {
+            // the item has moved, been removed, or had its key changed since the
+            // list was indexed
+            current = new Snapshot<>(items, keyFunction);
+            snapshot = current;
+
+            position = current.getPosition(key);
+            retval = position == null ? null : getAt(items, position, key);
+          }
+        }
+      } else {
+        retval = scan(items, key);
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Discard the index, causing it to be rebuilt on the next lookup.
+   * <p>
+   * This must be called after a change to the list that keeps its size, or
+   * after the key of an item is changed, since these changes are not always
+   * detected.
+   */
+  public void invalidate() {
+    snapshot = null;
+  }
+
+  @Nullable
+  private T getAt(@NonNull List<T> items, int position, @NonNull K key) {
+    T retval = null;
+    if (position < items.size()) {
+      T item = items.get(position);
+      if (item != null && key.equals(keyFunction.apply(item))) {
+        retval = item;
+      }
+    }
+    return retval;
+  }
+
+  @Nullable
+  private T scan(@NonNull List<T> items, @NonNull K key) {
+    T retval = null;
+    for (T item : items) {
+      if (item != null && key.equals(keyFunction.apply(item))) {
+        retval = item;
+        break;
+      }
+    }
+    return retval;
+  }
+
+  private static final class Snapshot<K, T> {
+    @NonNull
+    private final List<T> items;
+    private final int size;
+    @NonNull
+    private final Map<K, Integer> keyToPositionMap;
+
+    private Snapshot(@NonNull List<T> items, @NonNull Function<T, K> keyFunction) {
+      this.items = items;
+      this.size = items.size();
+      this.keyToPositionMap = new HashMap<>((int) (size / 0.75f) + 1);
+      for (int position = 0; position < size; position++) {
+        T item = items.get(position);
+        K key = item == null ? null : keyFunction.apply(item);
+        if (key != null) {
+          keyToPositionMap.putIfAbsent(key, position);
+        }
+      }
+    }
+
+    private boolean isCurrent(@NonNull List<T> items) {
+      return this.items == items && this.size == items.size();
+    }
+
+    @Nullable
+    private Integer getPosition(@NonNull K key) {
+      return keyToPositionMap.get(key);
+    }
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.util;
+
+import com.vladsch.flexmark.ast.InlineLinkNode;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.ast.Node;
+import com.vladsch.flexmark.util.data.NullableDataKey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import dev.metaschema.core.datatype.markup.IMarkupString;
+import dev.metaschema.core.datatype.markup.flexmark.InsertAnchorExtension.InsertAnchorNode;
+import dev.metaschema.core.util.CollectionUtil;
+import dev.metaschema.core.util.ObjectUtils;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Provides a summary of the references made by a markup value, consisting of
+ * the insert anchors and inline links contained in the markup.
+ * <p>
+ * The summary is computed once per markup value, when it is first requested,
+ * and is attached to the markup's underlying document. This avoids walking the
+ * entire markup tree each time the references are needed. The document's data
+ * is not thread-safe, so the summary is read, computed, and discarded while
+ * holding the document's lock.
+ * <p>
+ * The summary retains the reference nodes themselves, instead of copies of
+ * their values. This ensures that changes made to a node, such as updating an
+ * insert's identifier reference or a link's URL during profile resolution, are
+ * reflected in the summary. If the structure of the markup tree is changed
+ * directly, {@link #invalidate(IMarkupString)} must be called to discard the
+ * summary.
+ */
+public final class MarkupReferenceSummary {
+  @NonNull
+  private static final NullableDataKey<MarkupReferenceSummary> SUMMARY_KEY
+      = new NullableDataKey<>("oscal-markup-reference-summary");
+
+  @NonNull
+  private final List<Node> referenceNodes;
+  @NonNull
+  private final List<InsertAnchorNode> inserts;
+  @NonNull
+  private final List<InlineLinkNode> links;
+
+  /**
+   * Get the reference summary for the provided markup, computing it if needed.
+   *
+   * @param markup
+   *          the markup to get the summary for
+   * @return the summary
+   */
+  @NonNull
+  public static MarkupReferenceSummary of(@NonNull IMarkupString<?> markup) {
+    Document document = markup.getDocument();
+    MarkupReferenceSummary retval;
+    synchronized (document) {
+      retval = SUMMARY_KEY.get(document);
+      if (retval == null) {
+        retval = new MarkupReferenceSummary(markup);
+        document.set(SUMMARY_KEY, retval);
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Discard any summary computed for the provided markup.
+   * <p>
+   * This must be called if nodes are added to or removed from the markup tree
+   * after the summary was computed.
+   *
+   * @param markup
+   *          the markup to discard the summary for
+   */
+  public static void invalidate(@NonNull IMarkupString<?> markup) {
+    Document document = markup.getDocument();
+    synchronized (document) {
+      document.remove(SUMMARY_KEY);
+    }
+  }
+
+  private MarkupReferenceSummary(@NonNull IMarkupString<?> markup) {
+    List<Node> referenceNodes = new ArrayList<>();
+    List<InsertAnchorNode> inserts = new ArrayList<>();
+    List<InlineLinkNode> links = new ArrayList<>();
+    for (Node node : CollectionUtil.toIterable(ObjectUtils.notNull(markup.getNodesAsStream().iterator()))) {
+      if (node instanceof InsertAnchorNode) {
+        referenceNodes.add(node);
+        inserts.add((InsertAnchorNode) node);
+      } else if (node instanceof InlineLinkNode) {
+        referenceNodes.add(node);
+        links.add((InlineLinkNode) node);
+      }
+    }
+    this.referenceNodes = CollectionUtil.unmodifiableList(referenceNodes);
+    this.inserts = CollectionUtil.unmodifiableList(inserts);
+    this.links = CollectionUtil.unmodifiableList(links);
+  }
+
+  /**
+   * Get the insert anchor and inline link nodes, in document order.
+   *
+   * @return the reference nodes
+   */
+  @NonNull
+  public List<Node> getReferenceNodes() {
+    return referenceNodes;
+  }
+
+  /**
+   * Get the insert anchor nodes, in document order.
+   *
+   * @return the insert nodes
+   */
+  @NonNull
+  public List<InsertAnchorNode> getInserts() {
+    return inserts;
+  }
+
+  /**
+   * Get the insert anchor nodes matching the provided filter, in document order.
+   *
+   * @param filter
+   *          the filter used to select inserts
+   * @return the matching insert nodes
+   */
+  @NonNull
+  public Stream<InsertAnchorNode> getInserts(@NonNull Predicate<InsertAnchorNode> filter) {
+    return ObjectUtils.notNull(inserts.stream().filter(filter));
+  }
+
+  /**
+   * Get the identifier references of the inserts with the provided type, in
+   * document order.
+   *
+   * @param type
+   *          the insert type, such as {@code param}
+   * @return the identifier references
+   */
+  @NonNull
+  public Stream<String> getInsertIdReferences(@NonNull String type) {
+    return ObjectUtils.notNull(inserts.stream()
+        .filter(insert -> type.equals(insert.getType().toString()))
+        .map(insert -> insert.getIdReference().toString()));
+  }
+
+  /**
+   * Get the inline link nodes, in document order.
+   *
+   * @return the link nodes
+   */
+  @NonNull
+  public List<InlineLinkNode> getLinks() {
+    return links;
+  }
+
+  /**
+   * Get the current URL of each inline link, in document order.
+   *
+   * @return the link URLs
+   */
+  @NonNull
+  public Stream<String> getLinkHrefs() {
+    return ObjectUtils.notNull(links.stream()
+        .map(link -> link.getUrl().toString()));
+  }
+}
@@ -0,0 +1,414 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.util;
+
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.data.NullableDataKey;
+import com.vladsch.flexmark.util.sequence.BasedSequence;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import dev.metaschema.core.datatype.markup.IMarkupString;
+import dev.metaschema.core.datatype.markup.MarkupLine;
+import dev.metaschema.core.datatype.markup.MarkupMultiline;
+import dev.metaschema.core.datatype.markup.flexmark.InsertAnchorExtension.InsertAnchorNode;
+import dev.metaschema.core.util.CollectionUtil;
+import dev.metaschema.core.util.ObjectUtils;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A markup value compiled into a flat template, consisting of literal text
+ * segments separated by insert slots, which can be rendered repeatedly with
+ * different parameter values without walking the markup tree.
+ * <p>
+ * The slots are identified using the markup's insert anchor nodes, so text that
+ * only looks like an insert, such as an insert shown in a code span, is kept as
+ * literal text.
+ * <p>
+ * A template is compiled once per markup value and output format, when it is
+ * first requested, and is attached to the markup's underlying document. The
+ * document's data is not thread-safe, so templates are read, compiled, and
+ * discarded while holding the document's lock. If the markup is changed,
+ * including when an insert's identifier reference is updated,
+ * {@link #invalidate(IMarkupString)} must be called to discard the compiled
+ * templates.
+ */
+public final class ProseTemplate {
+  /**
+   * The supported output formats.
+   */
+  public enum Format {
+    /**
+     * HTML, with inserted values escaped as HTML text.
+     */
+    HTML,
+    /**
+     * Markdown, with inserted values escaped as Markdown text.
+     */
+    MARKDOWN,
+    /**
+     * Plain text, derived from the HTML rendering, with inserted values used
+     * as-is.
+     */
+    TEXT;
+  }
+
+  @NonNull
+  private static final Map<Format, NullableDataKey<ProseTemplate>> TEMPLATE_KEYS;
+  /**
+   * Delimits the marker used to locate an insert in the rendered output. These
+   * are private use characters, which do not occur in OSCAL prose.
+   */
+  private static final char MARKER_START = '\uE000';
+  private static final char MARKER_END = '\uE001';
+  @NonNull
+  private static final String HTML_INSERT_END = "</insert>";
+  @NonNull
+  private static final Pattern HTML_BLOCK_END_PATTERN
+      = ObjectUtils.notNull(Pattern.compile("(?i)</(?:p|li|h[1-6]|tr|blockquote|pre)>|<br\\s*/?>"));
+  @NonNull
+  private static final Pattern HTML_TAG_PATTERN = ObjectUtils.notNull(Pattern.compile("<[^>]+>"));
+
+  static {
+    TEMPLATE_KEYS = new EnumMap<>(Format.class);
+    for (Format format : Format.values()) {
+      TEMPLATE_KEYS.put(format,
+          new NullableDataKey<>("oscal-prose-template-" + format.name().toLowerCase(Locale.ROOT)));
+    }
+  }
+
+  @NonNull
+  private final Format format;
+  /**
+   * The literal segments, which always has one more entry than {@link #slots}.
+   */
+  @NonNull
+  private final List<String> segments;
+  @NonNull
+  private final List<Slot> slots;
+  private final int literalLength;
+
+  /**
+   * Get the template for the provided markup and format, compiling it if needed.
+   *
+   * @param markup
+   *          the markup to get the template for
+   * @param format
+   *          the output format
+   * @return the template
+   * @throws IllegalStateException
+   *           if an insert could not be found in the rendered markup
+   */
+  @NonNull
+  public static ProseTemplate of(@NonNull IMarkupString<?> markup, @NonNull Format format) {
+    Document document = markup.getDocument();
+    NullableDataKey<ProseTemplate> key = ObjectUtils.notNull(TEMPLATE_KEYS.get(format));
+    ProseTemplate retval;
+    synchronized (document) {
+      retval = key.get(document);
+      if (retval == null) {
+        retval = compile(markup, format);
+        document.set(key, retval);
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Discard any templates compiled for the provided markup.
+   *
+   * @param markup
+   *          the markup to discard the templates for
+   */
+  public static void invalidate(@NonNull IMarkupString<?> markup) {
+    invalidate(markup.getDocument());
+  }
+
+  /**
+   * Discard any templates compiled for the markup with the provided document.
+   *
+   * @param document
+   *          the underlying document of the markup to discard the templates for
+   */
+  public static void invalidate(@NonNull Document document) {
+    synchronized (document) {
+      for (NullableDataKey<ProseTemplate> key : TEMPLATE_KEYS.values()) {
+        document.remove(key);
+      }
+    }
+  }
+
+  @NonNull
+  private static ProseTemplate compile(@NonNull IMarkupString<?> markup, @NonNull Format format) {
+    boolean markdown = format == Format.MARKDOWN;
+
+    // Work on a copy, so the markup itself is not changed. Each insert in the
+    // copy is given a unique marker as its identifier, which locates the
+    // insert's rendered form.
+    IMarkupString<?> copy = markup instanceof MarkupLine
+        ? MarkupLine.fromMarkdown(markup.toMarkdown())
+        : MarkupMultiline.fromMarkdown(markup.toMarkdown());
+    List<InsertAnchorNode> inserts = MarkupReferenceSummary.of(copy).getInserts();
+    List<String> types = new ArrayList<>(inserts.size());
+    List<String> idReferences = new ArrayList<>(inserts.size());
+    for (int i = 0; i < inserts.size(); i++) {
+      InsertAnchorNode insert = inserts.get(i);
+      types.add(insert.getType().toString());
+      idReferences.add(insert.getIdReference().toString());
+      insert.setIdReference(ObjectUtils.notNull(BasedSequence.of(marker(i))));
+    }
+    String rendered = markdown ? copy.toMarkdown() : copy.toHtml();
+
+    List<String> segments = new ArrayList<>();
+    List<Slot> slots = new ArrayList<>();
+    int last = 0;
+    for (int i = 0; i < inserts.size(); i++) {
+      String marker = marker(i);
+      int markerIndex = rendered.indexOf(marker, last);
+      if (markerIndex < 0) {
+        throw new IllegalStateException(
+            String.format("The insert of '%s' was not found in the rendered markup.", idReferences.get(i)));
+      }
+
+      int start;
+      int end;
+      if (markdown) {
+        start = rendered.lastIndexOf("{{", markerIndex);
+        end = rendered.indexOf("}}", markerIndex) + 2;
+      } else {
+        start = rendered.lastIndexOf("<insert", markerIndex);
+        end = rendered.indexOf('>', markerIndex) + 1;
+        if (rendered.startsWith(HTML_INSERT_END, end)) {
+          end += HTML_INSERT_END.length();
+        }
+      }
+
+      String idReference = ObjectUtils.notNull(idReferences.get(i));
+      String original = rendered.substring(start, end)
+          .replace(marker, markdown ? idReference : escapeHtml(idReference));
+      segments.add(rendered.substring(last, start));
+      slots.add(new Slot(ObjectUtils.notNull(types.get(i)), idReference, ObjectUtils.notNull(original)));
+      last = end;
+    }
+    segments.add(rendered.substring(last));
+
+    if (format == Format.TEXT) {
+      toText(segments, slots);
+    }
+    return new ProseTemplate(format, segments, slots);
+  }
+
+  @NonNull
+  private static String marker(int index) {
+    return MARKER_START + Integer.toString(index) + MARKER_END;
+  }
+
+  private static void toText(@NonNull List<String> segments, @NonNull List<Slot> slots) {
+    for (int i = 0; i < segments.size(); i++) {
+      String text = HTML_BLOCK_END_PATTERN.matcher(segments.get(i)).replaceAll("\n");
+      text = HTML_TAG_PATTERN.matcher(text).replaceAll("");
+      segments.set(i, unescapeHtml(ObjectUtils.notNull(text)));
+    }
+    segments.set(0, ObjectUtils.notNull(segments.get(0).stripLeading()));
+    int lastIndex = segments.size() - 1;
+    segments.set(lastIndex, ObjectUtils.notNull(segments.get(lastIndex).stripTrailing()));
+
+    for (int i = 0; i < slots.size(); i++) {
+      Slot slot = slots.get(i);
+      // there is no plain text form of an insert, so use the Markdown form
+      slots.set(i, new Slot(slot.getType(), slot.getIdReference(),
+          "{{ insert: " + slot.getType() + ", " + slot.getIdReference() + " }}"));
+    }
+  }
+
+  private ProseTemplate(@NonNull Format format, @NonNull List<String> segments, @NonNull List<Slot> slots) {
+    this.format = format;
+    this.segments = CollectionUtil.unmodifiableList(segments);
+    this.slots = CollectionUtil.unmodifiableList(slots);
+    this.literalLength = segments.stream().mapToInt(String::length).sum();
+  }
+
+  /**
+   * Get the output format of this template.
+   *
+   * @return the format
+   */
+  @NonNull
+  public Format getFormat() {
+    return format;
+  }
+
+  /**
+   * Get the insert slots, in document order.
+   *
+   * @return the slots
+   */
+  @NonNull
+  public List<Slot> getSlots() {
+    return slots;
+  }
+
+  /**
+   * Render the template, replacing each parameter insert with the provided
+   * value.
+   * <p>
+   * Inserts without a value, and inserts of other types, are rendered in their
+   * original form.
+   *
+   * @param parameterValues
+   *          a map of parameter identifier to the value to insert
+   * @return the rendered text
+   */
+  @NonNull
+  public String render(@NonNull Map<String, String> parameterValues) {
+    return render(parameterValues::get);
+  }
+
+  /**
+   * Render the template, replacing each parameter insert with the value provided
+   * by the function.
+   * <p>
+   * Inserts for which the function returns {@code null}, and inserts of other
+   * types, are rendered in their original form.
+   *
+   * @param parameterValues
+   *          a function returning the value to insert for a parameter identifier
+   * @return the rendered text
+   */
+  @NonNull
+  public String render(@NonNull Function<String, String> parameterValues) {
+    StringBuilder builder = new StringBuilder(literalLength + slots.size() * 16);
+    builder.append(segments.get(0));
+    for (int i = 0; i < slots.size(); i++) {
+      Slot slot = slots.get(i);
+      String value = "param".equals(slot.getType()) ? parameterValues.apply(slot.getIdReference()) : null;
+      if (value == null) {
+        builder.append(slot.getOriginal());
+      } else {
+        appendEscaped(builder, value);
+      }
+      builder.append(segments.get(i + 1));
+    }
+    return ObjectUtils.notNull(builder.toString());
+  }
+
+  private void appendEscaped(@NonNull StringBuilder builder, @NonNull String value) {
+    switch (format) {
+    case HTML:
+      appendEscapedHtml(builder, value);
+      break;
+    case MARKDOWN:
+      for (int i = 0; i < value.length(); i++) {
+        char ch = value.charAt(i);
+        if ("\\`*_[]<>~{}".indexOf(ch) >= 0) {
+          builder.append('\\');
+        }
+        builder.append(ch);
+      }
+      break;
+    case TEXT:
+    default:
+      builder.append(value);
+      break;
+    }
+  }
+
+  @NonNull
+  private static String escapeHtml(@NonNull String text) {
+    StringBuilder builder = new StringBuilder(text.length());
+    appendEscapedHtml(builder, text);
+    return ObjectUtils.notNull(builder.toString());
+  }
+
+  private static void appendEscapedHtml(@NonNull StringBuilder builder, @NonNull String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char ch = value.charAt(i);
+      switch (ch) {
+      case '&':
+        builder.append("&amp;");
+        break;
+      case '<':
+        builder.append("&lt;");
+        break;
+      case '>':
+        builder.append("&gt;");
+        break;
+      case '"':
+        builder.append("&quot;");
+        break;
+      default:
+        builder.append(ch);
+        break;
+      }
+    }
+  }
+
+  @NonNull
+  private static String unescapeHtml(@NonNull String text) {
+    return ObjectUtils.notNull(text
+        .replace("&lt;", "<")
+        .replace("&gt;", ">")
+        .replace("&quot;", "\"")
+        .replace("&#39;", "'")
+        .replace("&nbsp;", "\u00a0")
+        // must be last to avoid unescaping escaped entities
+        .replace("&amp;", "&"));
+  }
+
+  /**
+   * An insert slot in a template.
+   */
+  public static final class Slot {
+    @NonNull
+    private final String type;
+    @NonNull
+    private final String idReference;
+    @NonNull
+    private final String original;
+
+    private Slot(@NonNull String type, @NonNull String idReference, @NonNull String original) {
+      this.type = type;
+      this.idReference = idReference;
+      this.original = original;
+    }
+
+    /**
+     * Get the insert type, such as {@code param}.
+     *
+     * @return the type
+     */
+    @NonNull
+    public String getType() {
+      return type;
+    }
+
+    /**
+     * Get the identifier of the inserted item.
+     *
+     * @return the identifier
+     */
+    @NonNull
+    public String getIdReference() {
+      return idReference;
+    }
+
+    /**
+     * Get the original form of the insert in the template's format.
+     *
+     * @return the original insert
+     */
+    @NonNull
+    public String getOriginal() {
+      return original;
+    }
+  }
+}
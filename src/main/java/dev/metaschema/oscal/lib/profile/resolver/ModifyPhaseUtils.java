@@ -5,16 +5,12 @@
 
 package dev.metaschema.oscal.lib.profile.resolver;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
-import dev.metaschema.core.util.CollectionUtil;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 
@@ -23,20 +19,39 @@ public final class ModifyPhaseUtils {
     // disable construction
   }
 
-  public static <T> Function<? super T, String> identityKey() {
-    return item -> Integer.toString(Objects.hashCode(item));
+  /**
+   * Get a key function that keys each item by the item itself.
+   * <p>
+   * Using this function, items are considered the same if they are equal.
+   *
+   * @param <T>
+   *          the item type
+   * @return the key function
+   */
+  @NonNull
+  public static <T> Function<? super T, Object> identityKey() {
+    return item -> item;
   }
 
-  public static <T, R> Function<? super T, String> identifierKey(@NonNull Function<T, R> identifierFunction) {
+  /**
+   * Get a key function that keys each item by its identifier.
+   * <p>
+   * Items without an identifier are keyed by the item itself, as is done by
+   * {@link #identityKey()}.
+   *
+   * @param <T>
+   *          the item type
+   * @param <R>
+   *          the identifier type
+   * @param identifierFunction
+   *          the function used to get the identifier of an item
+   * @return the key function
+   */
+  @NonNull
+  public static <T, R> Function<? super T, Object> identifierKey(@NonNull Function<T, R> identifierFunction) {
     return item -> {
       R identifier = identifierFunction.apply(item);
-      String retval;
-      if (identifier == null) {
-        retval = Integer.toString(Objects.hashCode(item));
-      } else {
-        retval = identifier.toString();
-      }
-      return retval;
+      return identifier == null ? item : identifier;
     };
   }
 
@@ -49,9 +64,28 @@ public final class ModifyPhaseUtils {
     return additional;
   }
 
+  /**
+   * Merge the additional items into the original items.
+   * <p>
+   * Only the last item with a given key is retained, and the resulting items are
+   * ordered by the position of this last item. This allows an additional item to
+   * replace an original item with the same key.
+   * <p>
+   * This is performed in a single pass over the items.
+   *
+   * @param <T>
+   *          the item type
+   * @param original
+   *          the original items
+   * @param additional
+   *          the additional items
+   * @param keyFunction
+   *          the function used to get the key of an item
+   * @return the merged items
+   */
   @SuppressWarnings("PMD.OnlyOneReturn") // readability
   public static <T> List<T> merge(@Nullable List<T> original, @Nullable List<T> additional,
-      Function<? super T, String> keyFunction) {
+      @NonNull Function<? super T, ?> keyFunction) {
     if (additional == null || additional.isEmpty()) {
       return original;
     }
@@ -60,29 +94,22 @@ public final class ModifyPhaseUtils {
       return additional;
     }
 
-    // reverse the stream
-    List<T> reversed = Stream.concat(
-        CollectionUtil.listOrEmpty(original).stream(),
-        CollectionUtil.listOrEmpty(additional).stream())
-        .collect(Collectors.collectingAndThen(
-            Collectors.toList(),
-            l -> {
-              Collections.reverse(l);
-              return l;
-            }));
-
-    // build a map of each unique identity
-    Map<String, List<T>> identityMap = reversed.stream()
-        .collect(Collectors.groupingBy(keyFunction, LinkedHashMap::new, Collectors.toList()));
+    int size = original.size() + additional.size();
+    Map<Object, T> keyToItemMap = new LinkedHashMap<>((int) (size / 0.75f) + 1);
+    putLast(original, keyFunction, keyToItemMap);
+    putLast(additional, keyFunction, keyToItemMap);
+    return new ArrayList<>(keyToItemMap.values());
+  }
 
-    // build a reversed list of items, using the first item
-    return identityMap.values().stream()
-        .map(list -> list.stream().findFirst().get())
-        .collect(Collectors.collectingAndThen(
-            Collectors.toList(),
-            l -> {
-              Collections.reverse(l);
-              return l;
-            }));
+  private static <T> void putLast(
+      @NonNull List<T> items,
+      @NonNull Function<? super T, ?> keyFunction,
+      @NonNull Map<Object, T> keyToItemMap) {
+    for (T item : items) {
+      Object key = keyFunction.apply(item);
+      // remove any existing entry to move the key to the end of the iteration order
+      keyToItemMap.remove(key);
+      keyToItemMap.put(key, item);
+    }
   }
 }
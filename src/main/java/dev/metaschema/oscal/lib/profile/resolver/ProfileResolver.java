@@ -5,24 +5,37 @@
 
 package dev.metaschema.oscal.lib.profile.resolver;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Stack;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import dev.metaschema.core.metapath.DynamicContext;
 import dev.metaschema.core.metapath.IDocumentLoader;
@@ -34,6 +47,7 @@ import dev.metaschema.core.metapath.item.IItem;
 import dev.metaschema.core.metapath.item.ISequence;
 import dev.metaschema.core.metapath.item.node.IAssemblyNodeItem;
 import dev.metaschema.core.metapath.item.node.IDocumentNodeItem;
+import dev.metaschema.core.metapath.item.node.IModelNodeItem;
 import dev.metaschema.core.metapath.item.node.INodeItem;
 import dev.metaschema.core.metapath.item.node.INodeItemFactory;
 import dev.metaschema.core.metapath.item.node.IRootAssemblyNodeItem;
@@ -43,11 +57,14 @@ import dev.metaschema.core.util.CollectionUtil;
 import dev.metaschema.core.util.ObjectUtils;
 import dev.metaschema.databind.io.BindingException;
 import dev.metaschema.databind.io.DeserializationFeature;
+import dev.metaschema.databind.io.Format;
 import dev.metaschema.databind.io.IBoundLoader;
 import dev.metaschema.databind.model.IBoundDefinitionModelAssembly;
 import dev.metaschema.oscal.lib.OscalBindingContext;
 import dev.metaschema.oscal.lib.OscalModelConstants;
 import dev.metaschema.oscal.lib.OscalUtils;
+import dev.metaschema.oscal.lib.io.Compression;
+import dev.metaschema.oscal.lib.io.OscalStreamReader;
 import dev.metaschema.oscal.lib.model.BackMatter;
 import dev.metaschema.oscal.lib.model.BackMatter.Resource;
 import dev.metaschema.oscal.lib.model.BackMatter.Resource.Base64;
@@ -67,8 +84,11 @@ import dev.metaschema.oscal.lib.model.ProfileImport;
 import dev.metaschema.oscal.lib.model.Property;
 import dev.metaschema.oscal.lib.model.metadata.AbstractLink;
 import dev.metaschema.oscal.lib.model.metadata.AbstractProperty;
+import dev.metaschema.oscal.lib.model.util.ContentDigester;
 import dev.metaschema.oscal.lib.profile.resolver.alter.AddVisitor;
+import dev.metaschema.oscal.lib.profile.resolver.alter.ControlTargetIndex;
 import dev.metaschema.oscal.lib.profile.resolver.alter.RemoveVisitor;
+import dev.metaschema.oscal.lib.profile.resolver.cache.ResolutionCache;
 import dev.metaschema.oscal.lib.profile.resolver.merge.FlatteningStructuringVisitor;
 import dev.metaschema.oscal.lib.profile.resolver.selection.Import;
 import dev.metaschema.oscal.lib.profile.resolver.selection.ImportCycleException;
@@ -116,16 +136,40 @@ public class ProfileResolver {
   private static final IMetapathExpression CATALOG
       = IMetapathExpression.compile("/catalog",
           OscalBindingContext.OSCAL_STATIC_METAPATH_CONTEXT);
+  /**
+   * The namespace of the name-based UUIDs generated for reproducible
+   * resolutions.
+   */
+  @NonNull
+  private static final UUID RESOLUTION_UUID_NAMESPACE
+      = ObjectUtils.notNull(UUID.fromString("8f3c2d6a-4b1e-5a7f-9c0d-2e6b8a4f1d37"));
 
   @NonNull
   private final DynamicContext dynamicContext;
   @NonNull
   private final UriResolver uriResolver;
+  private boolean parallelAlters;
+  @Nullable
+  private ResolutionCache resolutionCache;
+  private boolean reproducible;
+  @Nullable
+  private ZonedDateTime resolutionTimestamp;
 
   public ProfileResolver() {
     this(newDynamicContext(), (uri, source) -> source.resolve(uri));
   }
 
+  /**
+   * Construct a new resolver that uses the default document loader and the
+   * provided URI resolver.
+   *
+   * @param uriResolver
+   *          the resolver used to resolve relative references
+   */
+  public ProfileResolver(@NonNull UriResolver uriResolver) {
+    this(newDynamicContext(), uriResolver);
+  }
+
   public ProfileResolver(
       @NonNull DynamicContext dynamicContext,
       @NonNull UriResolver uriResolver) {
@@ -162,6 +206,110 @@ public class ProfileResolver {
     return dynamicContext;
   }
 
+  /**
+   * Determine if alters targeting different controls are applied in parallel.
+   *
+   * @return {@code true} if alters are applied in parallel, or {@code false}
+   *         otherwise
+   */
+  public boolean isParallelAlters() {
+    return parallelAlters;
+  }
+
+  /**
+   * Configure if alters targeting different controls are applied in parallel.
+   * <p>
+   * This is disabled by default.
+   *
+   * @param parallelAlters
+   *          {@code true} if alters are to be applied in parallel, or
+   *          {@code false} otherwise
+   */
+  public void setParallelAlters(boolean parallelAlters) {
+    this.parallelAlters = parallelAlters;
+  }
+
+  /**
+   * Get the persistent cache used when resolving a profile by its location.
+   *
+   * @return the cache, or {@code null} if resolutions are not cached
+   */
+  @Nullable
+  public ResolutionCache getResolutionCache() {
+    return resolutionCache;
+  }
+
+  /**
+   * Configure a persistent cache used when resolving a profile by its location,
+   * using {@link #resolve(URL)}, {@link #resolve(Path)} or
+   * {@link #resolve(File)}.
+   * <p>
+   * This is disabled by default.
+   *
+   * @param resolutionCache
+   *          the cache, or {@code null} to disable caching
+   */
+  public void setResolutionCache(@Nullable ResolutionCache resolutionCache) {
+    this.resolutionCache = resolutionCache;
+  }
+
+  /**
+   * Determine if resolving the same inputs produces identical output.
+   *
+   * @return {@code true} if resolutions are reproducible, or {@code false}
+   *         otherwise
+   */
+  public boolean isReproducible() {
+    return reproducible;
+  }
+
+  /**
+   * Configure if resolving the same inputs produces identical output.
+   * <p>
+   * When enabled, the UUID of a resolved catalog is a name-based (version 5)
+   * UUID derived from the content digests of the profile and the resolved
+   * catalog, instead of a random UUID. The last-modified timestamp of the
+   * resolved catalog is the configured {@link #getResolutionTimestamp()
+   * resolution timestamp}, or the last-modified timestamp of the profile if none
+   * is configured, instead of the current time. Resolution fails if neither
+   * timestamp is available.
+   * <p>
+   * This is disabled by default.
+   *
+   * @param reproducible
+   *          {@code true} if resolutions are to be reproducible, or
+   *          {@code false} otherwise
+   */
+  public void setReproducible(boolean reproducible) {
+    this.reproducible = reproducible;
+  }
+
+  /**
+   * Get the last-modified timestamp used for reproducible resolutions.
+   *
+   * @return the timestamp, or {@code null} if the profile's last-modified
+   *         timestamp is used
+   */
+  @Nullable
+  public ZonedDateTime getResolutionTimestamp() {
+    return resolutionTimestamp;
+  }
+
+  /**
+   * Configure the last-modified timestamp used for reproducible resolutions.
+   * The timestamp is converted to UTC.
+   * <p>
+   * This is only used if resolutions are {@link #setReproducible(boolean)
+   * reproducible}.
+   *
+   * @param resolutionTimestamp
+   *          the timestamp, or {@code null} to use the profile's last-modified
+   *          timestamp
+   */
+  public void setResolutionTimestamp(@Nullable ZonedDateTime resolutionTimestamp) {
+    this.resolutionTimestamp = resolutionTimestamp;
+  }
+
   @Nullable
   private static IRootAssemblyNodeItem getRoot(
       @NonNull IDocumentNodeItem document,
@@ -175,9 +323,7 @@ public class ProfileResolver {
   @NonNull
   public IDocumentNodeItem resolve(@NonNull URL url)
       throws URISyntaxException, IOException, ProfileResolutionException {
-    IDocumentLoader loader = getDocumentLoader();
-    IDocumentNodeItem catalogOrProfile = loader.loadAsNodeItem(url);
-    return resolve(catalogOrProfile, new Stack<>());
+    return resolve(ObjectUtils.notNull(url.toURI()));
   }
 
   @NonNull
@@ -187,9 +333,92 @@ public class ProfileResolver {
 
   @NonNull
   public IDocumentNodeItem resolve(@NonNull Path path) throws IOException, ProfileResolutionException {
+    return resolve(ObjectUtils.notNull(path.toUri()));
+  }
+
+  @NonNull
+  private IDocumentNodeItem resolve(@NonNull URI uri) throws IOException, ProfileResolutionException {
+    ResolutionCache cache = getResolutionCache();
+
+    IDocumentNodeItem retval;
+    if (cache == null) {
+      retval = resolve(loadAsNodeItem(uri), new Stack<>());
+    } else {
+      String options = getCacheOptions();
+      retval = cache.get(uri, options);
+      if (retval == null) {
+        RecordingImportHistory importHistory = new RecordingImportHistory();
+        retval = resolve(loadAsNodeItem(uri), importHistory);
+        cache.put(uri, options, importHistory.getImportedUris(), retval);
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Describe the options that affect the resolved catalog, so that a cached
+   * resolution is only reused by a resolver configured the same way.
+   *
+   * @return the description
+   */
+  @NonNull
+  private String getCacheOptions() {
+    String retval = "";
+    if (isReproducible()) {
+      ZonedDateTime timestamp = getResolutionTimestamp();
+      retval = timestamp == null
+          ? "reproducible"
+          : "reproducible " + timestamp.toInstant();
+    }
+    return retval;
+  }
+
+  /**
+   * Load the document at the provided URI using the configured loader,
+   * decompressing gzip or deflate compressed content.
+   * <p>
+   * Local files are checked for compression by their leading bytes. To avoid
+   * fetching a remote document twice, other documents are only checked if their
+   * path ends with the extension of a supported {@link Compression}.
+   *
+   * @param uri
+   *          the document to load
+   * @return the loaded document
+   * @throws IOException
+   *           if an error occurred while loading the document
+   */
+  @NonNull
+  protected IDocumentNodeItem loadAsNodeItem(@NonNull URI uri) throws IOException {
     IDocumentLoader loader = getDocumentLoader();
-    IDocumentNodeItem catalogOrProfile = loader.loadAsNodeItem(path);
-    return resolve(catalogOrProfile, new Stack<>());
+
+    IDocumentNodeItem retval = null;
+    if (loader instanceof IBoundLoader && uri.getFragment() == null && isCompressionCandidate(uri)) {
+      try (BufferedInputStream is = new BufferedInputStream(uri.toURL().openStream())) {
+        Compression compression = Compression.detect(is);
+        if (compression != Compression.NONE) {
+          try (BufferedInputStream decompressed = new BufferedInputStream(compression.decompress(is))) {
+            Format format = OscalStreamReader.detectFormat(decompressed);
+            retval = ((IBoundLoader) loader).loadAsNodeItem(format, decompressed, uri);
+          }
+        }
+      }
+    }
+
+    if (retval == null) {
+      retval = loader.loadAsNodeItem(uri);
+    }
+    return retval;
+  }
+
+  private static boolean isCompressionCandidate(@NonNull URI uri) {
+    boolean retval = "file".equals(uri.getScheme());
+    if (!retval) {
+      String path = uri.getPath();
+      if (path != null) {
+        retval = Compression.forName(ObjectUtils.notNull(path)) != Compression.NONE;
+      }
+    }
+    return retval;
   }
 
   @NonNull
@@ -259,6 +488,10 @@ public class ProfileResolver {
     handleMerge(resolvedCatalog, profileItem, index);
     handleModify(resolvedCatalog, profileItem);
 
+    if (isReproducible()) {
+      resolvedCatalog.setUuid(generateReproducibleUuid(resolvedCatalog, profileItem));
+    }
+
     return INodeItemFactory.instance().newDocumentNodeItem(
         ObjectUtils.requireNonNull(
             (IBoundDefinitionModelAssembly) OscalBindingContext.instance().getBoundDefinitionForClass(Catalog.class)),
@@ -276,8 +509,11 @@ public class ProfileResolver {
 
   private void generateMetadata(
       @NonNull Catalog resolvedCatalog,
-      @NonNull IRootAssemblyNodeItem profileItem) {
-    resolvedCatalog.setUuid(UUID.randomUUID());
+      @NonNull IRootAssemblyNodeItem profileItem) throws ProfileResolutionException {
+    if (!isReproducible()) {
+      // a reproducible UUID is generated once the catalog is resolved
+      resolvedCatalog.setUuid(UUID.randomUUID());
+    }
 
     Profile profile = toProfile(profileItem);
     Metadata profileMetadata = profile.getMetadata();
@@ -292,7 +528,24 @@ public class ProfileResolver {
     // metadata.setOscalVersion(OscalUtils.OSCAL_VERSION);
     resolvedMetadata.setOscalVersion(profileMetadata.getOscalVersion());
 
-    resolvedMetadata.setLastModified(ZonedDateTime.now(ZoneOffset.UTC));
+    ZonedDateTime lastModified;
+    if (isReproducible()) {
+      ZonedDateTime timestamp = getResolutionTimestamp();
+      if (timestamp == null) {
+        timestamp = profileMetadata.getLastModified();
+      }
+      if (timestamp == null) {
+        // the current time would make the resolution unreproducible
+        throw new ProfileResolutionException(String.format(
+            "Unable to reproducibly resolve profile '%s', which has no last-modified timestamp."
+                + " Configure a resolution timestamp instead.",
+            profileItem.getBaseUri()));
+      }
+      lastModified = timestamp.withZoneSameInstant(ZoneOffset.UTC);
+    } else {
+      lastModified = ZonedDateTime.now(ZoneOffset.UTC);
+    }
+    resolvedMetadata.setLastModified(lastModified);
 
     resolvedMetadata.addProp(AbstractProperty.builder("resolution-tool").value("libOSCAL-Java").build());
 
@@ -305,6 +558,59 @@ public class ProfileResolver {
     resolvedCatalog.setMetadata(resolvedMetadata);
   }
 
+  /**
+   * Generate a name-based UUID for the resolved catalog from the content digests
+   * of the profile and the resolved catalog, which covers the imported content
+   * used by the resolution.
+   *
+   * @param resolvedCatalog
+   *          the resolved catalog, which has no UUID
+   * @param profileItem
+   *          the profile that was resolved
+   * @return the UUID
+   */
+  @NonNull
+  private static UUID generateReproducibleUuid(
+      @NonNull Catalog resolvedCatalog,
+      @NonNull IRootAssemblyNodeItem profileItem) {
+    ContentDigester digester = new ContentDigester();
+    String name = digester.digest(toProfile(profileItem)) + ":" + digester.digest(resolvedCatalog);
+    return nameBasedUuid(RESOLUTION_UUID_NAMESPACE, ObjectUtils.notNull(name.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  /**
+   * Generate a version 5 UUID, as defined by RFC 4122, for the provided name in
+   * the provided namespace.
+   *
+   * @param namespace
+   *          the namespace UUID
+   * @param name
+   *          the name
+   * @return the UUID
+   */
+  @NonNull
+  private static UUID nameBasedUuid(@NonNull UUID namespace, @NonNull byte[] name) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-1");
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+    digest.update(ByteBuffer.allocate(Long.BYTES * 2)
+        .putLong(namespace.getMostSignificantBits())
+        .putLong(namespace.getLeastSignificantBits())
+        .array());
+    byte[] hash = digest.digest(name);
+
+    ByteBuffer buffer = ByteBuffer.wrap(hash, 0, Long.BYTES * 2);
+    long msb = buffer.getLong();
+    long lsb = buffer.getLong();
+    // set the version to 5 and the variant to RFC 4122
+    msb = msb & ~0xF000L | 0x5000L;
+    lsb = lsb & ~(0xC000L << 48) | 0x8000L << 48;
+    return new UUID(msb, lsb);
+  }
+
   @NonNull
   private IIndexer resolveImports(
       @NonNull Catalog resolvedCatalog,
@@ -328,11 +634,37 @@ public class ProfileResolver {
           profileItem,
           importHistory,
           resolvedCatalog);
-      retval.append(result);
+      appendCounted(retval, result);
     }
     return retval;
   }
 
+  /**
+   * Append the entities of another index to the resolution index.
+   * <p>
+   * Each import, and the profile itself, counts only the references made by its
+   * own content. An entity that replaces one with the same identifier therefore
+   * takes on the references counted against the replaced entity, so that the
+   * merged counts cover every import.
+   *
+   * @param index
+   *          the resolution index to append to
+   * @param other
+   *          the index to append
+   */
+  private static void appendCounted(@NonNull IIndexer index, @NonNull IIndexer other) {
+    for (ItemType itemType : ItemType.values()) {
+      assert itemType != null;
+      for (IEntityItem entity : other.getEntitiesByItemType(itemType)) {
+        IEntityItem oldEntity = index.getEntity(itemType, entity.getIdentifier(), false);
+        if (oldEntity != null && oldEntity != entity) {
+          entity.incrementReferenceCount(oldEntity.getReferenceCount());
+        }
+      }
+    }
+    index.append(other);
+  }
+
   @NonNull
   protected IIndexer resolveImport(
       @NonNull IAssemblyNodeItem profileImportItem,
@@ -420,7 +752,7 @@ public class ProfileResolver {
       URI uri = importingDocumentUri.resolve(importUri);
       assert uri != null;
 
-      retval = getDynamicContext().getDocumentLoader().loadAsNodeItem(uri);
+      retval = loadAsNodeItem(uri);
     }
     return retval;
   }
@@ -454,7 +786,7 @@ public class ProfileResolver {
       uri = baseUri.resolve(uri);
       assert uri != null;
       try {
-        retval = loader.loadAsNodeItem(uri);
+        retval = loadAsNodeItem(uri);
       } catch (IOException ex) {
         throw new IOException(String.format("Unable to load resource '%s'.", uri), ex);
       }
@@ -587,10 +919,7 @@ public class ProfileResolver {
             }
           });
 
-      METAPATH_ALTER.evaluate(profileItem)
-          .forEach(item -> {
-            handleAlter((IAssemblyNodeItem) item, indexer);
-          });
+      handleAlters(profileItem, indexer);
     } catch (ProfileResolutionEvaluationException ex) {
       throw new ProfileResolutionException(ex.getLocalizedMessage(), ex);
     }
@@ -624,21 +953,187 @@ public class ProfileResolver {
     param.setSelect(setParameter.getSelect());
   }
 
-  @SuppressWarnings("PMD.ExceptionAsFlowControl")
+  /**
+   * Apply all alters in the profile.
+   * <p>
+   * Alters are batched by the top-most control they target, since the alters in
+   * a batch can only affect that control and its descendants. Each control is
+   * looked up once, and the alters in a batch are applied in document order. The
+   * targets of the removes and adds in a batch are located using a
+   * {@link ControlTargetIndex} built once for the top-most control. If
+   * {@link #isParallelAlters()} is enabled, batches are applied in parallel.
+   * <p>
+   * Each alter is applied by calling
+   * {@link #applyAlter(IAssemblyNodeItem, Control, ControlTargetIndex)}, which
+   * subclasses can override to customize how a single alter is applied.
+   * <p>
+   * If more than one alter fails, the error for the alter appearing first in the
+   * profile is reported, which matches the behavior of applying alters one at a
+   * time. Once an alter has failed, alters appearing after it in the profile
+   * are skipped by batches that have not yet reached them. Since batches are
+   * applied independently, alters appearing after the failed alter may already
+   * have been applied by other batches. The resolved catalog is then left
+   * partially altered, and is not returned by resolution.
+   *
+   * @param profileItem
+   *          the profile containing the alters
+   * @param indexer
+   *          the index of the resolved catalog's controls
+   * @throws ProfileResolutionEvaluationException
+   *           if an alter could not be applied
+   */
+  protected void handleAlters(@NonNull IRootAssemblyNodeItem profileItem, @NonNull IIndexer indexer) {
+    ConcurrentNavigableMap<Integer, ProfileResolutionEvaluationException> failures = new ConcurrentSkipListMap<>();
+
+    Map<String, IEntityItem> controlEntities = new HashMap<>();
+    Map<Control, List<Pair<Integer, IAssemblyNodeItem>>> batches = new LinkedHashMap<>();
+    List<IAssemblyNodeItem> alterItems = METAPATH_ALTER.evaluate(profileItem).stream()
+        .map(item -> (IAssemblyNodeItem) item)
+        .collect(Collectors.toList());
+    int position = 0;
+    for (IAssemblyNodeItem alterItem : alterItems) {
+      assert alterItem != null;
+      Modify.Alter alter = ObjectUtils.requireNonNull((Modify.Alter) alterItem.getValue());
+      String controlId = ObjectUtils.requireNonNull(alter.getControlId());
+
+      IEntityItem entity = controlEntities.computeIfAbsent(
+          controlId,
+          id -> indexer.getEntity(IEntityItem.ItemType.CONTROL, id, false));
+      if (entity == null) {
+        failures.put(position, newMissingAlterControlException(controlId, alterItem));
+      } else {
+        batches.computeIfAbsent(getTopMostControl(entity.getInstance()), key -> new LinkedList<>())
+            .add(Pair.of(position, alterItem));
+      }
+      position++;
+    }
+
+    Stream<Map.Entry<Control, List<Pair<Integer, IAssemblyNodeItem>>>> batchStream = batches.entrySet().stream();
+    if (isParallelAlters()) {
+      batchStream = batchStream.parallel();
+    }
+    batchStream.forEach(batch -> {
+      ControlTargetIndex targetIndex = new ControlTargetIndex(ObjectUtils.notNull(batch.getKey()));
+      for (Pair<Integer, IAssemblyNodeItem> pair : batch.getValue()) {
+        if (isAfterFailure(failures, pair.getLeft())) {
+          // alters after a failed alter are not applied
+          break;
+        }
+        IAssemblyNodeItem alterItem = ObjectUtils.notNull(pair.getRight());
+        Modify.Alter alter = ObjectUtils.requireNonNull((Modify.Alter) alterItem.getValue());
+        IEntityItem entity = ObjectUtils.requireNonNull(controlEntities.get(alter.getControlId()));
+        try {
+          applyAlter(alterItem, entity.getInstanceValue(), targetIndex);
+        } catch (ProfileResolutionEvaluationException ex) {
+          failures.put(pair.getLeft(), ex);
+          // later alters in this batch may depend on this one
+          break;
+        }
+      }
+    });
+
+    if (!failures.isEmpty()) {
+      throw failures.values().iterator().next();
+    }
+  }
+
+  private static boolean isAfterFailure(
+      @NonNull ConcurrentNavigableMap<Integer, ProfileResolutionEvaluationException> failures,
+      @NonNull Integer position) {
+    // a failure at an earlier position means this alter would not be reached
+    return failures.lowerKey(position) != null;
+  }
+
+  @NonNull
+  private static Control getTopMostControl(@NonNull IModelNodeItem<?, ?> controlItem) {
+    IModelNodeItem<?, ?> retval = controlItem;
+    IAssemblyNodeItem parent = retval.getParentContentNodeItem();
+    while (parent != null && parent.getValue() instanceof Control) {
+      retval = parent;
+      parent = retval.getParentContentNodeItem();
+    }
+    return ObjectUtils.requireNonNull((Control) retval.getValue());
+  }
+
+  @NonNull
+  private static ProfileResolutionEvaluationException newMissingAlterControlException(
+      @NonNull String controlId,
+      @NonNull IAssemblyNodeItem item) {
+    return new ProfileResolutionEvaluationException(
+        String.format(
+            "Unable to apply the alter targeting control '%s' at '%s'."
+                + " The control does not exist in the resolved catalog.",
+            controlId,
+            item.toPath(IPathFormatter.METAPATH_PATH_FORMATER)));
+  }
+
+  /**
+   * Apply a single alter to the control it targets.
+   * <p>
+   * This is no longer called when resolving a profile, since
+   * {@link #handleAlters(IRootAssemblyNodeItem, IIndexer)} applies alters in
+   * batches. To customize how each alter is applied, override
+   * {@link #applyAlter(IAssemblyNodeItem, Control, ControlTargetIndex)} instead.
+   *
+   * @param item
+   *          the alter to apply
+   * @param indexer
+   *          the index of the resolved catalog's controls
+   * @throws ProfileResolutionEvaluationException
+   *           if the alter could not be applied
+   * @deprecated overrides of this method are not called during resolution; use
+   *             {@link #applyAlter(IAssemblyNodeItem, Control, ControlTargetIndex)}
+   */
+  @Deprecated(since = "7.0.0", forRemoval = true)
   protected void handleAlter(IAssemblyNodeItem item, IIndexer indexer) {
     Modify.Alter alter = ObjectUtils.requireNonNull((Modify.Alter) item.getValue());
     String controlId = ObjectUtils.requireNonNull(alter.getControlId());
     IEntityItem entity = indexer.getEntity(IEntityItem.ItemType.CONTROL, controlId, false);
     if (entity == null) {
-      throw new ProfileResolutionEvaluationException(
-          String.format(
-              "Unable to apply the alter targeting control '%s' at '%s'."
-                  + " The control does not exist in the resolved catalog.",
-              controlId,
-              item.toPath(IPathFormatter.METAPATH_PATH_FORMATER)));
+      throw newMissingAlterControlException(controlId, item);
     }
-    Control control = entity.getInstanceValue();
+    applyAlter(item, entity.getInstanceValue());
+  }
 
+  /**
+   * Apply the removes, then the adds, of a single alter to the targeted control.
+   *
+   * @param item
+   *          the alter to apply
+   * @param control
+   *          the control targeted by the alter
+   * @throws ProfileResolutionEvaluationException
+   *           if the alter could not be applied
+   */
+  protected void applyAlter(@NonNull IAssemblyNodeItem item, @NonNull Control control) {
+    applyAlter(item, control, new ControlTargetIndex(control));
+  }
+
+  /**
+   * Apply the removes, then the adds, of a single alter to the targeted control.
+   * <p>
+   * Each remove deletes every item within the control matching its criteria,
+   * including items nested in the control's parts, but not items in child
+   * controls. A remove matching no items is an error.
+   * <p>
+   * This is called for each alter when resolving a profile, and can be
+   * overridden to customize how an alter is applied.
+   *
+   * @param item
+   *          the alter to apply
+   * @param control
+   *          the control targeted by the alter
+   * @param targetIndex
+   *          the index of the control tree containing the control, which is
+   *          used to locate the targets of the removes and adds
+   * @throws ProfileResolutionEvaluationException
+   *           if the alter could not be applied
+   */
+  @SuppressWarnings("PMD.ExceptionAsFlowControl")
+  protected void applyAlter(
+      @NonNull IAssemblyNodeItem item,
+      @NonNull Control control,
+      @NonNull ControlTargetIndex targetIndex) {
     METAPATH_ALTER_REMOVE.evaluate(item)
         .forEach(nodeItem -> {
           INodeItem removeItem = (INodeItem) nodeItem;
@@ -648,6 +1143,7 @@ public class ProfileResolver {
 
           try {
             if (!RemoveVisitor.remove(
+                targetIndex,
                 control,
                 remove.getByName(),
                 remove.getByClass(),
@@ -673,6 +1169,7 @@ public class ProfileResolver {
           String byId = add.getById();
           try {
             if (!AddVisitor.add(
+                targetIndex,
                 control,
                 AddVisitor.Position.forName(add.getPosition()),
                 byId,
@@ -746,7 +1243,31 @@ public class ProfileResolver {
       resolvedBackMatter.setResources(resources);
     }
 
-    index.append(profileIndex);
+    appendCounted(index, profileIndex);
+  }
+
+  /**
+   * An import history that records every document imported during a
+   * resolution, excluding resources embedded in an importing profile.
+   */
+  private static final class RecordingImportHistory extends Stack<URI> {
+    private static final long serialVersionUID = 1L;
+
+    @NonNull
+    private final Set<URI> importedUris = new LinkedHashSet<>();
+
+    @Override
+    public URI push(URI item) {
+      if (item.getFragment() == null) {
+        importedUris.add(item);
+      }
+      return super.push(item);
+    }
+
+    @NonNull
+    public Set<URI> getImportedUris() {
+      return CollectionUtil.unmodifiableSet(importedUris);
+    }
   }
 
   @FunctionalInterface
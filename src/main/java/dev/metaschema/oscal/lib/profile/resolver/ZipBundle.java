@@ -0,0 +1,260 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.profile.resolver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import dev.metaschema.core.metapath.item.node.IDocumentNodeItem;
+import dev.metaschema.core.util.CollectionUtil;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.IBindingContext;
+import dev.metaschema.databind.io.DeserializationFeature;
+import dev.metaschema.databind.io.Format;
+import dev.metaschema.databind.io.IBoundLoader;
+import dev.metaschema.oscal.lib.OscalBindingContext;
+import dev.metaschema.oscal.lib.io.Compression;
+import dev.metaschema.oscal.lib.io.OscalStreamReader;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Provides random access to the OSCAL documents in a zip archive, such as a
+ * baseline bundle containing a catalog and the profiles and component
+ * definitions that import each other by relative path.
+ * <p>
+ * The archive is opened once as a zip file system. Each entry is identified by
+ * a hierarchical URI formed by appending the entry's path to the archive's
+ * location, for example {@code file:///dist/baseline.zip/profiles/low.xml}, so
+ * relative imports between entries resolve to other entries. Entries are only
+ * parsed when first loaded, and parsed documents are cached until the bundle is
+ * closed.
+ * <p>
+ * The bundle can be used as a {@link ProfileResolver.UriResolver}, and
+ * {@link #newProfileResolver()} provides a resolver that loads entries from the
+ * bundle, falling back to the regular loader for documents outside the bundle.
+ */
+public final class ZipBundle implements ProfileResolver.UriResolver, Closeable {
+  @NonNull
+  private final FileSystem fileSystem;
+  @NonNull
+  private final String baseUri;
+  @NonNull
+  private final IBoundLoader loader;
+  @NonNull
+  private final Map<String, IDocumentNodeItem> documents = new ConcurrentHashMap<>();
+
+  /**
+   * Open the bundle at the provided path, using the OSCAL binding context.
+   *
+   * @param path
+   *          the zip archive
+   * @return the bundle, which must be closed
+   * @throws IOException
+   *           if an error occurred while opening the archive
+   */
+  @NonNull
+  public static ZipBundle open(@NonNull Path path) throws IOException {
+    return open(path, OscalBindingContext.instance());
+  }
+
+  /**
+   * Open the bundle at the provided path.
+   *
+   * @param path
+   *          the zip archive
+   * @param bindingContext
+   *          the binding context used to parse entries
+   * @return the bundle, which must be closed
+   * @throws IOException
+   *           if an error occurred while opening the archive
+   */
+  @NonNull
+  public static ZipBundle open(@NonNull Path path, @NonNull IBindingContext bindingContext) throws IOException {
+    FileSystem fileSystem = FileSystems.newFileSystem(path, (ClassLoader) null);
+    return new ZipBundle(ObjectUtils.notNull(fileSystem), path, bindingContext);
+  }
+
+  private ZipBundle(
+      @NonNull FileSystem fileSystem,
+      @NonNull Path path,
+      @NonNull IBindingContext bindingContext) {
+    this.fileSystem = fileSystem;
+    this.baseUri = path.toAbsolutePath().normalize().toUri().toString() + "/";
+
+    IBoundLoader boundLoader = bindingContext.newBoundLoader();
+    boundLoader.disableFeature(DeserializationFeature.DESERIALIZE_VALIDATE_CONSTRAINTS);
+    this.loader = boundLoader;
+  }
+
+  /**
+   * Get the paths of all files in the bundle, relative to its root.
+   *
+   * @return the entry names
+   * @throws IOException
+   *           if an error occurred while reading the archive's directory
+   */
+  @NonNull
+  public List<String> getEntryNames() throws IOException {
+    Path root = fileSystem.getPath("/");
+    try (Stream<Path> paths = Files.walk(root)) {
+      return CollectionUtil.unmodifiableList(ObjectUtils.notNull(paths
+          .filter(Files::isRegularFile)
+          .map(entry -> root.relativize(entry).toString())
+          .sorted()
+          .collect(Collectors.toList())));
+    }
+  }
+
+  /**
+   * Get the URI identifying the entry with the provided name.
+   *
+   * @param entryName
+   *          the entry's path, relative to the bundle's root
+   * @return the URI
+   */
+  @NonNull
+  public URI toUri(@NonNull String entryName) {
+    try {
+      URI relative = new URI(null, null, entryName.startsWith("/") ? entryName.substring(1) : entryName, null);
+      return ObjectUtils.notNull(URI.create(baseUri).resolve(relative));
+    } catch (URISyntaxException ex) {
+      throw new IllegalArgumentException(ex);
+    }
+  }
+
+  /**
+   * Get the name of the entry identified by the provided URI.
+   *
+   * @param uri
+   *          the URI
+   * @return the entry's path relative to the bundle's root, or {@code null} if
+   *         the URI does not identify an entry in this bundle
+   */
+  @Nullable
+  public String toEntryName(@NonNull URI uri) {
+    URI normalized = uri.normalize();
+    String retval = null;
+    if (normalized.getRawFragment() == null
+        && normalized.getRawQuery() == null
+        && normalized.toString().startsWith(baseUri)) {
+      String name = URI.create(baseUri).relativize(normalized).getPath();
+      if (name != null && !name.isEmpty() && Files.isRegularFile(fileSystem.getPath("/", name))) {
+        retval = name;
+      }
+    }
+    return retval;
+  }
+
+  @Override
+  public URI resolve(URI uri, URI source) {
+    return ObjectUtils.notNull(source.resolve(uri).normalize());
+  }
+
+  /**
+   * Load the entry with the provided name, parsing it if it has not already
+   * been loaded.
+   *
+   * @param entryName
+   *          the entry's path, relative to the bundle's root
+   * @return the document
+   * @throws IOException
+   *           if the entry does not exist or an error occurred while parsing it
+   */
+  @NonNull
+  public IDocumentNodeItem loadAsNodeItem(@NonNull String entryName) throws IOException {
+    String name = entryName.startsWith("/") ? entryName.substring(1) : entryName;
+    try {
+      return ObjectUtils.notNull(documents.computeIfAbsent(name, key -> {
+        try {
+          return parse(ObjectUtils.notNull(key));
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      }));
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+  }
+
+  /**
+   * Load the document identified by the provided URI, if it is an entry in this
+   * bundle.
+   *
+   * @param uri
+   *          the document's URI
+   * @return the document, or {@code null} if the URI does not identify an entry
+   *         in this bundle
+   * @throws IOException
+   *           if an error occurred while parsing the entry
+   */
+  @Nullable
+  public IDocumentNodeItem getDocument(@NonNull URI uri) throws IOException {
+    String name = toEntryName(uri);
+    return name == null ? null : loadAsNodeItem(name);
+  }
+
+  @NonNull
+  private IDocumentNodeItem parse(@NonNull String entryName) throws IOException {
+    Path entry = fileSystem.getPath("/", entryName);
+    try (InputStream is = Compression.decompressing(ObjectUtils.notNull(Files.newInputStream(entry)))) {
+      Format format = OscalStreamReader.detectFormat(is);
+      return loader.loadAsNodeItem(format, is, toUri(entryName));
+    }
+  }
+
+  /**
+   * Get a profile resolver that loads documents from this bundle, and resolves
+   * relative references using this bundle.
+   *
+   * @return the resolver
+   */
+  @NonNull
+  public ProfileResolver newProfileResolver() {
+    return new ProfileResolver(this) {
+      @Override
+      protected IDocumentNodeItem loadAsNodeItem(URI uri) throws IOException {
+        IDocumentNodeItem retval = getDocument(uri);
+        return retval == null ? super.loadAsNodeItem(uri) : retval;
+      }
+    };
+  }
+
+  /**
+   * Resolve the profile or catalog entry with the provided name.
+   *
+   * @param entryName
+   *          the entry's path, relative to the bundle's root
+   * @return the resolved catalog
+   * @throws IOException
+   *           if an error occurred while loading the entry or its imports
+   * @throws ProfileResolutionException
+   *           if an error occurred while resolving the profile
+   */
+  @NonNull
+  public IDocumentNodeItem resolve(@NonNull String entryName) throws IOException, ProfileResolutionException {
+    return newProfileResolver().resolve(loadAsNodeItem(entryName));
+  }
+
+  @Override
+  public void close() throws IOException {
+    documents.clear();
+    fileSystem.close();
+  }
+}
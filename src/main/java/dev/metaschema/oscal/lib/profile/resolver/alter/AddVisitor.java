@@ -216,6 +216,161 @@ public class AddVisitor implements ICatalogVisitor<Boolean, AddVisitor.Context>
             parts));
   }
 
+  /**
+   * Apply the add directive, using the provided index to locate the target.
+   *
+   * @param index
+   *          the index of the control tree containing the control target
+   * @param control
+   *          the control target
+   * @param position
+   *          the position to apply the content or {@code null}
+   * @param byId
+   *          the identifier of the target or {@code null}
+   * @param title
+   *          a title to set
+   * @param params
+   *          parameters to add
+   * @param props
+   *          properties to add
+   * @param links
+   *          links to add
+   * @param parts
+   *          parts to add
+   * @return {@code true} if the modification was made or {@code false} otherwise
+   * @throws ProfileResolutionEvaluationException
+   *           if a processing error occurred during profile resolution
+   */
+  @SuppressWarnings("PMD.ExcessiveParameterList")
+  public static boolean add(
+      @NonNull ControlTargetIndex index,
+      @NonNull Control control,
+      @Nullable Position position,
+      @Nullable String byId,
+      @Nullable MarkupLine title,
+      @NonNull List<Parameter> params,
+      @NonNull List<Property> props,
+      @NonNull List<Link> links,
+      @NonNull List<ControlPart> parts) {
+    Context context = Context.newContext(
+        control,
+        position == null ? Position.ENDING : position,
+        byId,
+        title,
+        params,
+        props,
+        links,
+        parts);
+
+    boolean retval = false;
+    if (context.appliesTo(control)) {
+      retval = handleCurrent(index, control, context);
+    } else if (byId != null) {
+      ControlTargetIndex.Entry entry = index.findById(byId, control, context::appliesTo);
+      if (entry != null) {
+        Object target = entry.getItem();
+        if (context.isSequenceTargeted(target)) {
+          // insert the new items next to the target
+          @SuppressWarnings("unchecked")
+          List<Object> owner = (List<Object>) entry.getOwner();
+          List<?> newItems = target instanceof Parameter ? context.getParams() : context.getParts();
+          int targetIndex = indexOf(owner, target);
+          owner.addAll(Position.AFTER.equals(context.getPosition()) ? targetIndex + 1 : targetIndex, newItems);
+          index.addAll(newItems, owner, entry.getOwningControl(), entry.getParent());
+          retval = true;
+        } else {
+          retval = handleCurrent(index, target, context);
+        }
+      }
+    }
+    return retval;
+  }
+
+  private static int indexOf(@NonNull List<?> list, @NonNull Object item) {
+    int retval = -1;
+    int position = 0;
+    for (Object current : list) {
+      if (current == item) {
+        retval = position;
+        break;
+      }
+      position++;
+    }
+    return retval;
+  }
+
+  /**
+   * Apply the add to the provided target, which the add applies to, and index
+   * the added items.
+   *
+   * @param index
+   *          the index containing the target
+   * @param target
+   *          the control, parameter or part to add to
+   * @param context
+   *          the add context
+   * @return {@code true} if a modification was made or {@code false} otherwise
+   */
+  private static boolean handleCurrent(
+      @NonNull ControlTargetIndex index,
+      @NonNull Object target,
+      @NonNull Context context) {
+    ControlTargetIndex.Entry entry = index.getEntry(target);
+
+    boolean retval;
+    if (target instanceof Control) {
+      Control control = (Control) target;
+      retval = handleCurrent(
+          control,
+          control::setTitle,
+          control::getParams,
+          control::getProps,
+          control::getLinks,
+          control::getParts,
+          context);
+      if (retval) {
+        index.addAll(context.getParams(), control.getParams(), control, entry);
+        index.addAll(context.getProps(), control.getProps(), control, entry);
+        index.addAll(context.getLinks(), control.getLinks(), control, entry);
+        index.addAll(context.getParts(), control.getParts(), control, entry);
+      }
+    } else {
+      assert entry != null;
+      Control owningControl = entry.getOwningControl();
+      if (target instanceof Parameter) {
+        Parameter param = (Parameter) target;
+        retval = handleCurrent(
+            param,
+            null,
+            null,
+            param::getProps,
+            param::getLinks,
+            null,
+            context);
+        if (retval) {
+          index.addAll(context.getProps(), param.getProps(), owningControl, entry);
+          index.addAll(context.getLinks(), param.getLinks(), owningControl, entry);
+        }
+      } else {
+        ControlPart part = (ControlPart) target;
+        retval = handleCurrent(
+            part,
+            null,
+            null,
+            part::getProps,
+            part::getLinks,
+            part::getParts,
+            context);
+        if (retval) {
+          index.addAll(context.getProps(), part.getProps(), owningControl, entry);
+          index.addAll(context.getLinks(), part.getLinks(), owningControl, entry);
+          index.addAll(context.getParts(), part.getParts(), owningControl, entry);
+        }
+      }
+    }
+    return retval;
+  }
+
   @Override
   public Boolean visitCatalog(Catalog catalog, Context context) {
     // not required
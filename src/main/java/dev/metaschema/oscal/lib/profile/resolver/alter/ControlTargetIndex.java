@@ -0,0 +1,354 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.profile.resolver.alter;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import dev.metaschema.core.util.CollectionUtil;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.oscal.lib.model.Control;
+import dev.metaschema.oscal.lib.model.ControlPart;
+import dev.metaschema.oscal.lib.model.Link;
+import dev.metaschema.oscal.lib.model.Parameter;
+import dev.metaschema.oscal.lib.model.Property;
+import dev.metaschema.oscal.lib.model.metadata.IProperty;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * An index of the items that can be targeted by alters applied to a control
+ * and its child controls.
+ * <p>
+ * The params, props, links, parts and child controls of the control are
+ * indexed by their id, name, class and namespace, and each is mapped to the
+ * list that owns it. This allows the removes and adds of many alters to locate
+ * their targets without traversing the control for each one.
+ * <p>
+ * The index is kept current as items are added and removed using the
+ * index-based {@code add} method of {@link AddVisitor} and {@code remove}
+ * method of {@link RemoveVisitor}. Other changes to the indexed control require
+ * a new index.
+ * <p>
+ * This class is not thread safe.
+ */
+public final class ControlTargetIndex {
+  @NonNull
+  private final Control control;
+  @NonNull
+  private final Map<Object, Entry> entries = new IdentityHashMap<>();
+  @NonNull
+  private final Map<String, List<Entry>> idToEntries = new HashMap<>();
+  @NonNull
+  private final Map<String, List<Entry>> nameToEntries = new HashMap<>();
+  @NonNull
+  private final Map<String, List<Entry>> classToEntries = new HashMap<>();
+  @NonNull
+  private final Map<String, List<Entry>> namespaceToEntries = new HashMap<>();
+  @NonNull
+  private final Map<RemoveVisitor.TargetType, List<Entry>> typeToEntries
+      = new EnumMap<>(RemoveVisitor.TargetType.class);
+
+  /**
+   * Construct a new index of the provided control's content, including the
+   * content of its child controls.
+   *
+   * @param control
+   *          the control to index
+   */
+  public ControlTargetIndex(@NonNull Control control) {
+    this.control = control;
+    indexControlContent(control, null);
+  }
+
+  /**
+   * Get the indexed control.
+   *
+   * @return the control
+   */
+  @NonNull
+  public Control getControl() {
+    return control;
+  }
+
+  @Nullable
+  Entry getEntry(@NonNull Object item) {
+    return entries.get(item);
+  }
+
+  /**
+   * Index newly added items.
+   *
+   * @param items
+   *          the added items
+   * @param owner
+   *          the list the items were added to
+   * @param owningControl
+   *          the control containing the list
+   * @param parent
+   *          the entry for the object owning the list, or {@code null} if the
+   *          list is owned by the indexed control
+   */
+  void addAll(
+      @NonNull List<?> items,
+      @Nullable List<?> owner,
+      @NonNull Control owningControl,
+      @Nullable Entry parent) {
+    if (owner != null) {
+      for (Object item : items) {
+        index(ObjectUtils.notNull(item), owner, owningControl, parent);
+      }
+    }
+  }
+
+  /**
+   * Remove the entry's item from the list that owns it.
+   *
+   * @param entry
+   *          the entry to remove
+   */
+  void remove(@NonNull Entry entry) {
+    Iterator<?> iter = entry.getOwner().iterator();
+    while (iter.hasNext()) {
+      if (iter.next() == entry.getItem()) {
+        iter.remove();
+        break;
+      }
+    }
+    entry.removed = true;
+  }
+
+  /**
+   * Get the entries that may match the criteria of the provided remove. The
+   * returned entries must still be checked against all of the criteria.
+   *
+   * @param context
+   *          the remove criteria
+   * @return the candidate entries
+   */
+  @NonNull
+  List<Entry> getCandidates(@NonNull RemoveVisitor.Context context) {
+    List<Entry> retval;
+    if (context.getObjectId() != null) {
+      retval = lookup(idToEntries, context.getObjectId());
+    } else if (context.getObjectName() != null) {
+      retval = lookup(nameToEntries, context.getObjectName());
+    } else if (context.getObjectClass() != null) {
+      retval = lookup(classToEntries, context.getObjectClass());
+    } else if (context.getObjectNamespace() != null) {
+      retval = lookup(namespaceToEntries, context.getObjectNamespace());
+    } else {
+      retval = new ArrayList<>();
+      for (RemoveVisitor.TargetType type : context.getTargetItemTypes()) {
+        retval.addAll(typeToEntries.getOrDefault(type, CollectionUtil.emptyList()));
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Find the first item with the provided id that is contained in the provided
+   * control and matches the provided filter.
+   *
+   * @param id
+   *          the item's id
+   * @param within
+   *          the control containing the item
+   * @param filter
+   *          the filter the item must match
+   * @return the item's entry, or {@code null} if no such item exists
+   */
+  @Nullable
+  Entry findById(@NonNull String id, @NonNull Control within, @NonNull Predicate<Object> filter) {
+    Entry retval = null;
+    for (Entry entry : CollectionUtil.listOrEmpty(idToEntries.get(id))) {
+      if (entry.isLive() && entry.isWithin(within) && filter.test(entry.getItem())) {
+        retval = entry;
+        break;
+      }
+    }
+    return retval;
+  }
+
+  @NonNull
+  private static List<Entry> lookup(@NonNull Map<String, List<Entry>> map, @NonNull String key) {
+    // copy, since the caller may change the index
+    return new ArrayList<>(CollectionUtil.listOrEmpty(map.get(key)));
+  }
+
+  private void indexControlContent(@NonNull Control owningControl, @Nullable Entry parent) {
+    indexItems(owningControl.getParams(), owningControl, parent);
+    indexItems(owningControl.getProps(), owningControl, parent);
+    indexItems(owningControl.getLinks(), owningControl, parent);
+    indexItems(owningControl.getParts(), owningControl, parent);
+    indexItems(owningControl.getControls(), owningControl, parent);
+  }
+
+  private void indexItems(
+      @Nullable List<?> items,
+      @NonNull Control owningControl,
+      @Nullable Entry parent) {
+    if (items != null) {
+      for (Object item : items) {
+        if (item != null) {
+          index(item, items, owningControl, parent);
+        }
+      }
+    }
+  }
+
+  @SuppressWarnings("PMD.CognitiveComplexity")
+  private void index(
+      @NonNull Object item,
+      @NonNull List<?> owner,
+      @NonNull Control owningControl,
+      @Nullable Entry parent) {
+    Entry entry = new Entry(item, owner, owningControl, parent);
+    entries.put(item, entry);
+
+    if (item instanceof Parameter) {
+      Parameter param = (Parameter) item;
+      put(idToEntries, param.getId(), entry);
+      put(classToEntries, param.getClazz(), entry);
+      putType(RemoveVisitor.TargetType.PARAM, entry);
+      indexItems(param.getProps(), owningControl, entry);
+      indexItems(param.getLinks(), owningControl, entry);
+    } else if (item instanceof Property) {
+      Property prop = (Property) item;
+      put(nameToEntries, prop.getName(), entry);
+      put(classToEntries, prop.getClazz(), entry);
+      put(namespaceToEntries, IProperty.normalizeNamespace(prop.getNs()).toASCIIString(), entry);
+      putType(RemoveVisitor.TargetType.PROP, entry);
+    } else if (item instanceof Link) {
+      putType(RemoveVisitor.TargetType.LINK, entry);
+    } else if (item instanceof ControlPart) {
+      ControlPart part = (ControlPart) item;
+      put(idToEntries, part.getId(), entry);
+      put(nameToEntries, part.getName(), entry);
+      put(classToEntries, part.getClazz(), entry);
+      put(namespaceToEntries, IProperty.normalizeNamespace(part.getNs()).toASCIIString(), entry);
+      putType(RemoveVisitor.TargetType.PART, entry);
+      indexItems(part.getProps(), owningControl, entry);
+      indexItems(part.getLinks(), owningControl, entry);
+      indexItems(part.getParts(), owningControl, entry);
+    } else if (item instanceof Control) {
+      Control childControl = (Control) item;
+      // child controls are only targeted by adds
+      put(idToEntries, childControl.getId(), entry);
+      indexControlContent(childControl, entry);
+    }
+  }
+
+  private static void put(@NonNull Map<String, List<Entry>> map, @Nullable String key, @NonNull Entry entry) {
+    if (key != null) {
+      map.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+    }
+  }
+
+  private void putType(@NonNull RemoveVisitor.TargetType type, @NonNull Entry entry) {
+    typeToEntries.computeIfAbsent(type, k -> new ArrayList<>()).add(entry);
+  }
+
+  /**
+   * An indexed item.
+   */
+  static final class Entry {
+    @NonNull
+    private final Object item;
+    @NonNull
+    private final List<?> owner;
+    @NonNull
+    private final Control owningControl;
+    @Nullable
+    private final Entry parent;
+    private boolean removed;
+
+    private Entry(
+        @NonNull Object item,
+        @NonNull List<?> owner,
+        @NonNull Control owningControl,
+        @Nullable Entry parent) {
+      this.item = item;
+      this.owner = owner;
+      this.owningControl = owningControl;
+      this.parent = parent;
+    }
+
+    @NonNull
+    Object getItem() {
+      return item;
+    }
+
+    /**
+     * Get the list containing the item.
+     *
+     * @return the list
+     */
+    @NonNull
+    List<?> getOwner() {
+      return owner;
+    }
+
+    /**
+     * Get the control whose content contains the item. For a child control,
+     * this is its parent control.
+     *
+     * @return the control
+     */
+    @NonNull
+    Control getOwningControl() {
+      return owningControl;
+    }
+
+    @Nullable
+    Entry getParent() {
+      return parent;
+    }
+
+    /**
+     * Determine if neither the item nor any item containing it was removed.
+     *
+     * @return {@code true} if the item is still present, or {@code false}
+     *         otherwise
+     */
+    boolean isLive() {
+      boolean retval = true;
+      for (Entry current = this; current != null; current = current.parent) {
+        if (current.removed) {
+          retval = false;
+          break;
+        }
+      }
+      return retval;
+    }
+
+    /**
+     * Determine if the item is part of the provided control's content, or the
+     * content of one of its descendant controls.
+     *
+     * @param control
+     *          the control
+     * @return {@code true} if the item is within the control, or {@code false}
+     *         otherwise
+     */
+    boolean isWithin(@NonNull Control control) {
+      boolean retval = false;
+      for (Entry current = this; current != null; current = current.parent) {
+        if (current.owningControl == control) {
+          retval = true;
+          break;
+        }
+      }
+      return retval;
+    }
+  }
+}
@@ -203,6 +203,54 @@ public class RemoveVisitor implements ICatalogVisitor<Boolean, RemoveVisitor.Con
         new Context(objectName, objectClass, objectId, objectNamespace, itemType));
   }
 
+  /**
+   * Apply the remove directive, using the provided index to locate the matching
+   * nodes.
+   * <p>
+   * Every matching node that is not contained in another removed node is
+   * removed.
+   *
+   * @param index
+   *          the index of the control tree containing the control target
+   * @param control
+   *          the control target
+   * @param objectName
+   *          the name flag of a matching node to remove
+   * @param objectClass
+   *          the class flag of a matching node to remove
+   * @param objectId
+   *          the id flag of a matching node to remove
+   * @param objectNamespace
+   *          the namespace flag of a matching node to remove
+   * @param itemType
+   *          the type of a matching node to remove
+   * @return {@code true} if the modification was made or {@code false} otherwise
+   * @throws ProfileResolutionEvaluationException
+   *           if a processing error occurred during profile resolution
+   */
+  public static boolean remove(
+      @NonNull ControlTargetIndex index,
+      @NonNull Control control,
+      @Nullable String objectName,
+      @Nullable String objectClass,
+      @Nullable String objectId,
+      @Nullable String objectNamespace,
+      @Nullable TargetType itemType) {
+    Context context = new Context(objectName, objectClass, objectId, objectNamespace, itemType);
+
+    boolean retval = false;
+    for (ControlTargetIndex.Entry entry : index.getCandidates(context)) {
+      // child controls are not searched
+      if (entry.getOwningControl() == control
+          && entry.isLive()
+          && context.isApplicableTo(entry.getItem())) {
+        index.remove(entry);
+        retval = true;
+      }
+    }
+    return retval;
+  }
+
   @Override
   public Boolean visitCatalog(Catalog catalog, Context context) {
     // not required
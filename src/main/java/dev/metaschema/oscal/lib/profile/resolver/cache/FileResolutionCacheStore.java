@@ -0,0 +1,180 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.profile.resolver.cache;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import dev.metaschema.core.util.ObjectUtils;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A {@link IResolutionCacheStore} that stores each entry as a file in a
+ * directory.
+ * <p>
+ * Entries are written to a temporary file that is then atomically moved into
+ * place, so concurrent readers, including other processes sharing the
+ * directory, never see a partially written entry. Reading an entry updates its
+ * modification time, and once the total size of the entries exceeds the
+ * configured limit, the least recently used entries are deleted.
+ */
+public class FileResolutionCacheStore implements IResolutionCacheStore {
+  private static final Logger LOGGER = LogManager.getLogger(FileResolutionCacheStore.class);
+  private static final String ENTRY_EXTENSION = ".entry";
+  private static final String TEMP_EXTENSION = ".tmp";
+
+  @NonNull
+  private final Path directory;
+  private final long maxSize;
+
+  /**
+   * Construct a new store using the provided directory, which is created if
+   * needed.
+   *
+   * @param directory
+   *          the directory to store entries in
+   * @param maxSize
+   *          the maximum total size of the stored entries in bytes
+   * @throws IOException
+   *           if an error occurred while creating the directory
+   */
+  public FileResolutionCacheStore(@NonNull Path directory, long maxSize) throws IOException {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("The maximum size must be positive.");
+    }
+    this.directory = ObjectUtils.notNull(Files.createDirectories(directory));
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Get the directory entries are stored in.
+   *
+   * @return the directory
+   */
+  @NonNull
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Get the maximum total size of the stored entries.
+   *
+   * @return the size in bytes
+   */
+  public long getMaxSize() {
+    return maxSize;
+  }
+
+  @NonNull
+  private Path toPath(@NonNull String key) {
+    return ObjectUtils.notNull(directory.resolve(key + ENTRY_EXTENSION));
+  }
+
+  @Override
+  @Nullable
+  public byte[] get(String key) throws IOException {
+    Path path = toPath(key);
+    byte[] retval;
+    try {
+      retval = Files.readAllBytes(path);
+      // record the use for eviction
+      Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+    } catch (NoSuchFileException ex) {
+      // not cached, or evicted by another reader
+      retval = null;
+    }
+    return retval;
+  }
+
+  @Override
+  public void put(String key, byte[] value) throws IOException {
+    Path temp = Files.createTempFile(directory, key, TEMP_EXTENSION);
+    try {
+      Files.write(temp, value);
+      Path path = toPath(key);
+      try {
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException ex) {
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+    evict();
+  }
+
+  @Override
+  public void remove(String key) throws IOException {
+    Files.deleteIfExists(toPath(key));
+  }
+
+  /**
+   * Delete the least recently used entries until the total size of the entries
+   * is within the configured limit.
+   *
+   * @throws IOException
+   *           if an error occurred while listing the entries
+   */
+  protected void evict() throws IOException {
+    List<Entry> entries = new ArrayList<>();
+    long totalSize = 0;
+    try (Stream<Path> paths = Files.list(directory)) {
+      for (Path path : (Iterable<Path>) paths::iterator) {
+        if (path.getFileName().toString().endsWith(ENTRY_EXTENSION)) {
+          try {
+            Entry entry = new Entry(ObjectUtils.notNull(path));
+            entries.add(entry);
+            totalSize += entry.size;
+          } catch (NoSuchFileException ex) {
+            // removed concurrently
+          }
+        }
+      }
+    }
+
+    if (totalSize > maxSize) {
+      entries.sort(Comparator.comparing(entry -> entry.lastModified));
+      for (Entry entry : entries) {
+        if (totalSize <= maxSize) {
+          break;
+        }
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.atDebug().log("evicting resolution cache entry '{}'", entry.path);
+        }
+        Files.deleteIfExists(entry.path);
+        totalSize -= entry.size;
+      }
+    }
+  }
+
+  private static final class Entry {
+    @NonNull
+    private final Path path;
+    private final long size;
+    @NonNull
+    private final FileTime lastModified;
+
+    private Entry(@NonNull Path path) throws IOException {
+      this.path = path;
+      this.size = Files.size(path);
+      this.lastModified = ObjectUtils.notNull(Files.getLastModifiedTime(path));
+    }
+  }
+}
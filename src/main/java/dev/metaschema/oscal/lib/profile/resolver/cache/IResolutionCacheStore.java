@@ -0,0 +1,57 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.profile.resolver.cache;
+
+import java.io.IOException;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Stores the entries of a {@link ResolutionCache}.
+ * <p>
+ * Keys consist of URL-safe characters, so they can be used directly as file
+ * names or database keys. Implementations must be safe for concurrent use, and
+ * a {@link #get(String)} must never observe a partially written value.
+ * Implementations may discard entries at any time, for example to bound their
+ * size.
+ */
+public interface IResolutionCacheStore {
+  /**
+   * Get the value stored under the provided key.
+   *
+   * @param key
+   *          the key
+   * @return the value, or {@code null} if no value is stored
+   * @throws IOException
+   *           if an error occurred while reading the value
+   */
+  @Nullable
+  byte[] get(@NonNull String key) throws IOException;
+
+  /**
+   * Store the provided value under the provided key, replacing any existing
+   * value.
+   *
+   * @param key
+   *          the key
+   * @param value
+   *          the value
+   * @throws IOException
+   *           if an error occurred while writing the value
+   */
+  void put(@NonNull String key, @NonNull byte[] value) throws IOException;
+
+  /**
+   * Remove the value stored under the provided key, if any.
+   *
+   * @param key
+   *          the key
+   * @throws IOException
+   *           if an error occurred while removing the value
+   */
+  void remove(@NonNull String key) throws IOException;
+}
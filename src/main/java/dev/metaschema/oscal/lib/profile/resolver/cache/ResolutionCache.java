@@ -0,0 +1,333 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.profile.resolver.cache;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import dev.metaschema.core.metapath.item.node.IDocumentNodeItem;
+import dev.metaschema.core.metapath.item.node.INodeItem;
+import dev.metaschema.core.metapath.item.node.INodeItemFactory;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.model.IBoundDefinitionModelAssembly;
+import dev.metaschema.oscal.lib.LibOscalVersion;
+import dev.metaschema.oscal.lib.OscalBindingContext;
+import dev.metaschema.oscal.lib.io.OscalBinaryFormat;
+import dev.metaschema.oscal.lib.model.Catalog;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A persistent cache of resolved profiles, which allows resolution work to be
+ * reused across process restarts.
+ * <p>
+ * An entry is keyed by the profile's location, a digest of the profile's
+ * content, a digest of the content of every document it imports directly or
+ * transitively, the resolver options that affect the resolved catalog, and the
+ * version of this library. The location is part of the key, since relative
+ * imports and the resolved catalog's {@code source-profile} link depend on it.
+ * Resolved catalogs are stored using the {@link OscalBinaryFormat}, which loads
+ * much faster than the text formats.
+ * <p>
+ * Since the imports of a profile are only known once it has been resolved, each
+ * profile has a manifest recording the imports and their digests from its most
+ * recent resolution. A lookup verifies the manifest by digesting the raw
+ * content of each import, which does not require parsing, and an entry is only
+ * used if every digest still matches.
+ * <p>
+ * Entries are held in a pluggable {@link IResolutionCacheStore}, such as a
+ * {@link FileResolutionCacheStore}. A cache is used by a profile resolver once
+ * configured using
+ * {@link dev.metaschema.oscal.lib.profile.resolver.ProfileResolver#setResolutionCache(ResolutionCache)}.
+ */
+public class ResolutionCache {
+  private static final Logger LOGGER = LogManager.getLogger(ResolutionCache.class);
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+  private static final String MANIFEST_PREFIX = "manifest-";
+  private static final String CATALOG_PREFIX = "catalog-";
+
+  @NonNull
+  private final IResolutionCacheStore store;
+  @NonNull
+  private final String version;
+
+  /**
+   * Construct a new cache using the provided store.
+   *
+   * @param store
+   *          the store holding the cache's entries
+   */
+  public ResolutionCache(@NonNull IResolutionCacheStore store) {
+    this(store, ObjectUtils.notNull(new LibOscalVersion().getVersion()));
+  }
+
+  /**
+   * Construct a new cache using the provided store, for results produced by the
+   * provided library version.
+   *
+   * @param store
+   *          the store holding the cache's entries
+   * @param version
+   *          the library version that is part of each key
+   */
+  protected ResolutionCache(@NonNull IResolutionCacheStore store, @NonNull String version) {
+    this.store = store;
+    this.version = version;
+  }
+
+  /**
+   * Get the store holding the cache's entries.
+   *
+   * @return the store
+   */
+  @NonNull
+  public IResolutionCacheStore getStore() {
+    return store;
+  }
+
+  /**
+   * Get the cached resolution of the profile at the provided location, if the
+   * profile and all of its imports are unchanged since it was cached.
+   *
+   * @param profileUri
+   *          the profile's location
+   * @return the resolved catalog, or {@code null} if it is not cached
+   */
+  @Nullable
+  public IDocumentNodeItem get(@NonNull URI profileUri) {
+    return get(profileUri, "");
+  }
+
+  /**
+   * Get the cached resolution of the profile at the provided location using the
+   * provided resolver options, if the profile and all of its imports are
+   * unchanged since it was cached.
+   *
+   * @param profileUri
+   *          the profile's location
+   * @param options
+   *          a description of the resolver options that affect the resolved
+   *          catalog, which must match the options it was cached with
+   * @return the resolved catalog, or {@code null} if it is not cached
+   */
+  @Nullable
+  public IDocumentNodeItem get(@NonNull URI profileUri, @NonNull String options) {
+    IDocumentNodeItem retval = null;
+    try {
+      String manifestKey = newManifestKey(profileUri, options);
+      byte[] manifest = manifestKey == null ? null : store.get(manifestKey);
+      Map<URI, String> imports = manifest == null ? null : parseManifest(manifest);
+      String catalogKey = imports == null ? null : newCatalogKey(manifestKey, imports, true);
+      byte[] catalog = catalogKey == null ? null : store.get(catalogKey);
+      if (catalog != null) {
+        retval = toDocument(profileUri, OscalBinaryFormat.read(
+            OscalBindingContext.instance(),
+            Catalog.class,
+            new ByteArrayInputStream(catalog)));
+      }
+    } catch (IOException ex) {
+      // treat a damaged or unreadable entry as a miss
+      if (LOGGER.isWarnEnabled()) {
+        LOGGER.atWarn().log("Unable to read the cached resolution of '{}'. {}", profileUri, ex.getLocalizedMessage());
+      }
+    }
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.atDebug().log("resolution cache {} for '{}'", retval == null ? "miss" : "hit", profileUri);
+    }
+    return retval;
+  }
+
+  /**
+   * Cache the resolution of the profile at the provided location.
+   *
+   * @param profileUri
+   *          the profile's location
+   * @param importUris
+   *          the locations of every document imported directly or transitively
+   *          while resolving the profile
+   * @param resolved
+   *          the resolved catalog
+   */
+  public void put(
+      @NonNull URI profileUri,
+      @NonNull Collection<URI> importUris,
+      @NonNull IDocumentNodeItem resolved) {
+    put(profileUri, "", importUris, resolved);
+  }
+
+  /**
+   * Cache the resolution of the profile at the provided location using the
+   * provided resolver options.
+   *
+   * @param profileUri
+   *          the profile's location
+   * @param options
+   *          a description of the resolver options that affect the resolved
+   *          catalog
+   * @param importUris
+   *          the locations of every document imported directly or transitively
+   *          while resolving the profile
+   * @param resolved
+   *          the resolved catalog
+   */
+  public void put(
+      @NonNull URI profileUri,
+      @NonNull String options,
+      @NonNull Collection<URI> importUris,
+      @NonNull IDocumentNodeItem resolved) {
+    try {
+      String manifestKey = newManifestKey(profileUri, options);
+      if (manifestKey != null) {
+        Map<URI, String> imports = new LinkedHashMap<>();
+        for (URI importUri : importUris) {
+          String digest = digest(importUri);
+          if (digest == null) {
+            // an import's content is not available, so the result cannot be verified later
+            return;
+          }
+          imports.put(importUri, digest);
+        }
+
+        ByteArrayOutputStream catalog = new ByteArrayOutputStream();
+        OscalBinaryFormat.write(OscalBindingContext.instance(), INodeItem.toValue(resolved), catalog);
+
+        // write the catalog first, so the manifest never refers to a missing entry
+        store.put(newCatalogKey(manifestKey, imports, false), ObjectUtils.notNull(catalog.toByteArray()));
+        store.put(manifestKey, toManifest(imports));
+      }
+    } catch (IOException ex) {
+      if (LOGGER.isWarnEnabled()) {
+        LOGGER.atWarn().log("Unable to cache the resolution of '{}'. {}", profileUri, ex.getLocalizedMessage());
+      }
+    }
+  }
+
+  @NonNull
+  private static IDocumentNodeItem toDocument(@NonNull URI profileUri, @NonNull Catalog catalog) {
+    return INodeItemFactory.instance().newDocumentNodeItem(
+        ObjectUtils.requireNonNull(
+            (IBoundDefinitionModelAssembly) OscalBindingContext.instance().getBoundDefinitionForClass(Catalog.class)),
+        profileUri,
+        catalog);
+  }
+
+  @Nullable
+  private String newManifestKey(@NonNull URI profileUri, @NonNull String options) {
+    String profileDigest = digest(profileUri);
+    return profileDigest == null
+        ? null
+        : MANIFEST_PREFIX + hash(version + '\n' + options + '\n' + profileUri + '\n' + profileDigest);
+  }
+
+  /**
+   * Generate the key of the catalog resolved from the profile with the provided
+   * manifest, optionally checking that each import's digest is current.
+   */
+  @Nullable
+  private String newCatalogKey(
+      @NonNull String manifestKey,
+      @NonNull Map<URI, String> imports,
+      boolean verify) {
+    StringBuilder builder = new StringBuilder(manifestKey);
+    for (Map.Entry<URI, String> entry : imports.entrySet()) {
+      URI importUri = entry.getKey();
+      String digest = entry.getValue();
+      if (verify && !digest.equals(digest(ObjectUtils.notNull(importUri)))) {
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.atDebug().log("resolution cache import '{}' has changed", importUri);
+        }
+        return null;
+      }
+      builder.append('\n').append(importUri).append('\n').append(digest);
+    }
+    return CATALOG_PREFIX + hash(builder.toString());
+  }
+
+  @NonNull
+  private static byte[] toManifest(@NonNull Map<URI, String> imports) {
+    StringBuilder builder = new StringBuilder();
+    for (Map.Entry<URI, String> entry : imports.entrySet()) {
+      builder.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+    }
+    return ObjectUtils.notNull(builder.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  @NonNull
+  private static Map<URI, String> parseManifest(@NonNull byte[] manifest) throws IOException {
+    Map<URI, String> retval = new LinkedHashMap<>();
+    for (String line : new String(manifest, StandardCharsets.UTF_8).split("\n")) {
+      if (!line.isEmpty()) {
+        int index = line.indexOf(' ');
+        if (index < 0) {
+          throw new IOException("Malformed resolution cache manifest.");
+        }
+        try {
+          retval.put(URI.create(line.substring(0, index)), line.substring(index + 1));
+        } catch (IllegalArgumentException ex) {
+          throw new IOException("Malformed resolution cache manifest.", ex);
+        }
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Compute a digest of the raw content at the provided location.
+   *
+   * @param uri
+   *          the location of the content
+   * @return the digest, or {@code null} if the content is not available
+   */
+  @Nullable
+  protected String digest(@NonNull URI uri) {
+    String retval = null;
+    try {
+      MessageDigest digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+      try (InputStream is = new DigestInputStream(uri.toURL().openStream(), digest)) {
+        byte[] buffer = new byte[8192];
+        while (is.read(buffer) != -1) {
+          // read the content to update the digest
+        }
+      }
+      retval = encode(digest.digest());
+    } catch (IOException | IllegalArgumentException | NoSuchAlgorithmException ex) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(String.format("Unable to compute a digest for '%s'. %s", uri, ex.getLocalizedMessage()));
+      }
+    }
+    return retval;
+  }
+
+  @NonNull
+  private static String hash(@NonNull String value) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+      return encode(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  @NonNull
+  private static String encode(@NonNull byte[] digest) {
+    return ObjectUtils.notNull(Base64.getUrlEncoder().withoutPadding().encodeToString(digest));
+  }
+}
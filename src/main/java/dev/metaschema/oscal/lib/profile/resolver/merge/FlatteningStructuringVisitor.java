@@ -5,13 +5,17 @@
 
 package dev.metaschema.oscal.lib.profile.resolver.merge;
 
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.UUID;
 
 import dev.metaschema.core.metapath.item.node.IAssemblyNodeItem;
 import dev.metaschema.core.metapath.item.node.IDocumentNodeItem;
+import dev.metaschema.core.metapath.item.node.IModelNodeItem;
 import dev.metaschema.core.metapath.item.node.IRootAssemblyNodeItem;
 import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.oscal.lib.OscalModelConstants;
 import dev.metaschema.oscal.lib.model.BackMatter.Resource;
 import dev.metaschema.oscal.lib.model.CatalogGroup;
 import dev.metaschema.oscal.lib.model.Control;
@@ -61,6 +65,26 @@ public class FlatteningStructuringVisitor
     index.setSelectionStatus(catalogItem, SelectionStatus.SELECTED);
     super.visitCatalog(catalogItem, index);
 
+    if (isUnselectedContentReferenced(index)) {
+      // links to the removed groups need to be rewritten, which requires a full
+      // recount
+      recount(catalogItem, index);
+    } else {
+      // all controls remain selected, so the reference counts from the import phase
+      // only need to be adjusted for the content of the groups being removed
+      List<IAssemblyNodeItem> groupItems = new ArrayList<>();
+      catalogItem.modelItems().forEachOrdered(
+          root -> collectGroups(ObjectUtils.requireNonNull((IAssemblyNodeItem) root), groupItems));
+      if (!ReferenceCountingVisitor.instance().retractGroups(groupItems, index, uriResolver)) {
+        recount(catalogItem, index);
+      }
+    }
+
+    FlatteningFilterNonSelectedVisitor.instance().visitCatalog(catalogItem, index);
+    return null;
+  }
+
+  private void recount(@NonNull IDocumentNodeItem catalogItem, @NonNull IIndexer index) {
     for (ItemType itemType : ItemType.values()) {
       assert itemType != null;
       for (IEntityItem item : index.getEntitiesByItemType(itemType)) {
@@ -70,9 +94,32 @@ public class FlatteningStructuringVisitor
 
     // process references, looking for orphaned links to groups
     ReferenceCountingVisitor.instance().visitCatalog(catalogItem, index, uriResolver);
+  }
 
-    FlatteningFilterNonSelectedVisitor.instance().visitCatalog(catalogItem, index);
-    return null;
+  /**
+   * Determine if any group, or part of a group, that is being removed is still
+   * referenced.
+   *
+   * @param index
+   *          the index containing the reference counts
+   * @return {@code true} if any such item is referenced, or {@code false}
+   *         otherwise
+   */
+  private static boolean isUnselectedContentReferenced(@NonNull IIndexer index) {
+    return index.getEntitiesByItemType(ItemType.GROUP).stream()
+        .anyMatch(entity -> entity.getReferenceCount() > 0)
+        || index.getEntitiesByItemType(ItemType.PART).stream()
+            .anyMatch(entity -> entity.getReferenceCount() > 0 && !index.isSelected(entity));
+  }
+
+  private static void collectGroups(
+      @NonNull IAssemblyNodeItem catalogOrGroup,
+      @NonNull List<IAssemblyNodeItem> groupItems) {
+    for (IModelNodeItem<?, ?> child : catalogOrGroup.getModelItemsByName(OscalModelConstants.QNAME_GROUP)) {
+      IAssemblyNodeItem groupItem = ObjectUtils.requireNonNull((IAssemblyNodeItem) child);
+      groupItems.add(groupItem);
+      collectGroups(groupItem, groupItems);
+    }
   }
 
   @Override
@@ -70,7 +70,12 @@ public abstract class AbstractCustomReferencePolicy<TYPE> implements ICustomRefe
       @NonNull IEntityItem item,
       @NonNull ReferenceCountingVisitor.Context visitorContext) {
 
-    if (visitorContext.getIndexer().isSelected(item)) {
+    if (visitorContext.isRetracting()) {
+      // the reference was previously counted, and is being removed
+      if (visitorContext.getIndexer().isSelected(item)) {
+        visitorContext.retractReference(item);
+      }
+    } else if (visitorContext.getIndexer().isSelected(item)) {
       if (!visitorContext.isResolved(item)) {
         // this referenced item will need to be resolved
         ReferenceCountingVisitor.instance().resolveEntity(item, visitorContext);
@@ -20,6 +20,7 @@ import dev.metaschema.core.metapath.item.node.IModelNodeItem;
 import dev.metaschema.core.util.CollectionUtil;
 import dev.metaschema.core.util.CustomCollectors;
 import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.oscal.lib.model.util.ProseTemplate;
 import dev.metaschema.oscal.lib.profile.resolver.support.IEntityItem;
 import edu.umd.cs.findbugs.annotations.NonNull;
 
@@ -49,6 +50,8 @@ public class InsertReferencePolicy
   @Override
   public void setReferenceText(@NonNull InsertAnchorExtension.InsertAnchorNode insert, @NonNull String newReference) {
     insert.setIdReference(ObjectUtils.notNull(BasedSequence.of(newReference)));
+    // templates compiled for the markup have slots for the old reference
+    ProseTemplate.invalidate(insert.getDocument());
   }
 
   @Override
@@ -11,6 +11,7 @@ import com.vladsch.flexmark.util.ast.Node;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Collection;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -31,7 +32,6 @@ import dev.metaschema.core.metapath.item.node.IDocumentNodeItem;
 import dev.metaschema.core.metapath.item.node.IFieldNodeItem;
 import dev.metaschema.core.metapath.item.node.IModelNodeItem;
 import dev.metaschema.core.qname.IEnhancedQName;
-import dev.metaschema.core.util.CollectionUtil;
 import dev.metaschema.core.util.ObjectUtils;
 import dev.metaschema.oscal.lib.OscalBindingContext;
 import dev.metaschema.oscal.lib.OscalModelConstants;
@@ -42,6 +42,7 @@ import dev.metaschema.oscal.lib.model.Link;
 import dev.metaschema.oscal.lib.model.Property;
 import dev.metaschema.oscal.lib.model.metadata.AbstractProperty;
 import dev.metaschema.oscal.lib.model.metadata.IProperty;
+import dev.metaschema.oscal.lib.model.util.MarkupReferenceSummary;
 import dev.metaschema.oscal.lib.profile.resolver.ProfileResolver.UriResolver;
 import dev.metaschema.oscal.lib.profile.resolver.support.AbstractCatalogEntityVisitor;
 import dev.metaschema.oscal.lib.profile.resolver.support.IEntityItem;
@@ -93,6 +94,11 @@ public final class ReferenceCountingVisitor
   private static final InsertReferencePolicy INSERT_POLICY = new InsertReferencePolicy();
   @NonNull
   private static final AnchorReferencePolicy ANCHOR_POLICY = new AnchorReferencePolicy();
+  @NonNull
+  private static final Set<IEntityItem.ItemType> RETRACT_EXCLUDED_TYPES = ObjectUtils.notNull(EnumSet.of(
+      IEntityItem.ItemType.GROUP,
+      IEntityItem.ItemType.CONTROL,
+      IEntityItem.ItemType.PART));
 
   static {
     PROPERTY_POLICIES = new HashMap<>();
@@ -170,7 +176,77 @@ public final class ReferenceCountingVisitor
       @NonNull UriResolver resolver) {
     Context context = new Context(indexer, resolver);
     visitCatalog(catalogItem, context);
+    resolveReferencedEntities(context);
+  }
+
+  /**
+   * Count the references made by the provided groups and controls, which are
+   * expected to have already been indexed and selected.
+   * <p>
+   * This supports reference counting as a fix-up step of a combined selection
+   * and indexing pass, avoiding an additional walk of the catalog. Since the
+   * whole catalog is indexed before this method is called, forward references
+   * are resolved. The items are processed in the provided order, which should
+   * match the order used by {@link #visitCatalog(IDocumentNodeItem, IIndexer, UriResolver)}.
+   *
+   * @param selectedItems
+   *          the selected group and control items to resolve
+   * @param indexer
+   *          the index containing all entities of the catalog
+   * @param resolver
+   *          the resolver used to resolve links to unselected items
+   */
+  public void visitSelected(
+      @NonNull Collection<? extends IAssemblyNodeItem> selectedItems,
+      @NonNull IIndexer indexer,
+      @NonNull UriResolver resolver) {
+    Context context = new Context(indexer, resolver);
+    for (IAssemblyNodeItem item : selectedItems) {
+      if (item.getValue() instanceof CatalogGroup) {
+        visitGroup(item, null, context);
+      } else {
+        visitControl(item, null, context);
+      }
+    }
+    resolveReferencedEntities(context);
+  }
 
+  /**
+   * Remove the references previously counted for the content of the provided
+   * groups.
+   * <p>
+   * This is used when groups are removed by a structuring directive, allowing
+   * the existing reference counts to be adjusted instead of recounted. An entity
+   * whose reference count drops to zero has the references made by its own
+   * content removed as well.
+   * <p>
+   * This method expects that each group was selected when its references were
+   * counted, and that the targets of these references have the same selection
+   * status now as they did then. If a reference is retracted from an entity
+   * that has no counted references, the counts are inconsistent and
+   * {@code false} is returned. The caller must then recount all references.
+   *
+   * @param groupItems
+   *          the group items whose references are to be removed
+   * @param indexer
+   *          the index containing the counted entities
+   * @param resolver
+   *          the resolver used to resolve links to unselected items
+   * @return {@code true} if the reference counts were adjusted consistently, or
+   *         {@code false} if a full recount is needed
+   */
+  public boolean retractGroups(
+      @NonNull Collection<? extends IAssemblyNodeItem> groupItems,
+      @NonNull IIndexer indexer,
+      @NonNull UriResolver resolver) {
+    Context context = new Context(indexer, resolver, true);
+    for (IAssemblyNodeItem item : groupItems) {
+      resolveGroupContent(item, context);
+    }
+    return !context.isInconsistent();
+  }
+
+  private static void resolveReferencedEntities(@NonNull Context context) {
     IIndexer index = context.getIndexer();
     // resolve the entities picked up by the original indexing operation
     // FIXME: Is this necessary?
@@ -302,20 +378,25 @@ public final class ReferenceCountingVisitor
       @NonNull IAssemblyNodeItem item,
       @NonNull Context context) {
     if (IIndexer.SelectionStatus.SELECTED.equals(context.getIndexer().getSelectionStatus(item))) {
+      resolveGroupContent(item, context);
+    }
+  }
 
-      // process children
-      item.getModelItemsByName(OscalModelConstants.QNAME_TITLE)
-          .forEach(child -> handleMarkup(ObjectUtils.notNull((IFieldNodeItem) child), context));
-      item.getModelItemsByName(OscalModelConstants.QNAME_PROP)
-          .forEach(child -> handleProperty(ObjectUtils.notNull((IAssemblyNodeItem) child), context));
-      item.getModelItemsByName(OscalModelConstants.QNAME_LINK)
-          .forEach(child -> handleLink(ObjectUtils.notNull((IAssemblyNodeItem) child), context));
+  private void resolveGroupContent(
+      @NonNull IAssemblyNodeItem item,
+      @NonNull Context context) {
+    // process children
+    item.getModelItemsByName(OscalModelConstants.QNAME_TITLE)
+        .forEach(child -> handleMarkup(ObjectUtils.notNull((IFieldNodeItem) child), context));
+    item.getModelItemsByName(OscalModelConstants.QNAME_PROP)
+        .forEach(child -> handleProperty(ObjectUtils.notNull((IAssemblyNodeItem) child), context));
+    item.getModelItemsByName(OscalModelConstants.QNAME_LINK)
+        .forEach(child -> handleLink(ObjectUtils.notNull((IAssemblyNodeItem) child), context));
 
-      // always visit parts
-      visitParts(item, context);
+    // always visit parts
+    visitParts(item, context);
 
-      // skip parameters for now. These will be processed by a separate pass.
-    }
+    // skip parameters for now. These will be processed by a separate pass.
   }
 
   protected void resolveControl(
@@ -425,8 +506,8 @@ public final class ReferenceCountingVisitor
       @NonNull IFieldNodeItem contextItem,
       @NonNull IMarkupString<?> text,
       @NonNull Context context) {
-    for (Node node : CollectionUtil.toIterable(
-        ObjectUtils.notNull(text.getNodesAsStream().iterator()))) {
+    // only the reference nodes are needed, which are summarized once per markup
+    for (Node node : MarkupReferenceSummary.of(text).getReferenceNodes()) {
       if (node instanceof InsertAnchorExtension.InsertAnchorNode) {
         handleInsert(contextItem, (InsertAnchorNode) node, context);
       } else if (node instanceof InlineLinkNode) {
@@ -573,10 +654,17 @@ public final class ReferenceCountingVisitor
     private final UriResolver resolver;
     @NonNull
     private final Set<IEntityItem> resolvedEntities = new HashSet<>();
+    private final boolean retracting;
+    private boolean inconsistent;
 
     private Context(@NonNull IIndexer indexer, @NonNull UriResolver resolver) {
+      this(indexer, resolver, false);
+    }
+
+    private Context(@NonNull IIndexer indexer, @NonNull UriResolver resolver, boolean retracting) {
       this.indexer = indexer;
       this.resolver = resolver;
+      this.retracting = retracting;
     }
 
     @NonNull
@@ -603,6 +691,64 @@ public final class ReferenceCountingVisitor
       return resolvedEntities.contains(entity);
     }
 
+    /**
+     * Determine if this context is being used to remove previously counted
+     * references, instead of counting new references.
+     *
+     * @return {@code true} if references are being removed, or {@code false}
+     *         otherwise
+     */
+    public boolean isRetracting() {
+      return retracting;
+    }
+
+    /**
+     * Determine if a reference was retracted from an entity that had no counted
+     * references.
+     *
+     * @return {@code true} if the reference counts are inconsistent, or
+     *         {@code false} otherwise
+     */
+    public boolean isInconsistent() {
+      return inconsistent;
+    }
+
+    /**
+     * Remove a previously counted reference to the provided entity.
+     * <p>
+     * If the entity is no longer referenced, the references made by its content
+     * are also removed. Groups, controls, and parts are excluded, since their
+     * content is counted based on selection instead of being referenced. If the
+     * entity has no counted references, this context is marked as
+     * {@link #isInconsistent() inconsistent}.
+     *
+     * @param entity
+     *          the referenced entity
+     */
+    public void retractReference(@NonNull IEntityItem entity) {
+      if (entity.getReferenceCount() == 0) {
+        // the reference was never counted against this entity
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.atDebug().log("Unable to retract a reference to {} identified as '{}', which has no references",
+              entity.getItemType().name(),
+              entity.getIdentifier());
+        }
+        inconsistent = true;
+      } else if (entity.decrementReferenceCount() == 0
+          && !RETRACT_EXCLUDED_TYPES.contains(entity.getItemType())
+          && !IIndexer.isReferencedEntity(entity)
+          && !isResolved(entity)) {
+        markResolved(entity);
+
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.atDebug().log("Retracting references made by {} identified as '{}'",
+              entity.getItemType().name(),
+              entity.getIdentifier());
+        }
+        ReferenceCountingVisitor.instance().entityDispatch(entity, this);
+      }
+    }
+
     public void incrementReferenceCount(
         @NonNull IModelNodeItem<?, ?> contextItem,
         @NonNull IEntityItem.ItemType type,
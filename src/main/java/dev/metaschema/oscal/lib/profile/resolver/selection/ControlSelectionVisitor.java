@@ -118,6 +118,7 @@ public final class ControlSelectionVisitor
     }
 
     handlePartSelection(groupItem, childSelected, state);
+    state.handleSelection(groupItem, childSelected);
     return childSelected;
   }
 
@@ -152,6 +153,7 @@ public final class ControlSelectionVisitor
     }
 
     handlePartSelection(controlItem, selected, state);
+    state.handleSelection(controlItem, selected);
     return selected;
   }
 }
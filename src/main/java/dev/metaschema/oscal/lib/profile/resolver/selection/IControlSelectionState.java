@@ -5,6 +5,7 @@
 
 package dev.metaschema.oscal.lib.profile.resolver.selection;
 
+import dev.metaschema.core.metapath.item.node.IAssemblyNodeItem;
 import dev.metaschema.core.metapath.item.node.IModelNodeItem;
 import dev.metaschema.oscal.lib.profile.resolver.support.IIndexer;
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -14,4 +15,21 @@ public interface IControlSelectionState {
   IIndexer getIndex();
 
   boolean isSelected(@NonNull IModelNodeItem<?, ?> item);
+
+  /**
+   * Called by the {@link ControlSelectionVisitor} once the selection status of a
+   * group or control has been determined.
+   * <p>
+   * Groups and controls are reported in the same post-order used by the catalog
+   * visitors, allowing an implementation to capture the selected items for later
+   * processing without walking the catalog again.
+   *
+   * @param groupOrControlItem
+   *          the group or control item that was visited
+   * @param selected
+   *          {@code true} if the item is selected, or {@code false} otherwise
+   */
+  default void handleSelection(@NonNull IAssemblyNodeItem groupOrControlItem, boolean selected) {
+    // do nothing by default
+  }
 }
@@ -100,13 +100,16 @@ public class Import {
     // the catalog is always selected. This ensures that controls defined at the
     // catalog level are kept and not duplicated
     indexer.setSelectionStatus(importedCatalogDocument.getRootAssemblyNodeItem(), SelectionStatus.SELECTED);
-    IControlSelectionState state = new ControlSelectionState(indexer, filter);
+    ImportSelectionState state = new ImportSelectionState(indexer, filter);
 
     try {
+      // index the catalog and determine the selected groups and controls in a single
+      // pass
       ControlSelectionVisitor.instance().visitCatalog(importedCatalogDocument, state);
 
-      // process references
-      ReferenceCountingVisitor.instance().visitCatalog(importedCatalogDocument, indexer, uriResolver);
+      // process references for only the selected items. The whole catalog is
+      // indexed at this point, so forward references will be resolved.
+      ReferenceCountingVisitor.instance().visitSelected(state.getSelectedItems(), indexer, uriResolver);
 
       // filter based on selections
       FilterNonSelectedVisitor.instance().visitCatalog(importedCatalogDocument, indexer);
@@ -0,0 +1,58 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.profile.resolver.selection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import dev.metaschema.core.metapath.item.node.IAssemblyNodeItem;
+import dev.metaschema.core.util.CollectionUtil;
+import dev.metaschema.oscal.lib.profile.resolver.support.IIndexer;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A control selection state that records each selected group and control in
+ * visitation order.
+ * <p>
+ * This allows the reference counting phase of an import to operate over only
+ * the selected items, after the selection pass has indexed the entire catalog.
+ * Since all entities are indexed by then, forward references are resolved
+ * without requiring a second walk of the catalog.
+ */
+public class ImportSelectionState
+    extends ControlSelectionState {
+  @NonNull
+  private final List<IAssemblyNodeItem> selectedItems = new ArrayList<>();
+
+  /**
+   * Construct a new selection state.
+   *
+   * @param index
+   *          the index to populate during selection
+   * @param filter
+   *          the filter used to determine which controls are selected
+   */
+  public ImportSelectionState(@NonNull IIndexer index, @NonNull IControlFilter filter) {
+    super(index, filter);
+  }
+
+  @Override
+  public void handleSelection(IAssemblyNodeItem groupOrControlItem, boolean selected) {
+    if (selected) {
+      selectedItems.add(groupOrControlItem);
+    }
+  }
+
+  /**
+   * Get the selected groups and controls in the order they were visited.
+   *
+   * @return the selected items
+   */
+  @NonNull
+  public List<IAssemblyNodeItem> getSelectedItems() {
+    return CollectionUtil.unmodifiableList(selectedItems);
+  }
+}
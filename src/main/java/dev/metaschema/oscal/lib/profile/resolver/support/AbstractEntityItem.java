@@ -96,6 +96,19 @@ public abstract class AbstractEntityItem implements IEntityItem {
     referenceCount += 1;
   }
 
+  @Override
+  public void incrementReferenceCount(int amount) {
+    referenceCount += amount;
+  }
+
+  @Override
+  public int decrementReferenceCount() {
+    if (referenceCount > 0) {
+      referenceCount -= 1;
+    }
+    return referenceCount;
+  }
+
   @Override
   public int resetReferenceCount() {
     int retval = referenceCount;
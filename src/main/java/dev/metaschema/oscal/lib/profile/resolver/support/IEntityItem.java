@@ -84,5 +84,21 @@ public interface IEntityItem {
 
   void incrementReferenceCount();
 
+  /**
+   * Increase the reference count by the provided amount.
+   *
+   * @param amount
+   *          the number of references to add
+   */
+  void incrementReferenceCount(int amount);
+
+  /**
+   * Decrement the reference count, without allowing the count to become
+   * negative.
+   *
+   * @return the reference count after the decrement
+   */
+  int decrementReferenceCount();
+
   int resetReferenceCount();
 }
@@ -19,12 +19,14 @@ import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import dev.metaschema.core.metapath.IMetapathExpression;
-import dev.metaschema.core.metapath.IMetapathExpression.ResultType;
 import dev.metaschema.core.metapath.item.node.IModelNodeItem;
 import dev.metaschema.core.metapath.item.node.INodeItem;
 import dev.metaschema.core.util.CustomCollectors;
 import dev.metaschema.core.util.ObjectUtils;
 import dev.metaschema.oscal.lib.OscalBindingContext;
+import dev.metaschema.oscal.lib.OscalModelConstants;
+import dev.metaschema.oscal.lib.metapath.function.library.HasOscalNamespace;
+import dev.metaschema.oscal.lib.model.Property;
 import dev.metaschema.oscal.lib.model.metadata.IProperty;
 import dev.metaschema.oscal.lib.profile.resolver.support.IEntityItem.ItemType;
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -41,9 +43,30 @@ public interface IIndexer {
       "prop[@name='keep' and has-oscal-namespace('" + IProperty.OSCAL_NAMESPACE + "')]/@value = 'always'",
       OscalBindingContext.OSCAL_STATIC_METAPATH_CONTEXT);
 
+  /**
+   * The namespaces of a "keep" property, which is only recognized in the OSCAL
+   * namespace.
+   */
+  @NonNull
+  Set<String> KEEP_NAMESPACES = ObjectUtils.notNull(Set.of(IProperty.OSCAL_NAMESPACE.toString()));
+
+  /**
+   * Matches the same entities as {@link #HAS_PROP_KEEP_METAPATH}, without
+   * evaluating a Metapath expression for each entity.
+   */
   Predicate<IEntityItem> KEEP_ENTITY_PREDICATE = entity -> entity.getReferenceCount() > 0
-      || (Boolean) ObjectUtils
-          .notNull(HAS_PROP_KEEP_METAPATH.evaluateAs(entity.getInstance(), ResultType.BOOLEAN));
+      || hasKeepAlwaysProperty(entity.getInstance());
+
+  private static boolean hasKeepAlwaysProperty(@NonNull IModelNodeItem<?, ?> item) {
+    return item.getModelItemsByName(OscalModelConstants.QNAME_PROP).stream()
+        .anyMatch(prop -> {
+          Object value = prop.getValue();
+          return value instanceof Property
+              && "keep".equals(((Property) value).getName())
+              && "always".equals(((Property) value).getValue())
+              && HasOscalNamespace.hasNamespace(prop, KEEP_NAMESPACES);
+        });
+  }
 
   static boolean isReferencedEntity(@NonNull IEntityItem entity) {
     return KEEP_ENTITY_PREDICATE.test(entity);
@@ -14,6 +14,7 @@ import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringWriter;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
@@ -187,4 +188,32 @@ class OscalBindingContextTest {
     assertNotNull(bindingContext.loadCatalog(out));
     // out.delete();
   }
+
+  @Test
+  void testLoadCatalogMemoryMapped() throws IOException {
+    OscalBindingContext mappedContext = OscalBindingContext.newInstance();
+    mappedContext.setMemoryMappedInput(true);
+
+    Path path = ObjectUtils.notNull(Paths.get("src/test/resources/content/test-catalog.xml"));
+    Catalog mapped = mappedContext.loadCatalog(path);
+    Catalog buffered = bindingContext.loadCatalog(path);
+    assertEquals(buffered.getUuid(), mapped.getUuid());
+    assertEquals(buffered.getMetadata().getTitle().toMarkdown(), mapped.getMetadata().getTitle().toMarkdown());
+  }
+
+  @Test
+  void testCompressedRoundTrip(@TempDir Path tempDir) throws IOException {
+    Catalog catalog = bindingContext.loadCatalog(
+        ObjectUtils.notNull(Paths.get("src/test/resources/content/test-catalog.xml")));
+
+    Path out = newPath(ObjectUtils.notNull(tempDir), "out-catalog.json.gz");
+    bindingContext.serialize(catalog, Format.JSON, out);
+
+    try (InputStream is = Files.newInputStream(out)) {
+      // gzip magic bytes
+      assertEquals(0x1f, is.read());
+      assertEquals(0x8b, is.read());
+    }
+    assertEquals(catalog.getUuid(), bindingContext.loadCatalog(out).getUuid());
+  }
 }
@@ -0,0 +1,86 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+import dev.metaschema.core.util.ObjectUtils;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class CompressionTest {
+  private static final byte[] CONTENT
+      = "{\"catalog\": {\"uuid\": \"8a6e7b0e-5c41-4b4b-8bb4-7d3e4fc1a000\"}}".getBytes(StandardCharsets.UTF_8);
+
+  @NonNull
+  private static byte[] compress(@NonNull Compression compression, @NonNull byte[] content) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (OutputStream os = compression.compress(out)) {
+      os.write(content);
+    }
+    return ObjectUtils.notNull(out.toByteArray());
+  }
+
+  @ParameterizedTest
+  @EnumSource(Compression.class)
+  void testRoundTrip(@NonNull Compression compression) throws IOException {
+    byte[] compressed = compress(compression, CONTENT);
+    assertEquals(compression, Compression.detect(new BufferedInputStream(new ByteArrayInputStream(compressed))));
+
+    try (InputStream is = Compression.decompressing(new ByteArrayInputStream(compressed))) {
+      assertArrayEquals(CONTENT, is.readAllBytes());
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = { "<catalog/>", "{}", "---\ncatalog:\n", "catalog:\n", "x", "" })
+  void testUncompressed(@NonNull String content) throws IOException {
+    BufferedInputStream is
+        = new BufferedInputStream(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    assertEquals(Compression.NONE, Compression.detect(is));
+    // the stream is reset
+    assertEquals(content, new String(is.readAllBytes(), StandardCharsets.UTF_8));
+  }
+
+  @ParameterizedTest
+  @EnumSource(Compression.class)
+  void testForPath(@NonNull Compression compression) {
+    assertEquals(compression, Compression.forPath(ObjectUtils.notNull(
+        Paths.get("target", "catalog.json" + compression.getExtension().toUpperCase(Locale.ROOT)))));
+  }
+
+  @Test
+  void testMarkableStreamIsNotBuffered(@TempDir Path tempDir) throws IOException {
+    Path file = ObjectUtils.notNull(tempDir.resolve("catalog.json"));
+    Files.write(file, CONTENT);
+
+    try (MappedInputStream mapped = MappedInputStream.open(file)) {
+      InputStream is = Compression.decompressing(mapped);
+      // uncompressed content is read from the mapping directly
+      assertSame(mapped, is);
+      assertArrayEquals(CONTENT, is.readAllBytes());
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import dev.metaschema.core.util.ObjectUtils;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class MappedInputStreamTest {
+  @NonNull
+  private static byte[] newContent(int size) {
+    byte[] retval = new byte[size];
+    for (int i = 0; i < size; i++) {
+      retval[i] = (byte) i;
+    }
+    return retval;
+  }
+
+  @Test
+  void testReadAcrossRegions(@TempDir Path tempDir) throws IOException {
+    byte[] content = newContent(1000);
+    Path file = ObjectUtils.notNull(tempDir.resolve("content.bin"));
+    Files.write(file, content);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InputStream is = MappedInputStream.open(file, 64)) {
+      byte[] buffer = new byte[100];
+      int read;
+      while ((read = is.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+      assertEquals(-1, is.read());
+    }
+    assertArrayEquals(content, out.toByteArray());
+  }
+
+  @Test
+  void testMarkResetAndSkip(@TempDir Path tempDir) throws IOException {
+    byte[] content = newContent(300);
+    Path file = ObjectUtils.notNull(tempDir.resolve("content.bin"));
+    Files.write(file, content);
+
+    try (InputStream is = MappedInputStream.open(file, 64)) {
+      assertEquals(60, is.skip(60));
+      is.mark(0);
+      assertEquals(200, is.skip(200));
+      assertEquals(content[260] & 0xFF, is.read());
+      is.reset();
+      assertEquals(content[60] & 0xFF, is.read());
+      assertEquals(239, is.skip(1000));
+      assertEquals(-1, is.read());
+    }
+  }
+
+  @Test
+  void testEmptyFile(@TempDir Path tempDir) throws IOException {
+    Path file = ObjectUtils.notNull(tempDir.resolve("empty.bin"));
+    Files.write(file, new byte[0]);
+
+    try (InputStream is = MappedInputStream.open(file)) {
+      assertEquals(0, is.available());
+      assertEquals(-1, is.read());
+    }
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import dev.metaschema.core.model.IBoundObject;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.io.Format;
+import dev.metaschema.oscal.lib.OscalBindingContext;
+import dev.metaschema.oscal.lib.model.Catalog;
+import dev.metaschema.oscal.lib.model.Profile;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class OscalBinaryFormatTest {
+  @NonNull
+  private static final OscalBindingContext BINDING_CONTEXT = OscalBindingContext.instance();
+
+  @NonNull
+  private static Catalog loadCatalog() throws IOException {
+    return BINDING_CONTEXT.loadCatalog(ObjectUtils.notNull(Paths.get("src/test/resources/content/test-catalog.xml")));
+  }
+
+  @NonNull
+  private static String toJson(@NonNull IBoundObject data) throws IOException {
+    StringWriter writer = new StringWriter();
+    BINDING_CONTEXT.newSerializer(Format.JSON, Catalog.class).serialize((Catalog) data, writer);
+    return ObjectUtils.notNull(writer.toString());
+  }
+
+  @Test
+  void testRoundTrip() throws IOException {
+    Catalog catalog = loadCatalog();
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    OscalBinaryFormat.write(BINDING_CONTEXT, catalog, out);
+
+    try (BufferedInputStream is = new BufferedInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      assertTrue(OscalBinaryFormat.isBinary(is));
+      Catalog copy = OscalBinaryFormat.read(BINDING_CONTEXT, Catalog.class, is);
+      assertEquals(toJson(catalog), toJson(copy));
+    }
+  }
+
+  @Test
+  void testLoadSerializedFile(@TempDir Path tempDir) throws IOException {
+    Catalog catalog = loadCatalog();
+
+    Path out = ObjectUtils.notNull(tempDir.resolve("catalog.oscb.gz"));
+    BINDING_CONTEXT.serializeBinary(catalog, out);
+
+    try (InputStream is = Files.newInputStream(out)) {
+      // gzip magic bytes
+      assertEquals(0x1f, is.read());
+      assertEquals(0x8b, is.read());
+    }
+    assertEquals(toJson(catalog), toJson(BINDING_CONTEXT.loadBinary(Catalog.class, out)));
+
+    // binary content is only read when explicitly requested
+    assertThrows(IOException.class, () -> BINDING_CONTEXT.loadCatalog(out));
+  }
+
+  @Test
+  void testNoJavaNames() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    OscalBinaryFormat.write(BINDING_CONTEXT, loadCatalog(), out);
+
+    String content = new String(out.toByteArray(), StandardCharsets.ISO_8859_1);
+    assertFalse(content.contains("dev.metaschema"));
+    assertTrue(content.contains("catalog"));
+  }
+
+  @Test
+  void testUnsupportedVersion() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    OscalBinaryFormat.write(BINDING_CONTEXT, loadCatalog(), out);
+    byte[] content = out.toByteArray();
+    content[OscalBinaryFormat.MAGIC.length] = 1;
+
+    IOException ex = assertThrows(IOException.class,
+        () -> OscalBinaryFormat.read(BINDING_CONTEXT, Catalog.class, new ByteArrayInputStream(content)));
+    assertTrue(ex.getMessage().contains("version '1'"));
+  }
+
+  @Test
+  void testUnknownProperty() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(OscalBinaryFormat.MAGIC);
+    out.write(OscalBinaryFormat.VERSION);
+    writeString(out, "catalog");
+    // one property, using a new name
+    out.write(1);
+    out.write(0);
+    writeString(out, "java.lang.Runtime");
+    out.write(OscalBinaryFormat.TAG_NULL);
+
+    IOException ex = assertThrows(IOException.class,
+        () -> OscalBinaryFormat.read(BINDING_CONTEXT, Catalog.class, new ByteArrayInputStream(out.toByteArray())));
+    assertTrue(ex.getMessage().contains("has no property 'java.lang.Runtime'"));
+  }
+
+  private static void writeString(@NonNull ByteArrayOutputStream out, @NonNull String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.write(bytes.length);
+    out.write(bytes);
+  }
+
+  @Test
+  void testWrongType() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    OscalBinaryFormat.write(BINDING_CONTEXT, loadCatalog(), out);
+
+    assertThrows(IOException.class,
+        () -> OscalBinaryFormat.read(BINDING_CONTEXT, Profile.class, new ByteArrayInputStream(out.toByteArray())));
+  }
+
+  @Test
+  void testNotBinary() throws IOException {
+    try (BufferedInputStream is = new BufferedInputStream(
+        Files.newInputStream(Paths.get("src/test/resources/content/test-catalog.xml")))) {
+      assertFalse(OscalBinaryFormat.isBinary(is));
+      // the stream is reset
+      assertEquals('<', is.read());
+    }
+  }
+}
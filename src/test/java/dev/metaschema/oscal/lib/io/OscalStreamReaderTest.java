@@ -0,0 +1,132 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.io.Format;
+import dev.metaschema.oscal.lib.OscalBindingContext;
+import dev.metaschema.oscal.lib.model.AssessmentResults;
+import dev.metaschema.oscal.lib.model.Finding;
+import dev.metaschema.oscal.lib.model.Observation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class OscalStreamReaderTest {
+  private static final String OBSERVATION_1 = "8a6e7b0e-5c41-4b4b-8bb4-7d3e4fc1a001";
+  private static final String OBSERVATION_2 = "8a6e7b0e-5c41-4b4b-8bb4-7d3e4fc1a002";
+  private static final String FINDING_1 = "8a6e7b0e-5c41-4b4b-8bb4-7d3e4fc1a003";
+
+  private static final String XML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+      + "<assessment-results xmlns=\"http://csrc.nist.gov/ns/oscal/1.0\""
+      + " uuid=\"8a6e7b0e-5c41-4b4b-8bb4-7d3e4fc1a000\">\n"
+      + "  <metadata><title>Streamed Results</title>"
+      + "<last-modified>2024-01-01T00:00:00Z</last-modified>"
+      + "<version>1.0</version><oscal-version>1.1.2</oscal-version></metadata>\n"
+      + "  <import-ap href=\"ap.xml\"/>\n"
+      + "  <result uuid=\"8a6e7b0e-5c41-4b4b-8bb4-7d3e4fc1a010\">\n"
+      + "    <title>Result</title><description><p>A result.</p></description>"
+      + "<start>2024-01-01T00:00:00Z</start>\n"
+      + "    <reviewed-controls><control-selection><include-all/></control-selection></reviewed-controls>\n"
+      + "    <observation uuid=\"" + OBSERVATION_1 + "\"><description><p>First <em>observation</em>.</p>"
+      + "</description><method>TEST</method><collected>2024-01-01T00:00:00Z</collected></observation>\n"
+      + "    <observation uuid=\"" + OBSERVATION_2 + "\"><description><p>Second observation.</p>"
+      + "</description><method>TEST</method><collected>2024-01-01T00:00:00Z</collected></observation>\n"
+      + "    <finding uuid=\"" + FINDING_1 + "\"><title>Finding</title><description><p>A finding.</p>"
+      + "</description><target type=\"objective-id\" target-id=\"ac-1_obj\"><status><state>satisfied</state>"
+      + "</status></target></finding>\n"
+      + "  </result>\n"
+      + "</assessment-results>\n";
+
+  private static final String JSON = "{\n"
+      + "  \"$schema\": \"https://example.com/schema.json\",\n"
+      + "  \"assessment-results\": {\n"
+      + "    \"uuid\": \"8a6e7b0e-5c41-4b4b-8bb4-7d3e4fc1a000\",\n"
+      + "    \"metadata\": {\"title\": \"Streamed Results\", \"last-modified\": \"2024-01-01T00:00:00Z\","
+      + " \"version\": \"1.0\", \"oscal-version\": \"1.1.2\"},\n"
+      + "    \"import-ap\": {\"href\": \"ap.json\"},\n"
+      + "    \"results\": [{\n"
+      + "      \"uuid\": \"8a6e7b0e-5c41-4b4b-8bb4-7d3e4fc1a010\", \"title\": \"Result\","
+      + " \"description\": \"A result.\", \"start\": \"2024-01-01T00:00:00Z\",\n"
+      + "      \"reviewed-controls\": {\"control-selections\": [{\"include-all\": {}}]},\n"
+      + "      \"observations\": [\n"
+      + "        {\"uuid\": \"" + OBSERVATION_1 + "\", \"description\": \"First *observation*.\","
+      + " \"methods\": [\"TEST\"], \"collected\": \"2024-01-01T00:00:00Z\"},\n"
+      + "        {\"uuid\": \"" + OBSERVATION_2 + "\", \"description\": \"Second observation.\","
+      + " \"methods\": [\"TEST\"], \"collected\": \"2024-01-01T00:00:00Z\"}\n"
+      + "      ],\n"
+      + "      \"findings\": [{\"uuid\": \"" + FINDING_1 + "\", \"title\": \"Finding\","
+      + " \"description\": \"A finding.\", \"target\": {\"type\": \"objective-id\","
+      + " \"target-id\": \"ac-1_obj\", \"status\": {\"state\": \"satisfied\"}}}]\n"
+      + "    }]\n"
+      + "  }\n"
+      + "}\n";
+
+  @NonNull
+  private static OscalStreamReader open(@NonNull String content, @NonNull Set<StreamedItemType> itemTypes)
+      throws IOException {
+    return OscalStreamReader.open(
+        OscalBindingContext.instance(),
+        new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+        ObjectUtils.notNull(URI.create("file:/results")),
+        itemTypes);
+  }
+
+  private static void assertItems(@NonNull String content, @NonNull Format expectedFormat) throws IOException {
+    try (OscalStreamReader reader = open(
+        content,
+        ObjectUtils.notNull(EnumSet.of(StreamedItemType.OBSERVATION, StreamedItemType.FINDING)))) {
+      assertEquals(expectedFormat, reader.getFormat());
+      assertSame(AssessmentResults.class, reader.getRootClass());
+      assertNotNull(reader.getMetadata());
+      assertEquals("Streamed Results", reader.getMetadata().getTitle().toMarkdown());
+
+      List<String> uuids = new ArrayList<>();
+      while (reader.hasNext()) {
+        StreamedItem item = reader.next();
+        if (item.getType() == StreamedItemType.OBSERVATION) {
+          uuids.add(item.getValue(Observation.class).getUuid().toString());
+        } else {
+          uuids.add(item.getValue(Finding.class).getUuid().toString());
+        }
+      }
+      assertEquals(List.of(OBSERVATION_1, OBSERVATION_2, FINDING_1), uuids);
+    }
+  }
+
+  @Test
+  void testXml() throws IOException {
+    assertItems(XML, Format.XML);
+  }
+
+  @Test
+  void testJson() throws IOException {
+    assertItems(JSON, Format.JSON);
+  }
+
+  @Test
+  void testSelectedTypes() throws IOException {
+    try (OscalStreamReader reader = open(XML, ObjectUtils.notNull(EnumSet.of(StreamedItemType.FINDING)))) {
+      StreamedItem item = reader.next();
+      assertEquals(StreamedItemType.FINDING, item.getType());
+      assertFalse(reader.hasNext());
+    }
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.io.DeserializationFeature;
+import dev.metaschema.databind.io.Format;
+import dev.metaschema.databind.io.IDeserializer;
+import dev.metaschema.oscal.lib.OscalBindingContext;
+import dev.metaschema.oscal.lib.model.AssessmentResults;
+import dev.metaschema.oscal.lib.model.BackMatter;
+import dev.metaschema.oscal.lib.model.Finding;
+import dev.metaschema.oscal.lib.model.Observation;
+import dev.metaschema.oscal.lib.model.Result;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class OscalStreamWriterTest {
+  private static final String OBSERVATION_1 = "8a6e7b0e-5c41-4b4b-8bb4-7d3e4fc1a001";
+  private static final String OBSERVATION_2 = "8a6e7b0e-5c41-4b4b-8bb4-7d3e4fc1a002";
+  private static final String FINDING_1 = "8a6e7b0e-5c41-4b4b-8bb4-7d3e4fc1a003";
+  private static final String RESOURCE_1 = "8a6e7b0e-5c41-4b4b-8bb4-7d3e4fc1a020";
+  private static final String RESOURCE_2 = "8a6e7b0e-5c41-4b4b-8bb4-7d3e4fc1a021";
+
+  private static final String XML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+      + "<assessment-results xmlns=\"http://csrc.nist.gov/ns/oscal/1.0\""
+      + " uuid=\"8a6e7b0e-5c41-4b4b-8bb4-7d3e4fc1a000\">\n"
+      + "  <metadata><title>Streamed Results</title>"
+      + "<last-modified>2024-01-01T00:00:00Z</last-modified>"
+      + "<version>1.0</version><oscal-version>1.1.2</oscal-version></metadata>\n"
+      + "  <import-ap href=\"ap.xml\"/>\n"
+      + "  <result uuid=\"8a6e7b0e-5c41-4b4b-8bb4-7d3e4fc1a010\">\n"
+      + "    <title>Result</title><description><p>A result.</p></description>"
+      + "<start>2024-01-01T00:00:00Z</start>\n"
+      + "    <reviewed-controls><control-selection><include-all/></control-selection></reviewed-controls>\n"
+      + "    <observation uuid=\"" + OBSERVATION_1 + "\"><description><p>First <em>observation</em>.</p>"
+      + "</description><method>TEST</method><collected>2024-01-01T00:00:00Z</collected></observation>\n"
+      + "    <observation uuid=\"" + OBSERVATION_2 + "\"><description><p>Second observation.</p>"
+      + "</description><method>TEST</method><collected>2024-01-01T00:00:00Z</collected></observation>\n"
+      + "    <finding uuid=\"" + FINDING_1 + "\"><title>Finding</title><description><p>A finding.</p>"
+      + "</description><target type=\"objective-id\" target-id=\"ac-1_obj\"><status><state>satisfied</state>"
+      + "</status></target></finding>\n"
+      + "  </result>\n"
+      + "  <back-matter><resource uuid=\"" + RESOURCE_1 + "\"><title>Evidence</title>"
+      + "</resource></back-matter>\n"
+      + "</assessment-results>\n";
+
+  @NonNull
+  private static AssessmentResults load() throws IOException {
+    IDeserializer<AssessmentResults> deserializer
+        = OscalBindingContext.instance().newDeserializer(Format.XML, AssessmentResults.class);
+    deserializer.disableFeature(DeserializationFeature.DESERIALIZE_VALIDATE_CONSTRAINTS);
+    return deserializer.deserialize(new StringReader(XML), ObjectUtils.notNull(URI.create("file:/results")));
+  }
+
+  @ParameterizedTest
+  @EnumSource(Format.class)
+  void testRoundTrip(@NonNull Format format) throws IOException {
+    AssessmentResults shell = load();
+    Result result = shell.getResults().get(0);
+    List<Observation> observations = result.getObservations();
+    List<Finding> findings = result.getFindings();
+    result.setObservations(null);
+    result.setFindings(null);
+
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    try (OscalStreamWriter writer = OscalBindingContext.instance().newStreamWriter(format, shell)
+        .slot(StreamedItemType.OBSERVATION, Observation.class, result::setObservations, Observation::new)
+        .slot(StreamedItemType.FINDING, Finding.class, result::setFindings, Finding::new)
+        .open(os)) {
+      for (Observation observation : observations) {
+        writer.write(StreamedItemType.OBSERVATION, ObjectUtils.notNull(observation));
+      }
+      writer.write(StreamedItemType.FINDING, ObjectUtils.notNull(findings.get(0)));
+      assertEquals(3, writer.getItemCount());
+
+      // the back-matter is written when the writer is closed
+      BackMatter.Resource resource = new BackMatter.Resource();
+      resource.setUuid(UUID.fromString(RESOURCE_2));
+      shell.getBackMatter().getResources().add(resource);
+    }
+    // the shell is left as it was provided
+    assertNotNull(shell.getMetadata());
+    assertNotNull(shell.getBackMatter());
+
+    try (OscalStreamReader reader = OscalStreamReader.open(
+        OscalBindingContext.instance(),
+        new ByteArrayInputStream(os.toByteArray()),
+        ObjectUtils.notNull(URI.create("file:/written")),
+        ObjectUtils.notNull(EnumSet.of(StreamedItemType.OBSERVATION, StreamedItemType.FINDING)))) {
+      assertEquals(format, reader.getFormat());
+      assertEquals("Streamed Results", ObjectUtils.requireNonNull(reader.getMetadata()).getTitle().toMarkdown());
+
+      List<String> uuids = new ArrayList<>();
+      reader.forEachRemaining(item -> uuids.add(item.getType() == StreamedItemType.OBSERVATION
+          ? item.getValue(Observation.class).getUuid().toString()
+          : item.getValue(Finding.class).getUuid().toString()));
+      assertEquals(List.of(OBSERVATION_1, OBSERVATION_2, FINDING_1), uuids);
+    }
+
+    IDeserializer<AssessmentResults> deserializer
+        = OscalBindingContext.instance().newDeserializer(format, AssessmentResults.class);
+    deserializer.disableFeature(DeserializationFeature.DESERIALIZE_VALIDATE_CONSTRAINTS);
+    AssessmentResults written = deserializer.deserialize(
+        new ByteArrayInputStream(os.toByteArray()),
+        ObjectUtils.notNull(URI.create("file:/written")));
+    assertEquals(List.of(RESOURCE_1, RESOURCE_2), written.getBackMatter().getResources().stream()
+        .map(resource -> resource.getUuid().toString())
+        .collect(Collectors.toList()));
+    assertEquals(2, written.getResults().get(0).getObservations().size());
+  }
+
+  @ParameterizedTest
+  @EnumSource(Format.class)
+  void testOutOfOrder(@NonNull Format format) throws IOException {
+    AssessmentResults shell = load();
+    Result result = shell.getResults().get(0);
+    Observation observation = result.getObservations().get(0);
+    Finding finding = result.getFindings().get(0);
+    result.setObservations(null);
+    result.setFindings(null);
+
+    try (OscalStreamWriter writer = OscalBindingContext.instance().newStreamWriter(format, shell)
+        .slot(StreamedItemType.OBSERVATION, Observation.class, result::setObservations, Observation::new)
+        .slot(StreamedItemType.FINDING, Finding.class, result::setFindings, Finding::new)
+        .open(new ByteArrayOutputStream())) {
+      writer.write(StreamedItemType.FINDING, ObjectUtils.notNull(finding));
+      assertThrows(IllegalStateException.class,
+          () -> writer.write(StreamedItemType.OBSERVATION, ObjectUtils.notNull(observation)));
+      assertThrows(IllegalArgumentException.class,
+          () -> writer.write(StreamedItemType.RISK, ObjectUtils.notNull(observation)));
+    }
+  }
+}
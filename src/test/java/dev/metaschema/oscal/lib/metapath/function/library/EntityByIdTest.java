@@ -0,0 +1,162 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.metapath.function.library;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import dev.metaschema.core.metapath.IMetapathExpression;
+import dev.metaschema.core.metapath.StaticContext;
+import dev.metaschema.core.metapath.item.node.IDocumentNodeItem;
+import dev.metaschema.core.metapath.item.node.IFlagNodeItem;
+import dev.metaschema.core.metapath.item.node.IModelNodeItem;
+import dev.metaschema.core.metapath.item.node.INodeItem;
+import dev.metaschema.core.metapath.item.node.INodeItemFactory;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.model.IBoundDefinitionModelAssembly;
+import dev.metaschema.oscal.lib.OscalBindingContext;
+import dev.metaschema.oscal.lib.OscalModelConstants;
+import dev.metaschema.oscal.lib.model.BackMatter;
+import dev.metaschema.oscal.lib.model.BackMatter.Resource;
+import dev.metaschema.oscal.lib.model.BackMatter.Resource.Rlink;
+import dev.metaschema.oscal.lib.model.Catalog;
+import dev.metaschema.oscal.lib.model.Control;
+import dev.metaschema.oscal.lib.model.control.AbstractParameter;
+import dev.metaschema.oscal.lib.model.control.AbstractPart;
+import dev.metaschema.oscal.lib.model.control.catalog.AbstractCatalogGroup;
+import dev.metaschema.oscal.lib.model.control.catalog.AbstractControl;
+import dev.metaschema.oscal.lib.profile.resolver.support.IEntityItem;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class EntityByIdTest {
+  private static final UUID RESOURCE_UUID = UUID.fromString("2f6c9a1e-8d3b-4e7a-b5c4-9a0e1d2c3b4f");
+
+  @NonNull
+  private static final StaticContext STATIC_CONTEXT = OscalBindingContext.OSCAL_STATIC_METAPATH_CONTEXT.buildFrom()
+      .namespace("oscal", OscalModelConstants.NS_OSCAL)
+      .build();
+
+  @NonNull
+  private static IDocumentNodeItem newCatalog() {
+    Catalog catalog = new Catalog();
+    catalog.addGroup(AbstractCatalogGroup.builder("group1")
+        .title("Group 1")
+        .control(AbstractControl.builder("control1")
+            .title("Control 1")
+            .param(AbstractParameter.builder("param1")
+                .build())
+            .part(AbstractPart.builder("statement")
+                .id("control1_smt")
+                .prose("Statement.")
+                .build())
+            .control(AbstractControl.builder("control1.1")
+                .title("Control 1.1")
+                .build())
+            .build())
+        .build());
+
+    Rlink rlink = new Rlink();
+    rlink.setHref(URI.create("https://example.com/resource"));
+    Resource resource = new Resource();
+    resource.setUuid(RESOURCE_UUID);
+    resource.addRlink(rlink);
+    BackMatter backMatter = new BackMatter();
+    backMatter.addResource(resource);
+    catalog.setBackMatter(backMatter);
+
+    return INodeItemFactory.instance().newDocumentNodeItem(
+        ObjectUtils.requireNonNull(
+            (IBoundDefinitionModelAssembly) OscalBindingContext.instance().getBoundDefinitionForClass(Catalog.class)),
+        ObjectUtils.notNull(Paths.get(System.getProperty("user.dir")).toUri()),
+        catalog);
+  }
+
+  @NonNull
+  private static List<String> evaluateStrings(@NonNull String expression, @NonNull INodeItem focus) {
+    return IMetapathExpression.compile(expression, STATIC_CONTEXT)
+        .evaluate(focus).stream()
+        .map(item -> ((IFlagNodeItem) item).toAtomicItem().asString())
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  void testLookup() {
+    IDocumentNodeItem document = newCatalog();
+
+    IModelNodeItem<?, ?> control = EntityById.lookup(document, IEntityItem.ItemType.CONTROL, "control1.1");
+    assertNotNull(control);
+    assertEquals("control1.1", ((Control) INodeItem.toValue(control)).getId());
+    assertNull(EntityById.lookup(document, IEntityItem.ItemType.CONTROL, "missing"));
+
+    IModelNodeItem<?, ?> resource
+        = EntityById.lookup(document, IEntityItem.ItemType.RESOURCE, RESOURCE_UUID.toString());
+    assertNotNull(resource);
+    assertEquals(RESOURCE_UUID, ((Resource) INodeItem.toValue(resource)).getUuid());
+  }
+
+  @Test
+  void testInvalidateIndex() {
+    IDocumentNodeItem document = newCatalog();
+
+    assertNotNull(EntityById.lookup(document, IEntityItem.ItemType.PARAMETER, "param1"));
+    assertTrue(DocumentEntityIndex.isIndexed(document));
+
+    EntityById.invalidateIndex(document);
+    assertFalse(DocumentEntityIndex.isIndexed(document));
+
+    // the index is rebuilt on the next lookup
+    assertNotNull(EntityById.lookup(document, IEntityItem.ItemType.PARAMETER, "param1"));
+  }
+
+  @NonNull
+  private static WeakReference<IDocumentNodeItem> newIndexedCatalog() {
+    IDocumentNodeItem document = newCatalog();
+    assertNotNull(EntityById.lookup(document, IEntityItem.ItemType.CONTROL, "control1"));
+    return new WeakReference<>(document);
+  }
+
+  @Test
+  void testIndexedDocumentIsCollectable() throws InterruptedException {
+    WeakReference<IDocumentNodeItem> reference = newIndexedCatalog();
+
+    // the index must not keep the document reachable
+    for (int i = 0; i < 50 && reference.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertNull(reference.get());
+  }
+
+  @Test
+  void testFunctions() {
+    IDocumentNodeItem document = newCatalog();
+
+    assertEquals(List.of("control1.1"), evaluateStrings("oscal:control-by-id('control1.1')/@id", document));
+    assertEquals(List.of("param1"), evaluateStrings("oscal:param-by-id('param1')/@id", document));
+    assertEquals(List.of("statement"), evaluateStrings("oscal:part-by-id('control1_smt')/@name", document));
+    assertEquals(List.of(), evaluateStrings("oscal:control-by-id('missing')/@id", document));
+    assertEquals(
+        List.of(RESOURCE_UUID.toString()),
+        evaluateStrings("oscal:resource-by-uuid('" + RESOURCE_UUID + "')/@uuid", document));
+
+    // the focus can be any node in the document
+    assertEquals(
+        List.of("control1"),
+        evaluateStrings("//control[@id='control1.1']/oscal:param-by-id('param1')/../@id", document));
+  }
+}
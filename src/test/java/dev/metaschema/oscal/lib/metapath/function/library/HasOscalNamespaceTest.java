@@ -0,0 +1,98 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.metapath.function.library;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import dev.metaschema.core.metapath.IMetapathExpression;
+import dev.metaschema.core.metapath.item.node.IDocumentNodeItem;
+import dev.metaschema.core.metapath.item.node.IFlagNodeItem;
+import dev.metaschema.core.metapath.item.node.IModelNodeItem;
+import dev.metaschema.core.metapath.item.node.INodeItemFactory;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.model.IBoundDefinitionModelAssembly;
+import dev.metaschema.oscal.lib.OscalBindingContext;
+import dev.metaschema.oscal.lib.model.Catalog;
+import dev.metaschema.oscal.lib.model.control.catalog.AbstractControl;
+import dev.metaschema.oscal.lib.model.metadata.AbstractProperty;
+import dev.metaschema.oscal.lib.model.metadata.IProperty;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class HasOscalNamespaceTest {
+  @NonNull
+  private static IDocumentNodeItem newCatalog() {
+    Catalog catalog = new Catalog();
+    catalog.addControl(AbstractControl.builder("control1")
+        .title("Control 1")
+        .prop(AbstractProperty.builder("oscal-default")
+            .value("value")
+            .build())
+        .prop(AbstractProperty.builder("rmf")
+            .namespace(IProperty.RMF_NAMESPACE)
+            .value("value")
+            .build())
+        .prop(AbstractProperty.builder("other")
+            .namespace(ObjectUtils.notNull(URI.create("https://example.com/ns")))
+            .value("value")
+            .build())
+        .build());
+
+    return INodeItemFactory.instance().newDocumentNodeItem(
+        ObjectUtils.requireNonNull(
+            (IBoundDefinitionModelAssembly) OscalBindingContext.instance().getBoundDefinitionForClass(Catalog.class)),
+        ObjectUtils.notNull(Paths.get(System.getProperty("user.dir")).toUri()),
+        catalog);
+  }
+
+  @NonNull
+  private static List<String> evaluateNames(@NonNull String expression, @NonNull IDocumentNodeItem document) {
+    return IMetapathExpression.compile(expression, OscalBindingContext.OSCAL_STATIC_METAPATH_CONTEXT)
+        .evaluate(document).stream()
+        .map(item -> ((IFlagNodeItem) item).toAtomicItem().asString())
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  void testHasNamespace() {
+    IDocumentNodeItem document = newCatalog();
+
+    assertEquals(
+        List.of("oscal-default"),
+        evaluateNames("//prop[has-oscal-namespace('" + IProperty.OSCAL_NAMESPACE + "')]/@name", document));
+    assertEquals(
+        List.of("oscal-default", "rmf"),
+        evaluateNames("//prop[has-oscal-namespace(('" + IProperty.OSCAL_NAMESPACE + "','"
+            + IProperty.RMF_NAMESPACE + "'))]/@name", document));
+    assertEquals(
+        List.of(),
+        evaluateNames("//prop[has-oscal-namespace('https://example.com/missing')]/@name", document));
+  }
+
+  @Test
+  void testHasNamespaceSet() {
+    IDocumentNodeItem document = newCatalog();
+    List<IModelNodeItem<?, ?>> props = IMetapathExpression.compile("//prop",
+        OscalBindingContext.OSCAL_STATIC_METAPATH_CONTEXT)
+        .evaluate(document).stream()
+        .map(item -> (IModelNodeItem<?, ?>) item)
+        .collect(Collectors.toList());
+
+    Set<String> namespaces = Set.of(IProperty.RMF_NAMESPACE.toString(), "https://example.com/ns");
+    assertFalse(HasOscalNamespace.hasNamespace(ObjectUtils.notNull(props.get(0)), namespaces));
+    assertTrue(HasOscalNamespace.hasNamespace(ObjectUtils.notNull(props.get(1)), namespaces));
+    assertTrue(HasOscalNamespace.hasNamespace(ObjectUtils.notNull(props.get(2)), namespaces));
+  }
+}
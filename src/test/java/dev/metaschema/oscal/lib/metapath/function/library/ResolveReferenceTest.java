@@ -0,0 +1,88 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.metapath.function.library;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import dev.metaschema.core.metapath.item.atomic.IAnyUriItem;
+import dev.metaschema.core.metapath.item.node.IDocumentNodeItem;
+import dev.metaschema.core.metapath.item.node.INodeItemFactory;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.model.IBoundDefinitionModelAssembly;
+import dev.metaschema.oscal.lib.OscalBindingContext;
+import dev.metaschema.oscal.lib.model.BackMatter;
+import dev.metaschema.oscal.lib.model.BackMatter.Resource;
+import dev.metaschema.oscal.lib.model.BackMatter.Resource.Rlink;
+import dev.metaschema.oscal.lib.model.Catalog;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class ResolveReferenceTest {
+  private static final UUID RESOURCE_UUID = UUID.fromString("8b8f8a3c-5e53-4a2b-9d42-0d6f2ed0a1b7");
+
+  @NonNull
+  private static Resource newResource(@NonNull String href) {
+    Rlink rlink = new Rlink();
+    rlink.setHref(URI.create(href));
+
+    Resource resource = new Resource();
+    resource.setUuid(RESOURCE_UUID);
+    resource.addRlink(rlink);
+    return resource;
+  }
+
+  @Test
+  void testCachedResolution() {
+    BackMatter backMatter = new BackMatter();
+    backMatter.addResource(newResource("https://example.com/first"));
+
+    Catalog catalog = new Catalog();
+    catalog.setBackMatter(backMatter);
+
+    IDocumentNodeItem document = INodeItemFactory.instance().newDocumentNodeItem(
+        ObjectUtils.requireNonNull(
+            (IBoundDefinitionModelAssembly) OscalBindingContext.instance().getBoundDefinitionForClass(Catalog.class)),
+        ObjectUtils.notNull(Paths.get(System.getProperty("user.dir")).toUri()),
+        catalog);
+
+    IAnyUriItem reference = IAnyUriItem.valueOf("#" + RESOURCE_UUID);
+    assertEquals(
+        URI.create("https://example.com/first"),
+        ResolveReference.resolveReference(reference, null, document).asUri());
+    assertEquals(
+        URI.create("https://example.com/first"),
+        ResolveReference.resolveReference(reference, null, document).asUri());
+
+    // replacing the resource is detected
+    backMatter.setResources(new ArrayList<>(List.of(newResource("https://example.com/second"))));
+    assertEquals(
+        URI.create("https://example.com/second"),
+        ResolveReference.resolveReference(reference, null, document).asUri());
+
+    // changing the rlinks of an existing resource requires invalidation
+    ObjectUtils.requireNonNull(backMatter.getResources()).get(0).getRlinks().get(0)
+        .setHref(URI.create("https://example.com/third"));
+    assertEquals(
+        URI.create("https://example.com/second"),
+        ResolveReference.resolveReference(reference, null, document).asUri());
+    ResolveReference.invalidateCache(document);
+    assertEquals(
+        URI.create("https://example.com/third"),
+        ResolveReference.resolveReference(reference, null, document).asUri());
+
+    // references to other documents are not resolved
+    IAnyUriItem external = IAnyUriItem.valueOf("catalog.xml#" + RESOURCE_UUID);
+    assertSame(external, ResolveReference.resolveReference(external, null, document));
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.metapath.function.library;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import dev.metaschema.core.metapath.DynamicContext;
+import dev.metaschema.core.metapath.item.node.IDocumentNodeItem;
+import dev.metaschema.core.metapath.item.node.INodeItemFactory;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.model.IBoundDefinitionModelAssembly;
+import dev.metaschema.oscal.lib.OscalBindingContext;
+import dev.metaschema.oscal.lib.model.Catalog;
+import dev.metaschema.oscal.lib.model.Profile;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class ResolvedProfileCacheTest {
+
+  @NonNull
+  private static IDocumentNodeItem newDocument(@NonNull Class<?> clazz, @NonNull Object value) {
+    return INodeItemFactory.instance().newDocumentNodeItem(
+        ObjectUtils.requireNonNull(
+            (IBoundDefinitionModelAssembly) OscalBindingContext.instance().getBoundDefinitionForClass(clazz)),
+        ObjectUtils.notNull(Paths.get(System.getProperty("user.dir"), "profile.xml").toUri()),
+        value);
+  }
+
+  @AfterEach
+  void reset() {
+    ResolvedProfileCache.instance().setEnabled(true);
+    ResolvedProfileCache.instance().setSharedCacheSize(0);
+    ResolvedProfileCache.instance().clear();
+  }
+
+  @NonNull
+  private static Profile newProfile(@NonNull String uuid) {
+    Profile retval = new Profile();
+    retval.setUuid(UUID.fromString(uuid));
+    return retval;
+  }
+
+  @Test
+  void testPerContextCaching() {
+    IDocumentNodeItem profile = newDocument(Profile.class, new Profile());
+    IDocumentNodeItem resolved = newDocument(Catalog.class, new Catalog());
+
+    AtomicInteger count = new AtomicInteger();
+    Function<IDocumentNodeItem, IDocumentNodeItem> resolver = item -> {
+      count.incrementAndGet();
+      return resolved;
+    };
+
+    ResolvedProfileCache cache = ResolvedProfileCache.instance();
+    DynamicContext context = new DynamicContext(OscalBindingContext.OSCAL_STATIC_METAPATH_CONTEXT);
+    assertSame(resolved, cache.resolve(profile, context, resolver));
+    assertSame(resolved, cache.resolve(profile, context, resolver));
+    assertEquals(1, count.get());
+
+    // a different context resolves again
+    DynamicContext otherContext = new DynamicContext(OscalBindingContext.OSCAL_STATIC_METAPATH_CONTEXT);
+    assertSame(resolved, cache.resolve(profile, otherContext, resolver));
+    assertEquals(2, count.get());
+
+    // disabling the cache resolves every time
+    cache.setEnabled(false);
+    cache.resolve(profile, context, resolver);
+    cache.resolve(profile, context, resolver);
+    assertEquals(4, count.get());
+  }
+
+  @Test
+  void testSharedCaching() {
+    IDocumentNodeItem profile = newDocument(Profile.class, newProfile("6b1e3c2a-0f4d-4e5a-9b8c-7d6e5f4a3b21"));
+    IDocumentNodeItem sameProfile = newDocument(Profile.class, newProfile("6b1e3c2a-0f4d-4e5a-9b8c-7d6e5f4a3b21"));
+    IDocumentNodeItem changedProfile
+        = newDocument(Profile.class, newProfile("0c9d8e7f-6a5b-4c3d-8e2f-1a0b9c8d7e6f"));
+    IDocumentNodeItem resolved = newDocument(Catalog.class, new Catalog());
+
+    AtomicInteger count = new AtomicInteger();
+    Function<IDocumentNodeItem, IDocumentNodeItem> resolver = item -> {
+      count.incrementAndGet();
+      return resolved;
+    };
+
+    ResolvedProfileCache cache = ResolvedProfileCache.instance();
+    cache.setSharedCacheSize(4);
+
+    // the key is computed from the loaded content, so the same content at the
+    // same location is shared across contexts
+    cache.resolve(profile, new DynamicContext(OscalBindingContext.OSCAL_STATIC_METAPATH_CONTEXT), resolver);
+    cache.resolve(sameProfile, new DynamicContext(OscalBindingContext.OSCAL_STATIC_METAPATH_CONTEXT), resolver);
+    assertEquals(1, count.get());
+
+    // changed content at the same location is resolved again
+    cache.resolve(changedProfile, new DynamicContext(OscalBindingContext.OSCAL_STATIC_METAPATH_CONTEXT), resolver);
+    assertEquals(2, count.get());
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.control.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import dev.metaschema.core.datatype.markup.MarkupLine;
+import dev.metaschema.core.datatype.markup.MarkupMultiline;
+import dev.metaschema.oscal.lib.model.Catalog;
+import dev.metaschema.oscal.lib.model.CatalogGroup;
+import dev.metaschema.oscal.lib.model.Control;
+import dev.metaschema.oscal.lib.model.Metadata;
+import dev.metaschema.oscal.lib.model.control.AbstractParameter;
+import dev.metaschema.oscal.lib.model.control.AbstractPart;
+import dev.metaschema.oscal.lib.model.control.catalog.CatalogChange.ChangeType;
+import dev.metaschema.oscal.lib.profile.resolver.support.IEntityItem.ItemType;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class CatalogDiffTest {
+
+  @NonNull
+  private static Catalog newCatalog() {
+    Catalog catalog = new Catalog();
+    catalog.addGroup(AbstractCatalogGroup.builder("group1")
+        .title("Group 1")
+        .control(AbstractControl.builder("control1")
+            .title("Control 1")
+            .param(AbstractParameter.builder("param1").label("Parameter 1").build())
+            .part(AbstractPart.builder("statement")
+                .id("control1_smt")
+                .prose("Do the thing.")
+                .build())
+            .control(AbstractControl.builder("control1.1")
+                .title("Control 1.1")
+                .build())
+            .build())
+        .control(AbstractControl.builder("control2")
+            .title("Control 2")
+            .build())
+        .build());
+    catalog.addControl(AbstractControl.builder("control3")
+        .title("Control 3")
+        .build());
+    return catalog;
+  }
+
+  @NonNull
+  private static List<String> ids(@NonNull List<CatalogChange> changes) {
+    return changes.stream()
+        .map(CatalogChange::getIdentifier)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  void testIdentical() {
+    assertTrue(CatalogDiff.compare(newCatalog(), newCatalog()).isEmpty());
+  }
+
+  @Test
+  void testChanges() {
+    Catalog oldCatalog = newCatalog();
+    Catalog newCatalog = newCatalog();
+
+    CatalogGroup group = newCatalog.getGroups().get(0);
+    Control control1 = group.getControls().get(0);
+    // modify a part's prose
+    control1.getParts().get(0).setProse(MarkupMultiline.fromMarkdown("Do the other thing."));
+    // remove control1.1
+    control1.setControls(null);
+    // move control2 to the catalog
+    Control control2 = group.getControls().remove(1);
+    newCatalog.addControl(control2);
+    // add control4
+    newCatalog.addControl(AbstractControl.builder("control4")
+        .title("Control 4")
+        .build());
+
+    CatalogDiff diff = CatalogDiff.compare(oldCatalog, newCatalog);
+
+    assertEquals(List.of("control1.1"), ids(diff.getChanges(ItemType.CONTROL, ChangeType.REMOVED)));
+    assertEquals(List.of("control4"), ids(diff.getChanges(ItemType.CONTROL, ChangeType.ADDED)));
+    assertEquals(List.of("control1_smt"), ids(diff.getChanges(ItemType.PART, ChangeType.MODIFIED)));
+    assertEquals(List.of(), ids(diff.getChanges(ItemType.CONTROL, ChangeType.MODIFIED)));
+
+    List<CatalogChange> moved = diff.getChanges(ItemType.CONTROL, ChangeType.MOVED);
+    assertEquals(List.of("control2"), ids(moved));
+    assertEquals("group1", moved.get(0).getOldParentId());
+    assertNull(moved.get(0).getNewParentId());
+
+    CatalogChange part = diff.getChanges(ItemType.PART, ChangeType.MODIFIED).get(0);
+    assertEquals(List.of("prose"), part.getFieldChanges().stream()
+        .map(CatalogChange.FieldChange::getName)
+        .collect(Collectors.toList()));
+    assertEquals("Do the other thing.", ((MarkupMultiline) part.getFieldChanges().get(0).getNewValue()).toMarkdown());
+
+    assertEquals(Set.of("control1.1", "control2", "control4"), diff.getChangedControlIds());
+  }
+
+  @Test
+  void testModifiedControl() {
+    Catalog oldCatalog = newCatalog();
+    Catalog newCatalog = newCatalog();
+    newCatalog.getControls().get(0).setClazz("SP800-53");
+
+    CatalogDiff diff = CatalogDiff.compare(oldCatalog, newCatalog);
+    assertEquals(1, diff.getChanges().size());
+
+    CatalogChange change = diff.getChanges().get(0);
+    assertEquals("control3", change.getIdentifier());
+    assertEquals(Set.of(ChangeType.MODIFIED), change.getChangeTypes());
+    assertEquals("class", change.getFieldChanges().get(0).getName());
+    assertNull(change.getFieldChanges().get(0).getOldValue());
+  }
+
+  @Test
+  void testUnidentifiedGroup() {
+    Catalog oldCatalog = newCatalog();
+    Catalog newCatalog = newCatalog();
+    oldCatalog.getGroups().get(0).setId(null);
+    CatalogGroup group = newCatalog.getGroups().get(0);
+    group.setId(null);
+    group.setTitle(MarkupLine.fromMarkdown("Renamed Group"));
+    group.getControls().get(1).setClazz("SP800-53");
+
+    CatalogDiff diff = CatalogDiff.compare(oldCatalog, newCatalog);
+    assertFalse(diff.isEmpty());
+    assertEquals(List.of(), ids(diff.getChanges(ItemType.GROUP, ChangeType.MODIFIED)));
+    assertEquals(List.of("control2"), ids(diff.getChanges(ItemType.CONTROL, ChangeType.MODIFIED)));
+
+    // the group is reported as a change to the catalog's groups, excluding its controls
+    assertEquals(List.of("group"), diff.getCatalogChanges().stream()
+        .map(CatalogChange.FieldChange::getName)
+        .collect(Collectors.toList()));
+    CatalogGroup changed = (CatalogGroup) ((List<?>) diff.getCatalogChanges().get(0).getNewValue()).get(0);
+    assertEquals("Renamed Group", changed.getTitle().toMarkdown());
+  }
+
+  @Test
+  void testCatalogFields() {
+    Catalog oldCatalog = newCatalog();
+    Catalog newCatalog = newCatalog();
+    newCatalog.setMetadata(new Metadata());
+    newCatalog.getMetadata().setTitle(MarkupLine.fromMarkdown("New Title"));
+
+    CatalogDiff diff = CatalogDiff.compare(oldCatalog, newCatalog);
+    assertFalse(diff.isEmpty());
+    assertTrue(diff.getChanges().isEmpty());
+    assertEquals(List.of("metadata"), diff.getCatalogChanges().stream()
+        .map(CatalogChange.FieldChange::getName)
+        .collect(Collectors.toList()));
+    assertNull(diff.getCatalogChanges().get(0).getOldValue());
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.control.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import dev.metaschema.oscal.lib.model.Catalog;
+import dev.metaschema.oscal.lib.model.CatalogGroup;
+import dev.metaschema.oscal.lib.model.Control;
+import dev.metaschema.oscal.lib.model.control.AbstractParameter;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class CatalogIndexTest {
+
+  @NonNull
+  private static Catalog newCatalog() {
+    Catalog catalog = new Catalog();
+    catalog.addGroup(AbstractCatalogGroup.builder("group1")
+        .title("Group 1")
+        .group(AbstractCatalogGroup.builder("group2")
+            .title("Group 2")
+            .control(AbstractControl.builder("control1")
+                .title("Control 1")
+                .param(AbstractParameter.builder("param1").build())
+                .control(AbstractControl.builder("control1.1")
+                    .title("Control 1.1")
+                    .build())
+                .build())
+            .build())
+        .control(AbstractControl.builder("control2")
+            .title("Control 2")
+            .build())
+        .build());
+    catalog.addControl(AbstractControl.builder("control3")
+        .title("Control 3")
+        .build());
+    catalog.addParam(AbstractParameter.builder("param2").build());
+    return catalog;
+  }
+
+  @NonNull
+  private static List<String> controlIds(@NonNull Catalog catalog) {
+    return catalog.controlsRecursively()
+        .map(Control::getId)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  void testLookup() {
+    Catalog catalog = newCatalog();
+
+    assertEquals("control1.1", catalog.getControlById("control1.1").getId());
+    assertEquals("control3", catalog.getControlById("control3").getId());
+    assertEquals("group2", catalog.getGroupById("group2").getId());
+    assertEquals("param1", catalog.getParameterById("param1").getId());
+    assertEquals("param2", catalog.getParameterById("param2").getId());
+    assertNull(catalog.getControlById("group1"));
+    assertNull(catalog.getGroupById("missing"));
+
+    assertEquals(List.of("control1", "control1.1", "control2", "control3"), controlIds(catalog));
+    assertEquals(
+        controlIds(catalog),
+        catalog.controlsRecursively().parallel().map(Control::getId).collect(Collectors.toList()));
+  }
+
+  @Test
+  void testStructuralChanges() {
+    Catalog catalog = newCatalog();
+    assertNull(catalog.getControlById("control4"));
+
+    // an added item is found once the index is invalidated, since the failed
+    // lookup is remembered
+    Control control4 = AbstractControl.builder("control4")
+        .title("Control 4")
+        .build();
+    catalog.getControlById("control1").addControl(control4);
+    assertNull(catalog.getControlById("control4"));
+    catalog.invalidateIndexes();
+    assertSame(control4, catalog.getControlById("control4"));
+    assertEquals(List.of("control1", "control1.1", "control4", "control2", "control3"), controlIds(catalog));
+
+    // an added item that was not looked up before is found
+    Control control5 = AbstractControl.builder("control5")
+        .title("Control 5")
+        .build();
+    catalog.getControlById("control2").addControl(control5);
+    assertSame(control5, catalog.getControlById("control5"));
+
+    // a removed item is not found
+    catalog.getControlById("control1").removeControl(control4);
+    assertNull(catalog.getControlById("control4"));
+
+    // an item whose ancestor was removed is not found
+    catalog.getGroupById("group1").removeGroup(catalog.getGroupById("group2"));
+    assertNull(catalog.getControlById("control1.1"));
+    assertNull(catalog.getParameterById("param1"));
+    assertEquals(List.of("control2", "control5", "control3"), controlIds(catalog));
+
+    // a replaced list is found
+    CatalogGroup group3 = AbstractCatalogGroup.builder("group3")
+        .title("Group 3")
+        .build();
+    catalog.setGroups(List.of(group3));
+    assertSame(group3, catalog.getGroupById("group3"));
+    assertEquals(List.of("control3"), controlIds(catalog));
+
+    // a changed identifier is detected
+    catalog.getControlById("control3").setId("control6");
+    assertNull(catalog.getControlById("control3"));
+    assertEquals("control6", catalog.getControlById("control6").getId());
+  }
+
+  @Test
+  void testMovedItems() {
+    Catalog catalog = newCatalog();
+    Control control1 = catalog.getControlById("control1");
+    Control control3 = catalog.getControlById("control3");
+
+    // an item moved to another container is found at its new location
+    catalog.getGroupById("group2").removeControl(control1);
+    catalog.addControl(control1);
+    assertSame(control1, catalog.getControlById("control1"));
+    assertEquals("control1.1", catalog.getControlById("control1.1").getId());
+    assertEquals(List.of("control2", "control3", "control1", "control1.1"), controlIds(catalog));
+
+    // an item whose position shifted is still found
+    Control control0 = AbstractControl.builder("control0")
+        .title("Control 0")
+        .build();
+    catalog.getControls().add(0, control0);
+    assertSame(control3, catalog.getControlById("control3"));
+    assertSame(control0, catalog.getControlById("control0"));
+  }
+}
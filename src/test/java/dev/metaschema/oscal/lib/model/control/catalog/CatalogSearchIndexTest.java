@@ -0,0 +1,122 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.control.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import dev.metaschema.oscal.lib.model.Catalog;
+import dev.metaschema.oscal.lib.model.control.AbstractParameter;
+import dev.metaschema.oscal.lib.model.control.AbstractPart;
+import dev.metaschema.oscal.lib.model.metadata.AbstractProperty;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class CatalogSearchIndexTest {
+
+  @NonNull
+  private static CatalogSearchIndex newIndex() {
+    Catalog catalog = new Catalog();
+    catalog.addGroup(AbstractCatalogGroup.builder("ac")
+        .title("Access Control")
+        .control(AbstractControl.builder("ac-1")
+            .title("Access Control Policy")
+            .param(AbstractParameter.builder("ac-1_prm_1")
+                .label("organization-defined personnel")
+                .build())
+            .part(AbstractPart.builder("statement")
+                .id("ac-1_smt")
+                .prose("Develop a policy for {{ insert: param, ac-1_prm_1 }}.")
+                .part(AbstractPart.builder("item")
+                    .id("ac-1_smt.a")
+                    .prose("Review the access policy annually.")
+                    .build())
+                .build())
+            .control(AbstractControl.builder("ac-1.1")
+                .title("Automated Account Management")
+                .prop(AbstractProperty.builder("label").value("AC-1(1)").build())
+                .build())
+            .build())
+        .control(AbstractControl.builder("ac-2")
+            .title("Account Management")
+            .part(AbstractPart.builder("statement")
+                .id("ac-2_smt")
+                .prose("Manage system accounts and review the access rights. "
+                    + "See the **[guide](https://example.com/guidance)**.")
+                .build())
+            .build())
+        .build());
+    return CatalogSearchIndex.builder().add(catalog).build();
+  }
+
+  @NonNull
+  private static List<String> controlIds(@NonNull List<CatalogSearchIndex.Result> results) {
+    return results.stream()
+        .map(CatalogSearchIndex.Result::getControlId)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  void testTermQuery() {
+    CatalogSearchIndex index = newIndex();
+
+    List<CatalogSearchIndex.Result> results = index.search("policy");
+    assertEquals(List.of("ac-1"), controlIds(results));
+    assertEquals(Set.of("ac-1_smt", "ac-1_smt.a"), results.get(0).getPartIds());
+
+    // parameter labels are attributed to the owning control
+    assertEquals(List.of("ac-1"), controlIds(index.search("Personnel")));
+    // property values are indexed
+    assertEquals(List.of("ac-1.1"), controlIds(index.search("AC-1(1)")));
+    // inserts are not indexed
+    assertTrue(index.search("insert").isEmpty());
+  }
+
+  @Test
+  void testRanking() {
+    CatalogSearchIndex index = newIndex();
+
+    // title matches rank above prose matches
+    assertEquals(List.of("ac-1", "ac-2"), controlIds(index.search("access")));
+    assertEquals(List.of("ac-1"), controlIds(index.search("access", 1)));
+    // all terms must match
+    assertEquals(List.of("ac-2"), controlIds(index.search("access rights")));
+  }
+
+  @Test
+  void testPrefixQuery() {
+    CatalogSearchIndex index = newIndex();
+
+    assertEquals(List.of("ac-1.1"), controlIds(index.search("autom* accou*")));
+    assertEquals(Set.of("ac-1.1", "ac-2"), Set.copyOf(controlIds(index.search("accou*"))));
+    assertTrue(index.search("accou").isEmpty());
+    assertTrue(index.search("zzz*").isEmpty());
+  }
+
+  @Test
+  void testMarkupText() {
+    CatalogSearchIndex index = newIndex();
+
+    // the text of a link is indexed, but not its URL
+    assertEquals(List.of("ac-2"), controlIds(index.search("guide")));
+    assertTrue(index.search("guidance").isEmpty());
+    assertTrue(index.search("https").isEmpty());
+  }
+
+  @Test
+  void testNegativeLimit() {
+    CatalogSearchIndex index = newIndex();
+
+    assertTrue(index.search("access", 0).isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> index.search("access", -1));
+  }
+}
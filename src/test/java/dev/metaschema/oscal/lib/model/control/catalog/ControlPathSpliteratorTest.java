@@ -0,0 +1,114 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.control.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import dev.metaschema.core.util.CollectionUtil;
+import dev.metaschema.oscal.lib.model.Catalog;
+import dev.metaschema.oscal.lib.model.Control;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class ControlPathSpliteratorTest {
+
+  @NonNull
+  private static Catalog newCatalog() {
+    Catalog catalog = new Catalog();
+    for (int groupIndex = 1; groupIndex <= 3; groupIndex++) {
+      AbstractCatalogGroup.Builder group = AbstractCatalogGroup.builder("g" + groupIndex)
+          .title("Group " + groupIndex);
+      for (int controlIndex = 1; controlIndex <= 4; controlIndex++) {
+        String id = "g" + groupIndex + "-" + controlIndex;
+        group.control(AbstractControl.builder(id)
+            .title("Control " + id)
+            .control(AbstractControl.builder(id + ".1")
+                .title("Control " + id + ".1")
+                .build())
+            .build());
+      }
+      catalog.addGroup(group.build());
+    }
+    catalog.addControl(AbstractControl.builder("c1")
+        .title("Control c1")
+        .build());
+    return catalog;
+  }
+
+  @NonNull
+  private static String toString(@NonNull ControlPath path) {
+    Control parent = path.getParentControl();
+    return String.join("/", path.getGroupIds())
+        + (parent == null ? "" : "/" + parent.getId())
+        + "/" + path.getControl().getId();
+  }
+
+  @Test
+  void testPaths() {
+    Catalog catalog = newCatalog();
+
+    List<String> paths = catalog.controlPathsRecursively()
+        .map(ControlPathSpliteratorTest::toString)
+        .collect(Collectors.toList());
+    assertEquals(25, paths.size());
+    assertEquals(List.of("g1/g1-1", "g1/g1-1/g1-1.1", "g1/g1-2"), paths.subList(0, 3));
+    assertEquals("/c1", paths.get(24));
+
+    // the paths match the document order of the controls
+    assertEquals(
+        catalog.controlsRecursively().map(Control::getId).collect(Collectors.toList()),
+        catalog.controlPathsRecursively().map(path -> path.getControl().getId()).collect(Collectors.toList()));
+
+    assertEquals(
+        paths,
+        catalog.controlPathsRecursively().parallel()
+            .map(ControlPathSpliteratorTest::toString)
+            .collect(Collectors.toList()));
+  }
+
+  @Test
+  void testSplit() {
+    Catalog catalog = newCatalog();
+    List<String> expected = catalog.controlPathsRecursively()
+        .map(ControlPathSpliteratorTest::toString)
+        .collect(Collectors.toList());
+
+    ControlPathSpliterator spliterator = new ControlPathSpliterator(catalog, CollectionUtil.emptyList());
+    List<String> actual = new ArrayList<>();
+    // start traversal so the split includes nested frames
+    spliterator.tryAdvance(path -> actual.add(toString(path)));
+    spliterator.tryAdvance(path -> actual.add(toString(path)));
+
+    Spliterator<ControlPath> prefix = spliterator.trySplit();
+    assertNotNull(prefix);
+    Spliterator<ControlPath> prefixOfPrefix = prefix.trySplit();
+    assertNotNull(prefixOfPrefix);
+    prefixOfPrefix.forEachRemaining(path -> actual.add(toString(path)));
+    prefix.forEachRemaining(path -> actual.add(toString(path)));
+    spliterator.forEachRemaining(path -> actual.add(toString(path)));
+
+    assertEquals(expected, actual);
+    assertNull(spliterator.trySplit());
+    assertEquals(0, spliterator.estimateSize());
+  }
+
+  @Test
+  void testUnknownSize() {
+    ControlPathSpliterator spliterator = new ControlPathSpliterator(newCatalog(), CollectionUtil.emptyList());
+    assertEquals(Long.MAX_VALUE, spliterator.estimateSize());
+    assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+    assertEquals(-1, spliterator.getExactSizeIfKnown());
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.control.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import dev.metaschema.core.datatype.markup.MarkupLine;
+import dev.metaschema.oscal.lib.model.Catalog;
+import dev.metaschema.oscal.lib.model.ParameterSelection;
+import dev.metaschema.oscal.lib.model.control.AbstractParameter;
+import dev.metaschema.oscal.lib.model.control.AbstractPart;
+import dev.metaschema.oscal.lib.model.metadata.AbstractProperty;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class ParameterDependencyGraphTest {
+
+  @NonNull
+  private static ParameterSelection selection(@NonNull String... choices) {
+    ParameterSelection retval = new ParameterSelection();
+    for (String choice : choices) {
+      retval.addChoice(MarkupLine.fromMarkdown(choice));
+    }
+    return retval;
+  }
+
+  @NonNull
+  private static Catalog newCatalog() {
+    Catalog catalog = new Catalog();
+    catalog.addParam(AbstractParameter.builder("value1")
+        .values("a", "b")
+        .build());
+    catalog.addParam(AbstractParameter.builder("value2")
+        .values("c")
+        .build());
+    catalog.addParam(AbstractParameter.builder("aggregate")
+        .prop(AbstractProperty.builder("aggregates").value("value1").build())
+        .prop(AbstractProperty.builder("aggregates").value("value2").build())
+        .build());
+    catalog.addParam(AbstractParameter.builder("choice")
+        .select(selection("first {{ insert: param, value2 }}", "second"))
+        .build());
+    // a reference cycle
+    catalog.addParam(AbstractParameter.builder("cycle1")
+        .select(selection("uses {{ insert: param, cycle2 }}"))
+        .build());
+    catalog.addParam(AbstractParameter.builder("cycle2")
+        .prop(AbstractProperty.builder("aggregates").value("cycle1").build())
+        .build());
+    catalog.addControl(AbstractControl.builder("control1")
+        .title("Control 1")
+        .part(AbstractPart.builder("statement")
+            .prose("Uses {{ insert: param, aggregate }}.")
+            .build())
+        .build());
+    return catalog;
+  }
+
+  @Test
+  void testDependencies() {
+    Catalog catalog = newCatalog();
+    ParameterDependencyGraph graph = catalog.getParameterDependencyGraph();
+    assertSame(graph, catalog.getParameterDependencyGraph());
+
+    assertEquals(List.of("value1", "value2"), graph.getParameterReferences("aggregate"));
+    assertEquals(List.of("aggregate"), graph.getControlReferences("control1"));
+    assertEquals(Set.of("aggregate", "value1", "value2"), graph.getTransitiveControlReferences("control1"));
+
+    assertEquals(1, graph.getCycles().size());
+    assertEquals(Set.of("cycle1", "cycle2"), Set.copyOf(graph.getCycles().get(0)));
+    assertTrue(graph.isCyclic("cycle1"));
+    assertFalse(graph.isCyclic("aggregate"));
+    assertEquals(Set.of("cycle1", "cycle2"), graph.getTransitiveParameterReferences("cycle1"));
+  }
+
+  @Test
+  void testEffectiveValues() {
+    ParameterDependencyGraph graph = newCatalog().getParameterDependencyGraph();
+
+    assertEquals(List.of("a", "b"), graph.getEffectiveValues("value1"));
+    assertEquals(List.of("a", "b", "c"), graph.getEffectiveValues("aggregate"));
+    assertEquals(List.of("first c", "second"), graph.getEffectiveValues("choice"));
+    assertEquals(List.of(), graph.getEffectiveValues("missing"));
+
+    // references within a cycle are not followed
+    assertEquals(List.of("uses {{ insert: param, cycle2 }}"), graph.getEffectiveValues("cycle1"));
+    assertEquals(List.of(), graph.getEffectiveValues("cycle2"));
+  }
+
+  @Test
+  void testStructuralChangeRebuildsGraph() {
+    Catalog catalog = newCatalog();
+    ParameterDependencyGraph graph = catalog.getParameterDependencyGraph();
+    assertEquals(List.of(), graph.getEffectiveValues("value3"));
+
+    // an added parameter is detected by the lookup, which discards the graph
+    catalog.addParam(AbstractParameter.builder("value3")
+        .values("d")
+        .build());
+    assertEquals(List.of("d"), catalog.getEffectiveParameterValues("value3"));
+    assertNotSame(graph, catalog.getParameterDependencyGraph());
+  }
+
+  @Test
+  void testLongReferenceChain() {
+    int length = 10_000;
+    Catalog catalog = new Catalog();
+    for (int i = 0; i < length - 1; i++) {
+      catalog.addParam(AbstractParameter.builder("param" + i)
+          .prop(AbstractProperty.builder("aggregates").value("param" + (i + 1)).build())
+          .build());
+    }
+    catalog.addParam(AbstractParameter.builder("param" + (length - 1))
+        .values("value")
+        .build());
+
+    // the values and dependencies are computed without recursion
+    ParameterDependencyGraph graph = catalog.getParameterDependencyGraph();
+    assertEquals(List.of("value"), graph.getEffectiveValues("param0"));
+    assertEquals(length - 1, graph.getTransitiveParameterReferences("param0").size());
+  }
+}
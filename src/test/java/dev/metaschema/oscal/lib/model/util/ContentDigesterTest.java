@@ -0,0 +1,125 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URI;
+import java.nio.file.Paths;
+
+import dev.metaschema.core.datatype.markup.MarkupLine;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.io.Format;
+import dev.metaschema.oscal.lib.OscalBindingContext;
+import dev.metaschema.oscal.lib.model.Catalog;
+import dev.metaschema.oscal.lib.model.CatalogGroup;
+import dev.metaschema.oscal.lib.model.Control;
+import dev.metaschema.oscal.lib.model.control.AbstractParameter;
+import dev.metaschema.oscal.lib.model.control.catalog.AbstractCatalogGroup;
+import dev.metaschema.oscal.lib.model.control.catalog.AbstractControl;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class ContentDigesterTest {
+
+  @NonNull
+  private static Catalog newCatalog() {
+    Catalog catalog = new Catalog();
+    catalog.addGroup(AbstractCatalogGroup.builder("group1")
+        .title("Group 1")
+        .control(AbstractControl.builder("control1")
+            .title("Control 1")
+            .param(AbstractParameter.builder("param1").build())
+            .control(AbstractControl.builder("control1.1")
+                .title("Control 1.1")
+                .build())
+            .build())
+        .control(AbstractControl.builder("control2")
+            .title("Control 2")
+            .build())
+        .build());
+    return catalog;
+  }
+
+  @Test
+  void testEquivalentContent() {
+    ContentDigester digester = new ContentDigester();
+    Catalog first = newCatalog();
+    Catalog second = newCatalog();
+
+    assertNotSame(first, second);
+    assertTrue(digester.contentEquals(first, second));
+    assertEquals(64, digester.digest(first).toString().length());
+
+    second.getGroups().get(0).getControls().get(1).setTitle(MarkupLine.fromMarkdown("Changed"));
+    // the changed control's digest is retained until it is invalidated
+    assertTrue(digester.contentEquals(first, second));
+    digester.invalidate(second.getGroups().get(0).getControls().get(1));
+    assertFalse(digester.contentEquals(first, second));
+  }
+
+  @Test
+  void testIncrementalRecompute() {
+    ContentDigester digester = new ContentDigester();
+    Catalog catalog = newCatalog();
+    CatalogGroup group = catalog.getGroups().get(0);
+    Control control1 = group.getControls().get(0);
+    Control control11 = control1.getControls().get(0);
+    Control control2 = group.getControls().get(1);
+
+    ContentDigest catalogDigest = digester.digest(catalog);
+    ContentDigest control1Digest = ObjectUtils.requireNonNull(digester.getRetainedDigest(control1));
+    ContentDigest control2Digest = ObjectUtils.requireNonNull(digester.getRetainedDigest(control2));
+
+    control11.setTitle(MarkupLine.fromMarkdown("Changed"));
+    digester.invalidate(control11);
+
+    // the changed control and its ancestors are discarded
+    assertNull(digester.getRetainedDigest(control11));
+    assertNull(digester.getRetainedDigest(control1));
+    assertNull(digester.getRetainedDigest(group));
+    assertNull(digester.getRetainedDigest(catalog));
+    // unchanged siblings are kept
+    assertSame(control2Digest, digester.getRetainedDigest(control2));
+    assertNotNull(digester.getRetainedDigest(control1.getParams().get(0)));
+
+    assertNotEquals(catalogDigest, digester.digest(catalog));
+    assertNotEquals(control1Digest, digester.getRetainedDigest(control1));
+    assertSame(control2Digest, digester.getRetainedDigest(control2));
+  }
+
+  @NonNull
+  private static Catalog roundTrip(@NonNull Catalog catalog, @NonNull Format format) throws IOException {
+    OscalBindingContext bindingContext = OscalBindingContext.instance();
+    StringWriter writer = new StringWriter();
+    bindingContext.newSerializer(format, Catalog.class).serialize(catalog, writer);
+    return bindingContext.newDeserializer(format, Catalog.class)
+        .deserialize(new StringReader(writer.toString()), ObjectUtils.notNull(URI.create("memory:catalog")));
+  }
+
+  @Test
+  void testFormatIndependence() throws IOException {
+    Catalog catalog = OscalBindingContext.instance().loadCatalog(
+        ObjectUtils.notNull(Paths.get("src/test/resources/content/test-catalog.xml")));
+
+    ContentDigester digester = new ContentDigester();
+    Catalog json = roundTrip(catalog, Format.JSON);
+    Catalog yaml = roundTrip(catalog, Format.YAML);
+    assertNotSame(json, yaml);
+    assertEquals(digester.digest(json), digester.digest(yaml));
+  }
+}
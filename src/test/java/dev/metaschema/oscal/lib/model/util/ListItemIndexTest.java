@@ -0,0 +1,106 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.util;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class ListItemIndexTest {
+
+  @Test
+  void testLookup() {
+    TestItem first = new TestItem("a");
+    TestItem duplicate = new TestItem("a");
+    TestItem other = new TestItem("b");
+    List<TestItem> items = new ArrayList<>(List.of(first, duplicate, other));
+
+    ListItemIndex<String, TestItem> index = new ListItemIndex<>(TestItem::getId);
+    assertSame(first, index.get(items, "a"));
+    assertSame(other, index.get(items, "b"));
+    assertNull(index.get(items, "c"));
+    assertNull(index.get(null, "a"));
+  }
+
+  @Test
+  void testChangesAreDetected() {
+    TestItem first = new TestItem("a");
+    List<TestItem> items = new ArrayList<>(List.of(first));
+
+    ListItemIndex<String, TestItem> index = new ListItemIndex<>(TestItem::getId);
+    assertSame(first, index.get(items, "a"));
+
+    // an added item
+    TestItem added = new TestItem("b");
+    items.add(added);
+    assertSame(added, index.get(items, "b"));
+
+    // a replaced list
+    TestItem replacement = new TestItem("c");
+    items = new ArrayList<>(List.of(replacement));
+    assertNull(index.get(items, "a"));
+    assertSame(replacement, index.get(items, "c"));
+
+    // a changed key
+    replacement.setId("d");
+    assertNull(index.get(items, "c"));
+    assertSame(replacement, index.get(items, "d"));
+  }
+
+  @Test
+  void testRemovedItemIsNotReturned() {
+    TestItem first = new TestItem("a");
+    TestItem second = new TestItem("b");
+    List<TestItem> items = new ArrayList<>(List.of(first, second));
+
+    ListItemIndex<String, TestItem> index = new ListItemIndex<>(TestItem::getId);
+    assertSame(first, index.get(items, "a"));
+
+    // remove an item and add another, keeping the size
+    items.remove(first);
+    TestItem added = new TestItem("c");
+    items.add(added);
+    assertNull(index.get(items, "a"));
+    assertSame(second, index.get(items, "b"));
+    assertSame(added, index.get(items, "c"));
+  }
+
+  @Test
+  void testSequentialList() {
+    TestItem first = new TestItem("a");
+    List<TestItem> items = new LinkedList<>(List.of(first));
+
+    ListItemIndex<String, TestItem> index = new ListItemIndex<>(TestItem::getId);
+    assertSame(first, index.get(items, "a"));
+
+    items.set(0, new TestItem("b"));
+    assertNull(index.get(items, "a"));
+  }
+
+  private static final class TestItem {
+    @NonNull
+    private String id;
+
+    private TestItem(@NonNull String id) {
+      this.id = id;
+    }
+
+    public String getId() {
+      return id;
+    }
+
+    public void setId(@NonNull String id) {
+      this.id = id;
+    }
+  }
+}
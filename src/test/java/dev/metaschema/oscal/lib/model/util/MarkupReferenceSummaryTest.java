@@ -0,0 +1,63 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.vladsch.flexmark.util.sequence.BasedSequence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import dev.metaschema.core.datatype.markup.MarkupMultiline;
+import dev.metaschema.core.util.ObjectUtils;
+
+class MarkupReferenceSummaryTest {
+
+  @Test
+  void testSummary() {
+    MarkupMultiline markup = MarkupMultiline.fromMarkdown(
+        "A {{ insert: param, param1 }} reference to [a resource](#resource1)"
+            + " and {{ insert: param, param2 }}.");
+
+    MarkupReferenceSummary summary = MarkupReferenceSummary.of(markup);
+
+    assertEquals(3, summary.getReferenceNodes().size());
+    assertEquals(
+        List.of("param1", "param2"),
+        summary.getInsertIdReferences("param").collect(Collectors.toList()));
+    assertEquals(
+        List.of("#resource1"),
+        summary.getLinkHrefs().collect(Collectors.toList()));
+
+    // the summary is computed once
+    assertSame(summary, MarkupReferenceSummary.of(markup));
+  }
+
+  @Test
+  void testNodeChangesAreReflected() {
+    MarkupMultiline markup = MarkupMultiline.fromMarkdown(
+        "A {{ insert: param, param1 }} reference to [a resource](#resource1).");
+
+    MarkupReferenceSummary summary = MarkupReferenceSummary.of(markup);
+    summary.getInserts().get(0).setIdReference(ObjectUtils.notNull(BasedSequence.of("param3")));
+    summary.getLinks().get(0).setUrl(BasedSequence.of("#resource2"));
+
+    assertEquals(
+        List.of("param3"),
+        MarkupReferenceSummary.of(markup).getInsertIdReferences("param").collect(Collectors.toList()));
+    assertEquals(
+        List.of("#resource2"),
+        MarkupReferenceSummary.of(markup).getLinkHrefs().collect(Collectors.toList()));
+
+    MarkupReferenceSummary.invalidate(markup);
+    assertNotSame(summary, MarkupReferenceSummary.of(markup));
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.model.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import dev.metaschema.core.datatype.markup.MarkupMultiline;
+import dev.metaschema.oscal.lib.profile.resolver.policy.InsertReferencePolicy;
+
+class ProseTemplateTest {
+  private static final Map<String, String> VALUES = Map.of("param1", "a <value>");
+
+  @Test
+  void testSlots() {
+    MarkupMultiline markup = MarkupMultiline.fromMarkdown(
+        "Use {{ insert: param, param1 }} and {{ insert: param, param2 }}.");
+
+    for (ProseTemplate.Format format : ProseTemplate.Format.values()) {
+      ProseTemplate template = ProseTemplate.of(markup, format);
+      assertEquals(
+          List.of("param1", "param2"),
+          template.getSlots().stream()
+              .map(ProseTemplate.Slot::getIdReference)
+              .collect(Collectors.toList()));
+      // the template is compiled once
+      assertSame(template, ProseTemplate.of(markup, format));
+    }
+
+    ProseTemplate template = ProseTemplate.of(markup, ProseTemplate.Format.TEXT);
+    ProseTemplate.invalidate(markup);
+    assertNotSame(template, ProseTemplate.of(markup, ProseTemplate.Format.TEXT));
+  }
+
+  @Test
+  void testRewrittenReference() {
+    MarkupMultiline markup = MarkupMultiline.fromMarkdown(
+        "Use {{ insert: param, param1 }} and {{ insert: param, param2 }}.");
+    ProseTemplate template = ProseTemplate.of(markup, ProseTemplate.Format.TEXT);
+
+    // rewriting an identifier reference, as done during profile resolution
+    new InsertReferencePolicy().setReferenceText(
+        MarkupReferenceSummary.of(markup).getInserts().get(0),
+        "param3");
+
+    ProseTemplate rewritten = ProseTemplate.of(markup, ProseTemplate.Format.TEXT);
+    assertNotSame(template, rewritten);
+    assertEquals(
+        List.of("param3", "param2"),
+        rewritten.getSlots().stream()
+            .map(ProseTemplate.Slot::getIdReference)
+            .collect(Collectors.toList()));
+  }
+
+  @Test
+  void testRender() {
+    MarkupMultiline markup = MarkupMultiline.fromMarkdown(
+        "Use {{ insert: param, param1 }} and {{ insert: param, param2 }}.");
+
+    assertEquals(
+        "Use a <value> and {{ insert: param, param2 }}.",
+        ProseTemplate.of(markup, ProseTemplate.Format.TEXT).render(VALUES));
+    assertEquals(
+        "Use a \\<value\\> and {{ insert: param, param2 }}.",
+        ProseTemplate.of(markup, ProseTemplate.Format.MARKDOWN).render(VALUES).trim());
+    assertTrue(
+        ProseTemplate.of(markup, ProseTemplate.Format.HTML).render(VALUES).contains("Use a &lt;value&gt; and "));
+  }
+
+  @Test
+  void testLiteralInsertText() {
+    // an insert shown in a code span is literal text, not a slot
+    MarkupMultiline markup = MarkupMultiline.fromMarkdown(
+        "Write `{{ insert: param, param2 }}` to use {{ insert: param, param1 }}.");
+
+    for (ProseTemplate.Format format : ProseTemplate.Format.values()) {
+      ProseTemplate template = ProseTemplate.of(markup, format);
+      assertEquals(
+          List.of("param1"),
+          template.getSlots().stream()
+              .map(ProseTemplate.Slot::getIdReference)
+              .collect(Collectors.toList()));
+    }
+
+    assertEquals(
+        "Write {{ insert: param, param2 }} to use a <value>.",
+        ProseTemplate.of(markup, ProseTemplate.Format.TEXT).render(VALUES));
+  }
+}
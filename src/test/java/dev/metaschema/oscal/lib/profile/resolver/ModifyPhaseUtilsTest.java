@@ -39,6 +39,28 @@ class ModifyPhaseUtilsTest {
             .collect(Collectors.toList()));
   }
 
+  @Test
+  void testMergeIdentity() {
+    TestItem shared = item("B");
+    List<TestItem> originalItems = List.of(
+        item("A"),
+        shared,
+        item("C"));
+
+    List<TestItem> newItems = List.of(
+        shared,
+        item("D"));
+
+    List<TestItem> result
+        = ModifyPhaseUtils.merge(originalItems, newItems, ModifyPhaseUtils.identityKey());
+
+    assertEquals(
+        List.of("A", "C", "B", "D"),
+        result.stream()
+            .map(item -> item.getValue())
+            .collect(Collectors.toList()));
+  }
+
   private static TestItem item(@NonNull String value) {
     return item(null, value);
   }
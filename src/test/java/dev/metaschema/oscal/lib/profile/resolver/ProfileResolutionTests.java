@@ -7,6 +7,7 @@ package dev.metaschema.oscal.lib.profile.resolver;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -23,33 +24,49 @@ import org.hamcrest.MatcherAssert;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvFileSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.xmlunit.assertj3.XmlAssert;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamSource;
 
 import dev.metaschema.core.metapath.DynamicContext;
+import dev.metaschema.core.metapath.item.node.IAssemblyNodeItem;
 import dev.metaschema.core.metapath.item.node.INodeItem;
 import dev.metaschema.core.util.ObjectUtils;
 import dev.metaschema.databind.io.DefaultBoundLoader;
 import dev.metaschema.databind.io.Format;
 import dev.metaschema.databind.io.ISerializer;
 import dev.metaschema.oscal.lib.OscalBindingContext;
+import dev.metaschema.oscal.lib.io.Compression;
 import dev.metaschema.oscal.lib.model.Catalog;
+import dev.metaschema.oscal.lib.model.Control;
+import dev.metaschema.oscal.lib.model.ControlPart;
+import dev.metaschema.oscal.lib.model.Property;
+import dev.metaschema.oscal.lib.profile.resolver.alter.ControlTargetIndex;
 import dev.metaschema.oscal.lib.profile.resolver.selection.ImportCycleException;
 import edu.umd.cs.findbugs.annotations.NonNull;
 
@@ -96,8 +113,14 @@ class ProfileResolutionTests {
 
   private static Catalog resolveProfile(@NonNull URL profileUrl)
       throws IOException, ProfileResolutionException, URISyntaxException {
-    return (Catalog) INodeItem.toValue(
-        newProfileResolver(ObjectUtils.notNull(profileUrl.toURI())).resolve(profileUrl));
+    return resolveProfile(profileUrl, false);
+  }
+
+  private static Catalog resolveProfile(@NonNull URL profileUrl, boolean parallelAlters)
+      throws IOException, ProfileResolutionException, URISyntaxException {
+    ProfileResolver resolver = newProfileResolver(ObjectUtils.notNull(profileUrl.toURI()));
+    resolver.setParallelAlters(parallelAlters);
+    return (Catalog) INodeItem.toValue(resolver.resolve(profileUrl));
   }
 
   /**
@@ -134,14 +157,24 @@ class ProfileResolutionTests {
     performTest("modify-adds");
   }
 
+  @Test
+  void testParallelAlters() throws IOException, SaxonApiException, URISyntaxException {
+    performTest("modify-adds", true);
+  }
+
   void performTest(String profileName) throws IOException, SaxonApiException, URISyntaxException {
+    performTest(profileName, false);
+  }
+
+  void performTest(String profileName, boolean parallelAlters)
+      throws IOException, SaxonApiException, URISyntaxException {
     String profileLocation = String.format("%s/%s_profile.xml", PROFILE_UNIT_TEST_PATH, profileName);
 
     File profileFile = new File(profileLocation);
 
     Catalog catalog = null;
     try {
-      catalog = resolveProfile(profileFile);
+      catalog = resolveProfile(ObjectUtils.notNull(profileFile.toURI().toURL()), parallelAlters);
     } catch (ProfileResolutionException ex) {
       fail(String.format("Resolution of profile '%s' failed. %s", profileFile.getAbsolutePath(),
           ex.getLocalizedMessage()));
@@ -208,6 +241,242 @@ class ProfileResolutionTests {
     assertEquals("1.0.4", catalog.getMetadata().getOscalVersion());
   }
 
+  @NonNull
+  private static String newCatalog(@NonNull String title, @NonNull String content) {
+    return "<catalog xmlns=\"http://csrc.nist.gov/ns/oscal/1.0\" uuid=\"" + UUID.randomUUID() + "\">"
+        + "<metadata><title>" + title + "</title><last-modified>2024-01-01T00:00:00Z</last-modified>"
+        + "<version>1.0</version><oscal-version>1.1.2</oscal-version></metadata>"
+        + content
+        + "<back-matter><resource uuid=\"a3f1c1e2-6b7d-4c3e-9f2a-1d5e8b7c6a90\"><title>Shared</title></resource>"
+        + "</back-matter>"
+        + "</catalog>";
+  }
+
+  @Test
+  void testFlattenedSharedResource(@TempDir Path tempDir)
+      throws IOException, ProfileResolutionException, URISyntaxException {
+    String link = "<link href=\"#a3f1c1e2-6b7d-4c3e-9f2a-1d5e8b7c6a90\" rel=\"reference\"/>";
+    // the first catalog's control references the shared resource
+    Files.writeString(tempDir.resolve("catalog-a.xml"), newCatalog("A",
+        "<control id=\"a-1\"><title>A 1</title>" + link + "</control>"));
+    // the second catalog only references the shared resource from a group
+    Files.writeString(tempDir.resolve("catalog-b.xml"), newCatalog("B",
+        "<group id=\"b\"><title>B</title>" + link
+            + "<control id=\"b-1\"><title>B 1</title></control></group>"));
+
+    String profile = "<profile xmlns=\"http://csrc.nist.gov/ns/oscal/1.0\""
+        + " uuid=\"5d1e0f6a-8c2b-4f7e-a3d9-0b6c4e2f1a87\">"
+        + "<metadata><title>Shared Resource</title><last-modified>2024-01-01T00:00:00Z</last-modified>"
+        + "<version>1.0</version><oscal-version>1.1.2</oscal-version></metadata>"
+        + "<import href=\"catalog-a.xml\"><include-all/></import>"
+        + "<import href=\"catalog-b.xml\"><include-all/></import>"
+        + "<merge><flat/></merge>"
+        + "</profile>";
+    Path profilePath = ObjectUtils.notNull(tempDir.resolve("profile.xml"));
+    Files.writeString(profilePath, profile);
+
+    Catalog resolvedCatalog = resolveProfile(profilePath);
+    assertAll(
+        () -> assertEquals(0, resolvedCatalog.getGroups() == null ? 0 : resolvedCatalog.getGroups().size()),
+        () -> assertEquals(2, resolvedCatalog.getControls().size()),
+        // the resource is still referenced by the first catalog's control
+        () -> assertNotNull(resolvedCatalog.getBackMatter()),
+        () -> assertEquals(1, resolvedCatalog.getBackMatter().getResources().size()));
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = { false, true })
+  void testAltersOnControlTree(boolean parallelAlters, @TempDir Path tempDir)
+      throws IOException, ProfileResolutionException, URISyntaxException {
+    Files.writeString(tempDir.resolve("catalog.xml"), newCatalog("Control Tree",
+        "<control id=\"c1\"><title>C 1</title>"
+            + "<param id=\"c1_prm_1\"><label>P 1</label></param>"
+            + "<part id=\"c1_smt\" name=\"statement\"><part id=\"c1_smt.a\" name=\"item\"/></part>"
+            + "<control id=\"c1.1\"><title>C 1.1</title>"
+            + "<part id=\"c1.1_smt\" name=\"statement\"/></control>"
+            + "</control>"));
+
+    String profile = "<profile xmlns=\"http://csrc.nist.gov/ns/oscal/1.0\""
+        + " uuid=\"9e2b7c4d-1f3a-4d6e-8b5c-7a0f2e9d3c61\">"
+        + "<metadata><title>Control Tree Alters</title><last-modified>2024-01-01T00:00:00Z</last-modified>"
+        + "<version>1.0</version><oscal-version>1.1.2</oscal-version></metadata>"
+        + "<import href=\"catalog.xml\"><include-all/></import>"
+        + "<merge><as-is>true</as-is></merge>"
+        + "<modify>"
+        + "<alter control-id=\"c1\"><add position=\"ending\"><part id=\"c1_gdn\" name=\"guidance\"/></add></alter>"
+        + "<alter control-id=\"c1.1\"><add position=\"ending\" by-id=\"c1.1_smt\">"
+        + "<prop name=\"added\" value=\"1\"/></add></alter>"
+        // removes a part added by an earlier alter
+        + "<alter control-id=\"c1\"><remove by-id=\"c1_gdn\"/></alter>"
+        + "<alter control-id=\"c1\"><add position=\"after\" by-id=\"c1_smt.a\">"
+        + "<part id=\"c1_smt.b\" name=\"item\"/></add></alter>"
+        // adds to a part of a child control
+        + "<alter control-id=\"c1\"><add position=\"starting\" by-id=\"c1.1_smt\">"
+        + "<prop name=\"first\" value=\"1\"/></add></alter>"
+        + "<alter control-id=\"c1.1\"><remove by-name=\"added\"/></alter>"
+        + "</modify>"
+        + "</profile>";
+    Path profilePath = ObjectUtils.notNull(tempDir.resolve("profile.xml"));
+    Files.writeString(profilePath, profile);
+
+    Catalog resolvedCatalog = resolveProfile(ObjectUtils.notNull(profilePath.toUri().toURL()), parallelAlters);
+    Control control = resolvedCatalog.getControls().get(0);
+    ControlPart statement = control.getParts().get(0);
+    Control childControl = control.getControls().get(0);
+    assertAll(
+        () -> assertEquals(List.of("c1_smt"), control.getParts().stream()
+            .map(ControlPart::getId)
+            .collect(Collectors.toList())),
+        () -> assertEquals(List.of("c1_smt.a", "c1_smt.b"), statement.getParts().stream()
+            .map(ControlPart::getId)
+            .collect(Collectors.toList())),
+        () -> assertEquals(List.of("first"), childControl.getParts().get(0).getProps().stream()
+            .map(Property::getName)
+            .collect(Collectors.toList())));
+  }
+
+  @NonNull
+  private static String newAlterProfile(@NonNull String alters) {
+    return "<profile xmlns=\"http://csrc.nist.gov/ns/oscal/1.0\""
+        + " uuid=\"4d8a2f6e-3b1c-4e7a-9c5d-2f0b8e6a1d73\">"
+        + "<metadata><title>Alters</title><last-modified>2024-01-01T00:00:00Z</last-modified>"
+        + "<version>1.0</version><oscal-version>1.1.2</oscal-version></metadata>"
+        + "<import href=\"catalog.xml\"><include-all/></import>"
+        + "<merge><as-is>true</as-is></merge>"
+        + "<modify>" + alters + "</modify>"
+        + "</profile>";
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = { false, true })
+  void testRemoveMatchesAllTargets(boolean parallelAlters, @TempDir Path tempDir)
+      throws IOException, ProfileResolutionException, URISyntaxException {
+    Files.writeString(tempDir.resolve("catalog.xml"), newCatalog("Remove",
+        "<control id=\"c1\"><title>C 1</title>"
+            + "<prop name=\"x\" value=\"1\"/><prop name=\"x\" value=\"2\"/><prop name=\"y\" value=\"3\"/>"
+            + "<part id=\"c1_smt\" name=\"statement\"><prop name=\"x\" value=\"4\"/></part>"
+            + "<control id=\"c1.1\"><title>C 1.1</title><prop name=\"x\" value=\"5\"/></control>"
+            + "</control>"));
+    Path profilePath = ObjectUtils.notNull(tempDir.resolve("profile.xml"));
+    Files.writeString(profilePath, newAlterProfile("<alter control-id=\"c1\"><remove by-name=\"x\"/></alter>"));
+
+    Catalog resolvedCatalog = resolveProfile(ObjectUtils.notNull(profilePath.toUri().toURL()), parallelAlters);
+    Control control = resolvedCatalog.getControls().get(0);
+    assertAll(
+        // every match within the control is removed, including those in parts
+        () -> assertEquals(List.of("y"), control.getProps().stream()
+            .map(Property::getName)
+            .collect(Collectors.toList())),
+        () -> assertEquals(0, control.getParts().get(0).getProps().size()),
+        // matches in child controls are not removed
+        () -> assertEquals(List.of("x"), control.getControls().get(0).getProps().stream()
+            .map(Property::getName)
+            .collect(Collectors.toList())));
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = { false, true })
+  void testFirstAlterFailureReported(boolean parallelAlters, @TempDir Path tempDir) throws IOException {
+    Files.writeString(tempDir.resolve("catalog.xml"), newCatalog("Failures",
+        "<control id=\"c1\"><title>C 1</title></control>"
+            + "<control id=\"c2\"><title>C 2</title></control>"));
+    Path profilePath = ObjectUtils.notNull(tempDir.resolve("profile.xml"));
+    Files.writeString(profilePath, newAlterProfile(
+        "<alter control-id=\"c1\"><add position=\"ending\"><prop name=\"a\" value=\"1\"/></add></alter>"
+            + "<alter control-id=\"c2\"><remove by-id=\"missing\"/></alter>"
+            + "<alter control-id=\"missing\"><remove by-id=\"c1\"/></alter>"
+            + "<alter control-id=\"c1\"><remove by-id=\"also-missing\"/></alter>"));
+
+    ProfileResolutionException ex = assertThrows(ProfileResolutionException.class,
+        () -> resolveProfile(ObjectUtils.notNull(profilePath.toUri().toURL()), parallelAlters));
+    MatcherAssert.assertThat(ex.getMessage(),
+        CoreMatchers.containsString("Unable to apply the remove targeting control 'c2'"));
+  }
+
+  @Test
+  void testApplyAlterOverride(@TempDir Path tempDir)
+      throws IOException, ProfileResolutionException, URISyntaxException {
+    Files.writeString(tempDir.resolve("catalog.xml"), newCatalog("Override",
+        "<control id=\"c1\"><title>C 1</title><control id=\"c1.1\"><title>C 1.1</title></control></control>"));
+    Path profilePath = ObjectUtils.notNull(tempDir.resolve("profile.xml"));
+    Files.writeString(profilePath, newAlterProfile(
+        "<alter control-id=\"c1\"><add position=\"ending\"><prop name=\"a\" value=\"1\"/></add></alter>"
+            + "<alter control-id=\"c1.1\"><add position=\"ending\"><prop name=\"b\" value=\"1\"/></add></alter>"));
+
+    URI profileUri = ObjectUtils.notNull(profilePath.toUri());
+    DynamicContext context = new DynamicContext(OscalBindingContext.OSCAL_STATIC_METAPATH_CONTEXT);
+    context.setDocumentLoader(new DefaultBoundLoader(OscalBindingContext.instance()));
+    List<String> altered = new ArrayList<>();
+    ProfileResolver resolver = new ProfileResolver(context, (uri, src) -> profileUri.resolve(uri)) {
+      @Override
+      protected void applyAlter(
+          @NonNull IAssemblyNodeItem item,
+          @NonNull Control control,
+          @NonNull ControlTargetIndex targetIndex) {
+        altered.add(control.getId());
+        super.applyAlter(item, control, targetIndex);
+      }
+    };
+    resolver.resolve(profilePath);
+
+    // the per-alter hook is called for each alter, in document order
+    assertEquals(List.of("c1", "c1.1"), altered);
+  }
+
+  @NonNull
+  private static String resolveReproducibly(@NonNull Path profilePath, ZonedDateTime timestamp)
+      throws IOException, ProfileResolutionException {
+    ProfileResolver resolver = newProfileResolver(ObjectUtils.notNull(profilePath.toUri()));
+    resolver.setReproducible(true);
+    resolver.setResolutionTimestamp(timestamp);
+    Catalog catalog = (Catalog) INodeItem.toValue(resolver.resolve(profilePath));
+
+    StringWriter writer = new StringWriter();
+    OscalBindingContext.instance().newSerializer(Format.JSON, Catalog.class).serialize(catalog, writer);
+    return ObjectUtils.notNull(writer.toString());
+  }
+
+  @Test
+  void testReproducible() throws IOException, ProfileResolutionException {
+    Path profilePath = ObjectUtils.notNull(Paths.get(JUNIT_TEST_PATH, "content/test-oscal-version-profile.xml"));
+
+    String first = resolveReproducibly(profilePath, null);
+    assertEquals(first, resolveReproducibly(profilePath, null));
+
+    Catalog catalog = OscalBindingContext.instance().newDeserializer(Format.JSON, Catalog.class)
+        .deserialize(new StringReader(first), ObjectUtils.notNull(profilePath.toUri()));
+    assertEquals(5, catalog.getUuid().version());
+    // the profile's last-modified timestamp in UTC
+    assertEquals(ZonedDateTime.parse("2020-05-30T18:39:35.84Z").toInstant(),
+        catalog.getMetadata().getLastModified().toInstant());
+    assertEquals(ZoneOffset.UTC, catalog.getMetadata().getLastModified().getOffset());
+
+    ZonedDateTime timestamp = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+    String supplied = resolveReproducibly(profilePath, timestamp);
+    assertNotEquals(first, supplied);
+    assertEquals(supplied, resolveReproducibly(profilePath, timestamp));
+  }
+
+  @Test
+  void testReproducibleWithoutLastModified(@TempDir Path tempDir) throws IOException, ProfileResolutionException {
+    Files.writeString(tempDir.resolve("catalog.xml"), newCatalog("Catalog",
+        "<control id=\"c1\"><title>C 1</title></control>"));
+    Path profilePath = ObjectUtils.notNull(tempDir.resolve("profile.xml"));
+    Files.writeString(profilePath, "<profile xmlns=\"http://csrc.nist.gov/ns/oscal/1.0\""
+        + " uuid=\"6b1e3d2a-7c4f-4a8e-9d0b-5f2c1e7a3b94\">"
+        + "<metadata><title>No Last Modified</title>"
+        + "<version>1.0</version><oscal-version>1.1.2</oscal-version></metadata>"
+        + "<import href=\"catalog.xml\"><include-all/></import>"
+        + "</profile>");
+
+    ProfileResolutionException ex = assertThrows(ProfileResolutionException.class,
+        () -> resolveReproducibly(profilePath, null));
+    MatcherAssert.assertThat(ex.getMessage(), CoreMatchers.containsString("no last-modified timestamp"));
+
+    // a configured timestamp is used instead
+    assertNotNull(resolveReproducibly(profilePath, ZonedDateTime.parse("2024-01-01T00:00:00Z")));
+  }
+
   @Test
   void testImportResourceRelativeLink() throws IOException, ProfileResolutionException, URISyntaxException {
     Path profilePath = Paths.get(JUNIT_TEST_PATH, "content/profile-relative-links-resource.xml");
@@ -216,6 +485,30 @@ class ProfileResolutionTests {
     assertNotNull(resolvedCatalog);
   }
 
+  @Test
+  void testCompressedImport(@TempDir Path tempDir)
+      throws IOException, ProfileResolutionException, URISyntaxException {
+    Path catalogPath = Paths.get(PROFILE_UNIT_TEST_PATH, "catalogs/abc-simple_catalog.xml");
+    try (OutputStream os = Compression.GZIP.compress(Files.newOutputStream(tempDir.resolve("catalog.xml.gz")))) {
+      Files.copy(catalogPath, os);
+    }
+
+    String profile = "<profile xmlns=\"http://csrc.nist.gov/ns/oscal/1.0\""
+        + " uuid=\"0b5b4e9e-2d8e-4e3e-9d5c-3f7c1c9a0b01\">"
+        + "<metadata><title>Compressed Import</title><last-modified>2024-01-01T00:00:00Z</last-modified>"
+        + "<version>1.0</version><oscal-version>1.1.2</oscal-version></metadata>"
+        + "<import href=\"catalog.xml.gz\"><include-all/></import>"
+        + "</profile>";
+    Path profilePath = ObjectUtils.notNull(tempDir.resolve("profile.xml.deflate"));
+    try (OutputStream os = Compression.DEFLATE.compress(Files.newOutputStream(profilePath))) {
+      os.write(profile.getBytes(StandardCharsets.UTF_8));
+    }
+
+    Catalog resolvedCatalog = resolveProfile(profilePath);
+    assertNotNull(resolvedCatalog);
+    assertEquals("Compressed Import", resolvedCatalog.getMetadata().getTitle().toMarkdown());
+  }
+
   @Test
   @Disabled
   void testRemove() throws IOException, ProfileResolutionException, URISyntaxException {
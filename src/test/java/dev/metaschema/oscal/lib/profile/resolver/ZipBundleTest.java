@@ -0,0 +1,83 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.profile.resolver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+
+import dev.metaschema.core.metapath.item.node.IDocumentNodeItem;
+import dev.metaschema.core.metapath.item.node.INodeItem;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.oscal.lib.model.Catalog;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class ZipBundleTest {
+  private static final String CATALOG
+      = "oscal/src/specifications/profile-resolution/profile-resolution-examples/catalogs/abc-simple_catalog.xml";
+  private static final String PROFILE = "<profile xmlns=\"http://csrc.nist.gov/ns/oscal/1.0\""
+      + " uuid=\"0b5b4e9e-2d8e-4e3e-9d5c-3f7c1c9a0b02\">"
+      + "<metadata><title>Bundled Profile</title><last-modified>2024-01-01T00:00:00Z</last-modified>"
+      + "<version>1.0</version><oscal-version>1.1.2</oscal-version></metadata>"
+      + "<import href=\"../catalogs/catalog.xml\"><include-controls><with-id>a1</with-id></include-controls></import>"
+      + "</profile>";
+
+  @NonNull
+  private static Path newBundle(@NonNull Path dir) throws IOException {
+    Path zip = ObjectUtils.notNull(dir.resolve("baseline bundle.zip"));
+    try (FileSystem fs = FileSystems.newFileSystem(URI.create("jar:" + zip.toUri()), Map.of("create", "true"))) {
+      Files.createDirectories(fs.getPath("/catalogs"));
+      Files.copy(Paths.get(CATALOG), fs.getPath("/catalogs/catalog.xml"));
+      Files.createDirectories(fs.getPath("/profiles"));
+      Files.write(fs.getPath("/profiles/profile.xml"), PROFILE.getBytes(StandardCharsets.UTF_8));
+    }
+    return zip;
+  }
+
+  @Test
+  void testResolve(@TempDir Path tempDir) throws IOException, ProfileResolutionException {
+    try (ZipBundle bundle = ZipBundle.open(newBundle(ObjectUtils.notNull(tempDir)))) {
+      assertEquals(List.of("catalogs/catalog.xml", "profiles/profile.xml"), bundle.getEntryNames());
+
+      IDocumentNodeItem resolved = bundle.resolve("profiles/profile.xml");
+      Catalog catalog = (Catalog) INodeItem.toValue(resolved);
+      assertEquals("Bundled Profile", catalog.getMetadata().getTitle().toMarkdown());
+      assertEquals(1, catalog.getControls().size());
+      assertEquals("a1", catalog.getControls().get(0).getId());
+    }
+  }
+
+  @Test
+  void testUris(@TempDir Path tempDir) throws IOException {
+    Path zip = newBundle(ObjectUtils.notNull(tempDir));
+    try (ZipBundle bundle = ZipBundle.open(zip)) {
+      URI profileUri = bundle.toUri("profiles/profile.xml");
+      URI catalogUri = bundle.resolve(ObjectUtils.notNull(URI.create("../catalogs/catalog.xml")), profileUri);
+      assertEquals("catalogs/catalog.xml", bundle.toEntryName(catalogUri));
+      assertNull(bundle.toEntryName(ObjectUtils.notNull(zip.toUri())));
+      assertNull(bundle.toEntryName(bundle.toUri("profiles/missing.xml")));
+
+      // entries are parsed once
+      IDocumentNodeItem catalog = bundle.loadAsNodeItem("catalogs/catalog.xml");
+      assertSame(catalog, bundle.getDocument(catalogUri));
+      assertEquals(catalogUri, catalog.getDocumentUri());
+    }
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.profile.resolver.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+import dev.metaschema.core.metapath.item.node.INodeItem;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.oscal.lib.model.Catalog;
+import dev.metaschema.oscal.lib.profile.resolver.ProfileResolutionException;
+import dev.metaschema.oscal.lib.profile.resolver.ProfileResolver;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class ResolutionCacheTest {
+  private static final String PROFILE = "<profile xmlns=\"http://csrc.nist.gov/ns/oscal/1.0\""
+      + " uuid=\"0b5b4e9e-2d8e-4e3e-9d5c-3f7c1c9a0b03\">"
+      + "<metadata><title>Cached Profile</title><last-modified>2024-01-01T00:00:00Z</last-modified>"
+      + "<version>1.0</version><oscal-version>1.1.2</oscal-version></metadata>"
+      + "<import href=\"catalog.xml\"><include-all/></import>"
+      + "</profile>";
+
+  @NonNull
+  private static Catalog resolve(@NonNull ResolutionCache cache, @NonNull Path profile)
+      throws IOException, ProfileResolutionException {
+    // use a new resolver each time, as a restarted process would
+    ProfileResolver resolver = new ProfileResolver();
+    resolver.setResolutionCache(cache);
+    return (Catalog) INodeItem.toValue(resolver.resolve(profile));
+  }
+
+  @Test
+  void testCachedResolution(@TempDir Path tempDir) throws IOException, ProfileResolutionException {
+    Path catalog = ObjectUtils.notNull(tempDir.resolve("catalog.xml"));
+    Files.copy(Paths.get("src/test/resources/content/test-catalog.xml"), catalog);
+    Path profile = ObjectUtils.notNull(tempDir.resolve("profile.xml"));
+    Files.write(profile, PROFILE.getBytes(StandardCharsets.UTF_8));
+
+    ResolutionCache cache = new ResolutionCache(
+        new FileResolutionCacheStore(ObjectUtils.notNull(tempDir.resolve("cache")), 64L * 1024 * 1024));
+
+    Catalog first = resolve(cache, profile);
+    assertEquals("Cached Profile", first.getMetadata().getTitle().toMarkdown());
+
+    // the cached catalog is returned, including its generated UUID
+    Catalog second = resolve(cache, profile);
+    assertEquals(first.getUuid(), second.getUuid());
+
+    // a change to an import invalidates the entry
+    Files.write(catalog, "\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    Catalog third = resolve(cache, profile);
+    assertNotEquals(first.getUuid(), third.getUuid());
+    assertEquals(third.getUuid(), resolve(cache, profile).getUuid());
+  }
+
+  @Test
+  void testResolverOptions(@TempDir Path tempDir) throws IOException, ProfileResolutionException {
+    Path catalog = ObjectUtils.notNull(tempDir.resolve("catalog.xml"));
+    Files.copy(Paths.get("src/test/resources/content/test-catalog.xml"), catalog);
+    Path profile = ObjectUtils.notNull(tempDir.resolve("profile.xml"));
+    Files.write(profile, PROFILE.getBytes(StandardCharsets.UTF_8));
+
+    ResolutionCache cache = new ResolutionCache(
+        new FileResolutionCacheStore(ObjectUtils.notNull(tempDir.resolve("cache")), 64L * 1024 * 1024));
+
+    // a non-reproducible resolution is cached first
+    Catalog random = resolve(cache, profile);
+
+    ProfileResolver resolver = new ProfileResolver();
+    resolver.setResolutionCache(cache);
+    resolver.setReproducible(true);
+    Catalog reproducible = (Catalog) INodeItem.toValue(resolver.resolve(profile));
+    assertNotEquals(random.getUuid(), reproducible.getUuid());
+    assertEquals(ZonedDateTime.parse("2024-01-01T00:00:00Z"), reproducible.getMetadata().getLastModified());
+
+    // a different resolution timestamp is not served from the cache
+    ZonedDateTime timestamp = ZonedDateTime.parse("2025-06-01T12:00:00Z");
+    resolver.setResolutionTimestamp(timestamp);
+    Catalog stamped = (Catalog) INodeItem.toValue(resolver.resolve(profile));
+    assertEquals(timestamp, stamped.getMetadata().getLastModified());
+
+    // each configuration has its own entry
+    assertEquals(random.getUuid(), resolve(cache, profile).getUuid());
+    assertEquals(stamped.getUuid(), ((Catalog) INodeItem.toValue(resolver.resolve(profile))).getUuid());
+  }
+
+  @Test
+  void testMissingImport(@TempDir Path tempDir) throws IOException, ProfileResolutionException {
+    Path catalog = ObjectUtils.notNull(tempDir.resolve("catalog.xml"));
+    Files.copy(Paths.get("src/test/resources/content/test-catalog.xml"), catalog);
+    Path profile = ObjectUtils.notNull(tempDir.resolve("profile.xml"));
+    Files.write(profile, PROFILE.getBytes(StandardCharsets.UTF_8));
+
+    ResolutionCache cache = new ResolutionCache(
+        new FileResolutionCacheStore(ObjectUtils.notNull(tempDir.resolve("cache")), 64L * 1024 * 1024));
+    resolve(cache, profile);
+    assertNotNull(cache.get(ObjectUtils.notNull(profile.toUri())));
+
+    Files.delete(catalog);
+    assertNull(cache.get(ObjectUtils.notNull(profile.toUri())));
+  }
+
+  @Test
+  void testEviction(@TempDir Path tempDir) throws IOException {
+    FileResolutionCacheStore store
+        = new FileResolutionCacheStore(ObjectUtils.notNull(tempDir.resolve("cache")), 250);
+
+    byte[] value = new byte[100];
+    store.put("entry-a", value);
+    store.put("entry-b", value);
+    Path entryA = store.getDirectory().resolve("entry-a.entry");
+    Path entryB = store.getDirectory().resolve("entry-b.entry");
+    Files.setLastModifiedTime(entryA, FileTime.from(Instant.now().minusSeconds(60)));
+    Files.setLastModifiedTime(entryB, FileTime.from(Instant.now().minusSeconds(120)));
+
+    // the least recently used entry is evicted
+    store.put("entry-c", value);
+    assertArrayEquals(value, store.get("entry-a"));
+    assertNull(store.get("entry-b"));
+    assertArrayEquals(value, store.get("entry-c"));
+
+    store.remove("entry-a");
+    assertNull(store.get("entry-a"));
+  }
+}
@@ -10,6 +10,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -81,4 +82,45 @@ class FilterNonSelectedVisitorTest {
             (Catalog) INodeItem.toValue(importedCatalogDocumentItem),
             System.out);
   }
+
+  @SuppressWarnings("null")
+  @Test
+  void testSelectedItemReferenceCounting() {
+    // setup the imported catalog
+    IDocumentNodeItem importedCatalogDocumentItem = TestUtil.newImportedCatalog();
+
+    // setup the selection visitor
+    IControlFilter filter = IControlFilter.newInstance(
+        IControlSelectionFilter.ALL_MATCH,
+        IControlSelectionFilter.matchIds("control2", "control5", "control7"));
+    IIndexer indexer = new BasicIndexer();
+
+    ImportSelectionState state = new ImportSelectionState(indexer, filter);
+    // process selections, capturing the selected items
+    ControlSelectionVisitor.instance().visitCatalog(importedCatalogDocumentItem, state);
+
+    assertEquals(
+        List.of("control1", "group1", "control3", "control4", "control6", "control8", "group2"),
+        state.getSelectedItems().stream()
+            .map(item -> {
+              Object value = item.getValue();
+              return value instanceof Control ? ((Control) value).getId() : ((CatalogGroup) value).getId();
+            })
+            .collect(Collectors.toList()));
+
+    // count references using only the selected items
+    ReferenceCountingVisitor.instance().visitSelected(
+        state.getSelectedItems(),
+        indexer,
+        (uri, src) -> importedCatalogDocumentItem.getBaseUri().resolve(uri));
+
+    FilterNonSelectedVisitor.instance().visitCatalog(importedCatalogDocumentItem, indexer);
+
+    Set<String> params = indexer.getEntitiesByItemType(IEntityItem.ItemType.PARAMETER).stream()
+        .map(IEntityItem::getOriginalIdentifier)
+        .collect(Collectors.toSet());
+    assertEquals(
+        Set.of("param1", "param2", "param4", "param5"),
+        params);
+  }
 }
@@ -0,0 +1,90 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package dev.metaschema.oscal.lib.profile.resolver.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import dev.metaschema.core.metapath.IMetapathExpression;
+import dev.metaschema.core.metapath.IMetapathExpression.ResultType;
+import dev.metaschema.core.metapath.item.node.IDocumentNodeItem;
+import dev.metaschema.core.metapath.item.node.IModelNodeItem;
+import dev.metaschema.core.metapath.item.node.INodeItemFactory;
+import dev.metaschema.core.util.ObjectUtils;
+import dev.metaschema.databind.model.IBoundDefinitionModelAssembly;
+import dev.metaschema.oscal.lib.OscalBindingContext;
+import dev.metaschema.oscal.lib.model.Catalog;
+import dev.metaschema.oscal.lib.model.control.catalog.AbstractControl;
+import dev.metaschema.oscal.lib.model.metadata.AbstractProperty;
+import dev.metaschema.oscal.lib.model.metadata.IProperty;
+
+class IIndexerTest {
+
+  @Test
+  void testKeepEntityPredicate() {
+    Catalog catalog = new Catalog();
+    catalog.addControl(AbstractControl.builder("keep-default")
+        .title("Keep")
+        .prop(AbstractProperty.builder("keep").value("always").build())
+        .build());
+    catalog.addControl(AbstractControl.builder("keep-oscal")
+        .title("Keep")
+        .prop(AbstractProperty.builder("keep")
+            .namespace(IProperty.OSCAL_NAMESPACE)
+            .value("always")
+            .build())
+        .build());
+    catalog.addControl(AbstractControl.builder("keep-other")
+        .title("Keep")
+        .prop(AbstractProperty.builder("keep")
+            .namespace(ObjectUtils.notNull(URI.create("https://example.com/ns")))
+            .value("always")
+            .build())
+        .build());
+    catalog.addControl(AbstractControl.builder("keep-never")
+        .title("Keep")
+        .prop(AbstractProperty.builder("keep").value("never").build())
+        .build());
+    catalog.addControl(AbstractControl.builder("no-keep")
+        .title("Keep")
+        .prop(AbstractProperty.builder("other").value("always").build())
+        .build());
+
+    IDocumentNodeItem document = INodeItemFactory.instance().newDocumentNodeItem(
+        ObjectUtils.requireNonNull(
+            (IBoundDefinitionModelAssembly) OscalBindingContext.instance().getBoundDefinitionForClass(Catalog.class)),
+        ObjectUtils.notNull(Paths.get(System.getProperty("user.dir")).toUri()),
+        catalog);
+    List<IModelNodeItem<?, ?>> controls = IMetapathExpression.compile("//control",
+        OscalBindingContext.OSCAL_STATIC_METAPATH_CONTEXT)
+        .evaluate(document).stream()
+        .map(item -> (IModelNodeItem<?, ?>) item)
+        .collect(Collectors.toList());
+
+    IIndexer indexer = new BasicIndexer();
+    for (IModelNodeItem<?, ?> control : controls) {
+      IEntityItem entity = indexer.addControl(ObjectUtils.notNull(control));
+      // the predicate matches the same entities as the Metapath expression
+      assertEquals(
+          ObjectUtils.notNull(IIndexer.HAS_PROP_KEEP_METAPATH.evaluateAs(control, ResultType.BOOLEAN)),
+          IIndexer.isReferencedEntity(entity),
+          entity.getIdentifier());
+    }
+    assertEquals(
+        List.of("keep-default", "keep-oscal"),
+        indexer.getEntitiesByItemType(IEntityItem.ItemType.CONTROL).stream()
+            .filter(IIndexer::isReferencedEntity)
+            .map(IEntityItem::getIdentifier)
+            .sorted()
+            .collect(Collectors.toList()));
+  }
+}